@@ -0,0 +1,556 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import static com.feilong.core.bean.PropertyDescriptorUtil.getSpringPropertyDescriptor;
+import static com.feilong.core.bean.PropertyDescriptorUtil.isUseSpringOperate;
+import static com.feilong.core.util.MapUtil.newConcurrentHashMap;
+import static java.lang.invoke.MethodType.methodType;
+
+import java.beans.IndexedPropertyDescriptor;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.apache.commons.beanutils.DynaBean;
+
+import com.feilong.lib.beanutils.MethodUtils;
+import com.feilong.lib.beanutils.PropertyUtils;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * 编译的属性访问器缓存.
+ *
+ * <p>
+ * 每个 (class, 属性名) 第一次访问的时候, 找到 read/write method, 使用 {@link LambdaMetafactory} 生成直接调用的
+ * {@link Function}/{@link BiConsumer}(如果当前 classloader 看不到该类, 退化成 {@link MethodHandle}), 之后的访问不再需要 PropertyDescriptor 查找以及
+ * {@link Method#invoke(Object, Object...)} 反射调用.
+ * </p>
+ *
+ * <h3>支持的情况:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>简单属性名,比如 "name"</li>
+ * <li>嵌套属性名,比如 "member.memberAddress.city", 每一级按照运行时的实际类型查找访问器</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <p>
+ * 其他情况, 比如 indexed("[0].id"),mapped("map(key)"), bean 是 {@link Map} 或者 {@link DynaBean}, 嵌套中间值是null, 属性不存在等等, 返回
+ * {@link #NOT_SUPPORTED}, 由调用方回退到原来的 spring/apache 实现, 保证行为(包括异常)和原来一致.
+ * </p>
+ *
+ * <p>
+ * 缓存使用 {@link ClassValue}, 不会阻止 class(以及 classloader) 的卸载.<br>
+ * 属性名可能来自调用方(比如请求参数里面的排序字段), 所以属性路径缓存以及每个类的 getter/setter 缓存都有上限, 超过上限清空之后重新缓存,
+ * 读取不需要加锁, 常用的属性名很快会重新进入缓存.
+ * </p>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class CompiledPropertyAccessor{
+
+    /** 标识不支持编译访问, 需要回退到原来的实现. */
+    static final Object                                                    NOT_SUPPORTED        = new Object();
+
+    //---------------------------------------------------------------
+
+    /** 不支持的 getter 标识. */
+    private static final Function<Object, Object>                          NOT_SUPPORTED_GETTER = bean -> NOT_SUPPORTED;
+
+    /** 不支持的 setter 标识. */
+    private static final Setter                                            NOT_SUPPORTED_SETTER = new Setter(null, null);
+
+    /** {@link #PATH_CACHE} 最多缓存的属性路径个数. */
+    static final int                                                       MAX_PATH_CACHE_SIZE  = 1024;
+
+    /** 每个类的 getter/setter 缓存最多缓存的属性名个数. */
+    static final int                                                       MAX_NAME_CACHE_SIZE  = 256;
+
+    /** 属性路径和拆分之后的简单属性名数组, 不是简单/嵌套属性名的时候是空数组. */
+    private static final Map<String, String[]>                             PATH_CACHE           = newConcurrentHashMap(200);
+
+    /** 每个类的 getter 缓存, key 是简单属性名. */
+    private static final ClassValue<Map<String, Function<Object, Object>>> GETTER_CACHE         = newClassValueMap();
+
+    /** 每个类的 setter 缓存, key 是简单属性名. */
+    private static final ClassValue<Map<String, Setter>>                   SETTER_CACHE         = newClassValueMap();
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用编译的访问器取得属性值.
+     *
+     * @param bean
+     *            the bean
+     * @param propertyName
+     *            属性名称,支持嵌套
+     * @return 如果不支持编译访问, 返回 {@link #NOT_SUPPORTED}
+     */
+    static Object get(Object bean,String propertyName){
+        String[] segments = segments(propertyName);
+        if (segments.length == 0){
+            return NOT_SUPPORTED;
+        }
+        return get(bean, segments, segments.length);
+    }
+
+    /**
+     * 使用编译的访问器设置属性值.
+     *
+     * <p>
+     * 不会做类型转换;如果 <code>value</code> 和 setter 参数类型不匹配(包括null设置给基本类型), 返回false, 由调用方使用原来的实现(并抛出原来的异常).
+     * </p>
+     *
+     * @param bean
+     *            the bean
+     * @param propertyName
+     *            属性名称,支持嵌套
+     * @param value
+     *            the value
+     * @return 如果设置成功返回true, 如果不支持编译访问返回false
+     */
+    static boolean set(Object bean,String propertyName,Object value){
+        String[] segments = segments(propertyName);
+        if (segments.length == 0){
+            return false;
+        }
+        Object target = segments.length == 1 ? bean : get(bean, segments, segments.length - 1);
+        if (null == target || NOT_SUPPORTED == target){
+            return false;
+        }
+
+        Setter setter = resolveSetter(target.getClass(), segments[segments.length - 1]);
+        if (!setter.isSupport(value)){
+            return false;
+        }
+        setter.biConsumer.accept(target, value);
+        return true;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 依次取 <code>segments</code> 前 <code>length</code> 级的值.
+     *
+     * @param bean
+     *            the bean
+     * @param segments
+     *            the segments
+     * @param length
+     *            the length
+     * @return the object
+     */
+    private static Object get(Object bean,String[] segments,int length){
+        Object current = bean;
+        for (int i = 0; i < length; ++i){
+            //中间值是null, apache 会抛出 NestedNullException, 交给原来的实现处理
+            if (null == current){
+                return NOT_SUPPORTED;
+            }
+            current = resolveGetter(current.getClass(), segments[i]).apply(current);
+            if (NOT_SUPPORTED == current){
+                return NOT_SUPPORTED;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 拆分属性路径.
+     *
+     * @param propertyName
+     *            the property name
+     * @return 如果不是简单/嵌套属性名,返回空数组
+     */
+    private static String[] segments(String propertyName){
+        String[] segments = PATH_CACHE.get(propertyName);
+        if (null == segments){
+            segments = buildSegments(propertyName);
+            putWithLimit(PATH_CACHE, propertyName, segments, MAX_PATH_CACHE_SIZE);
+        }
+        return segments;
+    }
+
+    /**
+     * Builds the segments.
+     *
+     * @param propertyName
+     *            the property name
+     * @return the string[]
+     */
+    private static String[] buildSegments(String propertyName){
+        String[] segments = propertyName.split("\\.", -1);
+        for (String segment : segments){
+            if (segment.isEmpty() || !Character.isJavaIdentifierStart(segment.charAt(0))){
+                return new String[0];
+            }
+            for (int i = 1; i < segment.length(); ++i){
+                if (!Character.isJavaIdentifierPart(segment.charAt(i))){
+                    return new String[0];
+                }
+            }
+        }
+        return segments;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Resolve getter.
+     *
+     * @param klass
+     *            the klass
+     * @param name
+     *            简单属性名
+     * @return the function
+     */
+    private static Function<Object, Object> resolveGetter(Class<?> klass,String name){
+        Map<String, Function<Object, Object>> map = GETTER_CACHE.get(klass);
+        Function<Object, Object> getter = map.get(name);
+        if (null == getter){
+            getter = buildGetter(klass, name);
+            putWithLimit(map, name, getter, MAX_NAME_CACHE_SIZE);
+        }
+        return getter;
+    }
+
+    /**
+     * Builds the getter.
+     *
+     * @param klass
+     *            the klass
+     * @param name
+     *            the name
+     * @return the function
+     */
+    private static Function<Object, Object> buildGetter(Class<?> klass,String name){
+        if (isNotSupportBeanClass(klass)){
+            return NOT_SUPPORTED_GETTER;
+        }
+        try{
+            PropertyDescriptor propertyDescriptor = isUseSpringOperate(klass, name) ? getSpringPropertyDescriptor(klass, name)
+                            : findApachePropertyDescriptor(klass, name);
+            Method readMethod = null == propertyDescriptor ? null : propertyDescriptor.getReadMethod();
+            if (null == readMethod){
+                return NOT_SUPPORTED_GETTER;
+            }
+            readMethod = MethodUtils.getAccessibleMethod(klass, readMethod);
+            if (null == readMethod){
+                return NOT_SUPPORTED_GETTER;
+            }
+            return compileGetter(readMethod);
+        }catch (Throwable e){
+            return NOT_SUPPORTED_GETTER;
+        }
+    }
+
+    /**
+     * Compile getter.
+     *
+     * @param readMethod
+     *            the read method
+     * @return the function
+     * @throws Throwable
+     *             the throwable
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> compileGetter(Method readMethod) throws Throwable{
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle methodHandle = lookup.unreflect(readMethod);
+
+        if (isVisible(readMethod.getDeclaringClass()) && isVisible(readMethod.getReturnType())){
+            try{
+                CallSite callSite = LambdaMetafactory.metafactory(
+                                lookup,
+                                "apply",
+                                methodType(Function.class),
+                                methodType(Object.class, Object.class),
+                                methodHandle,
+                                methodType(Object.class, readMethod.getDeclaringClass()));
+                return (Function<Object, Object>) callSite.getTarget().invoke();
+            }catch (Throwable e){
+                //退化成 MethodHandle
+            }
+        }
+
+        MethodHandle genericMethodHandle = methodHandle.asType(methodType(Object.class, Object.class));
+        return bean -> {
+            try{
+                return genericMethodHandle.invokeExact(bean);
+            }catch (RuntimeException | Error e){
+                throw e;
+            }catch (Throwable e){
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Resolve setter.
+     *
+     * @param klass
+     *            the klass
+     * @param name
+     *            简单属性名
+     * @return the setter
+     */
+    private static Setter resolveSetter(Class<?> klass,String name){
+        Map<String, Setter> map = SETTER_CACHE.get(klass);
+        Setter setter = map.get(name);
+        if (null == setter){
+            setter = buildSetter(klass, name);
+            putWithLimit(map, name, setter, MAX_NAME_CACHE_SIZE);
+        }
+        return setter;
+    }
+
+    /**
+     * Builds the setter.
+     *
+     * @param klass
+     *            the klass
+     * @param name
+     *            the name
+     * @return the setter
+     */
+    private static Setter buildSetter(Class<?> klass,String name){
+        if (isNotSupportBeanClass(klass)){
+            return NOT_SUPPORTED_SETTER;
+        }
+        try{
+            //和 PropertyUtil.setProperty 保持一致, 只使用 apache 的 PropertyDescriptor
+            PropertyDescriptor propertyDescriptor = findApachePropertyDescriptor(klass, name);
+            Method writeMethod = null == propertyDescriptor ? null : propertyDescriptor.getWriteMethod();
+            if (null == writeMethod){
+                return NOT_SUPPORTED_SETTER;
+            }
+            writeMethod = MethodUtils.getAccessibleMethod(klass, writeMethod);
+            if (null == writeMethod){
+                return NOT_SUPPORTED_SETTER;
+            }
+            return new Setter(compileSetter(writeMethod), writeMethod.getParameterTypes()[0]);
+        }catch (Throwable e){
+            return NOT_SUPPORTED_SETTER;
+        }
+    }
+
+    /**
+     * Compile setter.
+     *
+     * @param writeMethod
+     *            the write method
+     * @return the bi consumer
+     * @throws Throwable
+     *             the throwable
+     */
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> compileSetter(Method writeMethod) throws Throwable{
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle methodHandle = lookup.unreflect(writeMethod);
+        Class<?> parameterType = writeMethod.getParameterTypes()[0];
+
+        //setter 可能有返回值(链式), 只支持 void 的使用 LambdaMetafactory
+        if (void.class == writeMethod.getReturnType() && isVisible(writeMethod.getDeclaringClass()) && isVisible(parameterType)){
+            try{
+                CallSite callSite = LambdaMetafactory.metafactory(
+                                lookup,
+                                "accept",
+                                methodType(BiConsumer.class),
+                                methodType(void.class, Object.class, Object.class),
+                                methodHandle,
+                                methodType(void.class, writeMethod.getDeclaringClass(), parameterType).wrap().changeReturnType(void.class));
+                return (BiConsumer<Object, Object>) callSite.getTarget().invoke();
+            }catch (Throwable e){
+                //退化成 MethodHandle
+            }
+        }
+
+        MethodHandle genericMethodHandle = methodHandle.asType(methodType(void.class, Object.class, Object.class));
+        return (bean,value) -> {
+            try{
+                genericMethodHandle.invokeExact(bean, value);
+            }catch (RuntimeException | Error e){
+                throw e;
+            }catch (Throwable e){
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Map 以及 DynaBean, apache 有特殊处理, 不支持编译访问.
+     *
+     * @param klass
+     *            the klass
+     * @return true, if is not support bean class
+     */
+    private static boolean isNotSupportBeanClass(Class<?> klass){
+        return Map.class.isAssignableFrom(klass) || DynaBean.class.isAssignableFrom(klass);
+    }
+
+    /**
+     * 从 apache 缓存的 PropertyDescriptor 中查找.
+     *
+     * @param klass
+     *            the klass
+     * @param name
+     *            the name
+     * @return 如果没有找到 返回null
+     */
+    private static PropertyDescriptor findApachePropertyDescriptor(Class<?> klass,String name){
+        for (PropertyDescriptor propertyDescriptor : PropertyUtils.getPropertyDescriptors(klass)){
+            if (name.equals(propertyDescriptor.getName()) && !(propertyDescriptor instanceof IndexedPropertyDescriptor)){
+                return propertyDescriptor;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * LambdaMetafactory 生成的类由当前类的 classloader 加载, 需要能看到目标类 (比如 web 容器中的子 classloader 的类就看不到).
+     *
+     * @param klass
+     *            the klass
+     * @return true, if is visible
+     */
+    private static boolean isVisible(Class<?> klass){
+        if (klass.isPrimitive()){
+            return true;
+        }
+        if (klass.isArray()){
+            return isVisible(klass.getComponentType());
+        }
+        try{
+            return Class.forName(klass.getName(), false, CompiledPropertyAccessor.class.getClassLoader()) == klass;
+        }catch (Throwable e){
+            return false;
+        }
+    }
+
+    /**
+     * 当前缓存的属性路径个数.
+     *
+     * @return the int
+     */
+    static int pathCacheSize(){
+        return PATH_CACHE.size();
+    }
+
+    /**
+     * 放入缓存, 如果缓存已经达到 <code>maxSize</code>, 先清空.
+     * 
+     * <p>
+     * 不存在的属性名也会缓存(不支持的标识), 调用方传入的属性名不可控, 不能让缓存无限增长.
+     * </p>
+     *
+     * @param <V>
+     *            the value type
+     * @param map
+     *            the map
+     * @param key
+     *            the key
+     * @param value
+     *            the value
+     * @param maxSize
+     *            最多缓存的个数
+     */
+    static <V> void putWithLimit(Map<String, V> map,String key,V value,int maxSize){
+        if (map.size() >= maxSize){
+            map.clear();
+        }
+        map.put(key, value);
+    }
+
+    /**
+     * 每个类一个 map 的 {@link ClassValue}.
+     *
+     * @param <V>
+     *            the value type
+     * @return the class value
+     */
+    private static <V> ClassValue<Map<String, V>> newClassValueMap(){
+        return new ClassValue<Map<String, V>>(){
+
+            @Override
+            protected Map<String, V> computeValue(Class<?> type){
+                return newConcurrentHashMap(16);
+            }
+        };
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 编译的 setter 以及参数类型.
+     */
+    private static final class Setter{
+
+        /** The bi consumer, null 表示不支持. */
+        private final BiConsumer<Object, Object> biConsumer;
+
+        /** setter 参数的包装类型. */
+        private final Class<?>                   parameterType;
+
+        /** 参数是否是基本类型. */
+        private final boolean                    primitive;
+
+        /**
+         * Instantiates a new setter.
+         *
+         * @param biConsumer
+         *            the bi consumer
+         * @param parameterType
+         *            the parameter type
+         */
+        private Setter(BiConsumer<Object, Object> biConsumer, Class<?> parameterType){
+            this.biConsumer = biConsumer;
+            this.primitive = null != parameterType && parameterType.isPrimitive();
+            this.parameterType = null == parameterType ? null : methodType(parameterType).wrap().returnType();
+        }
+
+        /**
+         * 是否可以使用编译的 setter 设置 <code>value</code>.
+         *
+         * @param value
+         *            the value
+         * @return true, if is support
+         */
+        private boolean isSupport(Object value){
+            if (null == biConsumer){
+                return false;
+            }
+            if (null == value){
+                return !primitive;
+            }
+            return parameterType.isInstance(value);
+        }
+    }
+}
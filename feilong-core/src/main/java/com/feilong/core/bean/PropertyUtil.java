@@ -437,6 +437,10 @@ public final class PropertyUtil{
 
         //---------------------------------------------------------------
         try{
+            //since 4.5.5 优先使用编译的 setter, 不支持(或者类型不匹配)的时候使用 apache
+            if (CompiledPropertyAccessor.set(bean, propertyName, value)){
+                return;
+            }
             PropertyUtils.setProperty(bean, propertyName, value);
         }catch (Throwable e){
             String pattern = "setProperty exception,bean:[{}],propertyName:[{}],value:[{}]";
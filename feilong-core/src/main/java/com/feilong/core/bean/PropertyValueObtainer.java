@@ -52,8 +52,16 @@ public final class PropertyValueObtainer{
      * @param propertyName
      *            the property name
      * @return the property focus
+     * @since 4.5.5 优先使用 {@link CompiledPropertyAccessor} 编译的访问器, 不支持的情况再使用 spring/apache
      */
+    @SuppressWarnings("unchecked")
     static <T> T obtain(Object bean,String propertyName){
+        Object value = getDataUseCompiledAccessor(bean, propertyName);
+        if (CompiledPropertyAccessor.NOT_SUPPORTED != value){
+            return (T) value;
+        }
+
+        //---------------------------------------------------------------
         if (PropertyDescriptorUtil.isUseSpringOperate(bean.getClass(), propertyName)){
             return getDataUseSpring(bean, propertyName);
         }
@@ -62,6 +70,27 @@ public final class PropertyValueObtainer{
 
     //---------------------------------------------------------------
 
+    /**
+     * 使用编译的访问器取值.
+     *
+     * @param bean
+     *            the bean
+     * @param propertyName
+     *            the property name
+     * @return 如果不支持, 返回 {@link CompiledPropertyAccessor#NOT_SUPPORTED}
+     * @since 4.5.5
+     */
+    private static Object getDataUseCompiledAccessor(Object bean,String propertyName){
+        try{
+            return CompiledPropertyAccessor.get(bean, propertyName);
+        }catch (Throwable e){
+            String pattern = "getProperty exception,bean:[{}],propertyName:[{}]";
+            throw new BeanOperationException(formatPattern(pattern, bean, propertyName), e);
+        }
+    }
+
+    //---------------------------------------------------------------
+
     /**
      * Gets the data use apache.
      *
@@ -194,7 +223,8 @@ public final class PropertyValueObtainer{
         O o = first(beanIterable);
         Class<?> klass = o.getClass();
         //spring 操作
-        if (isUseSpringOperate(klass, propertyName)){
+        //since 4.5.5 如果支持编译访问, 直接使用 PropertyUtil.getProperty (内部优先使用编译的访问器)
+        if (CompiledPropertyAccessor.NOT_SUPPORTED == getDataUseCompiledAccessor(o, propertyName) && isUseSpringOperate(klass, propertyName)){
             PropertyDescriptor propertyDescriptor = getSpringPropertyDescriptor(klass, propertyName);
             for (O bean : beanIterable){
                 returnCollection.add(
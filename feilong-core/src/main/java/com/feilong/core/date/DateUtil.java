@@ -44,16 +44,19 @@ import static java.util.Calendar.WEEK_OF_YEAR;
 import static java.util.Calendar.YEAR;
 
 import java.text.ParseException;
+import java.text.ParsePosition;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.Locale;
 import java.util.Map;
+import java.util.TimeZone;
 
 import com.feilong.core.DatePattern;
 import com.feilong.core.TimeInterval;
 import com.feilong.core.Validate;
-import com.feilong.lib.lang3.time.DateFormatUtils;
 import com.feilong.lib.lang3.time.DateUtils;
+import com.feilong.lib.lang3.time.FastDateFormat;
 import com.feilong.lib.lang3.tuple.Pair;
 
 import lombok.AccessLevel;
@@ -1421,6 +1424,7 @@ public final class DateUtil{
      *         如果 <code>pattern</code> 是 null,抛出 {@link NullPointerException}<br>
      *         如果 <code>pattern</code> 是 blank,抛出 {@link IllegalArgumentException}<br>
      * @see com.feilong.lib.lang3.time.DateFormatUtils#format(Date, String)
+     * @see com.feilong.lib.lang3.time.FastDateFormat#getInstance(String)
      * @see "org.joda.time.base.AbstractDateTime#toString(String)"
      * @see <a href="http://stackoverflow.com/questions/5683728/convert-java-util-date-to-string">convert-java-util-date-to-string</a>
      * @see <a href="http://stackoverflow.com/questions/4772425/change-date-format-in-a-java-string">change-date-format-in-a-java-string</a>
@@ -1430,7 +1434,8 @@ public final class DateUtil{
         Validate.notNull(date, "date can't be null!");
         Validate.notBlank(datePattern, "datePattern can't be blank!");
 
-        return DateFormatUtils.format(date, datePattern);
+        //和 toDate 共用 FastDateFormat 的 (pattern, timeZone, locale) 缓存
+        return FastDateFormat.getInstance(datePattern).format(date);
     }
 
     /**
@@ -1521,6 +1526,8 @@ public final class DateUtil{
      * <li>如果能解析所有的字符串,那么视为成功</li>
      * <li>如果没有任何的模式匹配,将会抛出异常</li>
      * <li>如果转换有异常,会将 {@link ParseException} 转成 {@link IllegalArgumentException} 返回,是 UnCheckedException异常 ,不需要强制catch处理</li>
+     * <li>since 4.5.5, 每个 (pattern, timeZone, locale) 的解析器会被缓存复用(参见 {@link FastDateFormat#getInstance(String, TimeZone, Locale)}),
+     * 不会像 {@link DateUtils#parseDate(String, String...)} 那样每次调用每个 pattern 都重新构造解析器</li>
      * </ol>
      * </blockquote>
      * 
@@ -1580,13 +1587,53 @@ public final class DateUtil{
         //---------------------------------------------------------------
 
         try{
-            return DateUtils.parseDate(dateString, datePatterns);
+            return parseDate(dateString, datePatterns);
         }catch (ParseException e){
             String pattern = "dateString:[{}],use patterns:[{}],parse to date exception,message:[{}]";
             throw new IllegalArgumentException(formatPattern(pattern, dateString, datePatterns, e.getMessage()), e);
         }
     }
 
+    /**
+     * 使用缓存的 {@link FastDateFormat} 按照顺序解析 <code>dateString</code>.
+     * 
+     * <p>
+     * 逻辑和 {@link DateUtils#parseDate(String, String...)} 一致(默认时区,默认locale,宽松模式,需要解析完整个字符串),
+     * 区别在于解析器从 {@link FastDateFormat#getInstance(String, TimeZone, Locale)} 的缓存中获取, 不再每次 new FastDateParser.
+     * </p>
+     *
+     * @param dateString
+     *            时间字符串
+     * @param datePatterns
+     *            模式
+     * @return 解析的时间
+     * @throws ParseException
+     *             如果没有任何的模式匹配
+     * @since 4.5.5
+     */
+    private static Date parseDate(String dateString,String...datePatterns) throws ParseException{
+        TimeZone timeZone = TimeZone.getDefault();
+        Locale locale = Locale.getDefault();
+
+        ParsePosition parsePosition = new ParsePosition(0);
+        Calendar calendar = Calendar.getInstance(timeZone, locale);
+        calendar.setLenient(true);
+
+        for (String datePattern : datePatterns){
+            FastDateFormat fastDateFormat = FastDateFormat.getInstance(datePattern, timeZone, locale);
+            calendar.clear();
+            try{
+                if (fastDateFormat.parse(dateString, parsePosition, calendar) && parsePosition.getIndex() == dateString.length()){
+                    return calendar.getTime();
+                }
+            }catch (IllegalArgumentException ignore){
+                // leniency is preventing calendar from being set
+            }
+            parsePosition.setIndex(0);
+        }
+        throw new ParseException("Unable to parse the date: " + dateString, -1);
+    }
+
     /**
      * 将 <code>time</code> 使用 new Date 成date类型.
      * 
@@ -16,11 +16,14 @@
 package com.feilong.core.lang;
 
 import static com.feilong.core.lang.StringUtil.formatPattern;
+import static com.feilong.core.util.MapUtil.newConcurrentHashMap;
+import static com.feilong.core.util.MapUtil.newHashMap;
+
+import java.util.Map;
 
 import com.feilong.core.Validate;
 import com.feilong.core.bean.BeanOperationException;
 import com.feilong.core.bean.PropertyUtil;
-import com.feilong.lib.lang3.StringUtils;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -36,6 +39,14 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class EnumUtil{
 
+    /** 每个枚举类的 属性名->(属性值->枚举) 索引缓存, 区分大小写. */
+    private static final ClassValue<Map<String, Map<String, Enum<?>>>> INDEX_CACHE             = newClassValueMap();
+
+    /** 每个枚举类的 属性名->(规范化的属性值->枚举) 索引缓存, 忽视大小写. */
+    private static final ClassValue<Map<String, Map<String, Enum<?>>>> IGNORE_CASE_INDEX_CACHE = newClassValueMap();
+
+    //---------------------------------------------------------------
+
     /**
      * 通过<code>propertyName</code>的 <code>specifiedValue</code><b>(忽视大小写)</b> 获得枚举(equalsIgnoreCase判断).
      * 
@@ -211,58 +222,130 @@ public final class EnumUtil{
         Validate.notBlank(propertyName, "propertyName can't be null/empty!");
 
         //---------------------------------------------------------------
+        //第一次查找的时候建立 属性值->枚举 的索引, 之后直接 hash 查找, 不用每次 clone 枚举数组以及反射取值
+        Map<String, Enum<?>> index = resolveIndex(enumClass, propertyName, ignoreCase);
+
+        @SuppressWarnings("unchecked")
+        E e = (E) index.get(toKey(specifiedValue, ignoreCase));
+        if (null != e){
+            return e;
+        }
+
+        //---------------------------------------------------------------
+        if (log.isDebugEnabled()){
+            String messagePattern = "[{}],propertyName:[{}],value:[{}],ignoreCase:[{}],constants not found";
+            log.debug(formatPattern(messagePattern, enumClass, propertyName, specifiedValue, ignoreCase));
+        }
+        return null;
+    }
 
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 <code>enumClass</code> 的 <code>propertyName</code> 属性值索引, 如果还没有那么建立并缓存.
+     *
+     * @param enumClass
+     *            the enum class
+     * @param propertyName
+     *            the property name
+     * @param ignoreCase
+     *            the ignore case
+     * @return the map
+     * @throws BeanOperationException
+     *             如果枚举值没有相关 <code>propertyName</code> 属性
+     * @since 4.5.5
+     */
+    private static Map<String, Enum<?>> resolveIndex(Class<? extends Enum<?>> enumClass,String propertyName,boolean ignoreCase){
+        Map<String, Map<String, Enum<?>>> classIndexMap = (ignoreCase ? IGNORE_CASE_INDEX_CACHE : INDEX_CACHE).get(enumClass);
+        Map<String, Enum<?>> index = classIndexMap.get(propertyName);
+        if (null == index){
+            index = buildIndex(enumClass, propertyName, ignoreCase);
+            classIndexMap.put(propertyName, index);
+        }
+        return index;
+    }
+
+    /**
+     * 遍历枚举值建立索引, key 是属性值的字符串(忽视大小写的时候是 {@link #toKey(Object, boolean)} 规范化之后的字符串), value 是枚举值.
+     * 
+     * <p>
+     * 多个枚举值的属性值相同的时候, 保留第一个, 和按顺序查找的结果一致.
+     * </p>
+     *
+     * @param enumClass
+     *            the enum class
+     * @param propertyName
+     *            the property name
+     * @param ignoreCase
+     *            the ignore case
+     * @return the map
+     * @since 4.5.5
+     */
+    private static Map<String, Enum<?>> buildIndex(Class<? extends Enum<?>> enumClass,String propertyName,boolean ignoreCase){
         // An enum is a kind of class
         // An annotation is a kind of interface
 
         // 如果Class 对象不表示枚举类型,则返回枚举类的元素或 null.
-        E[] enumConstants = enumClass.getEnumConstants();
+        Enum<?>[] enumConstants = enumClass.getEnumConstants();
 
         if (log.isTraceEnabled()){
             log.trace("enumClass:[{}],enumConstants:[{}]", enumClass.getCanonicalName(), enumConstants);
         }
 
         //---------------------------------------------------------------
-        for (E e : enumConstants){
+        Map<String, Enum<?>> index = newHashMap(enumConstants.length);
+        for (Enum<?> e : enumConstants){
             Object propertyValue = PropertyUtil.getProperty(e, propertyName);
-            if (isEquals(propertyValue, specifiedValue, ignoreCase)){
-                return e;
-            }
+            index.putIfAbsent(toKey(propertyValue, ignoreCase), e);
         }
-
-        //---------------------------------------------------------------
-        if (log.isDebugEnabled()){
-            String messagePattern = "[{}],propertyName:[{}],value:[{}],ignoreCase:[{}],constants not found";
-            log.debug(formatPattern(messagePattern, enumClass, propertyName, specifiedValue, ignoreCase));
-        }
-        return null;
+        return index;
     }
 
     /**
-     * Checks if is equals.
+     * 值转成索引的 key.
+     * 
+     * <p>
+     * 忽视大小写的时候, 每个字符转成 <code>Character.toLowerCase(Character.toUpperCase(c))</code>, 两个字符串规范化之后相等当且仅当
+     * {@link String#equalsIgnoreCase(String)}
+     * </p>
      *
-     * @param <T>
-     *            the generic type
-     * @param propertyValue
-     *            the property value
-     * @param specifiedValue
-     *            指定的值
+     * @param value
+     *            the value
      * @param ignoreCase
      *            the ignore case
-     * @return true, if checked
-     * @since 1.4.0
+     * @return 如果 <code>value</code> 是null,返回null
+     * @since 4.5.5
      */
-    private static <T> boolean isEquals(Object propertyValue,T specifiedValue,boolean ignoreCase){
-        if (propertyValue == null || specifiedValue == null){//很好的设计 赞一个 
-            return propertyValue == specifiedValue;
-        }else if (propertyValue == specifiedValue){
-            return true;
+    private static String toKey(Object value,boolean ignoreCase){
+        if (null == value){
+            return null;
+        }
+        String string = value.toString();
+        if (!ignoreCase){
+            return string;
         }
+
         //---------------------------------------------------------------
-        //到这里  propertyValue 和 specifiedValue, 肯定 不是null了 
-        String propertyValueString = propertyValue.toString();
-        String specifiedValueString = specifiedValue.toString();
-        return ignoreCase ? StringUtils.equalsIgnoreCase(propertyValueString, specifiedValueString)
-                        : StringUtils.equals(propertyValueString, specifiedValueString);
+        char[] chars = string.toCharArray();
+        for (int i = 0; i < chars.length; ++i){
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 每个类一个 map 的 {@link ClassValue}, 不会阻止枚举类被卸载.
+     *
+     * @return the class value
+     * @since 4.5.5
+     */
+    private static ClassValue<Map<String, Map<String, Enum<?>>>> newClassValueMap(){
+        return new ClassValue<Map<String, Map<String, Enum<?>>>>(){
+
+            @Override
+            protected Map<String, Map<String, Enum<?>>> computeValue(Class<?> type){
+                return newConcurrentHashMap(4);
+            }
+        };
     }
 }
@@ -17,21 +17,29 @@ package com.feilong.core.lang;
 
 import static com.feilong.core.bean.ConvertUtil.toLong;
 import static com.feilong.core.date.DateUtil.formatElapsedTime;
+import static com.feilong.core.lang.ObjectUtil.defaultIfNull;
 
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BinaryOperator;
 
 import com.feilong.core.TimeInterval;
 import com.feilong.core.Validate;
 import com.feilong.core.lang.thread.DefaultPartitionPerHandler;
 import com.feilong.core.lang.thread.DefaultPartitionRunnableBuilder;
 import com.feilong.core.lang.thread.DefaultPartitionThreadExecutor;
+import com.feilong.core.lang.thread.ExecutorServicePartitionThreadExecutor;
+import com.feilong.core.lang.thread.PartitionCallableExecutor;
+import com.feilong.core.lang.thread.PartitionCallableHandler;
 import com.feilong.core.lang.thread.PartitionEachSizeThreadConfigBuilder;
+import com.feilong.core.lang.thread.PartitionExecuteResult;
 import com.feilong.core.lang.thread.PartitionPerElementHandler;
 import com.feilong.core.lang.thread.PartitionPerHandler;
 import com.feilong.core.lang.thread.PartitionRunnableBuilder;
 import com.feilong.core.lang.thread.PartitionThreadConfig;
+import com.feilong.core.lang.thread.PartitionThreadExecutor;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -1197,7 +1205,10 @@ public final class ThreadUtil{
      * @param partitionPerHandler
      *            the partition per handler
      * @see com.feilong.core.lang.thread.DefaultPartitionThreadExecutor#INSTANCE
+     * @see com.feilong.core.lang.thread.ExecutorServicePartitionThreadExecutor
+     * @see PartitionThreadConfig#setPartitionThreadExecutor(PartitionThreadExecutor)
      * @since 2.0.0
+     * @since 4.5.5 use {@link PartitionThreadConfig#getPartitionThreadExecutor()}
      */
     public static <T> void execute(
                     List<T> list,
@@ -1209,7 +1220,12 @@ public final class ThreadUtil{
         Validate.notNull(partitionPerHandler, "partitionPerHandler can't be null!");
         //---------------------------------------------------------------
         int eachSize = new PartitionEachSizeThreadConfigBuilder(partitionThreadConfig).build(list.size());
-        execute(list, eachSize, paramsMap, new DefaultPartitionRunnableBuilder<T>(partitionPerHandler));
+
+        //since 4.5.5 支持配置的执行器, 比如线程池
+        PartitionThreadExecutor partitionThreadExecutor = defaultIfNull(
+                        partitionThreadConfig.getPartitionThreadExecutor(),
+                        DefaultPartitionThreadExecutor.INSTANCE);
+        partitionThreadExecutor.execute(list, eachSize, paramsMap, new DefaultPartitionRunnableBuilder<T>(partitionPerHandler));
     }
 
     /**
@@ -2289,6 +2305,176 @@ public final class ThreadUtil{
 
     //---------------------------------------------------------------
 
+    /**
+     * 给定一个待解析的 <code>list</code>,按照 <code>partitionThreadConfig</code> 自动分区<span style="color:green">并行执行</span>,并将每个分区的返回值按照批次顺序使用
+     * <code>combiner</code> 合并.
+     * 
+     * <h3>适用场景:</h3>
+     * <blockquote>
+     * <p>
+     * 每个分区需要返回结果, 比如统计,批量查询后汇总, 不再需要自己使用 ConcurrentHashMap 等共享的可变对象收集结果.<br>
+     * 任意一个分区执行异常, 会立即取消其他还没有完成的分区, 并抛出 {@link com.feilong.core.DefaultRuntimeException}.
+     * </p>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * Map{@code <String, Integer>} countMap = ThreadUtil.executeAndReduce(list, new PartitionThreadConfig(), null, (perBatchList,partitionThreadEntity,paramsMap) {@code ->} {
+     *     Map{@code <String, Integer>} map = new HashMap{@code <>}();
+     *     for (User user : perBatchList){
+     *         map.merge(user.getName(), 1, Integer::sum);
+     *     }
+     *     return map;
+     * }, (map1,map2) {@code ->} {
+     *     map2.forEach((key,value) {@code ->} map1.merge(key, value, Integer::sum));
+     *     return map1;
+     * });
+     * </pre>
+     * 
+     * </blockquote>
+     * 
+     * <p>
+     * 如果 <code>partitionThreadConfig</code> 的执行器是 {@link ExecutorServicePartitionThreadExecutor},那么复用它的线程池, 否则每次调用临时创建线程.
+     * </p>
+     *
+     * @param <T>
+     *            the generic type
+     * @param <R>
+     *            每个分区的结果类型
+     * @param list
+     *            执行解析的list,不能为null或者empty
+     * @param partitionThreadConfig
+     *            the partition config,不能为null
+     * @param paramsMap
+     *            自定义的相关参数,可以是null
+     * @param partitionCallableHandler
+     *            每个分区做的事情,不能为null
+     * @param combiner
+     *            合并两个分区结果的函数,不能为null
+     * @return 合并之后的结果
+     * @see com.feilong.core.lang.thread.PartitionCallableExecutor
+     * @since 4.5.5
+     */
+    public static <T, R> R executeAndReduce(
+                    List<T> list,
+                    PartitionThreadConfig partitionThreadConfig,
+                    Map<String, ?> paramsMap,
+                    PartitionCallableHandler<T, R> partitionCallableHandler,
+                    BinaryOperator<R> combiner){
+        return executeAndReduce(list, partitionThreadConfig, paramsMap, partitionCallableHandler, combiner, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 给定一个待解析的 <code>list</code>,按照 <code>partitionThreadConfig</code> 自动分区<span style="color:green">并行执行</span>,并将每个分区的返回值按照批次顺序使用
+     * <code>combiner</code> 合并, 整体执行超过 <code>timeout</code> 会取消还没有完成的分区并抛出异常.
+     *
+     * @param <T>
+     *            the generic type
+     * @param <R>
+     *            每个分区的结果类型
+     * @param list
+     *            执行解析的list,不能为null或者empty
+     * @param partitionThreadConfig
+     *            the partition config,不能为null
+     * @param paramsMap
+     *            自定义的相关参数,可以是null
+     * @param partitionCallableHandler
+     *            每个分区做的事情,不能为null
+     * @param combiner
+     *            合并两个分区结果的函数,不能为null
+     * @param timeout
+     *            整体的超时时间, {@code <=0} 表示不限制
+     * @param timeUnit
+     *            超时时间单位,不能为null
+     * @return 合并之后的结果
+     * @see com.feilong.core.lang.thread.PartitionCallableExecutor
+     * @see #executeAndReduce(List, PartitionThreadConfig, Map, PartitionCallableHandler, BinaryOperator)
+     * @since 4.5.5
+     */
+    public static <T, R> R executeAndReduce(
+                    List<T> list,
+                    PartitionThreadConfig partitionThreadConfig,
+                    Map<String, ?> paramsMap,
+                    PartitionCallableHandler<T, R> partitionCallableHandler,
+                    BinaryOperator<R> combiner,
+                    long timeout,
+                    TimeUnit timeUnit){
+        return executeAndReduceWithResult(list, partitionThreadConfig, paramsMap, partitionCallableHandler, combiner, timeout, timeUnit)
+                        .getResult();
+    }
+
+    /**
+     * 同 {@link #executeAndReduce(List, PartitionThreadConfig, Map, PartitionCallableHandler, BinaryOperator, long, TimeUnit)}, 但是返回
+     * {@link PartitionExecuteResult}, 除了合并之后的结果, 还可以拿到每个分区的执行耗时和总耗时.
+     * 
+     * <h3>示例:</h3>
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * PartitionExecuteResult{@code <Integer>} partitionExecuteResult = ThreadUtil.executeAndReduceWithResult(
+     *                 list,
+     *                 new PartitionThreadConfig(),
+     *                 null,
+     *                 (perBatchList,partitionThreadEntity,paramsMap) {@code ->} perBatchList.size(),
+     *                 Integer::sum,
+     *                 0,
+     *                 TimeUnit.MILLISECONDS);
+     * 
+     * partitionExecuteResult.getResult();
+     * partitionExecuteResult.getUseTimeMillis();
+     * partitionExecuteResult.getPartitionThreadEntityList();
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param <R>
+     *            每个分区的结果类型
+     * @param list
+     *            执行解析的list,不能为null或者empty
+     * @param partitionThreadConfig
+     *            the partition config,不能为null
+     * @param paramsMap
+     *            自定义的相关参数,可以是null
+     * @param partitionCallableHandler
+     *            每个分区做的事情,不能为null
+     * @param combiner
+     *            合并两个分区结果的函数,不能为null
+     * @param timeout
+     *            整体的超时时间, {@code <=0} 表示不限制
+     * @param timeUnit
+     *            超时时间单位,不能为null
+     * @return 合并之后的结果以及每个分区的执行信息
+     * @see com.feilong.core.lang.thread.PartitionCallableExecutor
+     * @see #executeAndReduce(List, PartitionThreadConfig, Map, PartitionCallableHandler, BinaryOperator, long, TimeUnit)
+     * @since 4.5.5
+     */
+    public static <T, R> PartitionExecuteResult<R> executeAndReduceWithResult(
+                    List<T> list,
+                    PartitionThreadConfig partitionThreadConfig,
+                    Map<String, ?> paramsMap,
+                    PartitionCallableHandler<T, R> partitionCallableHandler,
+                    BinaryOperator<R> combiner,
+                    long timeout,
+                    TimeUnit timeUnit){
+        Validate.notEmpty(list, "list can't be null/empty!");
+        Validate.notNull(partitionThreadConfig, "partitionConfig can't be null!");
+        Validate.notNull(partitionCallableHandler, "partitionCallableHandler can't be null!");
+        //---------------------------------------------------------------
+        int eachSize = new PartitionEachSizeThreadConfigBuilder(partitionThreadConfig).build(list.size());
+
+        PartitionThreadExecutor partitionThreadExecutor = partitionThreadConfig.getPartitionThreadExecutor();
+        PartitionCallableExecutor partitionCallableExecutor = partitionThreadExecutor instanceof ExecutorServicePartitionThreadExecutor
+                        ? new PartitionCallableExecutor(((ExecutorServicePartitionThreadExecutor) partitionThreadExecutor).getExecutorService())
+                        : PartitionCallableExecutor.INSTANCE;
+        return partitionCallableExecutor.execute(list, eachSize, paramsMap, partitionCallableHandler, combiner, timeout, timeUnit);
+    }
+
+    //---------------------------------------------------------------
+
     /**
      * 循环 <code>threads</code> 调用 {@link java.lang.Thread#start()} 再循环 <code>threads</code> 调用 {@link java.lang.Thread#join()}.
      *
@@ -112,7 +112,7 @@ public class DefaultPartitionThreadExecutor extends AbstractPartitionThreadExecu
      *            the group runnable builder
      * @return the thread[]
      */
-    private static <T> Thread[] buildThreadArray(
+    private <T> Thread[] buildThreadArray(
                     List<T> list,
                     int eachSize,
                     Map<String, ?> paramsMap,
@@ -138,7 +138,7 @@ public class DefaultPartitionThreadExecutor extends AbstractPartitionThreadExecu
                             perBatchList.size());
 
             Runnable runnable = partitionRunnableBuilder.build(perBatchList, partitionThreadEntity, paramsMap);
-            threads[i] = new Thread(threadGroup, runnable, threadName);
+            threads[i] = newThread(threadGroup, runnable, threadName);
             i++;
         }
 
@@ -154,6 +154,28 @@ public class DefaultPartitionThreadExecutor extends AbstractPartitionThreadExecu
 
     //---------------------------------------------------------------
 
+    /**
+     * 创建(未启动的)线程.
+     * 
+     * <p>
+     * 默认创建归属 <code>threadGroup</code> 的平台线程, 子类可以重写, 比如 {@link VirtualThreadPartitionThreadExecutor} 创建虚拟线程
+     * </p>
+     *
+     * @param threadGroup
+     *            线程组
+     * @param runnable
+     *            每个线程做的事情
+     * @param threadName
+     *            线程名称,参见 {@link #buildThreadName(int, PartitionRunnableBuilder)}
+     * @return 未启动的线程
+     * @since 4.5.5
+     */
+    protected Thread newThread(ThreadGroup threadGroup,Runnable runnable,String threadName){
+        return new Thread(threadGroup, runnable, threadName);
+    }
+
+    //---------------------------------------------------------------
+
     /**
      * 构建线程组名称.
      * 
@@ -243,7 +265,7 @@ public class DefaultPartitionThreadExecutor extends AbstractPartitionThreadExecu
      *            the group runnable builder
      * @return 如果 <code>partitionRunnableBuilder</code> 是null,抛出 {@link NullPointerException}<br>
      */
-    private static <T> String buildThreadName(int batchNumber,PartitionRunnableBuilder<T> partitionRunnableBuilder){
+    static <T> String buildThreadName(int batchNumber,PartitionRunnableBuilder<T> partitionRunnableBuilder){
         Validate.notNull(partitionRunnableBuilder, "partitionRunnableBuilder can't be null!");
         return formatPattern("Thread-{}-{}", getName(partitionRunnableBuilder), batchNumber);
     }
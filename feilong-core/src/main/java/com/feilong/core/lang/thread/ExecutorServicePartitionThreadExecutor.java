@@ -0,0 +1,334 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.thread;
+
+import static com.feilong.core.lang.StringUtil.formatPattern;
+import static com.feilong.core.util.CollectionsUtil.partition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.feilong.core.Validate;
+
+/**
+ * 基于共享的, 有界的 {@link ExecutorService} 线程池的执行实现.
+ *
+ * <h3>和 {@link DefaultPartitionThreadExecutor} 的区别:</h3>
+ *
+ * <blockquote>
+ * <p>
+ * {@link DefaultPartitionThreadExecutor} 每次调用都会新建 ThreadGroup 以及 N 个 {@link Thread}, 高频批量调用时线程创建开销大,且并发数没有上限;<br>
+ * 本实现将每个分区作为任务提交到线程池, 线程复用, 并发数由线程池大小控制, 超出部分进入有界队列, 队列满了之后使用 {@link RejectedExecutionHandler} 处理.
+ * </p>
+ * </blockquote>
+ *
+ * <h3>使用方式:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ * //一般全局创建一个并复用
+ * private static final PartitionThreadExecutor EXECUTOR = new ExecutorServicePartitionThreadExecutor(10, 20, 1000);
+ *
+ * PartitionThreadConfig partitionThreadConfig = new PartitionThreadConfig();
+ * partitionThreadConfig.setPartitionThreadExecutor(EXECUTOR);
+ *
+ * ThreadUtil.execute(list, partitionThreadConfig, paramsMap, partitionPerHandler);
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * <h3>注意:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>本实例持有线程池, 应该作为单例复用, 不再使用时调用 {@link #shutdown()} 或者 {@link #shutdown(long, TimeUnit)} 关闭</li>
+ * <li>默认的队列满处理策略是 {@link ThreadPoolExecutor.CallerRunsPolicy}, 由调用线程自己执行该分区,起到限流作用, 且不会丢任务</li>
+ * <li>不要在分区处理逻辑里面再使用同一个实例提交并等待任务, 线程池打满的时候可能会互相等待</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@lombok.extern.slf4j.Slf4j
+public class ExecutorServicePartitionThreadExecutor extends AbstractPartitionThreadExecutor{
+
+    /** 默认的核心线程数. */
+    public static final int       DEFAULT_CORE_POOL_SIZE     = 20;
+
+    /** 默认的最大线程数. */
+    public static final int       DEFAULT_MAX_POOL_SIZE      = 20;
+
+    /** 默认的空闲线程存活时间(秒). */
+    public static final long      DEFAULT_KEEP_ALIVE_SECONDS = 60;
+
+    /** 默认的队列容量. */
+    public static final int       DEFAULT_QUEUE_CAPACITY     = 1000;
+
+    /** 默认的线程名前缀. */
+    public static final String    DEFAULT_THREAD_NAME_PREFIX = "feilong-partition";
+
+    //---------------------------------------------------------------
+
+    /** The executor service. */
+    private final ExecutorService executorService;
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用默认的参数创建线程池.
+     *
+     * <p>
+     * 核心线程数 {@link #DEFAULT_CORE_POOL_SIZE}, 最大线程数 {@link #DEFAULT_MAX_POOL_SIZE}, 队列容量 {@link #DEFAULT_QUEUE_CAPACITY}
+     * </p>
+     */
+    public ExecutorServicePartitionThreadExecutor(){
+        this(DEFAULT_CORE_POOL_SIZE, DEFAULT_MAX_POOL_SIZE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * 指定线程池大小以及队列容量创建线程池.
+     *
+     * @param corePoolSize
+     *            核心线程数, 必须 {@code >=0}
+     * @param maxPoolSize
+     *            最大线程数, 必须 {@code >0} 且 {@code >=corePoolSize}
+     * @param queueCapacity
+     *            队列容量, 必须 {@code >0}
+     */
+    public ExecutorServicePartitionThreadExecutor(int corePoolSize, int maxPoolSize, int queueCapacity){
+        this(
+                        corePoolSize,
+                        maxPoolSize,
+                        DEFAULT_KEEP_ALIVE_SECONDS,
+                        queueCapacity,
+                        new ThreadPoolExecutor.CallerRunsPolicy(),
+                        DEFAULT_THREAD_NAME_PREFIX);
+    }
+
+    /**
+     * 指定全部参数创建线程池.
+     *
+     * @param corePoolSize
+     *            核心线程数, 必须 {@code >=0}
+     * @param maxPoolSize
+     *            最大线程数, 必须 {@code >0} 且 {@code >=corePoolSize}
+     * @param keepAliveSeconds
+     *            超出核心线程数的空闲线程存活时间(秒),必须 {@code >=0}
+     * @param queueCapacity
+     *            队列容量, 必须 {@code >0}
+     * @param rejectedExecutionHandler
+     *            队列满了之后的处理策略,不能为null
+     * @param threadNamePrefix
+     *            线程名前缀,不能为null或者blank
+     */
+    public ExecutorServicePartitionThreadExecutor(int corePoolSize, int maxPoolSize, long keepAliveSeconds, int queueCapacity,
+                    RejectedExecutionHandler rejectedExecutionHandler, String threadNamePrefix){
+        Validate.isTrue(corePoolSize >= 0, "corePoolSize must >=0,corePoolSize:%s", corePoolSize);
+        Validate.isTrue(maxPoolSize > 0, "maxPoolSize must >0,maxPoolSize:%s", maxPoolSize);
+        Validate.isTrue(maxPoolSize >= corePoolSize, "maxPoolSize:[%s] must >= corePoolSize:[%s]", maxPoolSize, corePoolSize);
+        Validate.isTrue(keepAliveSeconds >= 0, "keepAliveSeconds must >=0,keepAliveSeconds:%s", keepAliveSeconds);
+        Validate.isTrue(queueCapacity > 0, "queueCapacity must >0,queueCapacity:%s", queueCapacity);
+        Validate.notNull(rejectedExecutionHandler, "rejectedExecutionHandler can't be null!");
+        Validate.notBlank(threadNamePrefix, "threadNamePrefix can't be blank!");
+
+        //---------------------------------------------------------------
+        this.executorService = new ThreadPoolExecutor(
+                        corePoolSize,
+                        maxPoolSize,
+                        keepAliveSeconds,
+                        TimeUnit.SECONDS,
+                        new ArrayBlockingQueue<>(queueCapacity),
+                        new NamedThreadFactory(threadNamePrefix),
+                        rejectedExecutionHandler);
+    }
+
+    /**
+     * 使用外部的线程池, 比如和应用共享的线程池.
+     *
+     * <p>
+     * 此时线程池的生命周期由调用方自己管理,当然也可以调用 {@link #shutdown()}
+     * </p>
+     *
+     * @param executorService
+     *            线程池,不能为null
+     */
+    public ExecutorServicePartitionThreadExecutor(ExecutorService executorService){
+        Validate.notNull(executorService, "executorService can't be null!");
+        this.executorService = executorService;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 将 <code>list</code> 分区之后,每个分区作为一个任务提交到线程池, 并等待全部分区执行完成.
+     *
+     * <p>
+     * 某个分区执行抛出的异常会记录日志, 不影响其他分区的执行, 和 {@link DefaultPartitionThreadExecutor} 行为保持一致.
+     * </p>
+     *
+     * @param <T>
+     *            the generic type
+     * @param list
+     *            执行解析的list
+     * @param eachSize
+     *            每个分区执行多少个对象
+     * @param paramsMap
+     *            the params map
+     * @param partitionRunnableBuilder
+     *            the partition runnable builder
+     */
+    @Override
+    protected <T> void actualExecute(
+                    List<T> list,
+                    int eachSize,
+                    Map<String, ?> paramsMap,
+                    PartitionRunnableBuilder<T> partitionRunnableBuilder){
+        String logKey = getLogKey(paramsMap);
+
+        //将 list 分成 N 份
+        List<List<T>> groupList = partition(list, eachSize);
+
+        List<Future<?>> futures = new ArrayList<>(groupList.size());
+        int i = 0;
+        for (List<T> perBatchList : groupList){
+            String taskName = DefaultPartitionThreadExecutor.buildThreadName(i, partitionRunnableBuilder);
+
+            PartitionThreadEntity partitionThreadEntity = new PartitionThreadEntity(
+                            taskName,
+                            list.size(),
+                            eachSize,
+                            i,
+                            perBatchList.size());
+
+            Runnable runnable = partitionRunnableBuilder.build(perBatchList, partitionThreadEntity, paramsMap);
+            futures.add(executorService.submit(wrapWithThreadName(runnable, taskName)));
+            i++;
+        }
+
+        //---------------------------------------------------------------
+        log.info("{} totalListSize:[{}],submit [{}] tasks,inputPerHandleSize:[{}]", logKey, list.size(), futures.size(), eachSize);
+
+        await(futures, logKey);
+    }
+
+    /**
+     * 等待全部任务完成.
+     *
+     * @param futures
+     *            the futures
+     * @param logKey
+     *            the log key
+     */
+    private static void await(List<Future<?>> futures,String logKey){
+        for (int i = 0; i < futures.size(); ++i){
+            try{
+                futures.get(i).get();
+            }catch (ExecutionException e){
+                log.error(formatPattern("{} partition task [{}] execute exception", logKey, i), e.getCause());
+            }catch (InterruptedException e){
+                log.error("", e);
+                //调用线程被中断,没有必要再执行剩下的分区
+                for (int j = i; j < futures.size(); ++j){
+                    futures.get(j).cancel(true);
+                }
+                // clean up state...
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * 执行期间将线程池线程的名字设置为分区名字,便于日志查看, 执行完成之后还原.
+     *
+     * @param runnable
+     *            the runnable
+     * @param taskName
+     *            the task name
+     * @return the runnable
+     */
+    static Runnable wrapWithThreadName(Runnable runnable,String taskName){
+        return () -> {
+            Thread currentThread = Thread.currentThread();
+            String originalName = currentThread.getName();
+            currentThread.setName(taskName);
+            try{
+                runnable.run();
+            }finally{
+                currentThread.setName(originalName);
+            }
+        };
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 平滑关闭线程池, 不再接收新任务, 已经提交的任务会继续执行完成.
+     *
+     * @see ExecutorService#shutdown()
+     */
+    public void shutdown(){
+        executorService.shutdown();
+    }
+
+    /**
+     * 平滑关闭线程池, 最多等待 <code>timeout</code>,如果超时还没有执行完成, 那么调用 {@link ExecutorService#shutdownNow()} 强制关闭.
+     *
+     * @param timeout
+     *            最长等待时间
+     * @param timeUnit
+     *            时间单位,不能为null
+     * @return 如果在超时时间内全部任务执行完成,返回true; 否则返回false
+     */
+    public boolean shutdown(long timeout,TimeUnit timeUnit){
+        Validate.notNull(timeUnit, "timeUnit can't be null!");
+
+        executorService.shutdown();
+        try{
+            if (executorService.awaitTermination(timeout, timeUnit)){
+                return true;
+            }
+            List<Runnable> notExecutedList = executorService.shutdownNow();
+            log.warn("executorService not terminated in [{}] {},shutdownNow,notExecuted task size:[{}]", timeout, timeUnit, notExecutedList.size());
+            return false;
+        }catch (InterruptedException e){
+            log.error("", e);
+            executorService.shutdownNow();
+            // clean up state...
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 获得 线程池.
+     *
+     * @return the executorService
+     */
+    public ExecutorService getExecutorService(){
+        return executorService;
+    }
+}
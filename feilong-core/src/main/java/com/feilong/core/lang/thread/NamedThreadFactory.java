@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.thread;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 带名字前缀的线程工厂.
+ * 
+ * <p>
+ * 线程名格式 "prefix-序号", 创建的都是守护线程, 不会阻止 JVM 正常退出.
+ * </p>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+class NamedThreadFactory implements ThreadFactory{
+
+    /** The thread name prefix. */
+    private final String        threadNamePrefix;
+
+    /** The thread number. */
+    private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new named thread factory.
+     *
+     * @param threadNamePrefix
+     *            the thread name prefix
+     */
+    NamedThreadFactory(String threadNamePrefix){
+        this.threadNamePrefix = threadNamePrefix;
+    }
+
+    //---------------------------------------------------------------
+
+    @Override
+    public Thread newThread(Runnable runnable){
+        Thread thread = new Thread(runnable, threadNamePrefix + "-" + threadNumber.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.thread;
+
+import static com.feilong.core.date.DateUtil.formatElapsedTime;
+import static com.feilong.core.lang.ObjectUtil.defaultIfNullOrEmpty;
+import static com.feilong.core.lang.StringUtil.formatPattern;
+import static com.feilong.core.util.CollectionsUtil.partition;
+import static com.feilong.lib.lang3.ClassUtils.getSimpleName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BinaryOperator;
+
+import com.feilong.core.DefaultRuntimeException;
+import com.feilong.core.Validate;
+
+/**
+ * 有返回值的分区执行器 (parallel map/reduce).
+ *
+ * <h3>和 {@link PartitionThreadExecutor} 的区别:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>每个分区使用 {@link PartitionCallableHandler} 返回结果, 所有分区执行完成之后, 按照批次顺序使用 <code>combiner</code> 合并</li>
+ * <li>支持整体超时时间, 超时之后取消还没有完成的分区, 并抛出异常</li>
+ * <li>任意一个分区执行异常, 立即取消其他还没有完成的分区, 并抛出异常 (cause 是分区的异常)</li>
+ * <li>每个分区的开始/结束时间记录在 {@link PartitionThreadEntity} 中, 通过 {@link PartitionExecuteResult#getPartitionThreadEntityList()} 获得</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ * PartitionExecuteResult{@code <Integer>} partitionExecuteResult = PartitionCallableExecutor.INSTANCE.execute(
+ *                 list,
+ *                 100,
+ *                 null,
+ *                 (perBatchList,partitionThreadEntity,paramsMap) {@code ->} perBatchList.size(),
+ *                 Integer::sum,
+ *                 10,
+ *                 TimeUnit.SECONDS);
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @see com.feilong.core.lang.ThreadUtil#executeAndReduce(List, PartitionThreadConfig, Map, PartitionCallableHandler, BinaryOperator)
+ * @since 4.5.5
+ */
+@lombok.extern.slf4j.Slf4j
+public class PartitionCallableExecutor{
+
+    /** 每次调用临时创建线程执行的实例. */
+    public static final PartitionCallableExecutor INSTANCE = new PartitionCallableExecutor();
+
+    //---------------------------------------------------------------
+
+    /** 共享的线程池, 如果是null, 每次调用临时创建线程. */
+    private final ExecutorService                 executorService;
+
+    //---------------------------------------------------------------
+
+    /**
+     * 每次调用临时创建和分区数量相等的线程, 执行结束之后销毁.
+     */
+    public PartitionCallableExecutor(){
+        this.executorService = null;
+    }
+
+    /**
+     * 使用共享的线程池执行, 线程池的生命周期由调用方管理.
+     *
+     * @param executorService
+     *            线程池,不能为null
+     */
+    public PartitionCallableExecutor(ExecutorService executorService){
+        Validate.notNull(executorService, "executorService can't be null!");
+        this.executorService = executorService;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 将 <code>list</code> 按照 <code>eachSize</code> 分区并行执行, 不限制超时时间, 并将每个分区的结果按照批次顺序合并.
+     *
+     * @param <T>
+     *            the generic type
+     * @param <R>
+     *            每个分区的结果类型
+     * @param list
+     *            执行解析的list,不能为null或者empty
+     * @param eachSize
+     *            每个分区执行多少个对象,必须{@code >}0
+     * @param paramsMap
+     *            自定义的相关参数,可以是null
+     * @param partitionCallableHandler
+     *            每个分区做的事情,不能为null
+     * @param combiner
+     *            合并两个分区结果的函数,不能为null
+     * @return 执行结果
+     * @throws DefaultRuntimeException
+     *             如果任意一个分区执行异常
+     * @see #execute(List, int, Map, PartitionCallableHandler, BinaryOperator, long, TimeUnit)
+     */
+    public <T, R> PartitionExecuteResult<R> execute(
+                    List<T> list,
+                    int eachSize,
+                    Map<String, ?> paramsMap,
+                    PartitionCallableHandler<T, R> partitionCallableHandler,
+                    BinaryOperator<R> combiner){
+        return execute(list, eachSize, paramsMap, partitionCallableHandler, combiner, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 将 <code>list</code> 按照 <code>eachSize</code> 分区并行执行, 并将每个分区的结果按照批次顺序合并.
+     *
+     * <p>
+     * 如果 <code>list</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>list</code> 是empty,抛出 {@link IllegalArgumentException}<br>
+     * 如果 {@code eachSize <=0} ,抛出 {@link IllegalArgumentException}<br>
+     * 如果 <code>partitionCallableHandler</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>combiner</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>timeUnit</code> 是null,抛出 {@link NullPointerException}<br>
+     * </p>
+     *
+     * @param <T>
+     *            the generic type
+     * @param <R>
+     *            每个分区的结果类型
+     * @param list
+     *            执行解析的list,不能为null或者empty
+     * @param eachSize
+     *            每个分区执行多少个对象,必须{@code >}0
+     * @param paramsMap
+     *            自定义的相关参数,可以是null
+     * @param partitionCallableHandler
+     *            每个分区做的事情,不能为null
+     * @param combiner
+     *            合并两个分区结果的函数,不能为null
+     * @param timeout
+     *            整体的超时时间, {@code <=0} 表示不限制
+     * @param timeUnit
+     *            超时时间单位
+     * @return 执行结果
+     * @throws DefaultRuntimeException
+     *             如果任意一个分区执行异常(此时其他没有完成的分区会被取消), 或者超时, 或者调用线程被中断
+     */
+    public <T, R> PartitionExecuteResult<R> execute(
+                    List<T> list,
+                    int eachSize,
+                    Map<String, ?> paramsMap,
+                    PartitionCallableHandler<T, R> partitionCallableHandler,
+                    BinaryOperator<R> combiner,
+                    long timeout,
+                    TimeUnit timeUnit){
+        String logKey = AbstractPartitionThreadExecutor.getLogKey(paramsMap);
+
+        Validate.notEmpty(list, "list can't be null/empty!%s", logKey);
+        Validate.isTrue(eachSize > 0, "eachSize must > 0;%s", logKey);
+        Validate.notNull(partitionCallableHandler, "partitionCallableHandler can't be null!%s", logKey);
+        Validate.notNull(combiner, "combiner can't be null!%s", logKey);
+        Validate.notNull(timeUnit, "timeUnit can't be null!%s", logKey);
+
+        //---------------------------------------------------------------
+        long beginTimeMillis = System.currentTimeMillis();
+
+        String handlerName = defaultIfNullOrEmpty(getSimpleName(partitionCallableHandler.getClass()), partitionCallableHandler.getClass().getName());
+        List<List<T>> groupList = partition(list, eachSize);
+        int size = groupList.size();
+
+        ExecutorService useExecutorService = null != executorService ? executorService
+                        : Executors.newFixedThreadPool(size, new NamedThreadFactory(formatPattern("PartitionCallable-{}", handlerName)));
+        try{
+            Object[] results = new Object[size];
+            List<PartitionThreadEntity> partitionThreadEntityList = new ArrayList<>(size);
+            List<Future<Integer>> futures = new ArrayList<>(size);
+
+            CompletionService<Integer> completionService = new ExecutorCompletionService<>(useExecutorService);
+            for (int i = 0; i < size; ++i){
+                List<T> perBatchList = groupList.get(i);
+                PartitionThreadEntity partitionThreadEntity = new PartitionThreadEntity(
+                                formatPattern("Thread-{}-{}", handlerName, i),
+                                list.size(),
+                                eachSize,
+                                i,
+                                perBatchList.size());
+                partitionThreadEntityList.add(partitionThreadEntity);
+
+                int batchNumber = i;
+                futures.add(completionService.submit(() -> {
+                    partitionThreadEntity.setBeginTimeMillis(System.currentTimeMillis());
+                    try{
+                        ExecutorServicePartitionThreadExecutor
+                                        .wrapWithThreadName(
+                                                        () -> results[batchNumber] = partitionCallableHandler
+                                                                        .handle(perBatchList, partitionThreadEntity, paramsMap),
+                                                        partitionThreadEntity.getName())
+                                        .run();
+                    }finally{
+                        partitionThreadEntity.setEndTimeMillis(System.currentTimeMillis());
+                    }
+                    return batchNumber;
+                }));
+            }
+
+            //---------------------------------------------------------------
+            await(completionService, futures, timeout, timeUnit, logKey);
+
+            R result = reduce(results, combiner);
+            long useTimeMillis = System.currentTimeMillis() - beginTimeMillis;
+            if (log.isInfoEnabled()){
+                log.info("{} end [{}],partition size:[{}],useTime:[{}]", logKey, handlerName, size, formatElapsedTime(beginTimeMillis));
+            }
+            return new PartitionExecuteResult<>(result, partitionThreadEntityList, useTimeMillis);
+        }finally{
+            if (null == executorService){
+                useExecutorService.shutdownNow();
+            }
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 按照完成的顺序等待每个分区, 遇到异常或者超时立即取消其他分区.
+     *
+     * @param completionService
+     *            the completion service
+     * @param futures
+     *            the futures
+     * @param timeout
+     *            the timeout
+     * @param timeUnit
+     *            the time unit
+     * @param logKey
+     *            the log key
+     */
+    private static void await(
+                    CompletionService<Integer> completionService,
+                    List<Future<Integer>> futures,
+                    long timeout,
+                    TimeUnit timeUnit,
+                    String logKey){
+        //System.nanoTime() 可能是任意值(包括负数和0), 不能用 deadlineNanos 的特殊值表示不限制
+        boolean hasDeadline = timeout > 0;
+        long deadlineNanos = hasDeadline ? System.nanoTime() + timeUnit.toNanos(timeout) : 0;
+        try{
+            for (int completed = 0; completed < futures.size(); ++completed){
+                Future<Integer> future = !hasDeadline ? completionService.take()
+                                : completionService.poll(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (null == future){
+                    cancelAll(futures);
+                    throw new DefaultRuntimeException(
+                                    "{} partition execute timeout:[{} {}],completed:[{}/{}]",
+                                    logKey,
+                                    timeout,
+                                    timeUnit,
+                                    completed,
+                                    futures.size());
+                }
+                future.get();
+            }
+        }catch (ExecutionException e){
+            cancelAll(futures);
+            throw new DefaultRuntimeException(formatPattern("{} partition execute exception", logKey), e.getCause());
+        }catch (InterruptedException e){
+            cancelAll(futures);
+            // clean up state...
+            Thread.currentThread().interrupt();
+            throw new DefaultRuntimeException(formatPattern("{} partition execute interrupted", logKey), e);
+        }
+    }
+
+    /**
+     * 取消所有还没有完成的分区.
+     *
+     * @param futures
+     *            the futures
+     */
+    private static void cancelAll(List<Future<Integer>> futures){
+        for (Future<Integer> future : futures){
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * 按照批次顺序合并结果.
+     *
+     * @param <R>
+     *            the generic type
+     * @param results
+     *            the results
+     * @param combiner
+     *            the combiner
+     * @return the r
+     */
+    @SuppressWarnings("unchecked")
+    private static <R> R reduce(Object[] results,BinaryOperator<R> combiner){
+        R result = (R) results[0];
+        for (int i = 1; i < results.length; ++i){
+            result = combiner.apply(result, (R) results[i]);
+        }
+        return result;
+    }
+}
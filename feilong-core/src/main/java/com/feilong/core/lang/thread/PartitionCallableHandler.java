@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.thread;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 分区中的每个线程执行, 并返回该分区的结果.
+ * 
+ * <p>
+ * 和 {@link PartitionPerHandler} 的区别是, 每个分区有返回值, 不需要通过共享的可变对象(比如 ConcurrentHashMap)收集结果, 所有分区的结果会使用合并函数合并.
+ * </p>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @param <T>
+ *            the generic type
+ * @param <R>
+ *            每个分区的结果类型
+ * @see PartitionCallableExecutor
+ * @since 4.5.5
+ */
+@FunctionalInterface
+public interface PartitionCallableHandler<T, R> {
+
+    /**
+     * Handle.
+     *
+     * @param perBatchList
+     *            自动分组之后,每个对象list组的数据
+     * @param partitionThreadEntity
+     *            线程执行此组list 的时候,可以使用的 thread参数信息
+     * @param paramsMap
+     *            自定义的参数map
+     * @return 该分区的结果
+     */
+    R handle(List<T> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap);
+}
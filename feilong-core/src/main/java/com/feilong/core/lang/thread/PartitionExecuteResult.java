@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.thread;
+
+import java.util.List;
+
+import com.feilong.lib.lang3.builder.ToStringBuilder;
+import com.feilong.lib.lang3.builder.ToStringStyle;
+
+/**
+ * {@link PartitionCallableExecutor} 的执行结果.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @param <R>
+ *            结果类型
+ * @since 4.5.5
+ */
+public class PartitionExecuteResult<R> {
+
+    /** 所有分区结果按照批次顺序合并之后的结果. */
+    private final R                           result;
+
+    /** 每个分区的信息(含执行耗时),按照批次顺序. */
+    private final List<PartitionThreadEntity> partitionThreadEntityList;
+
+    /** 总耗时(毫秒). */
+    private final long                        useTimeMillis;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new partition execute result.
+     *
+     * @param result
+     *            所有分区结果按照批次顺序合并之后的结果
+     * @param partitionThreadEntityList
+     *            每个分区的信息(含执行耗时),按照批次顺序
+     * @param useTimeMillis
+     *            总耗时(毫秒)
+     */
+    public PartitionExecuteResult(R result, List<PartitionThreadEntity> partitionThreadEntityList, long useTimeMillis){
+        super();
+        this.result = result;
+        this.partitionThreadEntityList = partitionThreadEntityList;
+        this.useTimeMillis = useTimeMillis;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 所有分区结果按照批次顺序合并之后的结果.
+     *
+     * @return the result
+     */
+    public R getResult(){
+        return result;
+    }
+
+    /**
+     * 获得 每个分区的信息(含执行耗时),按照批次顺序.
+     *
+     * @return the partitionThreadEntityList
+     */
+    public List<PartitionThreadEntity> getPartitionThreadEntityList(){
+        return partitionThreadEntityList;
+    }
+
+    /**
+     * 获得 总耗时(毫秒).
+     *
+     * @return the useTimeMillis
+     */
+    public long getUseTimeMillis(){
+        return useTimeMillis;
+    }
+
+    //---------------------------------------------------------------
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString(){
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+}
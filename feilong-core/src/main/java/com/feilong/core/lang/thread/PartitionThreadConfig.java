@@ -46,6 +46,18 @@ public class PartitionThreadConfig{
      */
     private int                               minPerThreadHandlerCount = 1;
 
+    /**
+     * 分区线程执行器.
+     * 
+     * <p>
+     * 默认是 {@link DefaultPartitionThreadExecutor#INSTANCE},每次新建线程执行;<br>
+     * 高频调用的场景,可以设置为全局共享的 {@link ExecutorServicePartitionThreadExecutor},复用线程池
+     * </p>
+     * 
+     * @since 4.5.5
+     */
+    private PartitionThreadExecutor           partitionThreadExecutor  = DefaultPartitionThreadExecutor.INSTANCE;
+
     //---------------------------------------------------------------
 
     /**
@@ -120,6 +132,27 @@ public class PartitionThreadConfig{
         this.minPerThreadHandlerCount = minPerThreadHandlerCount;
     }
 
+    /**
+     * 获得 分区线程执行器.
+     *
+     * @return the partitionThreadExecutor
+     * @since 4.5.5
+     */
+    public PartitionThreadExecutor getPartitionThreadExecutor(){
+        return partitionThreadExecutor;
+    }
+
+    /**
+     * 设置 分区线程执行器.
+     *
+     * @param partitionThreadExecutor
+     *            the partitionThreadExecutor to set
+     * @since 4.5.5
+     */
+    public void setPartitionThreadExecutor(PartitionThreadExecutor partitionThreadExecutor){
+        this.partitionThreadExecutor = partitionThreadExecutor;
+    }
+
     //---------------------------------------------------------------
     /*
      * (non-Javadoc)
@@ -50,6 +50,30 @@ public class PartitionThreadEntity implements Serializable{
 
     //---------------------------------------------------
 
+    /**
+     * 开始执行的时间(毫秒), 还没有开始执行是0.
+     * 
+     * <p>
+     * 目前由 {@link PartitionCallableExecutor} 设置
+     * </p>
+     * 
+     * @since 4.5.5
+     */
+    private volatile long     beginTimeMillis;
+
+    /**
+     * 执行结束的时间(毫秒), 还没有执行结束是0.
+     * 
+     * <p>
+     * 目前由 {@link PartitionCallableExecutor} 设置
+     * </p>
+     * 
+     * @since 4.5.5
+     */
+    private volatile long     endTimeMillis;
+
+    //---------------------------------------------------
+
     /**
      * Instantiates a new group thread entity.
      *
@@ -120,6 +144,58 @@ public class PartitionThreadEntity implements Serializable{
         return eachSize;
     }
 
+    /**
+     * 获得 开始执行的时间(毫秒), 还没有开始执行是0.
+     *
+     * @return the beginTimeMillis
+     * @since 4.5.5
+     */
+    public long getBeginTimeMillis(){
+        return beginTimeMillis;
+    }
+
+    /**
+     * 设置 开始执行的时间(毫秒).
+     *
+     * @param beginTimeMillis
+     *            the beginTimeMillis to set
+     * @since 4.5.5
+     */
+    void setBeginTimeMillis(long beginTimeMillis){
+        this.beginTimeMillis = beginTimeMillis;
+    }
+
+    /**
+     * 获得 执行结束的时间(毫秒), 还没有执行结束是0.
+     *
+     * @return the endTimeMillis
+     * @since 4.5.5
+     */
+    public long getEndTimeMillis(){
+        return endTimeMillis;
+    }
+
+    /**
+     * 设置 执行结束的时间(毫秒).
+     *
+     * @param endTimeMillis
+     *            the endTimeMillis to set
+     * @since 4.5.5
+     */
+    void setEndTimeMillis(long endTimeMillis){
+        this.endTimeMillis = endTimeMillis;
+    }
+
+    /**
+     * 获得 执行耗时(毫秒).
+     *
+     * @return 如果还没有开始或者还没有结束, 返回 -1
+     * @since 4.5.5
+     */
+    public long getUseTimeMillis(){
+        return beginTimeMillis == 0 || endTimeMillis == 0 ? -1 : endTimeMillis - beginTimeMillis;
+    }
+
     //---------------------------------------------------------------
 
     /*
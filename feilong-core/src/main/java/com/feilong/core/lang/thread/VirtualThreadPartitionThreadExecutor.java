@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.thread;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+
+/**
+ * 基于虚拟线程的执行实现 (JDK 21+).
+ *
+ * <h3>适用场景:</h3>
+ *
+ * <blockquote>
+ * <p>
+ * 每个分区(或者每个元素)的处理逻辑是 I/O 阻塞型的, 比如调用 http,sftp,发邮件等, 此时使用虚拟线程,阻塞期间不占用平台线程, 可以开启远超平台线程数量的并发.
+ * </p>
+ * </blockquote>
+ *
+ * <h3>运行时选择:</h3>
+ *
+ * <blockquote>
+ * <p>
+ * feilong-core 使用 jdk1.8 编译, 所以通过 {@link MethodHandle} 在运行时查找 <code>Thread.ofVirtual()</code>;<br>
+ * 如果运行环境是 JDK 21+, 每个分区使用虚拟线程执行;否则(比如 jdk1.8) 自动退化成 {@link DefaultPartitionThreadExecutor} 的平台线程实现, 调用方无需修改代码.
+ * </p>
+ * </blockquote>
+ *
+ * <h3>使用方式:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ * PartitionThreadConfig partitionThreadConfig = new PartitionThreadConfig(list.size(), 1);//每个元素一个虚拟线程
+ * partitionThreadConfig.setPartitionThreadExecutor(VirtualThreadPartitionThreadExecutor.INSTANCE);
+ *
+ * ThreadUtil.executeUsePerElement(list, partitionThreadConfig, paramsMap, partitionPerElementHandler);
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @see <a href="https://openjdk.org/jeps/444">JEP 444: Virtual Threads</a>
+ * @since 4.5.5
+ */
+@lombok.extern.slf4j.Slf4j
+public class VirtualThreadPartitionThreadExecutor extends DefaultPartitionThreadExecutor{
+
+    /** Static instance. */
+    public static final PartitionThreadExecutor INSTANCE = new VirtualThreadPartitionThreadExecutor();
+
+    //---------------------------------------------------------------
+
+    /** <code>Thread.ofVirtual()</code>, 如果当前 jdk 不支持虚拟线程,那么是null. */
+    private static final MethodHandle           OF_VIRTUAL;
+
+    /** <code>Thread.Builder.name(String)</code>. */
+    private static final MethodHandle           BUILDER_NAME;
+
+    /** <code>Thread.Builder.unstarted(Runnable)</code>. */
+    private static final MethodHandle           BUILDER_UNSTARTED;
+
+    static{
+        MethodHandle ofVirtual = null;
+        MethodHandle builderName = null;
+        MethodHandle builderUnstarted = null;
+        try{
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Class<?> ofVirtualClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", methodType(ofVirtualClass));
+            builderName = lookup.findVirtual(builderClass, "name", methodType(builderClass, String.class));
+            builderUnstarted = lookup.findVirtual(builderClass, "unstarted", methodType(Thread.class, Runnable.class));
+        }catch (ReflectiveOperationException | RuntimeException e){
+            log.info("virtual thread not supported in java version:[{}],will fallback to platform thread", System.getProperty("java.version"));
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = builderName;
+        BUILDER_UNSTARTED = builderUnstarted;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 当前运行环境是否支持虚拟线程.
+     *
+     * @return 如果是 JDK 21+ 返回true, 否则返回false
+     */
+    public static boolean isSupported(){
+        return null != OF_VIRTUAL;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 如果支持虚拟线程, 创建名字为 <code>threadName</code> 的虚拟线程(虚拟线程不能指定 <code>threadGroup</code>, 会被忽略); 否则创建平台线程.
+     *
+     * @param threadGroup
+     *            线程组
+     * @param runnable
+     *            每个线程做的事情
+     * @param threadName
+     *            线程名称
+     * @return 未启动的线程
+     */
+    @Override
+    protected Thread newThread(ThreadGroup threadGroup,Runnable runnable,String threadName){
+        if (!isSupported()){
+            return super.newThread(threadGroup, runnable, threadName);
+        }
+        try{
+            Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(), threadName);
+            return (Thread) BUILDER_UNSTARTED.invoke(builder, runnable);
+        }catch (RuntimeException | Error e){
+            throw e;
+        }catch (Throwable e){
+            throw new IllegalStateException("build virtual thread:[" + threadName + "] exception", e);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import com.feilong.core.Validate;
+import com.feilong.core.bean.PropertyUtil;
+import com.feilong.core.lang.NumberUtil;
+
+/**
+ * 一次遍历统计出来的 {@link Aggregation} 声明的所有指标.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @see AggregateUtil#aggregate(Iterable, Aggregation)
+ * @see AggregateUtil#groupAggregate(Iterable, String, Aggregation)
+ * @since 4.5.5
+ */
+public final class AggregateResult{
+
+    /** The aggregation. */
+    private final Aggregation           aggregation;
+
+    /** 需要提取的属性名. */
+    private final String[]              propertyNames;
+
+    /** 和 {@link #propertyNames} 一一对应的累加器. */
+    private final PropertyAccumulator[] propertyAccumulators;
+
+    /** 元素个数. */
+    private long                        count;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new aggregate result.
+     *
+     * @param aggregation
+     *            the aggregation
+     */
+    AggregateResult(Aggregation aggregation){
+        this.aggregation = aggregation;
+
+        Set<String> names = aggregation.getPropertyNames();
+        this.propertyNames = names.toArray(new String[names.size()]);
+        this.propertyAccumulators = new PropertyAccumulator[propertyNames.length];
+        for (int i = 0; i < propertyAccumulators.length; ++i){
+            propertyAccumulators[i] = new PropertyAccumulator();
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 统计一个元素, 每个属性只提取一次.
+     *
+     * @param bean
+     *            the bean
+     */
+    void add(Object bean){
+        count++;
+        for (int i = 0; i < propertyNames.length; ++i){
+            propertyAccumulators[i].add(PropertyUtil.getProperty(bean, propertyNames[i]));
+        }
+    }
+
+    /**
+     * 合并同一个 {@link Aggregation} 统计出来的另外一个结果(比如分段并行统计).
+     *
+     * @param other
+     *            the other
+     * @return this
+     */
+    AggregateResult merge(AggregateResult other){
+        count += other.count;
+        for (int i = 0; i < propertyAccumulators.length; ++i){
+            propertyAccumulators[i].merge(other.propertyAccumulators[i]);
+        }
+        return this;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 元素个数.
+     *
+     * @return the count
+     */
+    public long getCount(){
+        return count;
+    }
+
+    /**
+     * 属性值的总和, 属性值是null或者empty 的时候使用0代替.
+     *
+     * @param propertyName
+     *            属性名
+     * @return 如果 count 是0, 返回null<br>
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyName</code> 没有使用 {@link Aggregation#sum(String...)} 声明
+     */
+    public BigDecimal getSum(String propertyName){
+        Validate.isTrue(aggregation.isSum(propertyName), "propertyName:[%s] is not declared by sum(), %s", propertyName, aggregation);
+        return 0 == count ? null : accumulator(propertyName).getSum();
+    }
+
+    /**
+     * 算术平均值(总和/元素个数), 使用 {@link Aggregation#avg(int, String...)} 声明的小数位数四舍五入.
+     *
+     * @param propertyName
+     *            属性名
+     * @return 如果 count 是0, 返回null<br>
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyName</code> 没有使用 {@link Aggregation#avg(int, String...)} 声明
+     */
+    public BigDecimal getAvg(String propertyName){
+        Integer scale = aggregation.getAvgScale(propertyName);
+        Validate.isTrue(null != scale, "propertyName:[%s] is not declared by avg(), %s", propertyName, aggregation);
+        return 0 == count ? null : NumberUtil.getDivideValue(accumulator(propertyName).getSum(), count, scale);
+    }
+
+    /**
+     * 最小值, 忽略属性值是null或者empty 的元素.
+     *
+     * @param propertyName
+     *            属性名
+     * @return 如果没有属性值不是null/empty 的元素, 返回null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyName</code> 没有使用 {@link Aggregation#min(String...)} 声明
+     */
+    public BigDecimal getMin(String propertyName){
+        Validate.isTrue(aggregation.isMin(propertyName), "propertyName:[%s] is not declared by min(), %s", propertyName, aggregation);
+        return accumulator(propertyName).getMin();
+    }
+
+    /**
+     * 最大值, 忽略属性值是null或者empty 的元素.
+     *
+     * @param propertyName
+     *            属性名
+     * @return 如果没有属性值不是null/empty 的元素, 返回null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyName</code> 没有使用 {@link Aggregation#max(String...)} 声明
+     */
+    public BigDecimal getMax(String propertyName){
+        Validate.isTrue(aggregation.isMax(propertyName), "propertyName:[%s] is not declared by max(), %s", propertyName, aggregation);
+        return accumulator(propertyName).getMax();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Accumulator.
+     *
+     * @param propertyName
+     *            the property name
+     * @return the property accumulator
+     */
+    private PropertyAccumulator accumulator(String propertyName){
+        for (int i = 0; i < propertyNames.length; ++i){
+            if (propertyNames[i].equals(propertyName)){
+                return propertyAccumulators[i];
+            }
+        }
+        throw new IllegalArgumentException("propertyName:[" + propertyName + "] is not declared");
+    }
+
+    @Override
+    public String toString(){
+        StringBuilder sb = new StringBuilder("AggregateResult[count=").append(count);
+        for (int i = 0; i < propertyNames.length; ++i){
+            sb.append(",").append(propertyNames[i]).append("=[sum=").append(propertyAccumulators[i].getSum());
+            sb.append(",min=").append(propertyAccumulators[i].getMin());
+            sb.append(",max=").append(propertyAccumulators[i].getMax()).append("]");
+        }
+        return sb.append("]").toString();
+    }
+}
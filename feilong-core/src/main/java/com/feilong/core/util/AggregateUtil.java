@@ -27,13 +27,17 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 import org.apache.commons.collections4.Transformer;
 
 import com.feilong.core.Validate;
 import com.feilong.core.bean.PropertyUtil;
 import com.feilong.core.lang.NumberUtil;
+import com.feilong.core.lang.ThreadUtil;
+import com.feilong.core.lang.thread.PartitionThreadConfig;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -666,6 +670,87 @@ public final class AggregateUtil{
         return map;
     }
 
+    /**
+     * 将 <code>beanList</code> 按照 <code>partitionThreadConfig</code> 分区<span style="color:green">并行</span>统计每组 <code>sumPropertyName</code> 的总和,
+     * 再按照批次顺序合并每个分区的结果.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>结果和 {@link #groupSum(Iterable, String, String)} 相同, 返回的 {@link LinkedHashMap} 的key顺序是 <code>keyPropertyName</code> 的值第一次出现的顺序</li>
+     * <li>分区内部使用可变的累加器, 整数类型的值使用 long 累加, 不会每个元素都创建 {@link BigDecimal}</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * Map{@code <String, BigDecimal>} map = AggregateUtil.groupSumParallel(list, "name", "age", new PartitionThreadConfig(4, 10000));
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param <T>
+     *            the generic type
+     * @param beanList
+     *            bean list
+     * @param keyPropertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @param sumPropertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @param partitionThreadConfig
+     *            分区和线程配置, 比如 {@link PartitionThreadConfig#INSTANCE}
+     * @return 如果 <code>beanList</code> 是null或者empty,返回 {@link Collections#emptyMap()}<br>
+     *         如果 <code>keyPropertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>keyPropertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>sumPropertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>sumPropertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>partitionThreadConfig</code> 是null,抛出 {@link NullPointerException}
+     * @see #groupSum(Iterable, String, String)
+     * @since 4.5.5
+     */
+    public static <O, T> Map<T, BigDecimal> groupSumParallel(
+                    List<O> beanList,
+                    String keyPropertyName,
+                    String sumPropertyName,
+                    PartitionThreadConfig partitionThreadConfig){
+        if (isNullOrEmpty(beanList)){
+            return emptyMap();
+        }
+
+        //---------------------------------------------------------------
+        Validate.notBlank(keyPropertyName, "keyPropertyName can't be null/empty!");
+        Validate.notBlank(sumPropertyName, "sumPropertyName can't be null/empty!");
+        Validate.notNull(partitionThreadConfig, "partitionThreadConfig can't be null!");
+
+        Map<T, PropertyAccumulator> accumulatorMap = ThreadUtil.executeAndReduce(
+                        beanList,
+                        partitionThreadConfig,
+                        null,
+                        (perBatchList,partitionThreadEntity,paramsMap) -> {
+                            Map<T, PropertyAccumulator> map = newLinkedHashMap();
+                            for (O obj : perBatchList){
+                                T keyPropertyValue = PropertyUtil.<T> getProperty(obj, keyPropertyName);
+                                map.computeIfAbsent(keyPropertyValue, key -> new PropertyAccumulator())
+                                                .add(PropertyUtil.getProperty(obj, sumPropertyName));
+                            }
+                            return map;
+                        },
+                        (map1,map2) -> mergeInto(map1, map2, PropertyAccumulator::merge));
+
+        //---------------------------------------------------------------
+        Map<T, BigDecimal> map = newLinkedHashMap(accumulatorMap.size());
+        for (Map.Entry<T, PropertyAccumulator> entry : accumulatorMap.entrySet()){
+            map.put(entry.getKey(), entry.getValue().getSum());
+        }
+        return map;
+    }
+
     //---------------------------------------------------------------
 
     /**
@@ -813,6 +898,70 @@ public final class AggregateUtil{
         return map;
     }
 
+    /**
+     * 将 <code>beanList</code> 按照 <code>partitionThreadConfig</code> 分区<span style="color:green">并行</span>统计 <code>propertyName</code> 的值出现的次数,
+     * 再按照批次顺序合并每个分区的结果.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>结果和 {@link #groupCount(Iterable, String)} 相同, 返回的 {@link LinkedHashMap} 的key顺序是 <code>propertyName</code> 的值第一次出现的顺序</li>
+     * <li>分区内部使用可变的 int 计数器累加, 不会每个元素都装箱一个 {@link Integer}</li>
+     * <li>每个分区是 <code>beanList</code> 中连续的一段, 合并的时候按照批次顺序追加, 所以结果是确定的, 和线程执行的先后无关</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * Map{@code <String, Integer>} map = AggregateUtil.groupCountParallel(list, "name", new PartitionThreadConfig(4, 10000));
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param <T>
+     *            the generic type
+     * @param beanList
+     *            bean list
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @param partitionThreadConfig
+     *            分区和线程配置, 比如 {@link PartitionThreadConfig#INSTANCE}
+     * @return 如果 <code>beanList</code> 是null或者empty,返回 {@link Collections#emptyMap()}<br>
+     *         如果 <code>propertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>propertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>partitionThreadConfig</code> 是null,抛出 {@link NullPointerException}
+     * @see #groupCount(Iterable, String)
+     * @since 4.5.5
+     */
+    public static <O, T> Map<T, Integer> groupCountParallel(List<O> beanList,String propertyName,PartitionThreadConfig partitionThreadConfig){
+        if (isNullOrEmpty(beanList)){
+            return emptyMap();
+        }
+        Validate.notBlank(propertyName, "propertyName can't be null/empty!");
+        Validate.notNull(partitionThreadConfig, "partitionThreadConfig can't be null!");
+
+        //---------------------------------------------------------------
+        Map<T, Counter> counterMap = ThreadUtil.executeAndReduce(beanList, partitionThreadConfig, null, (perBatchList,partitionThreadEntity,paramsMap) -> {
+            Map<T, Counter> map = newLinkedHashMap();
+            for (O obj : perBatchList){
+                map.computeIfAbsent(PropertyUtil.<T> getProperty(obj, propertyName), key -> new Counter()).count++;
+            }
+            return map;
+        }, (map1,map2) -> mergeInto(map1, map2, (counter1,counter2) -> counter1.count += counter2.count));
+
+        //---------------------------------------------------------------
+        Map<T, Integer> map = newLinkedHashMap(counterMap.size());
+        for (Map.Entry<T, Counter> entry : counterMap.entrySet()){
+            map.put(entry.getKey(), entry.getValue().count);
+        }
+        return map;
+    }
+
     //---------------------------------------------------------------
 
     /**
@@ -1194,6 +1343,212 @@ public final class AggregateUtil{
         return resultMap;
     }
 
+    //-------------------------aggregate--------------------------------------
+
+    /**
+     * 一次遍历 <code>beanIterable</code>, 统计 <code>aggregation</code> 声明的所有指标(count/sum/avg/min/max).
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>分别调用 {@link #sum(Iterable, String)}, {@link #avg(Iterable, String, int)} 等方法,每个指标都要完整遍历一次集合,每个元素每个属性都要反射取一次值;
+     * 此方法每个元素每个属性只取一次值,并且整数类型的属性使用 long 累加,溢出之后才使用 {@link BigDecimal}</li>
+     * <li>sum 和 avg 的算法和 {@link #sum(Iterable, String)}, {@link #avg(Iterable, String, int)} 一致,属性值是null的时候使用0代替</li>
+     * <li>min 和 max 忽略属性值是null或者empty 的元素</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * List{@code <User>} list = toList(new User(2L), new User(5L), new User(5L));
+     * 
+     * AggregateResult result = AggregateUtil.aggregate(list, new Aggregation().sum("id").avg(2, "id").min("id").max("id"));
+     * 
+     * result.getCount();       //3
+     * result.getSum("id");     //12
+     * result.getAvg("id");     //4.00
+     * result.getMin("id");     //2
+     * result.getMax("id");     //5
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等
+     * @param aggregation
+     *            需要统计的指标
+     * @return 如果 <code>beanIterable</code> 是null或者empty,返回count是0的 {@link AggregateResult}<br>
+     *         如果 <code>aggregation</code> 是null,抛出 {@link NullPointerException}<br>
+     * @since 4.5.5
+     */
+    public static <O> AggregateResult aggregate(Iterable<O> beanIterable,Aggregation aggregation){
+        Validate.notNull(aggregation, "aggregation can't be null!");
+
+        AggregateResult aggregateResult = new AggregateResult(aggregation);
+        if (isNullOrEmpty(beanIterable)){
+            return aggregateResult;
+        }
+        for (O obj : beanIterable){
+            aggregateResult.add(obj);
+        }
+        return aggregateResult;
+    }
+
+    /**
+     * 一次遍历 <code>beanIterable</code>, 按照 <code>keyPropertyName</code> 分组, 统计每组 <code>aggregation</code> 声明的所有指标.
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * List{@code <User>} list = toList(//
+     *                 new User("张飞", 20),
+     *                 new User("关羽", 30),
+     *                 new User("刘备", 40),
+     *                 new User("刘备", 50));
+     * 
+     * Map{@code <String, AggregateResult>} map = AggregateUtil.groupAggregate(list, "name", new Aggregation().sum("age").max("age"));
+     * 
+     * map.get("刘备").getCount();      //2
+     * map.get("刘备").getSum("age");   //90
+     * map.get("刘备").getMax("age");   //50
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param <T>
+     *            the generic type
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等
+     * @param keyPropertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @param aggregation
+     *            需要统计的指标
+     * @return 如果 <code>beanIterable</code> 是null或者empty,返回 {@link Collections#emptyMap()}<br>
+     *         返回的 {@link LinkedHashMap} 顺序是 <code>keyPropertyName</code> 的值第一次出现的顺序<br>
+     *         如果 <code>keyPropertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>keyPropertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>aggregation</code> 是null,抛出 {@link NullPointerException}<br>
+     * @since 4.5.5
+     */
+    public static <O, T> Map<T, AggregateResult> groupAggregate(Iterable<O> beanIterable,String keyPropertyName,Aggregation aggregation){
+        if (isNullOrEmpty(beanIterable)){
+            return emptyMap();
+        }
+
+        //---------------------------------------------------------------
+        Validate.notBlank(keyPropertyName, "keyPropertyName can't be null/empty!");
+        Validate.notNull(aggregation, "aggregation can't be null!");
+
+        Map<T, AggregateResult> map = newLinkedHashMap();
+        for (O obj : beanIterable){
+            T keyPropertyValue = PropertyUtil.<T> getProperty(obj, keyPropertyName);
+
+            AggregateResult aggregateResult = map.get(keyPropertyValue);
+            if (null == aggregateResult){
+                aggregateResult = new AggregateResult(aggregation);
+                map.put(keyPropertyValue, aggregateResult);
+            }
+            aggregateResult.add(obj);
+        }
+        return map;
+    }
+
+    /**
+     * 将 <code>beanList</code> 按照 <code>partitionThreadConfig</code> 分区<span style="color:green">并行</span>按照 <code>keyPropertyName</code> 分组统计
+     * <code>aggregation</code> 声明的所有指标, 再按照批次顺序合并每个分区的结果.
+     * 
+     * <p>
+     * 结果和 {@link #groupAggregate(Iterable, String, Aggregation)} 相同, 返回的 {@link LinkedHashMap} 的key顺序是 <code>keyPropertyName</code> 的值第一次出现的顺序.
+     * </p>
+     *
+     * @param <O>
+     *            the generic type
+     * @param <T>
+     *            the generic type
+     * @param beanList
+     *            bean list
+     * @param keyPropertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @param aggregation
+     *            需要统计的指标
+     * @param partitionThreadConfig
+     *            分区和线程配置, 比如 {@link PartitionThreadConfig#INSTANCE}
+     * @return 如果 <code>beanList</code> 是null或者empty,返回 {@link Collections#emptyMap()}<br>
+     *         如果 <code>keyPropertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>keyPropertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>aggregation</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>partitionThreadConfig</code> 是null,抛出 {@link NullPointerException}
+     * @see #groupAggregate(Iterable, String, Aggregation)
+     * @since 4.5.5
+     */
+    public static <O, T> Map<T, AggregateResult> groupAggregateParallel(
+                    List<O> beanList,
+                    String keyPropertyName,
+                    Aggregation aggregation,
+                    PartitionThreadConfig partitionThreadConfig){
+        if (isNullOrEmpty(beanList)){
+            return emptyMap();
+        }
+
+        //---------------------------------------------------------------
+        Validate.notBlank(keyPropertyName, "keyPropertyName can't be null/empty!");
+        Validate.notNull(aggregation, "aggregation can't be null!");
+        Validate.notNull(partitionThreadConfig, "partitionThreadConfig can't be null!");
+
+        return ThreadUtil.executeAndReduce(
+                        beanList,
+                        partitionThreadConfig,
+                        null,
+                        (perBatchList,partitionThreadEntity,paramsMap) -> groupAggregate(perBatchList, keyPropertyName, aggregation),
+                        (map1,map2) -> mergeInto(map1, map2, AggregateResult::merge));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 按照 <code>map2</code> 的顺序, 将 <code>map2</code> 合并到 <code>map1</code>.
+     * 
+     * <p>
+     * <code>map1</code> 中已经存在的key使用 <code>valueMerger</code> 合并到 <code>map1</code> 的value, 新的key追加在 <code>map1</code> 的后面,
+     * 所以按照批次顺序合并 {@link LinkedHashMap} 的时候, key的顺序和串行统计的顺序相同.
+     * </p>
+     *
+     * @param <K>
+     *            the key type
+     * @param <V>
+     *            可变的value类型
+     * @param map1
+     *            前一个批次的结果
+     * @param map2
+     *            后一个批次的结果
+     * @param valueMerger
+     *            将第二个value合并到第一个value
+     * @return the map1
+     * @since 4.5.5
+     */
+    private static <K, V> Map<K, V> mergeInto(Map<K, V> map1,Map<K, V> map2,BiConsumer<V, V> valueMerger){
+        for (Map.Entry<K, V> entry : map2.entrySet()){
+            V value = map1.get(entry.getKey());
+            if (null == value){
+                map1.put(entry.getKey(), entry.getValue());
+            }else{
+                valueMerger.accept(value, entry.getValue());
+            }
+        }
+        return map1;
+    }
+
     //---------------------------------------------------------------
 
     /**
@@ -1263,4 +1618,17 @@ public final class AggregateUtil{
         //---------------------------------------------------------------
         return transformer.transform(value);
     }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 可变的 int 计数器, 用于分区内部计数, 避免每次计数都装箱 {@link Integer}.
+     * 
+     * @since 4.5.5
+     */
+    private static final class Counter{
+
+        /** The count. */
+        private int count;
+    }
 }
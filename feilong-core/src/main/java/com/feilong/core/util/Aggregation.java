@@ -0,0 +1,250 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.feilong.core.Validate;
+
+/**
+ * 声明一次遍历里面需要统计的指标, 配合 {@link AggregateUtil#aggregate(Iterable, Aggregation)} 以及
+ * {@link AggregateUtil#groupAggregate(Iterable, String, Aggregation)} 使用.
+ * 
+ * <h3>示例:</h3>
+ * 
+ * <blockquote>
+ * 
+ * <pre class="code">
+ * Aggregation aggregation = new Aggregation()//
+ *                 .sum("age", "id")
+ *                 .avg(2, "age")
+ *                 .min("age")
+ *                 .max("age");
+ * 
+ * AggregateResult result = AggregateUtil.aggregate(userList, aggregation);
+ * result.getCount();
+ * result.getSum("age");
+ * result.getAvg("age");
+ * 
+ * Map{@code <String, AggregateResult>} map = AggregateUtil.groupAggregate(userList, "name", aggregation);
+ * </pre>
+ * 
+ * </blockquote>
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>不管声明了多少个指标, 每个元素的每个属性只会提取一次.</li>
+ * <li>count(元素个数) 总是会统计.</li>
+ * <li>sum/avg 同 {@link AggregateUtil#sum(Iterable, String...)},{@link AggregateUtil#avg(Iterable, String[], int)}: 属性值是null或者empty 的时候使用0代替,
+ * 非 Number 类型的会先转成 {@link BigDecimal}.</li>
+ * <li>min/max 忽略属性值是null或者empty 的元素.</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @see AggregateResult
+ * @since 4.5.5
+ */
+public final class Aggregation{
+
+    /** 所有需要提取的属性名, 按照声明的顺序. */
+    private final Set<String>          propertyNames = new LinkedHashSet<>();
+
+    /** 需要 sum 的属性名. */
+    private final Set<String>          sumNames      = new LinkedHashSet<>();
+
+    /** 需要 avg 的属性名以及小数位数. */
+    private final Map<String, Integer> avgScales     = new LinkedHashMap<>();
+
+    /** 需要 min 的属性名. */
+    private final Set<String>          minNames      = new LinkedHashSet<>();
+
+    /** 需要 max 的属性名. */
+    private final Set<String>          maxNames      = new LinkedHashSet<>();
+
+    //---------------------------------------------------------------
+
+    /**
+     * 统计 <code>propertyNames</code> 的总和.
+     *
+     * @param propertyNames
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return this
+     * @throws NullPointerException
+     *             如果 <code>propertyNames</code> 是null,或者有元素是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyNames</code> 是empty,或者有元素是blank
+     */
+    public Aggregation sum(String...propertyNames){
+        register(sumNames, propertyNames);
+        return this;
+    }
+
+    /**
+     * 统计 <code>propertyNames</code> 的算术平均值(总和/元素个数).
+     *
+     * @param scale
+     *            标度,小数的位数,四舍五入,用于 {@link java.math.BigDecimal#setScale(int, java.math.RoundingMode)}
+     * @param propertyNames
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return this
+     * @throws NullPointerException
+     *             如果 <code>propertyNames</code> 是null,或者有元素是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyNames</code> 是empty,或者有元素是blank
+     */
+    public Aggregation avg(int scale,String...propertyNames){
+        validate(propertyNames);
+        for (String propertyName : propertyNames){
+            avgScales.put(propertyName, scale);
+            this.propertyNames.add(propertyName);
+        }
+        return this;
+    }
+
+    /**
+     * 统计 <code>propertyNames</code> 的最小值.
+     *
+     * @param propertyNames
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return this
+     * @throws NullPointerException
+     *             如果 <code>propertyNames</code> 是null,或者有元素是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyNames</code> 是empty,或者有元素是blank
+     */
+    public Aggregation min(String...propertyNames){
+        register(minNames, propertyNames);
+        return this;
+    }
+
+    /**
+     * 统计 <code>propertyNames</code> 的最大值.
+     *
+     * @param propertyNames
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return this
+     * @throws NullPointerException
+     *             如果 <code>propertyNames</code> 是null,或者有元素是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyNames</code> 是empty,或者有元素是blank
+     */
+    public Aggregation max(String...propertyNames){
+        register(maxNames, propertyNames);
+        return this;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Register.
+     *
+     * @param names
+     *            the names
+     * @param propertyNames
+     *            the property names
+     */
+    private void register(Set<String> names,String...propertyNames){
+        validate(propertyNames);
+        for (String propertyName : propertyNames){
+            names.add(propertyName);
+            this.propertyNames.add(propertyName);
+        }
+    }
+
+    /**
+     * Validate.
+     *
+     * @param propertyNames
+     *            the property names
+     */
+    private static void validate(String...propertyNames){
+        Validate.notEmpty(propertyNames, "propertyNames can't be null/empty!");
+        for (String propertyName : propertyNames){
+            Validate.notBlank(propertyName, "propertyName can't be blank!");
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 所有需要提取的属性名, 按照声明的顺序.
+     *
+     * @return the property names
+     */
+    Set<String> getPropertyNames(){
+        return Collections.unmodifiableSet(propertyNames);
+    }
+
+    /**
+     * Checks if is sum.
+     *
+     * @param propertyName
+     *            the property name
+     * @return true, if is sum
+     */
+    boolean isSum(String propertyName){
+        return sumNames.contains(propertyName);
+    }
+
+    /**
+     * avg 的小数位数.
+     *
+     * @param propertyName
+     *            the property name
+     * @return 如果没有声明 avg, 返回null
+     */
+    Integer getAvgScale(String propertyName){
+        return avgScales.get(propertyName);
+    }
+
+    /**
+     * Checks if is min.
+     *
+     * @param propertyName
+     *            the property name
+     * @return true, if is min
+     */
+    boolean isMin(String propertyName){
+        return minNames.contains(propertyName);
+    }
+
+    /**
+     * Checks if is max.
+     *
+     * @param propertyName
+     *            the property name
+     * @return true, if is max
+     */
+    boolean isMax(String propertyName){
+        return maxNames.contains(propertyName);
+    }
+
+    @Override
+    public String toString(){
+        return "Aggregation[sum=" + sumNames + ",avg=" + avgScales + ",min=" + minNames + ",max=" + maxNames + "]";
+    }
+}
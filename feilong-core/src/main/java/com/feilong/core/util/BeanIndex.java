@@ -0,0 +1,550 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static com.feilong.core.Validator.isNullOrEmpty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.feilong.core.Validate;
+import com.feilong.core.bean.PropertyUtil;
+
+/**
+ * 基于一个或者多个属性建立的 bean 集合哈希索引, 用于对同一个集合的多次查找.
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>{@link CollectionsUtil#find(Iterable, String, Object)}, {@link CollectionsUtil#select(Iterable, String, Object...)} 每次调用都要遍历集合并且提取属性值,
+ * 对同一个集合查找 m 次的复杂度是 O(n·m)</li>
+ * <li>此类在创建的时候遍历一次集合, 提取每个元素的属性值建立索引, 之后的 {@link #find(Object)} 是 O(1), {@link #select(Object...)} 和匹配的元素个数相关</li>
+ * <li>如果有多个属性名, 那么索引的 key 是这些属性值的组合, 使用 {@link #find(Map)}, {@link #select(Map)} 查找</li>
+ * <li>属性值使用 equals 判断, 和 {@link CollectionsUtil} 对应的方法一致; 返回结果的顺序和原集合的顺序一致</li>
+ * <li>索引是创建时候的快照, 之后对原集合的修改(以及对元素索引属性的修改)不会反映到索引中; 此类是不可变的, 线程安全</li>
+ * </ol>
+ * </blockquote>
+ * 
+ * <h3>示例:</h3>
+ * 
+ * <blockquote>
+ * 
+ * <pre class="code">
+ * List{@code <User>} list = toList(//
+ *                 new User("张飞", 23),
+ *                 new User("关羽", 24),
+ *                 new User("刘备", 25),
+ *                 new User("关羽", 50));
+ * 
+ * BeanIndex{@code <User>} nameIndex = new BeanIndex{@code <>}(list, "name");
+ * nameIndex.find("关羽");                  // 关羽 24
+ * nameIndex.select("刘备", "关羽");         // 关羽 24, 刘备 25, 关羽 50
+ * nameIndex.selectRejected("关羽");        // 张飞 23, 刘备 25
+ * 
+ * BeanIndex{@code <User>} nameAndAgeIndex = new BeanIndex{@code <>}(list, "name", "age");
+ * nameAndAgeIndex.find(toMap("name", "关羽", "age", 50)); // 关羽 50
+ * </pre>
+ * 
+ * </blockquote>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @param <O>
+ *            the generic type
+ * @see CollectionsUtil#find(Iterable, String, Object)
+ * @see CollectionsUtil#select(Iterable, String, Object...)
+ * @see CollectionsUtil#selectRejected(Iterable, String, Object...)
+ * @since 4.5.5
+ */
+public final class BeanIndex<O> {
+
+    /** 建立索引的属性名. */
+    private final String[]          propertyNames;
+
+    /** 所有元素, 原集合的顺序. */
+    private final List<O>           elements;
+
+    /** key 是属性值(多个属性名的时候是属性值组合的 {@link List}), value 是元素在 {@link #elements} 中的位置(升序). */
+    private final Map<Object, int[]> positionsMap;
+
+    /** 是否每个 key 只对应一个元素. */
+    private final boolean           unique;
+
+    //---------------------------------------------------------------
+
+    /**
+     * 遍历 <code>beanIterable</code>, 使用 <code>propertyNames</code> 的属性值建立索引.
+     *
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等, 如果是null或者empty, 建立空索引
+     * @param propertyNames
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @throws NullPointerException
+     *             如果 <code>propertyNames</code> 是null,或者有元素是null, 或者 <code>beanIterable</code> 有元素是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyNames</code> 是empty,或者有元素是blank
+     */
+    public BeanIndex(Iterable<O> beanIterable, String...propertyNames){
+        Validate.notEmpty(propertyNames, "propertyNames can't be null/empty!");
+        for (String propertyName : propertyNames){
+            Validate.notBlank(propertyName, "propertyName can't be blank!");
+        }
+        this.propertyNames = propertyNames.clone();
+
+        //---------------------------------------------------------------
+        List<O> list = new ArrayList<>();
+        Map<Object, PositionBuffer> bufferMap = new HashMap<>();
+        boolean isUnique = true;
+        if (null != beanIterable){
+            for (O bean : beanIterable){
+                int position = list.size();
+                list.add(bean);
+
+                Object key = extractKey(bean);
+                PositionBuffer positionBuffer = bufferMap.get(key);
+                if (null == positionBuffer){
+                    bufferMap.put(key, new PositionBuffer(position));
+                }else{
+                    isUnique = false;
+                    positionBuffer.add(position);
+                }
+            }
+        }
+
+        //---------------------------------------------------------------
+        //遍历完成之后统一截断成 int[], 建立索引是 O(n)
+        Map<Object, int[]> map = MapUtil.newHashMap(bufferMap.size());
+        for (Map.Entry<Object, PositionBuffer> entry : bufferMap.entrySet()){
+            map.put(entry.getKey(), entry.getValue().toArray());
+        }
+
+        this.elements = list;
+        this.positionsMap = map;
+        this.unique = isUnique;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 找到第一个属性值是 <code>propertyValue</code> 的元素(只有一个属性名的索引).
+     * 
+     * <p>
+     * 查找属性值是null 的元素时, 需要指定类型, 比如 <code>find((String) null)</code>, 否则会匹配到 {@link #find(Map)}
+     * </p>
+     *
+     * @param <V>
+     *            the value type
+     * @param propertyValue
+     *            指定的值
+     * @return 如果没有相关元素的属性值是<code>propertyValue</code>,返回null
+     * @throws IllegalStateException
+     *             如果索引有多个属性名
+     * @see CollectionsUtil#find(Iterable, String, Object)
+     */
+    public <V> O find(V propertyValue){
+        int[] positions = positionsMap.get(toKey(propertyValue));
+        return null == positions ? null : elements.get(positions[0]);
+    }
+
+    /**
+     * 找到第一个属性和属性值都是 <code>propertyNameAndPropertyValueMap</code> 的元素.
+     *
+     * @param propertyNameAndPropertyValueMap
+     *            属性和指定属性值对应的map, key 必须就是建立索引的属性名
+     * @return 如果没有相关元素,返回null
+     * @throws NullPointerException
+     *             如果 <code>propertyNameAndPropertyValueMap</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyNameAndPropertyValueMap</code> 的key 和建立索引的属性名不一致
+     * @see CollectionsUtil#find(Iterable, Map)
+     */
+    public O find(Map<String, ?> propertyNameAndPropertyValueMap){
+        int[] positions = positionsMap.get(toKey(propertyNameAndPropertyValueMap));
+        return null == positions ? null : elements.get(positions[0]);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 找到属性值在 <code>propertyValues</code> 中的元素(只有一个属性名的索引).
+     *
+     * @param <V>
+     *            the value type
+     * @param propertyValues
+     *            the values
+     * @return 按照原集合顺序的元素list<br>
+     *         如果 <code>propertyValues</code> 是null,返回 {@code new ArrayList<O>}<br>
+     * @throws IllegalStateException
+     *             如果索引有多个属性名
+     * @see CollectionsUtil#select(Iterable, String, Object...)
+     */
+    @SafeVarargs
+    public final <V> List<O> select(V...propertyValues){
+        return null == propertyValues ? new ArrayList<O>() : select(Arrays.asList(propertyValues));
+    }
+
+    /**
+     * 找到属性值在 <code>propertyValueList</code> 中的元素(只有一个属性名的索引).
+     *
+     * @param <V>
+     *            the value type
+     * @param propertyValueList
+     *            the values
+     * @return 按照原集合顺序的元素list<br>
+     *         如果 <code>propertyValueList</code> 是null或者empty,返回 {@code new ArrayList<O>}<br>
+     * @throws IllegalStateException
+     *             如果索引有多个属性名
+     * @see CollectionsUtil#select(Iterable, String, Collection)
+     */
+    public <V> List<O> select(Collection<V> propertyValueList){
+        return toElements(positions(propertyValueList), false);
+    }
+
+    /**
+     * 找到属性和属性值都是 <code>propertyNameAndPropertyValueMap</code> 的元素.
+     *
+     * @param propertyNameAndPropertyValueMap
+     *            属性和指定属性值对应的map, key 必须就是建立索引的属性名
+     * @return 按照原集合顺序的元素list
+     * @throws NullPointerException
+     *             如果 <code>propertyNameAndPropertyValueMap</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyNameAndPropertyValueMap</code> 的key 和建立索引的属性名不一致
+     * @see CollectionsUtil#select(Iterable, Map)
+     */
+    public List<O> select(Map<String, ?> propertyNameAndPropertyValueMap){
+        return toElements(positionsMap.get(toKey(propertyNameAndPropertyValueMap)), false);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 找到属性值不在 <code>propertyValues</code> 中的元素(只有一个属性名的索引).
+     *
+     * @param <V>
+     *            the value type
+     * @param propertyValues
+     *            the values
+     * @return 按照原集合顺序的元素list<br>
+     *         如果 <code>propertyValues</code> 是null,返回全部元素<br>
+     * @throws IllegalStateException
+     *             如果索引有多个属性名
+     * @see CollectionsUtil#selectRejected(Iterable, String, Object...)
+     */
+    @SafeVarargs
+    public final <V> List<O> selectRejected(V...propertyValues){
+        return null == propertyValues ? new ArrayList<>(elements) : selectRejected(Arrays.asList(propertyValues));
+    }
+
+    /**
+     * 找到属性值不在 <code>propertyValueList</code> 中的元素(只有一个属性名的索引).
+     *
+     * @param <V>
+     *            the value type
+     * @param propertyValueList
+     *            the values
+     * @return 按照原集合顺序的元素list<br>
+     *         如果 <code>propertyValueList</code> 是null或者empty,返回全部元素<br>
+     * @throws IllegalStateException
+     *             如果索引有多个属性名
+     * @see CollectionsUtil#selectRejected(Iterable, String, Collection)
+     */
+    public <V> List<O> selectRejected(Collection<V> propertyValueList){
+        return toElements(positions(propertyValueList), true);
+    }
+
+    /**
+     * 找到属性和属性值不是 <code>propertyNameAndPropertyValueMap</code> 的元素.
+     *
+     * @param propertyNameAndPropertyValueMap
+     *            属性和指定属性值对应的map, key 必须就是建立索引的属性名
+     * @return 按照原集合顺序的元素list
+     * @throws NullPointerException
+     *             如果 <code>propertyNameAndPropertyValueMap</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyNameAndPropertyValueMap</code> 的key 和建立索引的属性名不一致
+     * @see CollectionsUtil#selectRejected(Iterable, Map)
+     */
+    public List<O> selectRejected(Map<String, ?> propertyNameAndPropertyValueMap){
+        return toElements(positionsMap.get(toKey(propertyNameAndPropertyValueMap)), true);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 是否存在属性值是 <code>propertyValue</code> 的元素(只有一个属性名的索引).
+     *
+     * @param <V>
+     *            the value type
+     * @param propertyValue
+     *            指定的值
+     * @return 如果存在,返回true
+     * @throws IllegalStateException
+     *             如果索引有多个属性名
+     */
+    public <V> boolean contains(V propertyValue){
+        return positionsMap.containsKey(toKey(propertyValue));
+    }
+
+    /**
+     * 是否每个属性值(组合)只对应一个元素, 可以用来校验唯一键.
+     *
+     * @return 如果没有重复的属性值(组合),返回true
+     */
+    public boolean isUnique(){
+        return unique;
+    }
+
+    /**
+     * 元素个数.
+     *
+     * @return the int
+     */
+    public int size(){
+        return elements.size();
+    }
+
+    /**
+     * 不同的属性值(组合)的个数.
+     *
+     * @return the int
+     */
+    public int keySize(){
+        return positionsMap.size();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 提取 <code>bean</code> 的索引 key.
+     *
+     * @param bean
+     *            the bean
+     * @return 一个属性名的时候是属性值, 多个属性名的时候是属性值组合的 {@link List}
+     */
+    private Object extractKey(O bean){
+        if (1 == propertyNames.length){
+            return PropertyUtil.getProperty(bean, propertyNames[0]);
+        }
+        Object[] values = new Object[propertyNames.length];
+        for (int i = 0; i < propertyNames.length; ++i){
+            values[i] = PropertyUtil.getProperty(bean, propertyNames[i]);
+        }
+        return Arrays.asList(values);
+    }
+
+    /**
+     * 单个属性值转成 key.
+     *
+     * @param propertyValue
+     *            the property value
+     * @return the object
+     */
+    private Object toKey(Object propertyValue){
+        validateSinglePropertyName();
+        return propertyValue;
+    }
+
+    /**
+     * 只有一个属性名的索引才可以直接使用属性值查找.
+     */
+    private void validateSinglePropertyName(){
+        if (1 != propertyNames.length){
+            throw new IllegalStateException("index has multiple propertyNames:" + Arrays.toString(propertyNames) + ", use the Map overload");
+        }
+    }
+
+    /**
+     * 属性名和属性值的 map 转成 key.
+     *
+     * @param propertyNameAndPropertyValueMap
+     *            the property name and property value map
+     * @return the object
+     */
+    private Object toKey(Map<String, ?> propertyNameAndPropertyValueMap){
+        Validate.notNull(propertyNameAndPropertyValueMap, "propertyNameAndPropertyValueMap can't be null!");
+        Validate.isTrue(
+                        propertyNameAndPropertyValueMap.size() == propertyNames.length,
+                        "propertyNameAndPropertyValueMap keys:%s must be index propertyNames:%s",
+                        propertyNameAndPropertyValueMap.keySet(),
+                        Arrays.toString(propertyNames));
+
+        Object[] values = new Object[propertyNames.length];
+        for (int i = 0; i < propertyNames.length; ++i){
+            String propertyName = propertyNames[i];
+            Validate.isTrue(
+                            propertyNameAndPropertyValueMap.containsKey(propertyName),
+                            "propertyNameAndPropertyValueMap keys:%s must be index propertyNames:%s",
+                            propertyNameAndPropertyValueMap.keySet(),
+                            Arrays.toString(propertyNames));
+            values[i] = propertyNameAndPropertyValueMap.get(propertyName);
+        }
+        return 1 == values.length ? values[0] : Arrays.asList(values);
+    }
+
+    /**
+     * 属性值在 <code>propertyValueList</code> 中的元素位置(升序, 不重复).
+     *
+     * @param <V>
+     *            the value type
+     * @param propertyValueList
+     *            the property value list
+     * @return 如果没有, 返回null
+     */
+    private <V> int[] positions(Collection<V> propertyValueList){
+        validateSinglePropertyName();
+        if (isNullOrEmpty(propertyValueList)){
+            return null;
+        }
+
+        //---------------------------------------------------------------
+        //同一个值重复传入的时候, 只取一次
+        Collection<V> distinctValues = propertyValueList.size() > 1 && !(propertyValueList instanceof Set)
+                        ? new HashSet<>(propertyValueList) : propertyValueList;
+
+        List<int[]> matches = new ArrayList<>();
+        int count = 0;
+        for (V propertyValue : distinctValues){
+            int[] positions = positionsMap.get(propertyValue);
+            if (null != positions){
+                matches.add(positions);
+                count += positions.length;
+            }
+        }
+        if (matches.size() <= 1){
+            return matches.isEmpty() ? null : matches.get(0);
+        }
+
+        //多个值的时候合并成原集合的顺序
+        int[] result = new int[count];
+        int index = 0;
+        for (int[] positions : matches){
+            System.arraycopy(positions, 0, result, index, positions.length);
+            index += positions.length;
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * 位置转成元素.
+     *
+     * @param positions
+     *            升序的元素位置, 可以是null
+     * @param rejected
+     *            如果是true, 返回不在 <code>positions</code> 里面的元素
+     * @return the list
+     */
+    private List<O> toElements(int[] positions,boolean rejected){
+        if (null == positions){
+            return rejected ? new ArrayList<>(elements) : new ArrayList<O>();
+        }
+
+        //---------------------------------------------------------------
+        if (!rejected){
+            List<O> result = new ArrayList<>(positions.length);
+            for (int position : positions){
+                result.add(elements.get(position));
+            }
+            return result;
+        }
+
+        //---------------------------------------------------------------
+        List<O> result = new ArrayList<>(Math.max(0, elements.size() - positions.length));
+        int next = 0;
+        for (int i = 0; i < elements.size(); ++i){
+            if (next < positions.length && positions[next] == i){
+                next++;
+                continue;
+            }
+            result.add(elements.get(i));
+        }
+        return result;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Gets the property names.
+     *
+     * @return the property names
+     */
+    public List<String> getPropertyNames(){
+        return Collections.unmodifiableList(Arrays.asList(propertyNames));
+    }
+
+    @Override
+    public String toString(){
+        return "BeanIndex[propertyNames=" + Arrays.toString(propertyNames) + ",size=" + elements.size() + ",keySize=" + positionsMap.size()
+                        + "]";
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 建立索引时收集同一个 key 的位置, 容量不够的时候翻倍, 避免重复的 key 很多时每次追加都复制整个数组.
+     *
+     * @since 4.5.5
+     */
+    private static final class PositionBuffer{
+
+        /** The positions. */
+        private int[] positions;
+
+        /** 已经使用的个数. */
+        private int   size;
+
+        /**
+         * Instantiates a new position buffer.
+         *
+         * @param position
+         *            第一个位置
+         */
+        private PositionBuffer(int position){
+            this.positions = new int[] { position };
+            this.size = 1;
+        }
+
+        /**
+         * 追加位置.
+         *
+         * @param position
+         *            the position
+         */
+        private void add(int position){
+            if (size == positions.length){
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+
+        /**
+         * 截断成实际长度的数组.
+         *
+         * @return the int[]
+         */
+        private int[] toArray(){
+            return size == positions.length ? positions : Arrays.copyOf(positions, size);
+        }
+    }
+}
@@ -21,6 +21,7 @@ import static com.feilong.core.util.CollectionsUtil.toStream;
 import static com.feilong.core.util.MapUtil.newLinkedHashMap;
 import static java.util.Collections.emptyMap;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -36,6 +37,8 @@ import org.apache.commons.collections4.Transformer;
 
 import com.feilong.core.Validate;
 import com.feilong.core.bean.PropertyUtil;
+import com.feilong.core.lang.ThreadUtil;
+import com.feilong.core.lang.thread.PartitionThreadConfig;
 import com.feilong.core.util.predicate.BeanPredicateUtil;
 
 import lombok.AccessLevel;
@@ -155,6 +158,76 @@ public class GroupUtil{
         return group(beanIterable, propertyName, null);
     }
 
+    /**
+     * 将 <code>beanList</code> 按照 <code>partitionThreadConfig</code> 分区<span style="color:green">并行</span>分组, 再按照批次顺序合并每个分区的分组结果.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>结果和 {@link #group(Iterable, String)} 相同, 返回的 {@link LinkedHashMap} 的key顺序是 <code>propertyName</code> 的值第一次出现的顺序, 每组的元素顺序是
+     * <code>beanList</code> 中的顺序</li>
+     * <li>每个分区是 <code>beanList</code> 中连续的一段, 合并的时候按照批次顺序追加, 所以结果是确定的, 和线程执行的先后无关</li>
+     * <li>适合元素非常多(比如百万级别)并且读取属性耗时的场景, 数据量小的时候直接使用 {@link #group(Iterable, String)} 即可</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * Map{@code <String, List<User>>} map = GroupUtil.groupParallel(list, "name", new PartitionThreadConfig(4, 10000));
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <T>
+     *            注意,此处的T是属性值,Object类型,如果从excel中读取的类型是String,那么不能简简单单的使用Integer来接收,不能强制转换
+     * @param <O>
+     *            the generic type
+     * @param beanList
+     *            bean list
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @param partitionThreadConfig
+     *            分区和线程配置, 比如 {@link PartitionThreadConfig#INSTANCE}
+     * @return 如果 <code>beanList</code> 是null或者empty,返回 {@link Collections#emptyMap()}<br>
+     *         如果 <code>propertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>propertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>partitionThreadConfig</code> 是null,抛出 {@link NullPointerException}
+     * @see #group(Iterable, String)
+     * @see ThreadUtil#executeAndReduce(List, PartitionThreadConfig, Map, com.feilong.core.lang.thread.PartitionCallableHandler,
+     *      java.util.function.BinaryOperator)
+     * @since 4.5.5
+     */
+    public static <T, O> Map<T, List<O>> groupParallel(List<O> beanList,String propertyName,PartitionThreadConfig partitionThreadConfig){
+        if (isNullOrEmpty(beanList)){
+            return emptyMap();
+        }
+        Validate.notBlank(propertyName, "propertyName can't be null/empty!");
+        Validate.notNull(partitionThreadConfig, "partitionThreadConfig can't be null!");
+
+        //---------------------------------------------------------------
+        return ThreadUtil.executeAndReduce(beanList, partitionThreadConfig, null, (perBatchList,partitionThreadEntity,paramsMap) -> {
+            Map<T, List<O>> map = newLinkedHashMap();
+            for (O obj : perBatchList){
+                map.computeIfAbsent(PropertyUtil.<T> getProperty(obj, propertyName), key -> new ArrayList<>()).add(obj);
+            }
+            return map;
+        }, (map1,map2) -> {
+            //按照批次顺序合并, 新出现的key追加在后面, 保证和串行分组的顺序相同
+            for (Map.Entry<T, List<O>> entry : map2.entrySet()){
+                List<O> list = map1.get(entry.getKey());
+                if (null == list){
+                    map1.put(entry.getKey(), entry.getValue());
+                }else{
+                    list.addAll(entry.getValue());
+                }
+            }
+            return map1;
+        });
+    }
+
     /**
      * 循环 <code>beanIterable</code>,找到符合条件的 <code>includePredicate</code>的元素,以元素的 <code>propertyName</code>
      * 属性值为key,相同值的元素组成list作为value,封装成map返回.
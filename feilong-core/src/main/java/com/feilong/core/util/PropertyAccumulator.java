@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static com.feilong.core.Validator.isNullOrEmpty;
+import static com.feilong.core.bean.ConvertUtil.toBigDecimal;
+
+import java.math.BigDecimal;
+
+/**
+ * 单个属性的累加器, 同时记录 sum/min/max, 可以合并(用于分段并行统计).
+ * 
+ * <p>
+ * Integer/Long/Short/Byte 类型的值使用 long 累加(溢出的时候转存到 {@link BigDecimal}), 其他类型转成 {@link BigDecimal} 累加, 避免每个元素都创建
+ * {@link BigDecimal}.
+ * </p>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+final class PropertyAccumulator{
+
+    /** 整数值的和. */
+    private long       longSum;
+
+    /** 非整数值的和, 以及 long 溢出时转存的和. */
+    private BigDecimal decimalSum = BigDecimal.ZERO;
+
+    /** 是否有整数值. */
+    private boolean    hasLong;
+
+    /** 整数值的最小值. */
+    private long       longMin    = Long.MAX_VALUE;
+
+    /** 整数值的最大值. */
+    private long       longMax    = Long.MIN_VALUE;
+
+    /** 非整数值的最小值. */
+    private BigDecimal decimalMin;
+
+    /** 非整数值的最大值. */
+    private BigDecimal decimalMax;
+
+    //---------------------------------------------------------------
+
+    /**
+     * 累加一个属性值.
+     *
+     * @param value
+     *            属性值, null或者empty 的时候当作0累加, 不参与 min/max
+     */
+    void add(Object value){
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte){
+            addLong(((Number) value).longValue());
+            return;
+        }
+        if (isNullOrEmpty(value)){
+            return;
+        }
+
+        //---------------------------------------------------------------
+        BigDecimal decimal = value instanceof BigDecimal ? (BigDecimal) value : toBigDecimal(value);
+        decimalSum = decimalSum.add(decimal);
+        decimalMin = min(decimalMin, decimal);
+        decimalMax = max(decimalMax, decimal);
+    }
+
+    /**
+     * 合并另外一个累加器.
+     *
+     * @param other
+     *            the other
+     */
+    void merge(PropertyAccumulator other){
+        decimalSum = decimalSum.add(other.decimalSum);
+        addLongSum(other.longSum);
+        if (other.hasLong){
+            hasLong = true;
+            longMin = Math.min(longMin, other.longMin);
+            longMax = Math.max(longMax, other.longMax);
+        }
+        decimalMin = min(decimalMin, other.decimalMin);
+        decimalMax = max(decimalMax, other.decimalMax);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 总和.
+     *
+     * @return the sum
+     */
+    BigDecimal getSum(){
+        return 0 == longSum ? decimalSum : decimalSum.add(BigDecimal.valueOf(longSum));
+    }
+
+    /**
+     * 最小值.
+     *
+     * @return 如果没有非空的值, 返回null
+     */
+    BigDecimal getMin(){
+        return min(decimalMin, hasLong ? BigDecimal.valueOf(longMin) : null);
+    }
+
+    /**
+     * 最大值.
+     *
+     * @return 如果没有非空的值, 返回null
+     */
+    BigDecimal getMax(){
+        return max(decimalMax, hasLong ? BigDecimal.valueOf(longMax) : null);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Adds the long.
+     *
+     * @param value
+     *            the value
+     */
+    private void addLong(long value){
+        addLongSum(value);
+        hasLong = true;
+        if (value < longMin){
+            longMin = value;
+        }
+        if (value > longMax){
+            longMax = value;
+        }
+    }
+
+    /**
+     * 累加到 {@link #longSum}, 溢出的时候先把 {@link #longSum} 转存到 {@link #decimalSum}.
+     *
+     * @param value
+     *            the value
+     */
+    private void addLongSum(long value){
+        long result = longSum + value;
+        //同号相加结果变号, 表示溢出
+        if (((longSum ^ result) & (value ^ result)) < 0){
+            decimalSum = decimalSum.add(BigDecimal.valueOf(longSum));
+            longSum = value;
+        }else{
+            longSum = result;
+        }
+    }
+
+    /**
+     * Min.
+     *
+     * @param one
+     *            the one
+     * @param two
+     *            the two
+     * @return the big decimal
+     */
+    private static BigDecimal min(BigDecimal one,BigDecimal two){
+        if (null == one){
+            return two;
+        }
+        return null == two || one.compareTo(two) <= 0 ? one : two;
+    }
+
+    /**
+     * Max.
+     *
+     * @param one
+     *            the one
+     * @param two
+     *            the two
+     * @return the big decimal
+     */
+    private static BigDecimal max(BigDecimal one,BigDecimal two){
+        if (null == one){
+            return two;
+        }
+        return null == two || one.compareTo(two) >= 0 ? one : two;
+    }
+}
@@ -22,15 +22,18 @@ import static com.feilong.core.bean.ConvertUtil.toMap;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import com.feilong.core.Validate;
 import com.feilong.core.util.comparator.BeanComparatorUtil;
 import com.feilong.core.util.comparator.ComparatorUtil;
+import com.feilong.core.util.comparator.PrecomputedKeySorter;
 import com.feilong.core.util.comparator.PropertyComparator;
 import com.feilong.lib.collection4.ComparatorUtils;
 import com.feilong.lib.collection4.comparators.FixedOrderComparator.UnknownObjectBehavior;
@@ -506,6 +509,7 @@ public final class SortUtil{
      *         如果 <code>comparators length ==1</code>,取 comparators[0]做排序; <br>
      *         如果 {@code comparators length > 1},转成 {@link ComparatorUtils#chainedComparator(Comparator...)}排序;
      * @see java.util.Collections#sort(List, Comparator)
+     * @see PrecomputedKeySorter#sort(List, Comparator...)
      * @since 1.8.2
      * @since 1.8.7 change method name
      */
@@ -518,8 +522,8 @@ public final class SortUtil{
         if (isNullOrEmpty(comparators)){
             return list;
         }
-        Collections.sort(list, toComparator(comparators));
-        return list;
+        //其中的 PropertyComparator 每个元素只提取一次属性值, 而不是每次比较都提取
+        return PrecomputedKeySorter.sort(list, comparators);
     }
 
     /**
@@ -637,6 +641,7 @@ public final class SortUtil{
      * @see BeanComparatorUtil#chainedComparator(String...)
      * @see com.feilong.lib.collection4.ComparatorUtils#chainedComparator(java.util.Comparator...)
      * @see #sortList(List, Comparator...)
+     * @see PrecomputedKeySorter#sortByPropertyNamesValue(List, String...)
      * @since 1.8.7 change name
      */
     public static <O> List<O> sortListByPropertyNamesValue(List<O> list,String...propertyNameAndOrders){
@@ -646,8 +651,8 @@ public final class SortUtil{
         Validate.notEmpty(propertyNameAndOrders, "propertyNameAndOrders can't be null/empty!");
         Validate.noNullElements(propertyNameAndOrders, "propertyNameAndOrders:[%s] has empty value", propertyNameAndOrders);
 
-        Comparator<O> comparator = BeanComparatorUtil.chainedComparator(propertyNameAndOrders);
-        return sortList(list, comparator);
+        //排序规则和 BeanComparatorUtil.chainedComparator(propertyNameAndOrders) 一致, 但是每个元素每个属性只提取一次属性值
+        return PrecomputedKeySorter.sortByPropertyNamesValue(list, propertyNameAndOrders);
     }
 
     //---------------------------------------------------------------
@@ -780,6 +785,170 @@ public final class SortUtil{
         return sortList(list, propertyComparator);
     }
 
+    //-------------------------top--------------------------------------
+
+    /**
+     * 从 <code>iterable</code> 中选出按照 <code>comparators</code>(链式) 排序之后的前 <code>topN</code> 个元素.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>相当于 <code>sortList(list, comparators).subList(0, topN)</code>, 但是不需要对全部元素排序;
+     * 使用大小是 <code>topN</code> 的堆, 时间复杂度是 O(n log topN)</li>
+     * <li>原 <code>iterable</code> 不会被修改</li>
+     * <li>值相同的元素保持原来的先后顺序</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <p>
+     * <b>场景:</b> 取 age 最大的2个 user
+     * </p>
+     * 
+     * <pre class="code">
+     * User zhangfei = new User("张飞", 23);
+     * User guanyu = new User("关羽", 30);
+     * User liubei = new User("刘备", 25);
+     * List{@code <User>} list = toList(zhangfei, guanyu, liubei);
+     * 
+     * List{@code <User>} topList = SortUtil.topList(list, 2, new ReverseComparator{@code <>}(new PropertyComparator{@code <User>}("age")));
+     * 
+     * assertThat(topList, contains(guanyu, liubei));
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param iterable
+     *            the iterable
+     * @param topN
+     *            需要的元素个数
+     * @param comparators
+     *            the comparators
+     * @return 如果 <code>iterable</code> 是null,返回 empty list<br>
+     *         如果元素个数小于 <code>topN</code>, 返回全部元素排好序的list<br>
+     *         返回的总是新创建的可修改的list(包括 empty list 的情况), 调用方可以直接修改
+     * @throws NullPointerException
+     *             如果 <code>comparators</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>topN</code> 小于0,或者 <code>comparators</code> 是empty
+     * @see PrecomputedKeySorter#top(Iterator, int, Comparator...)
+     * @since 4.5.5
+     */
+    @SafeVarargs
+    public static <O> List<O> topList(Iterable<O> iterable,int topN,Comparator<O>...comparators){
+        return null == iterable ? new ArrayList<>() : topList(iterable.iterator(), topN, comparators);
+    }
+
+    /**
+     * 从 <code>iterator</code> 中选出按照 <code>comparators</code>(链式) 排序之后的前 <code>topN</code> 个元素.
+     * 
+     * <p>
+     * 元素逐个读取, 只保留当前的前 <code>topN</code> 个, 适合数据库游标, 文件行等不方便全部加载到内存的数据源; 其他说明参见
+     * {@link #topList(Iterable, int, Comparator...)}
+     * </p>
+     *
+     * @param <O>
+     *            the generic type
+     * @param iterator
+     *            the iterator
+     * @param topN
+     *            需要的元素个数
+     * @param comparators
+     *            the comparators
+     * @return 如果 <code>iterator</code> 是null,返回 empty list<br>
+     *         如果元素个数小于 <code>topN</code>, 返回全部元素排好序的list<br>
+     *         返回的总是新创建的可修改的list(包括 empty list 的情况), 调用方可以直接修改
+     * @throws NullPointerException
+     *             如果 <code>comparators</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>topN</code> 小于0,或者 <code>comparators</code> 是empty
+     * @see PrecomputedKeySorter#top(Iterator, int, Comparator...)
+     * @since 4.5.5
+     */
+    @SafeVarargs
+    public static <O> List<O> topList(Iterator<O> iterator,int topN,Comparator<O>...comparators){
+        if (null == iterator){
+            return new ArrayList<>();
+        }
+        return PrecomputedKeySorter.top(iterator, topN, comparators);
+    }
+
+    /**
+     * 从 <code>iterable</code> 中选出按照指定属性的值(组合)排序之后的前 <code>topN</code> 个元素.
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <p>
+     * <b>场景:</b> 取最新的20个订单
+     * </p>
+     * 
+     * <pre class="code">
+     * List{@code <SalesOrder>} latestList = SortUtil.topListByPropertyNamesValue(salesOrderList, 20, "createTime desc", "id desc");
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param iterable
+     *            the iterable
+     * @param topN
+     *            需要的元素个数
+     * @param propertyNameAndOrders
+     *            属性名称和排序因子, 格式和排序规则参见 {@link #sortListByPropertyNamesValue(List, String...)}
+     * @return 如果 <code>iterable</code> 是null,返回 empty list<br>
+     *         如果元素个数小于 <code>topN</code>, 返回全部元素排好序的list<br>
+     *         返回的总是新创建的可修改的list(包括 empty list 的情况), 调用方可以直接修改
+     * @throws NullPointerException
+     *             如果 <code>propertyNameAndOrders</code> 是null,或者有元素是 null
+     * @throws IllegalArgumentException
+     *             如果 <code>topN</code> 小于0,或者 <code>propertyNameAndOrders</code> 是empty,或者有元素是 blank
+     * @see PrecomputedKeySorter#topByPropertyNamesValue(Iterator, int, String...)
+     * @since 4.5.5
+     */
+    public static <O> List<O> topListByPropertyNamesValue(Iterable<O> iterable,int topN,String...propertyNameAndOrders){
+        return null == iterable ? new ArrayList<>() : topListByPropertyNamesValue(iterable.iterator(), topN, propertyNameAndOrders);
+    }
+
+    /**
+     * 从 <code>iterator</code> 中选出按照指定属性的值(组合)排序之后的前 <code>topN</code> 个元素.
+     * 
+     * <p>
+     * 元素逐个读取, 只保留当前的前 <code>topN</code> 个; 其他说明参见 {@link #topListByPropertyNamesValue(Iterable, int, String...)}
+     * </p>
+     *
+     * @param <O>
+     *            the generic type
+     * @param iterator
+     *            the iterator
+     * @param topN
+     *            需要的元素个数
+     * @param propertyNameAndOrders
+     *            属性名称和排序因子, 格式和排序规则参见 {@link #sortListByPropertyNamesValue(List, String...)}
+     * @return 如果 <code>iterator</code> 是null,返回 empty list<br>
+     *         如果元素个数小于 <code>topN</code>, 返回全部元素排好序的list<br>
+     *         返回的总是新创建的可修改的list(包括 empty list 的情况), 调用方可以直接修改
+     * @throws NullPointerException
+     *             如果 <code>propertyNameAndOrders</code> 是null,或者有元素是 null
+     * @throws IllegalArgumentException
+     *             如果 <code>topN</code> 小于0,或者 <code>propertyNameAndOrders</code> 是empty,或者有元素是 blank
+     * @see PrecomputedKeySorter#topByPropertyNamesValue(Iterator, int, String...)
+     * @since 4.5.5
+     */
+    public static <O> List<O> topListByPropertyNamesValue(Iterator<O> iterator,int topN,String...propertyNameAndOrders){
+        if (null == iterator){
+            return new ArrayList<>();
+        }
+        return PrecomputedKeySorter.topByPropertyNamesValue(iterator, topN, propertyNameAndOrders);
+    }
+
     //---------------------------------------------------------------
 
     /**
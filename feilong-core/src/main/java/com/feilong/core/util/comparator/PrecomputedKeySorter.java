@@ -0,0 +1,587 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.comparator;
+
+import static com.feilong.core.util.comparator.SortHelper.isAsc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.PriorityQueue;
+
+import com.feilong.core.Validate;
+import com.feilong.core.bean.PropertyUtil;
+import com.feilong.lib.collection4.ComparatorUtils;
+import com.feilong.lib.collection4.comparators.ComparableComparator;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * 先提取排序 key 再排序(decorate-sort-undecorate) 的排序器.
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>{@link PropertyComparator} 每次比较都要提取两次属性值(可能还有类型转换), n 个元素排序大约需要 2·n·log n 次提取</li>
+ * <li>此类先把每个元素的每个排序属性值提取一次(n 次), 对 key 数组排序, 再按照排序后的顺序写回 list</li>
+ * <li>只需要前 N 个元素的时候(比如排行榜), 可以使用 {@link #top(Iterator, int, Comparator...)}, 使用大小是 N 的堆选出来, 不需要对全部元素排序</li>
+ * <li>排序结果(包括稳定性, null 的位置, 值相同时候的顺序)和直接使用对应的 {@link Comparator} 调用 {@link java.util.Collections#sort(List, Comparator)}
+ * 一致</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @see <a href="https://en.wikipedia.org/wiki/Schwartzian_transform">Schwartzian transform</a>
+ * @since 4.5.5
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class PrecomputedKeySorter{
+
+    /** 多属性排序时, 比较属性值的比较器(null排在最后面), 和 {@link BeanComparatorUtil#chainedComparator(String...)} 一致. */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static final Comparator<Object> NULL_HIGH_COMPARATOR = ComparatorUtils
+                    .nullHighComparator((Comparator) ComparableComparator.comparableComparator());
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用 <code>comparators</code>(链式) 对 <code>list</code> 排序, 其中的 {@link PropertyComparator} 每个元素只提取一次属性值.
+     * 
+     * <p>
+     * 如果 <code>comparators</code> 里面没有 {@link PropertyComparator}, 那么直接使用 {@link List#sort(Comparator)}<br>
+     * {@link PropertyComparator} 的子类可能重写了 {@link Comparator#compare(Object, Object)}, 当做普通的 {@link Comparator} 处理
+     * </p>
+     *
+     * @param <O>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param comparators
+     *            the comparators
+     * @return <code>list</code>
+     * @throws NullPointerException
+     *             如果 <code>list</code> 是null,或者 <code>comparators</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>comparators</code> 是empty
+     */
+    @SafeVarargs
+    public static <O> List<O> sort(List<O> list,Comparator<O>...comparators){
+        Validate.notNull(list, "list can't be null!");
+        Validate.notEmpty(comparators, "comparators can't be null/empty!");
+
+        boolean hasPropertyComparator = false;
+        for (Comparator<O> comparator : comparators){
+            hasPropertyComparator |= isPropertyComparator(comparator);
+        }
+
+        //---------------------------------------------------------------
+        if (!hasPropertyComparator){
+            list.sort(1 == comparators.length ? comparators[0] : ComparatorUtils.chainedComparator(comparators));
+            return list;
+        }
+        return sort(list, toSortKeys(comparators));
+    }
+
+    /**
+     * 按照 <code>propertyNameAndOrders</code> 对 <code>list</code> 排序, 每个元素每个属性只提取一次属性值.
+     * 
+     * <p>
+     * 排序规则和 {@link BeanComparatorUtil#chainedComparator(String...)} 一致.
+     * </p>
+     *
+     * @param <O>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param propertyNameAndOrders
+     *            属性名称和排序因子, 格式可以是纯的属性名称, 比如 "name"; 也可以是属性名称+排序因子(以空格分隔),比如 "name desc"
+     * @return <code>list</code>
+     * @throws NullPointerException
+     *             如果 <code>list</code> 是null,或者 <code>propertyNameAndOrders</code> 是null,或者有元素是 null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyNameAndOrders</code> 是empty,或者有元素是 blank
+     * @see BeanComparatorUtil#chainedComparator(String...)
+     */
+    public static <O> List<O> sortByPropertyNamesValue(List<O> list,String...propertyNameAndOrders){
+        Validate.notNull(list, "list can't be null!");
+        return sort(list, PrecomputedKeySorter.<O> toSortKeys(propertyNameAndOrders));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 从 <code>iterator</code> 中选出按照 <code>comparators</code>(链式) 排序之后的前 <code>topN</code> 个元素.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>使用大小是 <code>topN</code> 的堆, 时间复杂度是 O(n log topN), 不需要把 <code>iterator</code> 的元素全部加载到内存</li>
+     * <li>返回的结果和对全部元素调用 {@link #sort(List, Comparator...)} 之后取前 <code>topN</code> 个元素一致(值相同的元素保持原来的先后顺序)</li>
+     * <li>其中的 {@link PropertyComparator} 每个元素只提取一次属性值</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param iterator
+     *            the iterator
+     * @param topN
+     *            需要的元素个数
+     * @param comparators
+     *            the comparators
+     * @return 排好序的前 <code>topN</code> 个元素, 如果元素个数小于 <code>topN</code>, 返回全部元素排好序的list<br>
+     *         如果 <code>topN</code> 是0,返回 empty list<br>
+     *         返回的总是新创建的可修改的list(包括 empty list 的情况)
+     * @throws NullPointerException
+     *             如果 <code>iterator</code> 是null,或者 <code>comparators</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>topN</code> 小于0,或者 <code>comparators</code> 是empty
+     */
+    @SafeVarargs
+    public static <O> List<O> top(Iterator<O> iterator,int topN,Comparator<O>...comparators){
+        Validate.notNull(iterator, "iterator can't be null!");
+        Validate.isTrue(topN >= 0, "topN:[%s] can't be negative!", topN);
+        Validate.notEmpty(comparators, "comparators can't be null/empty!");
+        return top(iterator, topN, toSortKeys(comparators));
+    }
+
+    /**
+     * 从 <code>iterator</code> 中选出按照 <code>propertyNameAndOrders</code> 排序之后的前 <code>topN</code> 个元素.
+     * 
+     * <p>
+     * 排序规则和 {@link #sortByPropertyNamesValue(List, String...)} 一致, 其他说明参见 {@link #top(Iterator, int, Comparator...)}
+     * </p>
+     *
+     * @param <O>
+     *            the generic type
+     * @param iterator
+     *            the iterator
+     * @param topN
+     *            需要的元素个数
+     * @param propertyNameAndOrders
+     *            属性名称和排序因子, 格式可以是纯的属性名称, 比如 "name"; 也可以是属性名称+排序因子(以空格分隔),比如 "name desc"
+     * @return 排好序的前 <code>topN</code> 个元素, 如果元素个数小于 <code>topN</code>, 返回全部元素排好序的list<br>
+     *         如果 <code>topN</code> 是0,返回 empty list<br>
+     *         返回的总是新创建的可修改的list(包括 empty list 的情况)
+     * @throws NullPointerException
+     *             如果 <code>iterator</code> 是null,或者 <code>propertyNameAndOrders</code> 是null,或者有元素是 null
+     * @throws IllegalArgumentException
+     *             如果 <code>topN</code> 小于0,或者 <code>propertyNameAndOrders</code> 是empty,或者有元素是 blank
+     */
+    public static <O> List<O> topByPropertyNamesValue(Iterator<O> iterator,int topN,String...propertyNameAndOrders){
+        Validate.notNull(iterator, "iterator can't be null!");
+        Validate.isTrue(topN >= 0, "topN:[%s] can't be negative!", topN);
+        return top(iterator, topN, PrecomputedKeySorter.<O> toSortKeys(propertyNameAndOrders));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 是否是 {@link PropertyComparator} 本身(不包含子类).
+     * 
+     * <p>
+     * 子类可能重写了 {@link Comparator#compare(Object, Object)}, 如果预先提取属性值, 会绕过重写的比较逻辑.
+     * </p>
+     *
+     * @param comparator
+     *            the comparator
+     * @return 如果 <code>comparator</code> 的类型就是 {@link PropertyComparator}, 返回true
+     */
+    private static boolean isPropertyComparator(Comparator<?> comparator){
+        return null != comparator && comparator.getClass() == PropertyComparator.class;
+    }
+
+    /**
+     * 将 <code>comparators</code> 转成排序规则, {@link PropertyComparator} 预先提取属性值, 其他的 {@link Comparator} 直接比较元素.
+     *
+     * @param <O>
+     *            the generic type
+     * @param comparators
+     *            the comparators
+     * @return the sort key[]
+     */
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    private static <O> SortKey<O>[] toSortKeys(Comparator<O>...comparators){
+        SortKey<O>[] sortKeys = new SortKey[comparators.length];
+        for (int i = 0; i < comparators.length; ++i){
+            Comparator<O> comparator = comparators[i];
+            sortKeys[i] = isPropertyComparator(comparator) ? new PropertyComparatorSortKey<>((PropertyComparator<O>) comparator)
+                            : new ComparatorSortKey<>(comparator);
+        }
+        return sortKeys;
+    }
+
+    /**
+     * 将 <code>propertyNameAndOrders</code> 转成排序规则, 和 {@link BeanComparatorUtil#chainedComparator(String...)} 一致.
+     *
+     * @param <O>
+     *            the generic type
+     * @param propertyNameAndOrders
+     *            the property name and orders
+     * @return the sort key[]
+     */
+    @SuppressWarnings("unchecked")
+    private static <O> SortKey<O>[] toSortKeys(String...propertyNameAndOrders){
+        Validate.notEmpty(propertyNameAndOrders, "propertyNameAndOrders can't be null/empty!");
+
+        //单值的时候和 BeanComparatorUtil.propertyComparator(String) 一致, 值相同的时候会继续比较元素本身
+        if (1 == propertyNameAndOrders.length){
+            String[] propertyNameAndOrderArray = SortHelper.parsePropertyNameAndOrder(propertyNameAndOrders[0]);
+            SortKey<O> sortKey = new PropertyComparatorSortKey<>(new PropertyComparator<O>(propertyNameAndOrderArray[0]));
+            return new SortKey[] { isAsc(propertyNameAndOrderArray) ? sortKey : new ReversedSortKey<>(sortKey) };
+        }
+
+        //---------------------------------------------------------------
+        SortKey<O>[] sortKeys = new SortKey[propertyNameAndOrders.length];
+        for (int i = 0; i < propertyNameAndOrders.length; ++i){
+            Validate.notBlank(propertyNameAndOrders[i], "propertyNameAndOrder can't be blank!");
+
+            String[] propertyNameAndOrderArray = SortHelper.parsePropertyNameAndOrder(propertyNameAndOrders[i]);
+            SortKey<O> sortKey = new PropertyValueSortKey<>(propertyNameAndOrderArray[0]);
+            sortKeys[i] = isAsc(propertyNameAndOrderArray) ? sortKey : new ReversedSortKey<>(sortKey);
+        }
+        return sortKeys;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 提取 key, 排序, 写回 list.
+     *
+     * @param <O>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param sortKeys
+     *            the sort keys
+     * @return the list
+     */
+    @SuppressWarnings("unchecked")
+    private static <O> List<O> sort(List<O> list,SortKey<O>[] sortKeys){
+        int size = list.size();
+        if (size < 2){
+            return list;
+        }
+
+        //decorate
+        Decorated<O>[] decorateds = new Decorated[size];
+        int index = 0;
+        for (O bean : list){
+            decorateds[index] = decorate(bean, index, sortKeys);
+            index++;
+        }
+
+        //sort, Arrays.sort(Object[],Comparator) 是稳定排序, 和 Collections.sort 一致
+        Arrays.sort(decorateds, keysComparator(sortKeys));
+
+        //undecorate
+        ListIterator<O> listIterator = list.listIterator();
+        for (Decorated<O> decorated : decorateds){
+            listIterator.next();
+            listIterator.set(decorated.bean);
+        }
+        return list;
+    }
+
+    /**
+     * 使用大小是 <code>topN</code> 的大顶堆(堆顶是目前选中的元素里面排在最后的元素)选出前 <code>topN</code> 个元素.
+     *
+     * @param <O>
+     *            the generic type
+     * @param iterator
+     *            the iterator
+     * @param topN
+     *            the top N
+     * @param sortKeys
+     *            the sort keys
+     * @return the list
+     */
+    private static <O> List<O> top(Iterator<O> iterator,int topN,SortKey<O>[] sortKeys){
+        if (0 == topN){
+            return new ArrayList<>(0);
+        }
+
+        //值相同的时候, 先出现的排在前面, 和稳定排序的结果一致
+        Comparator<Decorated<O>> comparator = keysComparator(sortKeys).thenComparingLong(decorated -> decorated.index);
+        PriorityQueue<Decorated<O>> heap = new PriorityQueue<>(Math.min(topN, 1024), comparator.reversed());
+
+        long index = 0;
+        while (iterator.hasNext()){
+            Decorated<O> decorated = decorate(iterator.next(), index++, sortKeys);
+            if (heap.size() < topN){
+                heap.add(decorated);
+            }else if (comparator.compare(decorated, heap.peek()) < 0){
+                heap.poll();
+                heap.add(decorated);
+            }
+        }
+
+        //---------------------------------------------------------------
+        List<Decorated<O>> decorateds = new ArrayList<>(heap);
+        decorateds.sort(comparator);
+
+        List<O> result = new ArrayList<>(decorateds.size());
+        for (Decorated<O> decorated : decorateds){
+            result.add(decorated.bean);
+        }
+        return result;
+    }
+
+    /**
+     * 提取 <code>bean</code> 的每一个 key.
+     *
+     * @param <O>
+     *            the generic type
+     * @param bean
+     *            the bean
+     * @param index
+     *            元素在原来集合中的位置
+     * @param sortKeys
+     *            the sort keys
+     * @return the decorated
+     */
+    private static <O> Decorated<O> decorate(O bean,long index,SortKey<O>[] sortKeys){
+        Object[] keys = new Object[sortKeys.length];
+        for (int i = 0; i < sortKeys.length; ++i){
+            keys[i] = sortKeys[i].extract(bean);
+        }
+        return new Decorated<>(bean, index, keys);
+    }
+
+    /**
+     * 依次使用 <code>sortKeys</code> 比较提取好的 key.
+     *
+     * @param <O>
+     *            the generic type
+     * @param sortKeys
+     *            the sort keys
+     * @return the comparator
+     */
+    private static <O> Comparator<Decorated<O>> keysComparator(SortKey<O>[] sortKeys){
+        return (d1,d2) -> {
+            for (int i = 0; i < sortKeys.length; ++i){
+                int result = sortKeys[i].compare(d1.bean, d2.bean, d1.keys[i], d2.keys[i]);
+                if (0 != result){
+                    return result;
+                }
+            }
+            return 0;
+        };
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 元素以及提取好的 key.
+     *
+     * @param <O>
+     *            the generic type
+     */
+    private static final class Decorated<O>{
+
+        /** The bean. */
+        private final O        bean;
+
+        /** 元素在原来集合中的位置. */
+        private final long     index;
+
+        /** 和 sortKeys 一一对应. */
+        private final Object[] keys;
+
+        /**
+         * Instantiates a new decorated.
+         *
+         * @param bean
+         *            the bean
+         * @param index
+         *            the index
+         * @param keys
+         *            the keys
+         */
+        private Decorated(O bean, long index, Object[] keys){
+            this.bean = bean;
+            this.index = index;
+            this.keys = keys;
+        }
+    }
+
+    /**
+     * 一级排序规则: 如何提取 key, 以及如何比较提取好的 key.
+     *
+     * @param <O>
+     *            the generic type
+     */
+    private interface SortKey<O> {
+
+        /**
+         * 提取 key.
+         *
+         * @param bean
+         *            the bean
+         * @return the object
+         */
+        Object extract(O bean);
+
+        /**
+         * 比较.
+         *
+         * @param bean1
+         *            the bean 1
+         * @param bean2
+         *            the bean 2
+         * @param key1
+         *            the key 1
+         * @param key2
+         *            the key 2
+         * @return the int
+         */
+        int compare(O bean1,O bean2,Object key1,Object key2);
+    }
+
+    /**
+     * {@link PropertyComparator} 对应的排序规则.
+     *
+     * @param <O>
+     *            the generic type
+     */
+    private static final class PropertyComparatorSortKey<O> implements SortKey<O>{
+
+        /** The property comparator. */
+        private final PropertyComparator<O> propertyComparator;
+
+        /**
+         * Instantiates a new property comparator sort key.
+         *
+         * @param propertyComparator
+         *            the property comparator
+         */
+        private PropertyComparatorSortKey(PropertyComparator<O> propertyComparator){
+            this.propertyComparator = propertyComparator;
+        }
+
+        @Override
+        public Object extract(O bean){
+            return propertyComparator.extractPropertyValue(bean);
+        }
+
+        @SuppressWarnings("rawtypes")
+        @Override
+        public int compare(O bean1,O bean2,Object key1,Object key2){
+            return propertyComparator.compareExtracted(bean1, bean2, (Comparable) key1, (Comparable) key2);
+        }
+    }
+
+    /**
+     * 属性值排序规则, null排在最后面, 值相同返回0, 和 {@link BeanComparatorUtil#chainedComparator(String...)} 里面的单个比较器一致.
+     *
+     * @param <O>
+     *            the generic type
+     */
+    private static final class PropertyValueSortKey<O> implements SortKey<O>{
+
+        /** The property name. */
+        private final String propertyName;
+
+        /**
+         * Instantiates a new property value sort key.
+         *
+         * @param propertyName
+         *            the property name
+         */
+        private PropertyValueSortKey(String propertyName){
+            this.propertyName = propertyName;
+        }
+
+        @Override
+        public Object extract(O bean){
+            return PropertyUtil.getProperty(bean, propertyName);
+        }
+
+        @Override
+        public int compare(O bean1,O bean2,Object key1,Object key2){
+            return NULL_HIGH_COMPARATOR.compare(key1, key2);
+        }
+    }
+
+    /**
+     * 不能预先提取 key 的普通 {@link Comparator}, key 就是元素本身.
+     *
+     * @param <O>
+     *            the generic type
+     */
+    private static final class ComparatorSortKey<O> implements SortKey<O>{
+
+        /** The comparator. */
+        private final Comparator<O> comparator;
+
+        /**
+         * Instantiates a new comparator sort key.
+         *
+         * @param comparator
+         *            the comparator
+         */
+        private ComparatorSortKey(Comparator<O> comparator){
+            this.comparator = comparator;
+        }
+
+        @Override
+        public Object extract(O bean){
+            return null;
+        }
+
+        @Override
+        public int compare(O bean1,O bean2,Object key1,Object key2){
+            return comparator.compare(bean1, bean2);
+        }
+    }
+
+    /**
+     * 倒序, 和 {@link com.feilong.lib.collection4.comparators.ReverseComparator} 一致(交换参数).
+     *
+     * @param <O>
+     *            the generic type
+     */
+    private static final class ReversedSortKey<O> implements SortKey<O>{
+
+        /** The sort key. */
+        private final SortKey<O> sortKey;
+
+        /**
+         * Instantiates a new reversed sort key.
+         *
+         * @param sortKey
+         *            the sort key
+         */
+        private ReversedSortKey(SortKey<O> sortKey){
+            this.sortKey = sortKey;
+        }
+
+        @Override
+        public Object extract(O bean){
+            return sortKey.extract(bean);
+        }
+
+        @Override
+        public int compare(O bean1,O bean2,Object key1,Object key2){
+            return sortKey.compare(bean2, bean1, key2, key1);
+        }
+    }
+}
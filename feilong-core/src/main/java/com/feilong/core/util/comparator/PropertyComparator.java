@@ -415,20 +415,58 @@ public class PropertyComparator<T> implements Comparator<T>,Serializable{
     public int compare(T t1,T t2){
         if (t1 == t2){
             return 0;
-        }else if (null == t1){//null 排在后面
-            return 1;
-        }else if (null == t2){
-            return -1;
         }
+        return compareExtracted(t1, t2, extractPropertyValue(t1), extractPropertyValue(t2));
+    }
 
-        //---------------------------------------------------------------------
-        Comparable propertyValue1 = PropertyUtil.getProperty(t1, propertyName);
-        Comparable propertyValue2 = PropertyUtil.getProperty(t2, propertyName);
+    //---------------------------------------------------------------
+
+    /**
+     * 提取 <code>t</code> 的 {@link #propertyName} 属性值(如果需要,会转换成 {@link #propertyValueConvertToClass}).
+     * 
+     * <p>
+     * 和 {@link #compareExtracted(Object, Object, Comparable, Comparable)} 配合使用, 排序的时候每个元素只需要提取一次属性值,参见
+     * {@link PrecomputedKeySorter}
+     * </p>
+     *
+     * @param t
+     *            the t
+     * @return 如果 <code>t</code> 是null,返回null
+     * @since 4.5.5
+     */
+    @SuppressWarnings("rawtypes")
+    Comparable extractPropertyValue(T t){
+        if (null == t){
+            return null;
+        }
+        Comparable propertyValue = PropertyUtil.getProperty(t, propertyName);
 
         //如果值需要类型转换
-        if (null != propertyValueConvertToClass){
-            propertyValue1 = ConvertUtil.convert(propertyValue1, propertyValueConvertToClass);
-            propertyValue2 = ConvertUtil.convert(propertyValue2, propertyValueConvertToClass);
+        return null == propertyValueConvertToClass ? propertyValue : ConvertUtil.convert(propertyValue, propertyValueConvertToClass);
+    }
+
+    /**
+     * 使用已经提取好的属性值比较 <code>t1</code> 和 <code>t2</code>, 结果和 {@link #compare(Object, Object)} 一致.
+     *
+     * @param t1
+     *            the t1
+     * @param t2
+     *            the t2
+     * @param propertyValue1
+     *            {@link #extractPropertyValue(Object)} 提取的 <code>t1</code> 的属性值
+     * @param propertyValue2
+     *            {@link #extractPropertyValue(Object)} 提取的 <code>t2</code> 的属性值
+     * @return the int
+     * @since 4.5.5
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    int compareExtracted(T t1,T t2,Comparable propertyValue1,Comparable propertyValue2){
+        if (t1 == t2){
+            return 0;
+        }else if (null == t1){//null 排在后面
+            return 1;
+        }else if (null == t2){
+            return -1;
         }
         return null == comparator ? compare(t1, t2, propertyValue1, propertyValue2) : comparator.compare(propertyValue1, propertyValue2);
     }
@@ -463,8 +501,10 @@ public class PropertyComparator<T> implements Comparator<T>,Serializable{
         int compareTo = ObjectUtils.compare(propertyValue1, propertyValue2, nullPropertyValueGreater);
 
         if (0 != compareTo){
-            String pattern = "propertyName:[{}],propertyValue1:[{}],propertyValue2:[{}],result:[{}]";
-            log.trace(pattern, propertyName, propertyValue1, propertyValue2, compareTo);
+            if (log.isTraceEnabled()){
+                String pattern = "propertyName:[{}],propertyValue1:[{}],propertyValue2:[{}],result:[{}]";
+                log.trace(pattern, propertyName, propertyValue1, propertyValue2, compareTo);
+            }
             return compareTo;
         }
         //比较值相等的情况
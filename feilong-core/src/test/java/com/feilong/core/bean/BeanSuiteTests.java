@@ -36,6 +36,8 @@ import com.feilong.core.bean.propertyutil.PropertyUtilSuiteTests;
                 ConvertUtilSuiteTests.class,
                 PropertyUtilSuiteTests.class,
                 PropertyValueObtainerSuiteTests.class,
+
+                CompiledPropertyAccessorTest.class,
         //
 })
 public class BeanSuiteTests{
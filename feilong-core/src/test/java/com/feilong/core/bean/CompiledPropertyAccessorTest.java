@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import static com.feilong.core.bean.CompiledPropertyAccessor.NOT_SUPPORTED;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.feilong.store.member.User;
+import com.feilong.store.member.UserInfo;
+
+/**
+ * The Class CompiledPropertyAccessorTest.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+public class CompiledPropertyAccessorTest{
+
+    @Test
+    public void testGet(){
+        User user = new User(8L, "feilong");
+        assertEquals(8L, CompiledPropertyAccessor.get(user, "id"));
+        assertEquals("feilong", CompiledPropertyAccessor.get(user, "name"));
+    }
+
+    @Test
+    public void testCacheLimit(){
+        User user = new User(8L, "feilong");
+
+        //调用方传入的属性名不可控, 缓存不能无限增长
+        for (int i = 0; i < CompiledPropertyAccessor.MAX_PATH_CACHE_SIZE * 3; ++i){
+            assertThat(CompiledPropertyAccessor.get(user, "notExist" + i), is(sameInstance(NOT_SUPPORTED)));
+            assertTrue(CompiledPropertyAccessor.pathCacheSize() <= CompiledPropertyAccessor.MAX_PATH_CACHE_SIZE);
+        }
+
+        //清空之后依然可以正常取值
+        assertEquals(8L, CompiledPropertyAccessor.get(user, "id"));
+        assertEquals("feilong", CompiledPropertyAccessor.get(user, "name"));
+    }
+
+    @Test
+    public void testPutWithLimit(){
+        Map<String, Integer> map = new HashMap<>();
+        for (int i = 0; i < 10; ++i){
+            CompiledPropertyAccessor.putWithLimit(map, "key" + i, i, 4);
+            assertTrue(map.size() <= 4);
+        }
+        assertEquals(Integer.valueOf(9), map.get("key9"));
+    }
+
+    @Test
+    public void testGetNullValue(){
+        User user = new User();
+        user.setName(null);
+        assertThat(CompiledPropertyAccessor.get(user, "name"), is(nullValue()));
+    }
+
+    @Test
+    public void testGetPrimitive(){
+        User user = new User();
+        user.setAgeInt(18);
+        assertEquals(18, CompiledPropertyAccessor.get(user, "ageInt"));
+    }
+
+    @Test
+    public void testGetNested(){
+        User user = new User();
+        user.setUserInfo(new UserInfo(20));
+        assertEquals(20, CompiledPropertyAccessor.get(user, "userInfo.age"));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testGetNestedNull(){
+        User user = new User();
+        user.setUserInfo(null);
+        assertThat(CompiledPropertyAccessor.get(user, "userInfo.age"), is(sameInstance(NOT_SUPPORTED)));
+    }
+
+    @Test
+    public void testGetIndexed(){
+        assertThat(CompiledPropertyAccessor.get(new User(), "loves[0]"), is(sameInstance(NOT_SUPPORTED)));
+        assertThat(CompiledPropertyAccessor.get(new User(), "[0].id"), is(sameInstance(NOT_SUPPORTED)));
+    }
+
+    @Test
+    public void testGetMapped(){
+        assertThat(CompiledPropertyAccessor.get(new User(), "attrMap(name)"), is(sameInstance(NOT_SUPPORTED)));
+    }
+
+    @Test
+    public void testGetMap(){
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", 8L);
+        assertThat(CompiledPropertyAccessor.get(map, "id"), is(sameInstance(NOT_SUPPORTED)));
+    }
+
+    @Test
+    public void testGetNotExist(){
+        assertThat(CompiledPropertyAccessor.get(new User(), "feilong"), is(sameInstance(NOT_SUPPORTED)));
+    }
+
+    @Test
+    public void testGetEmptySegment(){
+        assertThat(CompiledPropertyAccessor.get(new User(), "userInfo..age"), is(sameInstance(NOT_SUPPORTED)));
+        assertThat(CompiledPropertyAccessor.get(new User(), ""), is(sameInstance(NOT_SUPPORTED)));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testSet(){
+        User user = new User();
+        assertTrue(CompiledPropertyAccessor.set(user, "name", "feilong"));
+        assertEquals("feilong", user.getName());
+
+        assertTrue(CompiledPropertyAccessor.set(user, "name", null));
+        assertThat(user.getName(), is(nullValue()));
+    }
+
+    @Test
+    public void testSetPrimitive(){
+        User user = new User();
+        assertTrue(CompiledPropertyAccessor.set(user, "ageInt", 18));
+        assertEquals(18, user.getAgeInt());
+    }
+
+    @Test
+    public void testSetNested(){
+        User user = new User();
+        user.setUserInfo(new UserInfo());
+        assertTrue(CompiledPropertyAccessor.set(user, "userInfo.age", 20));
+        assertEquals(Integer.valueOf(20), user.getUserInfo().getAge());
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testSetNullToPrimitive(){
+        assertFalse(CompiledPropertyAccessor.set(new User(), "ageInt", null));
+    }
+
+    @Test
+    public void testSetTypeMismatch(){
+        User user = new User(1L);
+        assertFalse(CompiledPropertyAccessor.set(user, "id", "8"));
+        assertEquals(Long.valueOf(1L), user.getId());
+    }
+
+    @Test
+    public void testSetNestedNull(){
+        User user = new User();
+        user.setUserInfo(null);
+        assertFalse(CompiledPropertyAccessor.set(user, "userInfo.age", 20));
+    }
+
+    @Test
+    public void testSetNotExist(){
+        assertFalse(CompiledPropertyAccessor.set(new User(), "feilong", 20));
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date.dateutil;
+
+import static com.feilong.core.DatePattern.COMMON_DATE;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME_WITHOUT_SECOND;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME_WITH_MILLISECOND;
+
+import java.text.ParseException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.feilong.core.date.DateUtil;
+import com.feilong.lib.lang3.time.DateFormatUtils;
+import com.feilong.lib.lang3.time.DateUtils;
+
+/**
+ * {@link DateUtil#toDate(String, String...)} (缓存的解析器) 和 {@link DateUtils#parseDate(String, String...)} (每次 new FastDateParser) 的对比.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@Fork(0)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ToDateJMHTest{
+
+    /** 常用的多个模式, 最后一个才能匹配 <code>dateString</code>. */
+    private final String[] datePatterns = {
+                                            COMMON_DATE_AND_TIME_WITH_MILLISECOND,
+                                            COMMON_DATE_AND_TIME_WITHOUT_SECOND,
+                                            COMMON_DATE,
+                                            COMMON_DATE_AND_TIME };
+
+    private final String   dateString   = "2016-06-30 15:36:12";
+
+    private final Date     date         = new Date();
+
+    public static void main(String[] args) throws RunnerException{
+        final Options opts = new OptionsBuilder().include(ToDateJMHTest.class.getSimpleName())//
+                        .measurementIterations(5)//
+                        .warmupIterations(3)//
+
+                        .result("result.json")//
+                        .resultFormat(ResultFormatType.JSON)//
+                        .build();
+        new Runner(opts).run();
+    }
+
+    //---------------------------------------------------------------
+
+    @Benchmark
+    public Date toDateSinglePattern(){
+        return DateUtil.toDate(dateString, COMMON_DATE_AND_TIME);
+    }
+
+    @Benchmark
+    public Date parseDateSinglePattern() throws ParseException{
+        return DateUtils.parseDate(dateString, COMMON_DATE_AND_TIME);
+    }
+
+    @Benchmark
+    public Date toDateMultiPatterns(){
+        return DateUtil.toDate(dateString, datePatterns);
+    }
+
+    @Benchmark
+    public Date parseDateMultiPatterns() throws ParseException{
+        return DateUtils.parseDate(dateString, datePatterns);
+    }
+
+    //---------------------------------------------------------------
+
+    @Benchmark
+    public String toStringCommonDateAndTime(){
+        return DateUtil.toString(date, COMMON_DATE_AND_TIME);
+    }
+
+    @Benchmark
+    public String dateFormatUtilsCommonDateAndTime(){
+        return DateFormatUtils.format(date, COMMON_DATE_AND_TIME);
+    }
+}
@@ -16,17 +16,28 @@
 package com.feilong.core.date.dateutil;
 
 import static com.feilong.core.DatePattern.COMMON_DATE;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME;
 import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME_WITHOUT_SECOND;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME_WITH_MILLISECOND;
 import static com.feilong.core.DatePattern.TIMESTAMP_WITH_MILLISECOND;
 import static com.feilong.core.date.DateUtil.toDate;
 
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Test;
 
 import com.feilong.core.DatePattern;
 import com.feilong.core.date.DateUtil;
 import com.feilong.lib.lang3.StringUtils;
+import com.feilong.lib.lang3.time.DateUtils;
 
 public class ToDateTest{
 
@@ -108,4 +119,49 @@ public class ToDateTest{
     public void testToDate2(){
         toDate(StringUtils.trimToEmpty("2016-06-30 15:36 "), COMMON_DATE_AND_TIME_WITHOUT_SECOND);
     }
-}
\ No newline at end of file
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testToDateMultiPatterns() throws Exception{
+        String[] datePatterns = { COMMON_DATE_AND_TIME_WITH_MILLISECOND, COMMON_DATE_AND_TIME, COMMON_DATE_AND_TIME_WITHOUT_SECOND, COMMON_DATE };
+
+        for (String dateString : new String[] { "2016-06-30 15:36:12.123", "2016-06-30 15:36:12", "2016-06-30 15:36", "2016-06-30" }){
+            assertEquals(DateUtils.parseDate(dateString, datePatterns), toDate(dateString, datePatterns));
+        }
+    }
+
+    @Test
+    public void testToDateLenient() throws Exception{
+        assertEquals(DateUtils.parseDate("2016-02-33", COMMON_DATE), toDate("2016-02-33", COMMON_DATE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testToDateNoPatternMatch(){
+        toDate("2016/06/30", COMMON_DATE_AND_TIME, COMMON_DATE);
+    }
+
+    @Test
+    public void testToDateConcurrent() throws Exception{
+        final Date expected = DateUtils.parseDate("2016-06-30 15:36:12", COMMON_DATE_AND_TIME);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try{
+            Callable<Date> callable = () -> {
+                Date date = null;
+                for (int i = 0; i < 1000; ++i){
+                    date = toDate("2016-06-30 15:36:12", COMMON_DATE_AND_TIME_WITH_MILLISECOND, COMMON_DATE_AND_TIME);
+                    assertEquals(expected, date);
+                }
+                return date;
+            };
+
+            List<Future<Date>> futures = executorService.invokeAll(Collections.nCopies(8, callable));
+            for (Future<Date> future : futures){
+                assertEquals(expected, future.get());
+            }
+        }finally{
+            executorService.shutdown();
+        }
+    }
+}
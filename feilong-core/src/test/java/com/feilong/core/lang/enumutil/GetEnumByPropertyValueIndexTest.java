@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.enumutil;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import com.feilong.core.bean.BeanOperationException;
+import com.feilong.core.lang.EnumUtil;
+
+/**
+ * 索引缓存相关的 {@link EnumUtil#getEnumByPropertyValue(Class, String, Object)} 测试.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+public class GetEnumByPropertyValueIndexTest{
+
+    /**
+     * 有重复值, null 值的枚举.
+     */
+    public enum CodeType{
+
+        FIRST("A1", 1),
+
+        SECOND("b2", 2),
+
+        DUPLICATE("A1", 3),
+
+        NULL_CODE(null, 4),
+
+        TITLE("ǅ", 5);
+
+        private final String  code;
+
+        private final Integer number;
+
+        CodeType(String code, Integer number){
+            this.code = code;
+            this.number = number;
+        }
+
+        public String getCode(){
+            return code;
+        }
+
+        public Integer getNumber(){
+            return number;
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testFirstMatchWins(){
+        assertEquals(CodeType.FIRST, EnumUtil.getEnumByPropertyValue(CodeType.class, "code", "A1"));
+        assertEquals(CodeType.FIRST, EnumUtil.getEnumByPropertyValueIgnoreCase(CodeType.class, "code", "a1"));
+    }
+
+    @Test
+    public void testRepeatedLookup(){
+        for (int i = 0; i < 3; ++i){
+            assertEquals(CodeType.SECOND, EnumUtil.getEnumByPropertyValue(CodeType.class, "code", "b2"));
+            assertNull(EnumUtil.getEnumByPropertyValue(CodeType.class, "code", "B2"));
+            assertEquals(CodeType.SECOND, EnumUtil.getEnumByPropertyValueIgnoreCase(CodeType.class, "code", "B2"));
+        }
+    }
+
+    @Test
+    public void testNullValue(){
+        assertEquals(CodeType.NULL_CODE, EnumUtil.getEnumByPropertyValue(CodeType.class, "code", null));
+        assertNull(EnumUtil.getEnumByPropertyValue(CodeType.class, "code", "null"));
+    }
+
+    @Test
+    public void testNonStringValue(){
+        //和之前一样, 使用 toString 比较
+        assertEquals(CodeType.SECOND, EnumUtil.getEnumByPropertyValue(CodeType.class, "number", 2));
+        assertEquals(CodeType.SECOND, EnumUtil.getEnumByPropertyValue(CodeType.class, "number", "2"));
+        assertEquals(CodeType.SECOND, EnumUtil.getEnumByPropertyValue(CodeType.class, "number", 2L));
+    }
+
+    @Test
+    public void testIgnoreCaseSameAsEqualsIgnoreCase(){
+        for (String value : new String[] { "ǆ", "Ǆ", "ǅ" }){
+            assertEquals(value, "ǅ".equalsIgnoreCase(value) ? CodeType.TITLE : null, EnumUtil.getEnumByPropertyValueIgnoreCase(CodeType.class, "code", value));
+        }
+    }
+
+    @Test
+    public void testNotExistPropertyNotCached(){
+        for (int i = 0; i < 2; ++i){
+            try{
+                EnumUtil.getEnumByPropertyValue(CodeType.class, "code2222", "A1");
+                throw new AssertionError("expected BeanOperationException");
+            }catch (BeanOperationException e){
+                //expected
+            }
+        }
+    }
+}
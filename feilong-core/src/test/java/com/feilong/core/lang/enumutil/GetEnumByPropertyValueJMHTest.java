@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.enumutil;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.feilong.core.bean.PropertyUtil;
+import com.feilong.core.lang.EnumUtil;
+
+/**
+ * 对比 {@link EnumUtil#getEnumByPropertyValue(Class, String, Object)}(索引缓存) 和每次遍历枚举值的耗时.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@Fork(0)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class GetEnumByPropertyValueJMHTest{
+
+    /**
+     * 订单状态.
+     */
+    public enum OrderStatus{
+
+        S01("01"),
+        S02("02"),
+        S03("03"),
+        S04("04"),
+        S05("05"),
+        S06("06"),
+        S07("07"),
+        S08("08"),
+        S09("09"),
+        S10("10"),
+        S11("11"),
+        S12("12"),
+        S13("13"),
+        S14("14"),
+        S15("15"),
+        S16("16");
+
+        private final String code;
+
+        OrderStatus(String code){
+            this.code = code;
+        }
+
+        public String getCode(){
+            return code;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException{
+        final Options opts = new OptionsBuilder().include(GetEnumByPropertyValueJMHTest.class.getSimpleName())//
+                        .measurementIterations(5)//
+                        .warmupIterations(3)//
+
+                        .result("result.json")//
+                        .resultFormat(ResultFormatType.JSON)//
+                        .build();
+        new Runner(opts).run();
+    }
+
+    //---------------------------------------------------------------
+
+    @Benchmark
+    public OrderStatus indexed(){
+        return EnumUtil.getEnumByPropertyValue(OrderStatus.class, "code", "12");
+    }
+
+    @Benchmark
+    public OrderStatus indexedIgnoreCase(){
+        return EnumUtil.getEnumByPropertyValueIgnoreCase(OrderStatus.class, "code", "12");
+    }
+
+    /**
+     * 之前的实现: 每次 clone 枚举数组, 逐个取属性值比较.
+     */
+    @Benchmark
+    public OrderStatus scan(){
+        for (OrderStatus orderStatus : OrderStatus.class.getEnumConstants()){
+            Object code = PropertyUtil.getProperty(orderStatus, "code");
+            if (null != code && code.toString().equals("12")){
+                return orderStatus;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.threadutil;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.feilong.core.DefaultRuntimeException;
+import com.feilong.core.lang.ThreadUtil;
+import com.feilong.core.lang.thread.PartitionCallableExecutor;
+import com.feilong.core.lang.thread.PartitionExecuteResult;
+import com.feilong.core.lang.thread.PartitionThreadConfig;
+import com.feilong.core.lang.thread.PartitionThreadEntity;
+
+/**
+ * The Class ExecuteAndReduceTest.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+public class ExecuteAndReduceTest extends AbstractExcuteTest{
+
+    @Test
+    public void testExecuteAndReduce(){
+        Integer result = ThreadUtil.executeAndReduce(
+                        buildList(0, 1000),
+                        new PartitionThreadConfig(10, 1),
+                        null,
+                        (perBatchList,partitionThreadEntity,paramsMap) -> perBatchList.stream().mapToInt(Integer::intValue).sum(),
+                        Integer::sum);
+        assertEquals(499500, result.intValue());
+    }
+
+    @Test
+    public void testExecuteAndReduceOrder(){
+        String result = ThreadUtil.executeAndReduce(
+                        buildList(0, 10),
+                        new PartitionThreadConfig(10, 1),
+                        null,
+                        (perBatchList,partitionThreadEntity,paramsMap) -> {
+                            //批次越小睡得越久, 验证合并顺序和完成顺序无关
+                            ThreadUtil.sleep(10 * (10 - partitionThreadEntity.getBatchNumber()));
+                            return "" + perBatchList.get(0);
+                        },
+                        String::concat);
+        assertEquals("0123456789", result);
+    }
+
+    @Test
+    public void testExecuteTiming(){
+        PartitionExecuteResult<Integer> partitionExecuteResult = PartitionCallableExecutor.INSTANCE.execute(
+                        buildList(0, 4),
+                        1,
+                        null,
+                        (perBatchList,partitionThreadEntity,paramsMap) -> {
+                            ThreadUtil.sleep(20);
+                            return perBatchList.size();
+                        },
+                        Integer::sum);
+
+        assertEquals(4, partitionExecuteResult.getResult().intValue());
+
+        List<PartitionThreadEntity> partitionThreadEntityList = partitionExecuteResult.getPartitionThreadEntityList();
+        assertEquals(4, partitionThreadEntityList.size());
+        for (PartitionThreadEntity partitionThreadEntity : partitionThreadEntityList){
+            assertTrue(partitionThreadEntity.getUseTimeMillis() >= 15);
+        }
+    }
+
+    @Test
+    public void testExecuteAndReduceWithResult(){
+        PartitionExecuteResult<Integer> partitionExecuteResult = ThreadUtil.executeAndReduceWithResult(
+                        buildList(0, 4),
+                        new PartitionThreadConfig(4, 1),
+                        null,
+                        (perBatchList,partitionThreadEntity,paramsMap) -> {
+                            ThreadUtil.sleep(20);
+                            return perBatchList.size();
+                        },
+                        Integer::sum,
+                        0,
+                        TimeUnit.MILLISECONDS);
+
+        assertEquals(4, partitionExecuteResult.getResult().intValue());
+        assertTrue(partitionExecuteResult.getUseTimeMillis() >= 15);
+
+        List<PartitionThreadEntity> partitionThreadEntityList = partitionExecuteResult.getPartitionThreadEntityList();
+        assertEquals(4, partitionThreadEntityList.size());
+        for (PartitionThreadEntity partitionThreadEntity : partitionThreadEntityList){
+            assertTrue(partitionThreadEntity.getUseTimeMillis() >= 15);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testExecuteFailFast(){
+        AtomicInteger finishedCount = new AtomicInteger(0);
+        try{
+            ThreadUtil.executeAndReduce(buildList(0, 5), new PartitionThreadConfig(5, 1), null, (perBatchList,partitionThreadEntity,paramsMap) -> {
+                if (partitionThreadEntity.getBatchNumber() == 0){
+                    throw new IllegalStateException("mock exception");
+                }
+                ThreadUtil.sleep(2000);
+                if (!Thread.currentThread().isInterrupted()){
+                    finishedCount.incrementAndGet();
+                }
+                return 1;
+            }, Integer::sum);
+            assertFalse(true);
+        }catch (DefaultRuntimeException e){
+            assertEquals(IllegalStateException.class, e.getCause().getClass());
+        }
+        //其他分区被取消(中断)
+        assertEquals(0, finishedCount.get());
+    }
+
+    @Test
+    public void testExecuteTimeout(){
+        long begin = System.currentTimeMillis();
+        try{
+            ThreadUtil.executeAndReduce(buildList(0, 2), new PartitionThreadConfig(2, 1), null, (perBatchList,partitionThreadEntity,paramsMap) -> {
+                ThreadUtil.sleep(5000);
+                return 1;
+            }, Integer::sum, 100, TimeUnit.MILLISECONDS);
+            assertFalse(true);
+        }catch (DefaultRuntimeException e){
+            assertTrue(e.getMessage().contains("timeout"));
+        }
+        assertTrue(System.currentTimeMillis() - begin < 3000);
+    }
+
+    //---------------------------------------------------------------
+
+    @Test(expected = NullPointerException.class)
+    public void testExecuteAndReduceNullList(){
+        ThreadUtil.executeAndReduce(null, PartitionThreadConfig.INSTANCE, null, (perBatchList,partitionThreadEntity,paramsMap) -> 1, Integer::sum);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testExecuteAndReduceEmptyList(){
+        ThreadUtil.executeAndReduce(
+                        Collections.<Integer> emptyList(),
+                        PartitionThreadConfig.INSTANCE,
+                        null,
+                        (perBatchList,partitionThreadEntity,paramsMap) -> 1,
+                        Integer::sum);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testExecuteAndReduceNullCombiner(){
+        ThreadUtil.executeAndReduce(buildList(0, 2), PartitionThreadConfig.INSTANCE, null, (perBatchList,partitionThreadEntity,paramsMap) -> 1, null);
+    }
+}
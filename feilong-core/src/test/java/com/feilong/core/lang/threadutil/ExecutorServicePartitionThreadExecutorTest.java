@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.threadutil;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import com.feilong.core.lang.ThreadUtil;
+import com.feilong.core.lang.thread.DefaultPartitionRunnableBuilder;
+import com.feilong.core.lang.thread.ExecutorServicePartitionThreadExecutor;
+import com.feilong.core.lang.thread.PartitionThreadConfig;
+
+/**
+ * The Class ExecutorServicePartitionThreadExecutorTest.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+public class ExecutorServicePartitionThreadExecutorTest extends AbstractExcuteTest{
+
+    /** The Constant EXECUTOR. */
+    private static final ExecutorServicePartitionThreadExecutor EXECUTOR = new ExecutorServicePartitionThreadExecutor(2, 2, 10);
+
+    @AfterClass
+    public static void afterClass(){
+        assertTrue(EXECUTOR.shutdown(5, TimeUnit.SECONDS));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testExecute(){
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        EXECUTOR.execute(toList(2, 5, 6, 7), 1, new DefaultPartitionRunnableBuilder<Integer>((perBatchList,partitionThreadEntity,paramsMap) -> {
+            for (Integer value : perBatchList){
+                atomicInteger.addAndGet(value);
+            }
+        }));
+        assertEquals(20, atomicInteger.get());
+    }
+
+    @Test
+    public void testExecuteReuseThread(){
+        Set<Long> threadIdSet = ConcurrentHashMap.newKeySet();
+
+        PartitionThreadConfig partitionThreadConfig = new PartitionThreadConfig(100, 1);
+        partitionThreadConfig.setPartitionThreadExecutor(EXECUTOR);
+
+        for (int i = 0; i < 5; ++i){
+            ThreadUtil.executeUsePerElement(
+                            buildList(0, 20),
+                            partitionThreadConfig,
+                            null,
+                            (value,partitionThreadEntity,paramsMap) -> threadIdSet.add(Thread.currentThread().getId()));
+        }
+        //2个池线程 + CallerRunsPolicy 时的调用线程
+        assertTrue(threadIdSet.size() <= 3);
+    }
+
+    @Test
+    public void testExecuteWithException(){
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        EXECUTOR.execute(toList(2, 5, 6, 7), 1, new DefaultPartitionRunnableBuilder<Integer>((perBatchList,partitionThreadEntity,paramsMap) -> {
+            if (partitionThreadEntity.getBatchNumber() == 0){
+                throw new IllegalStateException("mock exception");
+            }
+            atomicInteger.addAndGet(perBatchList.get(0));
+        }));
+        assertEquals(18, atomicInteger.get());
+    }
+
+    //---------------------------------------------------------------
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxPoolSizeLessThanCorePoolSize(){
+        new ExecutorServicePartitionThreadExecutor(5, 2, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testQueueCapacityZero(){
+        new ExecutorServicePartitionThreadExecutor(1, 2, 0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullExecutorService(){
+        new ExecutorServicePartitionThreadExecutor(null);
+    }
+}
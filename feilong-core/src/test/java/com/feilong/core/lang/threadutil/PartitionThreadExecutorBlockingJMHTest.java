@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.threadutil;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.feilong.core.lang.ThreadUtil;
+import com.feilong.core.lang.thread.DefaultPartitionThreadExecutor;
+import com.feilong.core.lang.thread.PartitionThreadConfig;
+import com.feilong.core.lang.thread.VirtualThreadPartitionThreadExecutor;
+
+/**
+ * 平台线程和虚拟线程在阻塞型(模拟 http/sftp/mail 调用)任务下的对比.
+ * 
+ * <p>
+ * 需要使用 JDK 21+ 运行, 否则 {@link VirtualThreadPartitionThreadExecutor} 会退化成平台线程.
+ * </p>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@Fork(0)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class PartitionThreadExecutorBlockingJMHTest{
+
+    /** 元素个数, 每个元素一个线程. */
+    @Param({ "100", "1000", "5000" })
+    private int                   size;
+
+    /** 每个元素模拟阻塞的毫秒数. */
+    @Param({ "20" })
+    private int                   blockMillis;
+
+    private List<Integer>         list;
+
+    private PartitionThreadConfig platformConfig;
+
+    private PartitionThreadConfig virtualConfig;
+
+    public static void main(String[] args) throws RunnerException{
+        final Options opts = new OptionsBuilder().include(PartitionThreadExecutorBlockingJMHTest.class.getSimpleName())//
+                        .measurementIterations(5)//
+                        .warmupIterations(3)//
+
+                        .result("result.json")//
+                        .resultFormat(ResultFormatType.JSON)//
+                        .build();
+        new Runner(opts).run();
+    }
+
+    @Setup
+    public void setup(){
+        list = AbstractExcuteTest.buildList(0, size);
+
+        platformConfig = new PartitionThreadConfig(size, 1);
+        platformConfig.setPartitionThreadExecutor(DefaultPartitionThreadExecutor.INSTANCE);
+
+        virtualConfig = new PartitionThreadConfig(size, 1);
+        virtualConfig.setPartitionThreadExecutor(VirtualThreadPartitionThreadExecutor.INSTANCE);
+    }
+
+    //---------------------------------------------------------------
+
+    @Benchmark
+    public void platformThread(){
+        ThreadUtil.executeUsePerElement(list, platformConfig, null, (value,partitionThreadEntity,paramsMap) -> ThreadUtil.sleep(blockMillis));
+    }
+
+    @Benchmark
+    public void virtualThread(){
+        ThreadUtil.executeUsePerElement(list, virtualConfig, null, (value,partitionThreadEntity,paramsMap) -> ThreadUtil.sleep(blockMillis));
+    }
+}
@@ -42,6 +42,10 @@ import org.junit.runners.Suite.SuiteClasses;
                 ExecuteOnlyPartitionPerHandlerTest.class,
                 ExecuteCountTest.class,
 
+                ExecutorServicePartitionThreadExecutorTest.class,
+                VirtualThreadPartitionThreadExecutorTest.class,
+                ExecuteAndReduceTest.class,
+
                 PartitionEachSizeBuilderParameterizedTest.class,
                 PartitionEachSizeBuilderTest.class
 //
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.threadutil;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.feilong.core.lang.ThreadUtil;
+import com.feilong.core.lang.thread.PartitionThreadConfig;
+import com.feilong.core.lang.thread.VirtualThreadPartitionThreadExecutor;
+
+/**
+ * The Class VirtualThreadPartitionThreadExecutorTest.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+public class VirtualThreadPartitionThreadExecutorTest extends AbstractExcuteTest{
+
+    @Test
+    public void testExecuteUsePerElement(){
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+        Set<String> threadNameSet = ConcurrentHashMap.newKeySet();
+
+        PartitionThreadConfig partitionThreadConfig = new PartitionThreadConfig(100, 1);
+        partitionThreadConfig.setPartitionThreadExecutor(VirtualThreadPartitionThreadExecutor.INSTANCE);
+
+        ThreadUtil.executeUsePerElement(buildList(0, 100), partitionThreadConfig, null, (value,partitionThreadEntity,paramsMap) -> {
+            atomicInteger.addAndGet(value);
+            threadNameSet.add(Thread.currentThread().getName());
+        });
+
+        assertEquals(4950, atomicInteger.get());
+        //不管是否支持虚拟线程, 每个元素都是独立命名的线程
+        assertEquals(100, threadNameSet.size());
+    }
+
+    @Test
+    public void testIsSupported(){
+        boolean isJava21 = !System.getProperty("java.specification.version").startsWith("1.")
+                        && Integer.parseInt(System.getProperty("java.specification.version")) >= 21;
+        assertEquals(isJava21, VirtualThreadPartitionThreadExecutor.isSupported());
+    }
+
+    @Test
+    public void testExecute(){
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        PartitionThreadConfig partitionThreadConfig = new PartitionThreadConfig(3, 1);
+        partitionThreadConfig.setPartitionThreadExecutor(VirtualThreadPartitionThreadExecutor.INSTANCE);
+
+        ThreadUtil.execute(buildList(0, 10), partitionThreadConfig, null, (perBatchList,partitionThreadEntity,paramsMap) -> {
+            assertTrue(perBatchList.size() <= 4);
+            for (Integer value : perBatchList){
+                atomicInteger.addAndGet(value);
+            }
+        });
+        assertEquals(45, atomicInteger.get());
+    }
+}
@@ -20,6 +20,7 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 import com.feilong.core.util.aggregateutil.AggregateUtilSuiteTests;
+import com.feilong.core.util.beanindex.BeanIndexTest;
 import com.feilong.core.util.closure.ClosureSuiteTests;
 import com.feilong.core.util.collectionsutil.CollectionsUtilSuiteTests;
 import com.feilong.core.util.comparator.ComparatorSuiteTests;
@@ -44,6 +45,7 @@ import com.feilong.core.util.transformer.TransformerSuiteTests;
                 RandomUtilSuiteTests.class,
                 ResourceBundleUtilSuiteTests.class,
                 AggregateUtilSuiteTests.class,
+                BeanIndexTest.class,
                 RegexUtilSuiteTests.class,
                 MapUtilSuiteTests.class,
 
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.aggregateutil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.feilong.core.util.AggregateResult;
+import com.feilong.core.util.AggregateUtil;
+import com.feilong.core.util.Aggregation;
+import com.feilong.store.member.User;
+
+/**
+ * 对比多次调用 {@link AggregateUtil#sum(Iterable, String)}, {@link AggregateUtil#avg(Iterable, String, int)},
+ * {@link AggregateUtil#groupSum(Iterable, String, String)}, {@link AggregateUtil#groupCount(Iterable, String)} 和一次遍历的
+ * {@link AggregateUtil#aggregate(Iterable, Aggregation)}, {@link AggregateUtil#groupAggregate(Iterable, String, Aggregation)} 的耗时.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@Fork(0)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class AggregateJMHTest{
+
+    /** 元素个数. */
+    @Param({ "1000000" })
+    private int         size;
+
+    private List<User>  list;
+
+    private Aggregation aggregation = new Aggregation().sum("id", "age").avg(2, "age");
+
+    public static void main(String[] args) throws RunnerException{
+        final Options opts = new OptionsBuilder().include(AggregateJMHTest.class.getSimpleName())//
+                        .measurementIterations(5)//
+                        .warmupIterations(3)//
+
+                        .result("result.json")//
+                        .resultFormat(ResultFormatType.JSON)//
+                        .build();
+        new Runner(opts).run();
+    }
+
+    @Setup
+    public void setup(){
+        list = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i){
+            User user = new User((long) i, i % 100);
+            user.setName("name" + (i % 50));
+            list.add(user);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    @Benchmark
+    public void multiPass(Blackhole blackhole){
+        blackhole.consume(list.size());
+        blackhole.consume(AggregateUtil.sum(list, "id"));
+        blackhole.consume(AggregateUtil.sum(list, "age"));
+        blackhole.consume(AggregateUtil.avg(list, "age", 2));
+    }
+
+    @Benchmark
+    public AggregateResult singlePass(){
+        return AggregateUtil.aggregate(list, aggregation);
+    }
+
+    @Benchmark
+    public void groupMultiPass(Blackhole blackhole){
+        blackhole.consume(AggregateUtil.groupCount(list, "name"));
+        blackhole.consume(AggregateUtil.groupSum(list, "name", "id"));
+        blackhole.consume(AggregateUtil.groupSum(list, "name", "age"));
+    }
+
+    @Benchmark
+    public Map<String, AggregateResult> groupSinglePass(){
+        return AggregateUtil.groupAggregate(list, "name", aggregation);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.aggregateutil;
+
+import static com.feilong.core.bean.ConvertUtil.toBigDecimal;
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.feilong.core.util.AggregateResult;
+import com.feilong.core.util.AggregateUtil;
+import com.feilong.core.util.Aggregation;
+import com.feilong.store.member.User;
+
+/**
+ * The Class AggregateTest.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+public class AggregateTest{
+
+    @Test
+    public void testAggregate(){
+        List<User> list = toList(//
+                        new User(2L),
+                        new User(5L),
+                        new User(5L));
+        AggregateResult result = AggregateUtil.aggregate(list, new Aggregation().sum("id").avg(2, "id").min("id").max("id"));
+
+        assertEquals(3, result.getCount());
+        assertEquals(AggregateUtil.sum(list, "id"), result.getSum("id"));
+        assertEquals(AggregateUtil.avg(list, "id", 2), result.getAvg("id"));
+        assertEquals(toBigDecimal(2), result.getMin("id"));
+        assertEquals(toBigDecimal(5), result.getMax("id"));
+    }
+
+    @Test
+    public void testAggregateMultiProperty(){
+        List<User> list = toList(//
+                        new User(2L, 20),
+                        new User(5L, 30),
+                        new User(6L, 41));
+        AggregateResult result = AggregateUtil.aggregate(list, new Aggregation().sum("id", "age").avg(1, "age").max("age"));
+
+        assertEquals(toBigDecimal(13), result.getSum("id"));
+        assertEquals(toBigDecimal(91), result.getSum("age"));
+        assertEquals(AggregateUtil.avg(list, "age", 1), result.getAvg("age"));
+        assertEquals(toBigDecimal(41), result.getMax("age"));
+    }
+
+    @Test
+    public void testAggregateNullValue(){
+        List<User> list = toList(//
+                        new User(2L),
+                        new User((Long) null),
+                        new User(5L));
+        AggregateResult result = AggregateUtil.aggregate(list, new Aggregation().sum("id").avg(2, "id").min("id").max("id"));
+
+        assertEquals(3, result.getCount());
+        assertEquals(AggregateUtil.sum(list, "id"), result.getSum("id"));
+        assertEquals(AggregateUtil.avg(list, "id", 2), result.getAvg("id"));
+        assertEquals(toBigDecimal(2), result.getMin("id"));
+        assertEquals(toBigDecimal(5), result.getMax("id"));
+    }
+
+    @Test
+    public void testAggregateStringValue(){
+        List<UserWithStringAge> list = toList(//
+                        new UserWithStringAge("2.2"),
+                        new UserWithStringAge((String) null),
+                        new UserWithStringAge("5"));
+        AggregateResult result = AggregateUtil.aggregate(list, new Aggregation().sum("ageString").min("ageString"));
+
+        assertEquals(AggregateUtil.sum(list, "ageString"), result.getSum("ageString"));
+        assertEquals(toBigDecimal("2.2"), result.getMin("ageString"));
+    }
+
+    @Test
+    public void testAggregateLongOverflow(){
+        List<User> list = toList(//
+                        new User(Long.MAX_VALUE),
+                        new User(Long.MAX_VALUE),
+                        new User(1L));
+        AggregateResult result = AggregateUtil.aggregate(list, new Aggregation().sum("id"));
+        assertEquals(AggregateUtil.sum(list, "id"), result.getSum("id"));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testAggregateNullCollection(){
+        AggregateResult result = AggregateUtil.aggregate(null, new Aggregation().sum("id").avg(2, "id").min("id"));
+        assertEquals(0, result.getCount());
+        assertNull(result.getSum("id"));
+        assertNull(result.getAvg("id"));
+        assertNull(result.getMin("id"));
+    }
+
+    @Test
+    public void testAggregateEmptyCollection(){
+        AggregateResult result = AggregateUtil.aggregate(new ArrayList<User>(), new Aggregation().max("id"));
+        assertEquals(0, result.getCount());
+        assertNull(result.getMax("id"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testAggregateNullAggregation(){
+        AggregateUtil.aggregate(toList(new User(2L)), null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAggregateNotDeclared(){
+        AggregateUtil.aggregate(toList(new User(2L)), new Aggregation().sum("id")).getMax("id");
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testAggregationNullPropertyName(){
+        new Aggregation().sum((String) null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAggregationBlankPropertyName(){
+        new Aggregation().sum(" ");
+    }
+}
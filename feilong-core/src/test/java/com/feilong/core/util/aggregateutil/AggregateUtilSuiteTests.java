@@ -26,6 +26,9 @@ import org.junit.runners.Suite.SuiteClasses;
  */
 @RunWith(Suite.class)
 @SuiteClasses({ //
+                AggregateTest.class,
+                GroupAggregateTest.class,
+
                 AvgArrayTest.class,
                 AvgTest.class,
 
@@ -35,6 +38,9 @@ import org.junit.runners.Suite.SuiteClasses;
                 GroupSumTest.class,
                 GroupSumPredicateTest.class,
 
+                GroupCountParallelTest.class,
+                GroupSumParallelTest.class,
+
                 GroupCountArrayTest.class,
                 GroupCountArrayPredicateTest.class,
                 GroupCountArrayAndTransformerTest.class,
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.aggregateutil;
+
+import static com.feilong.core.bean.ConvertUtil.toBigDecimal;
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.feilong.core.bean.ConvertUtil;
+import com.feilong.core.util.AggregateResult;
+import com.feilong.core.util.AggregateUtil;
+import com.feilong.core.util.Aggregation;
+import com.feilong.store.member.User;
+
+/**
+ * The Class GroupAggregateTest.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+public class GroupAggregateTest{
+
+    @Test
+    public void testGroupAggregate(){
+        List<User> list = toList(//
+                        new User("张飞", 20),
+                        new User("关羽", 30),
+                        new User("刘备", 40),
+                        new User("刘备", 50));
+
+        Map<String, AggregateResult> map = AggregateUtil.groupAggregate(list, "name", new Aggregation().sum("age").min("age").max("age"));
+        assertEquals(toList("张飞", "关羽", "刘备"), ConvertUtil.toList(map.keySet()));
+
+        AggregateResult liubei = map.get("刘备");
+        assertEquals(2, liubei.getCount());
+        assertEquals(toBigDecimal(90), liubei.getSum("age"));
+        assertEquals(toBigDecimal(40), liubei.getMin("age"));
+        assertEquals(toBigDecimal(50), liubei.getMax("age"));
+
+        assertEquals(1, map.get("张飞").getCount());
+    }
+
+    @Test
+    public void testGroupAggregateSameAsGroupSumAndGroupCount(){
+        List<User> list = toList(//
+                        new User("张飞", 20),
+                        new User("关羽", 30),
+                        new User("刘备", 40),
+                        new User("刘备", (Integer) null),
+                        new User("关羽", 50));
+
+        Map<String, AggregateResult> map = AggregateUtil.groupAggregate(list, "name", new Aggregation().sum("age"));
+        Map<String, BigDecimal> groupSum = AggregateUtil.groupSum(list, "name", "age");
+        Map<String, Integer> groupCount = AggregateUtil.groupCount(list, "name");
+
+        assertEquals(groupSum.keySet(), map.keySet());
+        for (Map.Entry<String, AggregateResult> entry : map.entrySet()){
+            assertEquals(groupSum.get(entry.getKey()), entry.getValue().getSum("age"));
+            assertEquals(groupCount.get(entry.getKey()).longValue(), entry.getValue().getCount());
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testGroupAggregateNullCollection(){
+        assertEquals(emptyMap(), AggregateUtil.groupAggregate(null, "name", new Aggregation().sum("age")));
+    }
+
+    @Test
+    public void testGroupAggregateEmptyCollection(){
+        assertEquals(emptyMap(), AggregateUtil.groupAggregate(new ArrayList<User>(), "name", new Aggregation().sum("age")));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testGroupAggregateNullKeyPropertyName(){
+        AggregateUtil.groupAggregate(toList(new User(2L)), null, new Aggregation().sum("age"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGroupAggregateBlankKeyPropertyName(){
+        AggregateUtil.groupAggregate(toList(new User(2L)), " ", new Aggregation().sum("age"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testGroupAggregateNullAggregation(){
+        AggregateUtil.groupAggregate(toList(new User(2L)), "name", null);
+    }
+}
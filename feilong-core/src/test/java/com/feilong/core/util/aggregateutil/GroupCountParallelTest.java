@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.aggregateutil;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.feilong.core.lang.thread.PartitionThreadConfig;
+import com.feilong.core.util.AggregateUtil;
+import com.feilong.store.member.User;
+
+/**
+ * The Class GroupCountParallelTest.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+public class GroupCountParallelTest{
+
+    /** 每个分区10个元素, 保证会拆成多个分区. */
+    private static final PartitionThreadConfig PARTITION_THREAD_CONFIG = new PartitionThreadConfig(8, 10);
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testGroupCountParallel(){
+        List<User> list = toList(//
+                        new User("张飞", 20),
+                        new User("关羽", 30),
+                        new User("刘备", 40),
+                        new User("刘备", 50));
+
+        Map<String, Integer> map = AggregateUtil.groupCountParallel(list, "name", new PartitionThreadConfig(8, 1));
+        assertEquals(toList("张飞", "关羽", "刘备"), toList(map.keySet()));
+        assertEquals(Integer.valueOf(1), map.get("张飞"));
+        assertEquals(Integer.valueOf(2), map.get("刘备"));
+    }
+
+    @Test
+    public void testGroupCountParallelSameAsGroupCount(){
+        List<User> list = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i){
+            list.add(new User(i % 13 == 0 ? null : "name" + (i * 7) % 37, i));
+        }
+
+        Map<String, Integer> groupCount = AggregateUtil.groupCount(list, "name");
+        Map<String, Integer> groupCountParallel = AggregateUtil.groupCountParallel(list, "name", PARTITION_THREAD_CONFIG);
+
+        assertEquals(groupCount, groupCountParallel);
+        assertEquals(toList(groupCount.keySet()), toList(groupCountParallel.keySet()));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testGroupCountParallelNullList(){
+        assertEquals(emptyMap(), AggregateUtil.groupCountParallel(null, "name", PARTITION_THREAD_CONFIG));
+    }
+
+    @Test
+    public void testGroupCountParallelEmptyList(){
+        assertEquals(emptyMap(), AggregateUtil.groupCountParallel(new ArrayList<User>(), "name", PARTITION_THREAD_CONFIG));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testGroupCountParallelNullPropertyName(){
+        AggregateUtil.groupCountParallel(toList(new User(2L)), null, PARTITION_THREAD_CONFIG);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGroupCountParallelBlankPropertyName(){
+        AggregateUtil.groupCountParallel(toList(new User(2L)), " ", PARTITION_THREAD_CONFIG);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testGroupCountParallelNullPartitionThreadConfig(){
+        AggregateUtil.groupCountParallel(toList(new User(2L)), "name", null);
+    }
+}
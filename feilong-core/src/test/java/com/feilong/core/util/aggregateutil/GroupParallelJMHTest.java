@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.aggregateutil;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.feilong.core.lang.thread.PartitionThreadConfig;
+import com.feilong.core.util.AggregateUtil;
+import com.feilong.core.util.GroupUtil;
+import com.feilong.store.member.User;
+
+/**
+ * 对比不同线程数下 {@link GroupUtil#groupParallel(List, String, PartitionThreadConfig)},
+ * {@link AggregateUtil#groupCountParallel(List, String, PartitionThreadConfig)},
+ * {@link AggregateUtil#groupSumParallel(List, String, String, PartitionThreadConfig)} 和串行版本的耗时.
+ * 
+ * <p>
+ * <code>threads</code> 是1的时候只有一个分区, 可以看出可变计数器本身的收益.
+ * </p>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@Fork(0)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class GroupParallelJMHTest{
+
+    /** 元素个数. */
+    @Param({ "1000000" })
+    private int                   size;
+
+    /** 线程数. */
+    @Param({ "1", "2", "4", "8" })
+    private int                   threads;
+
+    private List<User>            list;
+
+    private PartitionThreadConfig partitionThreadConfig;
+
+    public static void main(String[] args) throws RunnerException{
+        final Options opts = new OptionsBuilder().include(GroupParallelJMHTest.class.getSimpleName())//
+                        .measurementIterations(5)//
+                        .warmupIterations(3)//
+
+                        .result("result.json")//
+                        .resultFormat(ResultFormatType.JSON)//
+                        .build();
+        new Runner(opts).run();
+    }
+
+    @Setup
+    public void setup(){
+        list = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i){
+            User user = new User((long) i, i % 100);
+            user.setName("name" + (i % 1000));
+            list.add(user);
+        }
+        partitionThreadConfig = new PartitionThreadConfig(threads, 1);
+    }
+
+    //---------------------------------------------------------------
+
+    @Benchmark
+    public Map<String, List<User>> group(){
+        return GroupUtil.group(list, "name");
+    }
+
+    @Benchmark
+    public Map<String, List<User>> groupParallel(){
+        return GroupUtil.groupParallel(list, "name", partitionThreadConfig);
+    }
+
+    @Benchmark
+    public Map<String, Integer> groupCount(){
+        return AggregateUtil.groupCount(list, "name");
+    }
+
+    @Benchmark
+    public Map<String, Integer> groupCountParallel(){
+        return AggregateUtil.groupCountParallel(list, "name", partitionThreadConfig);
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> groupSum(){
+        return AggregateUtil.groupSum(list, "name", "age");
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> groupSumParallel(){
+        return AggregateUtil.groupSumParallel(list, "name", "age", partitionThreadConfig);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.aggregateutil;
+
+import static com.feilong.core.bean.ConvertUtil.toBigDecimal;
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.feilong.core.lang.thread.PartitionThreadConfig;
+import com.feilong.core.util.AggregateResult;
+import com.feilong.core.util.AggregateUtil;
+import com.feilong.core.util.Aggregation;
+import com.feilong.store.member.User;
+
+/**
+ * The Class GroupSumParallelTest.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+public class GroupSumParallelTest{
+
+    /** 每个分区10个元素, 保证会拆成多个分区. */
+    private static final PartitionThreadConfig PARTITION_THREAD_CONFIG = new PartitionThreadConfig(8, 10);
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testGroupSumParallel(){
+        List<User> list = toList(//
+                        new User("张飞", 20),
+                        new User("关羽", 30),
+                        new User("刘备", 40),
+                        new User("刘备", 50));
+
+        Map<String, BigDecimal> map = AggregateUtil.groupSumParallel(list, "name", "age", new PartitionThreadConfig(8, 1));
+        assertEquals(toList("张飞", "关羽", "刘备"), toList(map.keySet()));
+        assertEquals(toBigDecimal(20), map.get("张飞"));
+        assertEquals(toBigDecimal(90), map.get("刘备"));
+    }
+
+    @Test
+    public void testGroupSumParallelSameAsGroupSum(){
+        List<User> list = buildList();
+
+        Map<String, BigDecimal> groupSum = AggregateUtil.groupSum(list, "name", "age");
+        Map<String, BigDecimal> groupSumParallel = AggregateUtil.groupSumParallel(list, "name", "age", PARTITION_THREAD_CONFIG);
+
+        assertEquals(groupSum, groupSumParallel);
+        assertEquals(toList(groupSum.keySet()), toList(groupSumParallel.keySet()));
+    }
+
+    @Test
+    public void testGroupAggregateParallelSameAsGroupAggregate(){
+        List<User> list = buildList();
+        Aggregation aggregation = new Aggregation().sum("age").avg(2, "age").min("age").max("age");
+
+        Map<String, AggregateResult> groupAggregate = AggregateUtil.groupAggregate(list, "name", aggregation);
+        Map<String, AggregateResult> groupAggregateParallel = AggregateUtil
+                        .groupAggregateParallel(list, "name", aggregation, PARTITION_THREAD_CONFIG);
+
+        assertEquals(toList(groupAggregate.keySet()), toList(groupAggregateParallel.keySet()));
+        for (Map.Entry<String, AggregateResult> entry : groupAggregate.entrySet()){
+            AggregateResult expected = entry.getValue();
+            AggregateResult actual = groupAggregateParallel.get(entry.getKey());
+
+            assertEquals(expected.getCount(), actual.getCount());
+            assertEquals(expected.getSum("age"), actual.getSum("age"));
+            assertEquals(expected.getAvg("age"), actual.getAvg("age"));
+            assertEquals(expected.getMin("age"), actual.getMin("age"));
+            assertEquals(expected.getMax("age"), actual.getMax("age"));
+        }
+    }
+
+    private static List<User> buildList(){
+        List<User> list = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i){
+            list.add(new User(i % 13 == 0 ? null : "name" + (i * 7) % 37, i % 11 == 0 ? null : i % 50));
+        }
+        return list;
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testGroupSumParallelNullList(){
+        assertEquals(emptyMap(), AggregateUtil.groupSumParallel(null, "name", "age", PARTITION_THREAD_CONFIG));
+    }
+
+    @Test
+    public void testGroupSumParallelEmptyList(){
+        assertEquals(emptyMap(), AggregateUtil.groupSumParallel(new ArrayList<User>(), "name", "age", PARTITION_THREAD_CONFIG));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testGroupSumParallelNullKeyPropertyName(){
+        AggregateUtil.groupSumParallel(toList(new User(2L)), null, "age", PARTITION_THREAD_CONFIG);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGroupSumParallelBlankSumPropertyName(){
+        AggregateUtil.groupSumParallel(toList(new User(2L)), "name", " ", PARTITION_THREAD_CONFIG);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testGroupSumParallelNullPartitionThreadConfig(){
+        AggregateUtil.groupSumParallel(toList(new User(2L)), "name", "age", null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testGroupAggregateParallelNullAggregation(){
+        AggregateUtil.groupAggregateParallel(toList(new User(2L)), "name", null, PARTITION_THREAD_CONFIG);
+    }
+}
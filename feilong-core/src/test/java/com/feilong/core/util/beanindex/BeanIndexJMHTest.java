@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.beanindex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.feilong.core.util.BeanIndex;
+import com.feilong.core.util.CollectionsUtil;
+import com.feilong.store.member.User;
+
+/**
+ * 对同一个 list 查找 m 次, 对比 {@link CollectionsUtil#find(Iterable, String, Object)} 和 {@link BeanIndex#find(Object)}(包括建索引) 的耗时.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@Fork(0)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class BeanIndexJMHTest{
+
+    /** 元素个数. */
+    @Param({ "10000" })
+    private int        size;
+
+    /** 查找次数. */
+    @Param({ "10", "1000" })
+    private int        lookups;
+
+    private List<User> list;
+
+    public static void main(String[] args) throws RunnerException{
+        final Options opts = new OptionsBuilder().include(BeanIndexJMHTest.class.getSimpleName())//
+                        .measurementIterations(5)//
+                        .warmupIterations(3)//
+
+                        .result("result.json")//
+                        .resultFormat(ResultFormatType.JSON)//
+                        .build();
+        new Runner(opts).run();
+    }
+
+    @Setup
+    public void setup(){
+        list = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i){
+            list.add(new User((long) i));
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    @Benchmark
+    public void collectionsUtilFind(Blackhole blackhole){
+        for (int i = 0; i < lookups; ++i){
+            blackhole.consume(CollectionsUtil.find(list, "id", (long) (i * 7919 % size)));
+        }
+    }
+
+    @Benchmark
+    public void beanIndexFind(Blackhole blackhole){
+        BeanIndex<User> index = new BeanIndex<>(list, "id");
+        for (int i = 0; i < lookups; ++i){
+            blackhole.consume(index.find((long) (i * 7919 % size)));
+        }
+    }
+}
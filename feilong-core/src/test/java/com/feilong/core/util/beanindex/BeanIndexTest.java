@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.beanindex;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.bean.ConvertUtil.toMap;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.feilong.core.util.BeanIndex;
+import com.feilong.core.util.CollectionsUtil;
+import com.feilong.store.member.User;
+
+/**
+ * The Class BeanIndexTest.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+public class BeanIndexTest{
+
+    private final User       zhangfei = new User("张飞", 23);
+
+    private final User       guanyu24 = new User("关羽", 24);
+
+    private final User       liubei   = new User("刘备", 25);
+
+    private final User       guanyu50 = new User("关羽", 50);
+
+    private final List<User> list     = toList(zhangfei, guanyu24, liubei, guanyu50);
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testFind(){
+        BeanIndex<User> index = new BeanIndex<>(list, "name");
+        assertSame(guanyu24, index.find("关羽"));
+        assertSame(liubei, index.find("刘备"));
+        assertNull(index.find("曹操"));
+        assertNull(index.find((String) null));
+
+        assertTrue(index.contains("张飞"));
+        assertFalse(index.contains("曹操"));
+    }
+
+    @Test
+    public void testSelect(){
+        BeanIndex<User> index = new BeanIndex<>(list, "name");
+        assertThat(index.select("关羽"), contains(guanyu24, guanyu50));
+
+        //顺序是原集合的顺序, 和参数顺序无关, 参数重复只取一次
+        assertThat(index.select("刘备", "关羽", "刘备"), contains(guanyu24, liubei, guanyu50));
+        assertThat(index.select(toList("关羽", "张飞")), contains(zhangfei, guanyu24, guanyu50));
+        assertThat(index.select("曹操"), empty());
+        assertThat(index.select((String[]) null), empty());
+    }
+
+    @Test
+    public void testSelectRejected(){
+        BeanIndex<User> index = new BeanIndex<>(list, "name");
+        assertThat(index.selectRejected("关羽"), contains(zhangfei, liubei));
+        assertThat(index.selectRejected("关羽", "张飞"), contains(liubei));
+        assertThat(index.selectRejected("曹操"), contains(zhangfei, guanyu24, liubei, guanyu50));
+        assertThat(index.selectRejected((String[]) null), contains(zhangfei, guanyu24, liubei, guanyu50));
+    }
+
+    @Test
+    public void testComposite(){
+        BeanIndex<User> index = new BeanIndex<>(list, "name", "age");
+        assertSame(guanyu50, index.find(toMap("name", "关羽", "age", 50)));
+        assertNull(index.find(toMap("name", "关羽", "age", 23)));
+        assertThat(index.select(toMap("age", 24, "name", "关羽")), contains(guanyu24));
+        assertThat(index.selectRejected(toMap("name", "关羽", "age", 24)), contains(zhangfei, liubei, guanyu50));
+        assertTrue(index.isUnique());
+        assertEquals(4, index.keySize());
+    }
+
+    @Test
+    public void testUnique(){
+        assertFalse(new BeanIndex<>(list, "name").isUnique());
+        assertTrue(new BeanIndex<>(list, "age").isUnique());
+    }
+
+    @Test
+    public void testSameAsCollectionsUtil(){
+        Random random = new Random(3);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 3000; ++i){
+            users.add(new User(i % 13 == 0 ? null : (long) random.nextInt(500)));
+        }
+        BeanIndex<User> index = new BeanIndex<>(users, "id");
+
+        for (long id = 0; id < 600; ++id){
+            assertSame(CollectionsUtil.find(users, "id", id), index.find(id));
+            assertEquals(CollectionsUtil.select(users, "id", id, id + 7), index.select(id, id + 7));
+            assertEquals(CollectionsUtil.selectRejected(users, "id", id), index.selectRejected(id));
+        }
+        assertSame(CollectionsUtil.find(users, "id", null), index.find((Long) null));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testManyDuplicateKeys(){
+        //少量 key 大量重复, 位置需要保持原来的顺序
+        List<User> bigList = new ArrayList<>();
+        for (int i = 0; i < 200000; ++i){
+            bigList.add(new User("name" + (i % 3), i));
+        }
+        BeanIndex<User> index = new BeanIndex<>(bigList, "name");
+        assertEquals(3, index.keySize());
+
+        List<User> selected = index.select("name1");
+        assertEquals(CollectionsUtil.select(bigList, "name", "name1").size(), selected.size());
+        for (int i = 0; i < selected.size(); ++i){
+            assertSame(bigList.get(i * 3 + 1), selected.get(i));
+        }
+    }
+
+    @Test
+    public void testNullIterable(){
+        BeanIndex<User> index = new BeanIndex<>(null, "name");
+        assertEquals(0, index.size());
+        assertNull(index.find("关羽"));
+        assertThat(index.select("关羽"), empty());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullPropertyNames(){
+        new BeanIndex<>(list, (String[]) null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyPropertyNames(){
+        new BeanIndex<>(list);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBlankPropertyName(){
+        new BeanIndex<>(list, "name", " ");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFindValueOnCompositeIndex(){
+        new BeanIndex<>(list, "name", "age").find("关羽");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindMapWithWrongPropertyNames(){
+        new BeanIndex<>(list, "name", "age").find(toMap("name", "关羽", "id", 50));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testFindNullMap(){
+        new BeanIndex<>(list, "name").find((Map<String, ?>) null);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.collectionsutil.get;
+
+import static com.feilong.core.util.CollectionsUtil.getPropertyValueList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.feilong.lib.beanutils.PropertyUtils;
+import com.feilong.store.member.User;
+
+/**
+ * {@link GetPropertyValueListPerformanceTest} 的 JMH 版本, 对比属性名(编译的访问器), 方法引用以及 apache 反射的耗时.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@Fork(0)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class GetPropertyValueListJMHTest{
+
+    /** 元素个数. */
+    @Param({ "100", "10000" })
+    private int        size;
+
+    private List<User> list;
+
+    public static void main(String[] args) throws RunnerException{
+        final Options opts = new OptionsBuilder().include(GetPropertyValueListJMHTest.class.getSimpleName())//
+                        .measurementIterations(5)//
+                        .warmupIterations(3)//
+
+                        .result("result.json")//
+                        .resultFormat(ResultFormatType.JSON)//
+                        .build();
+        new Runner(opts).run();
+    }
+
+    @Setup
+    public void setup(){
+        list = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i){
+            list.add(new User((long) i));
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    @Benchmark
+    public List<Long> propertyName(){
+        return getPropertyValueList(list, "id");
+    }
+
+    @Benchmark
+    public List<Long> methodReference(){
+        return getPropertyValueList(list, User::getId);
+    }
+
+    @Benchmark
+    public List<Object> apachePropertyUtils() throws Exception{
+        List<Object> result = new ArrayList<>(list.size());
+        for (User user : list){
+            result.add(PropertyUtils.getProperty(user, "id"));
+        }
+        return result;
+    }
+}
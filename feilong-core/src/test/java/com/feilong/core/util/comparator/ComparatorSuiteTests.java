@@ -31,6 +31,7 @@ import com.feilong.core.util.comparator.sorthelper.SortHelperSuiteTests;
                 SortHelperSuiteTests.class,
 
                 ComparatorUtilTest.class,
+                PrecomputedKeySorterTest.class,
 
                 PropertyComparatorSuiteTests.class,
 
@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.comparator;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.feilong.store.member.User;
+
+/**
+ * The Class PrecomputedKeySorterTest.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+public class PrecomputedKeySorterTest{
+
+    /** 有重复值, 有null 值, 有null 元素. */
+    private static List<User> buildList(int size){
+        Random random = new Random(42);
+        List<User> list = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i){
+            if (i % 97 == 0){
+                list.add(null);
+                continue;
+            }
+            User user = new User(i % 11 == 0 ? null : (long) random.nextInt(50), i % 13 == 0 ? null : random.nextInt(30));
+            user.setName(i % 7 == 0 ? null : "name" + random.nextInt(20));
+            list.add(user);
+        }
+        return list;
+    }
+
+    private static List<User> buildListWithoutNullElement(int size){
+        List<User> list = buildList(size);
+        list.removeIf(user -> null == user);
+        return list;
+    }
+
+    private static void assertSameElements(List<User> expected,List<User> actual){
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); ++i){
+            assertSame(expected.get(i), actual.get(i));
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testSortByPropertyNamesValueSingleSameAsComparator(){
+        for (String propertyNameAndOrder : toList("id", "id desc", "age", "name desc")){
+            List<User> list = buildList(2000);
+
+            List<User> expected = new ArrayList<>(list);
+            Collections.sort(expected, BeanComparatorUtil.<User> chainedComparator(propertyNameAndOrder));
+
+            List<User> actual = new ArrayList<>(list);
+            PrecomputedKeySorter.sortByPropertyNamesValue(actual, propertyNameAndOrder);
+            assertSameElements(expected, actual);
+        }
+    }
+
+    @Test
+    public void testSortByPropertyNamesValueMultiSameAsComparator(){
+        String[] propertyNameAndOrders = { "name", "id desc", "age" };
+
+        List<User> list = buildListWithoutNullElement(2000);
+
+        List<User> expected = new ArrayList<>(list);
+        Collections.sort(expected, BeanComparatorUtil.<User> chainedComparator(propertyNameAndOrders));
+
+        List<User> actual = new ArrayList<>(list);
+        PrecomputedKeySorter.sortByPropertyNamesValue(actual, propertyNameAndOrders);
+        assertSameElements(expected, actual);
+    }
+
+    @Test
+    public void testSortComparatorsSameAsChainedComparator(){
+        Comparator<User> propertyComparator = new PropertyComparator<>("age", Long.class, null);
+        Comparator<User> idComparator = (u1,u2) -> Long.compare(u1.getId() == null ? 0 : u1.getId(), u2.getId() == null ? 0 : u2.getId());
+
+        List<User> list = buildListWithoutNullElement(2000);
+
+        List<User> expected = new ArrayList<>(list);
+        Collections.sort(expected, (u1,u2) -> {
+            int result = idComparator.compare(u1, u2);
+            return 0 != result ? result : propertyComparator.compare(u1, u2);
+        });
+
+        List<User> actual = new ArrayList<>(list);
+        PrecomputedKeySorter.sort(actual, idComparator, propertyComparator);
+        assertSameElements(expected, actual);
+    }
+
+    @Test
+    public void testSortPropertyComparatorSubclass(){
+        //子类重写了 compare, 不能预先提取属性值绕过
+        Comparator<User> reversedIdComparator = new PropertyComparator<User>("id"){
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public int compare(User t1,User t2){
+                return super.compare(t2, t1);
+            }
+        };
+
+        User id1 = new User(1L);
+        User id12 = new User(12L);
+        User id5 = new User(5L);
+        List<User> list = toList(id1, id12, id5);
+
+        PrecomputedKeySorter.sort(list, reversedIdComparator);
+        assertThat(list, contains(id12, id5, id1));
+    }
+
+    @Test
+    public void testSortLinkedList(){
+        User id12 = new User(12L);
+        User id1 = new User(1L);
+        User id2 = new User(2L);
+        List<User> list = new LinkedList<>(toList(id12, id1, id2));
+
+        assertSame(list, PrecomputedKeySorter.sort(list, new PropertyComparator<User>("id")));
+        assertThat(list, contains(id1, id2, id12));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testExtractOncePerElement(){
+        List<CountingBean> list = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i){
+            list.add(new CountingBean((i * 7919) % 1000));
+        }
+
+        CountingBean.COUNTER.set(0);
+        PrecomputedKeySorter.sort(list, new PropertyComparator<CountingBean>("value"));
+        assertEquals(1000, CountingBean.COUNTER.get());
+
+        for (int i = 0; i < 1000; ++i){
+            assertEquals(i, list.get(i).value);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    @Test(expected = NullPointerException.class)
+    public void testSortNullList(){
+        PrecomputedKeySorter.sort(null, new PropertyComparator<User>("id"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSortByPropertyNamesValueBlank(){
+        PrecomputedKeySorter.sortByPropertyNamesValue(toList(new User(1L), new User(2L)), "id", " ");
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 记录属性值提取次数的 bean.
+     */
+    public static class CountingBean{
+
+        static final AtomicInteger COUNTER = new AtomicInteger();
+
+        private final int          value;
+
+        public CountingBean(int value){
+            this.value = value;
+        }
+
+        public int getValue(){
+            COUNTER.incrementAndGet();
+            return value;
+        }
+
+        @Override
+        public String toString(){
+            return "" + value;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.grouputil;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.feilong.core.lang.thread.PartitionThreadConfig;
+import com.feilong.core.util.GroupUtil;
+import com.feilong.store.member.User;
+
+/**
+ * The Class GroupParallelTest.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+public class GroupParallelTest{
+
+    /** 每个分区10个元素, 保证会拆成多个分区. */
+    private static final PartitionThreadConfig PARTITION_THREAD_CONFIG = new PartitionThreadConfig(8, 10);
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testGroupParallel(){
+        List<User> list = toList(//
+                        new User("张飞", 23),
+                        new User("刘备", 25),
+                        new User("刘备", 30));
+
+        Map<String, List<User>> map = GroupUtil.groupParallel(list, "name", new PartitionThreadConfig(8, 1));
+        assertEquals(toList("张飞", "刘备"), toList(map.keySet()));
+        assertEquals(1, map.get("张飞").size());
+        assertSame(list.get(1), map.get("刘备").get(0));
+        assertSame(list.get(2), map.get("刘备").get(1));
+    }
+
+    @Test
+    public void testGroupParallelSameAsGroup(){
+        List<User> list = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i){
+            list.add(new User(i % 13 == 0 ? null : "name" + (i * 7) % 37, i));
+        }
+
+        Map<String, List<User>> group = GroupUtil.group(list, "name");
+        Map<String, List<User>> groupParallel = GroupUtil.groupParallel(list, "name", PARTITION_THREAD_CONFIG);
+
+        assertEquals(toList(group.keySet()), toList(groupParallel.keySet()));
+        for (Map.Entry<String, List<User>> entry : group.entrySet()){
+            List<User> expected = entry.getValue();
+            List<User> actual = groupParallel.get(entry.getKey());
+
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); ++i){
+                assertSame(expected.get(i), actual.get(i));
+            }
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testGroupParallelNullList(){
+        assertEquals(emptyMap(), GroupUtil.groupParallel(null, "name", PARTITION_THREAD_CONFIG));
+    }
+
+    @Test
+    public void testGroupParallelEmptyList(){
+        assertEquals(emptyMap(), GroupUtil.groupParallel(new ArrayList<User>(), "name", PARTITION_THREAD_CONFIG));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testGroupParallelNullPropertyName(){
+        GroupUtil.groupParallel(toList(new User(2L)), null, PARTITION_THREAD_CONFIG);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGroupParallelBlankPropertyName(){
+        GroupUtil.groupParallel(toList(new User(2L)), " ", PARTITION_THREAD_CONFIG);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testGroupParallelNullPartitionThreadConfig(){
+        GroupUtil.groupParallel(toList(new User(2L)), "name", null);
+    }
+}
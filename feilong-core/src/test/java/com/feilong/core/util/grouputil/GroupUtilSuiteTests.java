@@ -27,6 +27,8 @@ import org.junit.runners.Suite.SuiteClasses;
                 GroupWithTransformerTest.class,
                 GroupWithTransformerAndPredicateTest.class,
 
+                GroupParallelTest.class,
+
                 GroupOneTest.class,
                 GroupOneLambdaTest.class,
 
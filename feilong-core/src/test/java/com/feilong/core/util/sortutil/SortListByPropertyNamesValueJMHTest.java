@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.sortutil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.feilong.core.util.SortUtil;
+import com.feilong.core.util.comparator.BeanComparatorUtil;
+import com.feilong.store.member.User;
+
+/**
+ * 对比 {@link Collections#sort(List, java.util.Comparator)} + 属性比较器(每次比较都反射取值) 和
+ * {@link SortUtil#sortListByPropertyNamesValue(List, String...)}(每个元素只取一次值) 的耗时.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@Fork(0)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class SortListByPropertyNamesValueJMHTest{
+
+    /** 元素个数. */
+    @Param({ "100000", "1000000" })
+    private int        size;
+
+    private List<User> source;
+
+    private List<User> list;
+
+    public static void main(String[] args) throws RunnerException{
+        final Options opts = new OptionsBuilder().include(SortListByPropertyNamesValueJMHTest.class.getSimpleName())//
+                        .measurementIterations(5)//
+                        .warmupIterations(3)//
+
+                        .result("result.json")//
+                        .resultFormat(ResultFormatType.JSON)//
+                        .build();
+        new Runner(opts).run();
+    }
+
+    @Setup
+    public void setup(){
+        Random random = new Random(42);
+        source = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i){
+            source.add(new User((long) random.nextInt(size), random.nextInt(100)));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void copy(){
+        list = new ArrayList<>(source);
+    }
+
+    //---------------------------------------------------------------
+
+    @Benchmark
+    public List<User> comparatorSingle(){
+        Collections.sort(list, BeanComparatorUtil.<User> chainedComparator("id"));
+        return list;
+    }
+
+    @Benchmark
+    public List<User> precomputedSingle(){
+        return SortUtil.sortListByPropertyNamesValue(list, "id");
+    }
+
+    @Benchmark
+    public List<User> comparatorMulti(){
+        Collections.sort(list, BeanComparatorUtil.<User> chainedComparator("age desc", "id"));
+        return list;
+    }
+
+    @Benchmark
+    public List<User> precomputedMulti(){
+        return SortUtil.sortListByPropertyNamesValue(list, "age desc", "id");
+    }
+}
@@ -44,6 +44,9 @@ import org.junit.runners.Suite.SuiteClasses;
                 SortMapByValueAscTest.class,
                 SortMapByValueDescTest.class,
                 SortMapComparatorTest.class,
+
+                TopListTest.class,
+                TopListByPropertyNamesValueTest.class,
         //
 })
 public class SortUtilSuiteTests{
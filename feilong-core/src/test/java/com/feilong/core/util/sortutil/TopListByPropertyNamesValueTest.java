@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.sortutil;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.util.SortUtil.topListByPropertyNamesValue;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.feilong.core.util.SortUtil;
+import com.feilong.store.member.User;
+
+/**
+ * The Class TopListByPropertyNamesValueTest.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+public class TopListByPropertyNamesValueTest{
+
+    @Test
+    public void testTopListByPropertyNamesValue(){
+        User id12_age18 = new User(12L, 18);
+        User id1_age8 = new User(1L, 8);
+        User id2_age30 = new User(2L, 30);
+        User id2_age2 = new User(2L, 2);
+        User id2_age36 = new User(2L, 36);
+        List<User> list = toList(id12_age18, id2_age36, id2_age2, id2_age30, id1_age8);
+
+        assertThat(topListByPropertyNamesValue(list, 3, "id desc", "age"), contains(id12_age18, id2_age2, id2_age30));
+        assertThat(topListByPropertyNamesValue(list, 2, "age desc"), contains(id2_age36, id2_age30));
+        assertThat(topListByPropertyNamesValue(list.iterator(), 1, "id"), contains(id1_age8));
+    }
+
+    @Test
+    public void testTopListByPropertyNamesValueSameAsSortList(){
+        Random random = new Random(7);
+        List<User> list = new ArrayList<>();
+        for (int i = 0; i < 5000; ++i){
+            list.add(new User(i % 17 == 0 ? null : (long) random.nextInt(100), random.nextInt(10)));
+        }
+
+        for (String[] propertyNameAndOrders : toList(new String[] { "id" }, new String[] { "age desc", "id" })){
+            for (int topN : new int[] { 1, 10, 100, 5000 }){
+                List<User> expected = SortUtil.sortListByPropertyNamesValue(new ArrayList<>(list), propertyNameAndOrders).subList(0, topN);
+                List<User> actual = topListByPropertyNamesValue(list, topN, propertyNameAndOrders);
+
+                assertEquals(topN, actual.size());
+                for (int i = 0; i < topN; ++i){
+                    assertSame(expected.get(i), actual.get(i));
+                }
+            }
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testTopListByPropertyNamesValueNullIterable(){
+        assertEquals(emptyList(), topListByPropertyNamesValue((Iterable<User>) null, 3, "id"));
+    }
+
+    @Test
+    public void testTopListByPropertyNamesValueNullIterator(){
+        assertEquals(emptyList(), topListByPropertyNamesValue((Iterator<User>) null, 3, "id"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testTopListByPropertyNamesValueNullPropertyNames(){
+        topListByPropertyNamesValue(toList(new User(1L)), 3, (String[]) null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTopListByPropertyNamesValueEmptyPropertyNames(){
+        topListByPropertyNamesValue(toList(new User(1L)), 3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTopListByPropertyNamesValueNegative(){
+        topListByPropertyNamesValue(toList(new User(1L)), -1, "id");
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.sortutil;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.feilong.core.util.SortUtil;
+import com.feilong.store.member.User;
+
+/**
+ * 对比全部排序之后取前 N 个和 {@link SortUtil#topList(Iterable, int, Comparator...)} /
+ * {@link SortUtil#topListByPropertyNamesValue(Iterable, int, String...)} 的耗时.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@Fork(0)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class TopListJMHTest{
+
+    /** 元素个数. */
+    @Param({ "1000000" })
+    private int                    size;
+
+    /** 需要的元素个数. */
+    @Param({ "10", "100" })
+    private int                    topN;
+
+    private List<User>             list;
+
+    private final Comparator<User> comparator = (u1,u2) -> Long.compare(u2.getId(), u1.getId());
+
+    public static void main(String[] args) throws RunnerException{
+        final Options opts = new OptionsBuilder().include(TopListJMHTest.class.getSimpleName())//
+                        .measurementIterations(5)//
+                        .warmupIterations(3)//
+
+                        .result("result.json")//
+                        .resultFormat(ResultFormatType.JSON)//
+                        .build();
+        new Runner(opts).run();
+    }
+
+    @Setup
+    public void setup(){
+        Random random = new Random(42);
+        list = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i){
+            list.add(new User((long) random.nextInt(size), random.nextInt(100)));
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    @Benchmark
+    public List<User> sortListComparator(){
+        return new ArrayList<>(SortUtil.sortList(new ArrayList<>(list), comparator).subList(0, topN));
+    }
+
+    @Benchmark
+    public List<User> topListComparator(){
+        return SortUtil.topList(list, topN, comparator);
+    }
+
+    @Benchmark
+    public List<User> sortListByPropertyNamesValue(){
+        return new ArrayList<>(SortUtil.sortListByPropertyNamesValue(new ArrayList<>(list), "id desc").subList(0, topN));
+    }
+
+    @Benchmark
+    public List<User> topListByPropertyNamesValue(){
+        return SortUtil.topListByPropertyNamesValue(list, topN, "id desc");
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.sortutil;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.util.SortUtil.topList;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.feilong.core.util.SortUtil;
+import com.feilong.core.util.comparator.PropertyComparator;
+import com.feilong.lib.collection4.comparators.ReverseComparator;
+import com.feilong.store.member.User;
+
+/**
+ * The Class TopListTest.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+public class TopListTest{
+
+    @Test
+    public void testTopList(){
+        User zhangfei = new User("张飞", 23);
+        User guanyu = new User("关羽", 30);
+        User liubei = new User("刘备", 25);
+        List<User> list = toList(zhangfei, guanyu, liubei);
+
+        assertThat(topList(list, 2, new ReverseComparator<>(new PropertyComparator<User>("age"))), contains(guanyu, liubei));
+
+        //原 list 不变
+        assertThat(list, contains(zhangfei, guanyu, liubei));
+    }
+
+    @Test
+    public void testTopListLessThanTopN(){
+        User zhangfei = new User("张飞", 23);
+        User guanyu = new User("关羽", 30);
+        assertThat(topList(toList(guanyu, zhangfei), 10, new PropertyComparator<User>("age")), contains(zhangfei, guanyu));
+    }
+
+    @Test
+    public void testTopListSameAsSortList(){
+        Random random = new Random(7);
+        List<User> list = new ArrayList<>();
+        for (int i = 0; i < 5000; ++i){
+            list.add(new User((long) random.nextInt(100), random.nextInt(10)));
+        }
+
+        //值相同的元素, 保持原来的先后顺序
+        Comparator<User> comparator = (u1,u2) -> Long.compare(u1.getId(), u2.getId());
+        for (int topN : new int[] { 1, 10, 100, 4999, 5000 }){
+            List<User> expected = SortUtil.sortList(new ArrayList<>(list), comparator).subList(0, topN);
+            List<User> actual = topList(list, topN, comparator);
+
+            assertEquals(topN, actual.size());
+            for (int i = 0; i < topN; ++i){
+                assertSame(expected.get(i), actual.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testTopListIterator(){
+        Iterator<Integer> iterator = new Iterator<Integer>(){
+
+            private int i = 0;
+
+            @Override
+            public boolean hasNext(){
+                return i < 100_000;
+            }
+
+            @Override
+            public Integer next(){
+                return (i++ * 7919) % 100_000;
+            }
+        };
+        assertEquals(toList(99_999, 99_998, 99_997), topList(iterator, 3, Comparator.<Integer> reverseOrder()));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testTopListZero(){
+        assertEquals(emptyList(), topList(toList(new User(1L)), 0, new PropertyComparator<User>("id")));
+    }
+
+    @Test
+    public void testTopListNullIterable(){
+        assertEquals(emptyList(), topList((Iterable<User>) null, 3, new PropertyComparator<User>("id")));
+    }
+
+    @Test
+    public void testTopListNullIterator(){
+        assertEquals(emptyList(), topList((Iterator<User>) null, 3, new PropertyComparator<User>("id")));
+    }
+
+    @Test
+    public void testTopListEmptyResultModifiable(){
+        User user = new User(1L);
+
+        List<User> zeroList = topList(toList(user), 0, new PropertyComparator<User>("id"));
+        zeroList.add(user);
+        assertEquals(toList(user), zeroList);
+
+        List<User> nullList = topList((Iterable<User>) null, 3, new PropertyComparator<User>("id"));
+        nullList.add(user);
+        assertEquals(toList(user), nullList);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTopListNegative(){
+        topList(toList(new User(1L)), -1, new PropertyComparator<User>("id"));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test(expected = NullPointerException.class)
+    public void testTopListNullComparators(){
+        topList(toList(new User(1L)), 1, (Comparator<User>[]) null);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test(expected = IllegalArgumentException.class)
+    public void testTopListEmptyComparators(){
+        topList(toList(new User(1L)), 1, new Comparator[0]);
+    }
+}
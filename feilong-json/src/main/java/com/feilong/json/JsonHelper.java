@@ -22,6 +22,8 @@ import static com.feilong.lib.json.ToStringUtil.ARRAY_START_CHAR;
 import static com.feilong.lib.json.ToStringUtil.OBJECT_END_CHAR;
 import static com.feilong.lib.json.ToStringUtil.OBJECT_START_CHAR;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Iterator;
 import java.util.Map;
 
@@ -34,6 +36,7 @@ import com.feilong.lib.json.JSONArrayBuilder;
 import com.feilong.lib.json.JSONObject;
 import com.feilong.lib.json.JSONObjectBuilder;
 import com.feilong.lib.json.JSONTokener;
+import com.feilong.lib.json.JSONWriter;
 import com.feilong.lib.json.JsonConfig;
 import com.feilong.lib.json.processors.JsonValueProcessor;
 import com.feilong.lib.json.util.JSONUtils;
@@ -110,6 +113,41 @@ public final class JsonHelper{
         return toJSONObject(obj, useJsonConfig);
     }
 
+    /**
+     * 将 <code>obj</code> 流式输出到 <code>writer</code>, 输出内容和 <code>toJSON(obj, jsonConfig).toString(indentFactor, indent)</code> 一致.
+     * 
+     * <p>
+     * 不会先构建完整的 {@link JSONObject}/{@link JSONArray} 树, 参见 {@link JSONWriter}.
+     * </p>
+     *
+     * @param obj
+     *            可以是数组,字符串,枚举,集合,map,Java bean,Iterator等类型,内部自动识别按照 {@link JSONArray}还是{@link JSONObject} 输出
+     * @param jsonConfig
+     *            the json config
+     * @param indentFactor
+     *            the indent factor
+     * @param indent
+     *            the indent
+     * @param writer
+     *            the writer
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @see #toJSON(Object, JsonConfig)
+     * @since 4.5.5
+     */
+    static void writeJSON(Object obj,JsonConfig jsonConfig,int indentFactor,int indent,Writer writer) throws IOException{
+        JsonConfig useJsonConfig = defaultIfNull(jsonConfig, DEFAULT_JAVA_TO_JSON_CONFIG);
+
+        if (isNeedConvertToJSONArray(obj)){
+            Object arrayJsonObject = obj instanceof Iterator//
+                            ? IteratorUtils.toList((Iterator<?>) obj)
+                            : obj;
+            JSONWriter.writeJSONArray(arrayJsonObject, useJsonConfig, indentFactor, indent, writer);
+            return;
+        }
+        JSONWriter.writeJSONObject(obj, useJsonConfig, indentFactor, indent, writer);
+    }
+
     //---------------------------------------------------------------
 
     /**
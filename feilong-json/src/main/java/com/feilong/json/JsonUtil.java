@@ -24,6 +24,14 @@ import static com.feilong.core.lang.StringUtil.formatPattern;
 import static com.feilong.core.util.CollectionsUtil.newArrayList;
 import static com.feilong.core.util.MapUtil.newLinkedHashMap;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -42,7 +50,6 @@ import com.feilong.json.morpher.LongToDateMorpher;
 import com.feilong.json.processor.SensitiveWordsJsonValueProcessor;
 import com.feilong.lib.ezmorph.MorpherRegistry;
 import com.feilong.lib.ezmorph.object.DateMorpher;
-import com.feilong.lib.json.JSON;
 import com.feilong.lib.json.JSONArray;
 import com.feilong.lib.json.JSONNull;
 import com.feilong.lib.json.JSONObject;
@@ -942,12 +949,13 @@ public final class JsonUtil{
             return (String) obj;
         }
         //---------------------------------------------------------------
-        JavaToJsonConfig useJavaToJsonConfig = JavaToJsonConfigBuilder.buildUseJavaToJsonConfig(obj, javaToJsonConfig);
-        JsonConfig jsonConfig = JsonConfigBuilder.build(obj, useJavaToJsonConfig);
+        JsonConfig jsonConfig = buildJsonConfig(obj, javaToJsonConfig);
 
         try{
-            JSON json = JsonHelper.toJSON(obj, jsonConfig);
-            return json.toString(indentFactor, indent);
+            //since 4.5.5 流式输出, 不再先构建完整的 JSON 树
+            StringWriter stringWriter = new StringWriter();
+            JsonHelper.writeJSON(obj, jsonConfig, indentFactor, indent, stringWriter);
+            return stringWriter.toString();
         }catch (Exception e){
             String pattern = "obj:[{}],javaToJsonConfig:[{}],indentFactor:[{}],indent:[{}],[{}],returnNull";
             log.error(pattern, obj, javaToJsonConfig, indentFactor, indent, e.getMessage(), e);
@@ -957,6 +965,123 @@ public final class JsonUtil{
 
     //---------------------------------------------------------------
 
+    /**
+     * 将对象 <code>obj</code> 格式化成json, 直接流式写到 <code>writer</code>.
+     * 
+     * <p>
+     * 输出的内容和 {@link #format(Object, JavaToJsonConfig, int, int)} 一致(同样支持 includes/excludes,{@link SensitiveWordsJsonValueProcessor},
+     * DateJsonValueProcessor,PropertyNameProcessor 等 {@link JavaToJsonConfig} 配置), 但是不会先构建完整的 {@link JSONObject}/{@link JSONArray}
+     * 树, 也不会生成完整的字符串, 适合大的 bean/list 直接输出到文件或者 http response.
+     * </p>
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * try (Writer writer = Files.newBufferedWriter(path)){
+     *     JsonUtil.write(userList, javaToJsonConfig, 0, 0, writer);
+     * }
+     * </pre>
+     * 
+     * </blockquote>
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>不会 flush 以及 close <code>writer</code>, 由调用方负责</li>
+     * <li>和 format 不同, 转换出现异常的时候会直接抛出(此时 <code>writer</code> 里面可能已经写入了部分内容), 不会返回null</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param obj
+     *            可以是数组,字符串,枚举,集合,map,Java bean,Iterator等类型,内部自动识别按照{@link JSONArray}还是{@link JSONObject}输出
+     * @param javaToJsonConfig
+     *            the java to json config, 如果是null,将使用默认的,参见
+     *            {@link JavaToJsonConfigBuilder#buildUseJavaToJsonConfig(Object, JavaToJsonConfig)}
+     * @param indentFactor
+     *            the indent factor
+     * @param indent
+     *            the indent
+     * @param writer
+     *            the writer
+     * @throws NullPointerException
+     *             如果 <code>writer</code> 是null
+     * @throws UncheckedIOException
+     *             如果写入的时候出现 {@link IOException}
+     * @since 4.5.5
+     */
+    public static void write(Object obj,JavaToJsonConfig javaToJsonConfig,int indentFactor,int indent,Writer writer){
+        Validate.notNull(writer, "writer can't be null!");
+        if (null == obj){
+            return;
+        }
+
+        //---------------------------------------------------------------
+        try{
+            if (JsonHelper.isCommonString(obj)){
+                writer.write((String) obj);
+                return;
+            }
+            JsonHelper.writeJSON(obj, buildJsonConfig(obj, javaToJsonConfig), indentFactor, indent, writer);
+        }catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 将对象 <code>obj</code> 格式化成json, 使用 UTF-8 编码直接流式写到 <code>outputStream</code>.
+     * 
+     * <p>
+     * 写完之后会 flush, 但是不会 close <code>outputStream</code>, 由调用方负责.
+     * </p>
+     *
+     * @param obj
+     *            可以是数组,字符串,枚举,集合,map,Java bean,Iterator等类型,内部自动识别按照{@link JSONArray}还是{@link JSONObject}输出
+     * @param javaToJsonConfig
+     *            the java to json config
+     * @param indentFactor
+     *            the indent factor
+     * @param indent
+     *            the indent
+     * @param outputStream
+     *            the output stream
+     * @throws NullPointerException
+     *             如果 <code>outputStream</code> 是null
+     * @throws UncheckedIOException
+     *             如果写入的时候出现 {@link IOException}
+     * @see #write(Object, JavaToJsonConfig, int, int, Writer)
+     * @since 4.5.5
+     */
+    public static void write(Object obj,JavaToJsonConfig javaToJsonConfig,int indentFactor,int indent,OutputStream outputStream){
+        Validate.notNull(outputStream, "outputStream can't be null!");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        write(obj, javaToJsonConfig, indentFactor, indent, writer);
+        try{
+            writer.flush();
+        }catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Builds the json config.
+     *
+     * @param obj
+     *            the obj
+     * @param javaToJsonConfig
+     *            the java to json config
+     * @return the json config
+     * @since 4.5.5
+     */
+    private static JsonConfig buildJsonConfig(Object obj,JavaToJsonConfig javaToJsonConfig){
+        JavaToJsonConfig useJavaToJsonConfig = JavaToJsonConfigBuilder.buildUseJavaToJsonConfig(obj, javaToJsonConfig);
+        return JsonConfigBuilder.build(obj, useJavaToJsonConfig);
+    }
+
+    //---------------------------------------------------------------
+
     /**
      * 格式化一个对象 <code>obj</code> 里面所有的field 的名字和值.
      * 
@@ -26,6 +26,7 @@ import com.feilong.json.processor.JsonValueProcessorSuiteTests;
 import com.feilong.json.tobean.ToBeanSuiteTests;
 import com.feilong.json.tostring.ToStringSuiteTests;
 import com.feilong.json.transformer.JavaIdentifierTransformerSuiteTests;
+import com.feilong.lib.json.JSONWriterTest;
 import com.feilong.lib.json.util.PropertySetStrategyTest;
 
 @RunWith(Suite.class)
@@ -45,6 +46,7 @@ import com.feilong.lib.json.util.PropertySetStrategyTest;
                 JavaIdentifierTransformerSuiteTests.class,
 
                 PropertySetStrategyTest.class,
+                JSONWriterTest.class,
 
                 AlbumBrowseRecordJsonTest.class,
                 CrmAddpointCommandJsonTest.class
@@ -52,6 +52,8 @@ import com.feilong.json.format.sdk.PropertyFilterTest;
                 //filter
                 PropertyFilterTest.class,
                 FormatWithIncludesTest.class,
+
+                FormatWriterTest.class,
 //
 })
 public class FormatSuiteTests{
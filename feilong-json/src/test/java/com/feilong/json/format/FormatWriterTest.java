@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.json.format;
+
+import static com.feilong.core.bean.ConvertUtil.toMap;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import org.junit.Test;
+
+import com.feilong.json.AbstractJsonTest;
+import com.feilong.json.JavaToJsonConfig;
+import com.feilong.json.JsonUtil;
+
+/**
+ * 
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+public class FormatWriterTest extends AbstractJsonTest{
+
+    @Test
+    public void testWriter(){
+        StringWriter writer = new StringWriter();
+        JsonUtil.write(USER, null, 4, 4, writer);
+        assertEquals(JsonUtil.format(USER, (JavaToJsonConfig) null, 4, 4), writer.toString());
+    }
+
+    @Test
+    public void testWriterExcludes(){
+        JavaToJsonConfig javaToJsonConfig = new JavaToJsonConfig();
+        javaToJsonConfig.setExcludes("name", "userInfo");
+
+        StringWriter writer = new StringWriter();
+        JsonUtil.write(USER, javaToJsonConfig, 0, 0, writer);
+        assertEquals(JsonUtil.format(USER, javaToJsonConfig, 0, 0), writer.toString());
+    }
+
+    @Test
+    public void testOutputStream(){
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        JsonUtil.write(toMap("name", "飞龙", "user", USER), null, 2, 0, outputStream);
+        assertEquals(JsonUtil.format(toMap("name", "飞龙", "user", USER), (JavaToJsonConfig) null, 2, 0), new String(outputStream.toByteArray(), UTF_8));
+    }
+
+    @Test
+    public void testNull(){
+        StringWriter writer = new StringWriter();
+        JsonUtil.write(null, null, 4, 4, writer);
+        assertEquals("", writer.toString());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullWriter(){
+        JsonUtil.write(USER, null, 4, 4, (Writer) null);
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.lib.json;
+
+import static com.feilong.core.bean.ConvertUtil.toArray;
+import static com.feilong.core.bean.ConvertUtil.toBigDecimal;
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.bean.ConvertUtil.toMap;
+import static com.feilong.core.date.DateUtil.now;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.feilong.json.builder.JsonConfigBuilder;
+import com.feilong.lib.json.util.JSONUtils;
+import com.feilong.json.entity.BeanWithSensitiveWords;
+import com.feilong.store.member.User;
+import com.feilong.store.member.UserAddress;
+import com.feilong.store.member.UserInfo;
+
+/**
+ * 验证 {@link JSONWriter} 流式输出的结果和 {@link JSONObject}/{@link JSONArray} 树形式的结果完全一致.
+ * 
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+public class JSONWriterTest{
+
+    @Test
+    public void testBean(){
+        assertSameAsTree(buildUser(8L));
+    }
+
+    @Test
+    public void testSensitiveWordsBean(){
+        assertSameAsTree(new BeanWithSensitiveWords("pattern", "key", "cvv"));
+    }
+
+    @Test
+    public void testListBean(){
+        List<User> list = new ArrayList<>();
+        for (long i = 0; i < 20; ++i){
+            list.add(buildUser(i));
+        }
+        assertSameAsTree(list);
+    }
+
+    @Test
+    public void testMap(){
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("name", "feilong");
+        map.put("nullValue", null);
+        map.put("ints", new int[] { 1, 2, 3 });
+        map.put("longs", new long[] { 1L, Long.MAX_VALUE });
+        map.put("doubles", new double[] { 1.5d, 2d });
+        map.put("chars", new char[] { 'a', 'b' });
+        map.put("jsonString", "{\"a\":1}");
+        map.put("money", toBigDecimal("99.00"));
+        map.put("nested", toMap("b", 1, "a", toList("x", "y")));
+        map.put("user", buildUser(1L));
+        assertSameAsTree(map);
+    }
+
+    @Test
+    public void testSingleEntry(){
+        assertSameAsTree(toMap("a", toMap("b", toList(toMap("c", 1)))));
+    }
+
+    @Test
+    public void testEmpty(){
+        assertSameAsTree(emptyMap());
+        assertSameAsTree(emptyList());
+        assertSameAsTree(toMap("a", emptyMap(), "b", emptyList()));
+    }
+
+    @Test
+    public void testDuplicateKey(){
+        Map<Object, Object> map = new LinkedHashMap<>();
+        map.put(1, "int");
+        map.put("1", "string");
+        assertSameAsTree(map);
+    }
+
+    @Test
+    public void testCycle(){
+        CycleNode parent = new CycleNode("parent");
+        CycleNode child = new CycleNode("child");
+        parent.setChildren(toList(child, parent));
+        child.setParent(parent);
+        assertSameAsTree(parent);
+        assertSameAsTree(toMap("a", parent, "b", child));
+    }
+
+    @Test
+    public void testArray(){
+        assertSameAsTree(toArray(buildUser(1L), buildUser(2L)));
+        assertSameAsTree(new int[] { 1, 2 });
+    }
+
+    @Test
+    public void testNullConfig() throws IOException{
+        Map<String, Object> map = toMap("b", 1, "a", 2);
+
+        StringWriter writer = new StringWriter();
+        JSONWriter.writeJSONObject(map, null, 0, 0, writer);
+        assertEquals(JSONObjectBuilder.build(map, new JsonConfig()).toString(0, 0), writer.toString());
+    }
+
+    //---------------------------------------------------------------
+
+    private static void assertSameAsTree(Object obj){
+        JsonConfig jsonConfig = JsonConfigBuilder.build(obj, null);
+        boolean isArray = JSONUtils.isArray(obj);
+
+        for (int[] indent : new int[][] { { 0, 0 }, { 4, 4 }, { 2, 0 } }){
+            String expected = isArray ? JSONArrayBuilder.build(obj, jsonConfig).toString(indent[0], indent[1])
+                            : JSONObjectBuilder.build(obj, jsonConfig).toString(indent[0], indent[1]);
+            assertEquals(expected, write(obj, jsonConfig, indent[0], indent[1], isArray));
+        }
+    }
+
+    private static String write(Object obj,JsonConfig jsonConfig,int indentFactor,int indent,boolean isArray){
+        StringWriter writer = new StringWriter();
+        try{
+            if (isArray){
+                JSONWriter.writeJSONArray(obj, jsonConfig, indentFactor, indent, writer);
+            }else{
+                JSONWriter.writeJSONObject(obj, jsonConfig, indentFactor, indent, writer);
+            }
+        }catch (IOException e){
+            throw new AssertionError(e);
+        }
+        return writer.toString();
+    }
+
+    private static User buildUser(long id){
+        User user = new User(id);
+        user.setPassword("123456");
+        user.setName("feilong" + id);
+        user.setDate(now());
+        user.setMoney(toBigDecimal("99999999.00"));
+        user.setLoves(toArray("桔子", "香蕉"));
+        user.setUserInfo(new UserInfo(10));
+
+        UserAddress userAddress1 = new UserAddress("上海市地址1");
+        UserAddress userAddress2 = new UserAddress("上海市地址2");
+        user.setUserAddresses(toArray(userAddress1, userAddress2));
+        user.setUserAddresseList(toList(userAddress1, userAddress2));
+        return user;
+    }
+
+    //---------------------------------------------------------------
+
+    public static class CycleNode{
+
+        private String          name;
+
+        private CycleNode       parent;
+
+        private List<CycleNode> children;
+
+        public CycleNode(String name){
+            this.name = name;
+        }
+
+        public String getName(){
+            return name;
+        }
+
+        public CycleNode getParent(){
+            return parent;
+        }
+
+        public void setParent(CycleNode parent){
+            this.parent = parent;
+        }
+
+        public List<CycleNode> getChildren(){
+            return children;
+        }
+
+        public void setChildren(List<CycleNode> children){
+            this.children = children;
+        }
+    }
+}
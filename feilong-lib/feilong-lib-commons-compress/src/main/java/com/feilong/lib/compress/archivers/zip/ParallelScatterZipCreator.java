@@ -0,0 +1,286 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package com.feilong.lib.compress.archivers.zip;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+
+import com.feilong.lib.compress.parallel.InputStreamSupplier;
+
+/**
+ * Creates a zip in parallel by using multiple threadlocal {@link ScatterZipOutputStream} instances.
+ * <p>
+ * Note that until 1.18, this class generally made no guarantees about the order of things written to
+ * the output file. Things that needed to come in a specific order (manifests, directories)
+ * had to be handled by the client of this class, usually by writing these things to the
+ * {@link ZipArchiveOutputStream} <em>before</em> calling {@link #writeTo writeTo} on this class.
+ * </p>
+ * <p>
+ * The client can supply an {@link java.util.concurrent.ExecutorService}, but for reasons of
+ * memory model consistency, this will be shut down by this class prior to completion.
+ * </p>
+ * <p>
+ * Each worker thread offloads its compressed entries into its own temporary file; {@link #writeTo writeTo}
+ * then copies the already deflated bytes into the target archive without recompressing them.
+ * </p>
+ * <p>
+ * If {@link #writeTo writeTo} is never reached (for example because collecting the entries failed), call {@link #close()}
+ * so that the temporary files already created by the worker threads are deleted.
+ * </p>
+ *
+ * @since 1.10
+ */
+public class ParallelScatterZipCreator implements Closeable{
+
+    private final Deque<ScatterZipOutputStream>                  streams          = new ConcurrentLinkedDeque<>();
+
+    private final ExecutorService                                es;
+
+    private final int                                            compressionLevel;
+
+    private final AtomicInteger                                  storeNum         = new AtomicInteger(0);
+
+    private final long                                           startedAt        = System.currentTimeMillis();
+
+    private long                                                 compressionDoneAt;
+
+    private long                                                 scatterDoneAt;
+
+    private final List<Future<? extends ScatterZipOutputStream>> futures          = new ArrayList<>();
+
+    private final ThreadLocal<ScatterZipOutputStream>            tlScatterStreams = ThreadLocal.withInitial(() -> {
+                                                                                      try{
+                                                                                          final ScatterZipOutputStream scatterStream = createDeferred();
+                                                                                          streams.add(scatterStream);
+                                                                                          return scatterStream;
+                                                                                      }catch (final IOException e){
+                                                                                          throw new UncheckedIOException(e); //NOSONAR
+                                                                                      }
+                                                                                  });
+
+    /**
+     * Create a ParallelScatterZipCreator with default threads, which is set to the number of available
+     * processors, as defined by {@link java.lang.Runtime#availableProcessors}
+     */
+    public ParallelScatterZipCreator(){
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a ParallelScatterZipCreator with the given number of threads and default compression level.
+     *
+     * @param nThreads
+     *            the number of compression threads
+     */
+    public ParallelScatterZipCreator(final int nThreads){
+        this(Executors.newFixedThreadPool(nThreads), Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Create a ParallelScatterZipCreator
+     *
+     * @param executorService
+     *            The executorService to use for parallel scheduling. For technical reasons,
+     *            this will be shut down by this class.
+     * @param compressionLevel
+     *            The compression level used in compression, this value should be
+     *            -1(default level) or between 0~9.
+     * @throws IllegalArgumentException
+     *             if the compression level is illegal
+     */
+    public ParallelScatterZipCreator(final ExecutorService executorService, final int compressionLevel) throws IllegalArgumentException{
+        if ((compressionLevel < Deflater.NO_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION)
+                        && compressionLevel != Deflater.DEFAULT_COMPRESSION){
+            throw new IllegalArgumentException("Compression level is expected between -1~9");
+        }
+        this.es = executorService;
+        this.compressionLevel = compressionLevel;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Adds an archive entry to be compressed in the background.
+     *
+     * <p>
+     * The entry's method must be set, the crc and sizes are computed while compressing.
+     * </p>
+     *
+     * @param zipArchiveEntry
+     *            The entry to add.
+     * @param source
+     *            The source input stream supplier, the stream is opened and closed in the worker thread
+     */
+    public void addArchiveEntry(final ZipArchiveEntry zipArchiveEntry,final InputStreamSupplier source){
+        if (zipArchiveEntry.getMethod() == ZipMethod.UNKNOWN_CODE){
+            throw new IllegalArgumentException("Method must be set on zipArchiveEntry: " + zipArchiveEntry);
+        }
+        submitStreamAwareCallable(createCallable(zipArchiveEntry, source));
+    }
+
+    /**
+     * Submit a callable for compression.
+     *
+     * @param callable
+     *            The callable to run, created by {@link #createCallable createCallable}, possibly wrapped by caller.
+     */
+    public final void submitStreamAwareCallable(final Callable<? extends ScatterZipOutputStream> callable){
+        futures.add(es.submit(callable));
+    }
+
+    /**
+     * Create a callable that will compress the given archive entry.
+     *
+     * @param zipArchiveEntry
+     *            The entry to add.
+     * @param source
+     *            The source input stream supplier
+     * @return A callable that should subsequently passed to #submitStreamAwareCallable, possibly in a wrapped/adapted from. The
+     *         value of this callable is not used, but any exceptions happening inside the compression
+     *         will be propagated through the callable.
+     */
+    public final Callable<ScatterZipOutputStream> createCallable(final ZipArchiveEntry zipArchiveEntry,final InputStreamSupplier source){
+        return () -> {
+            final ScatterZipOutputStream scatterStream = tlScatterStreams.get();
+            try (InputStream payload = source.get()){
+                scatterStream.addArchiveEntry(zipArchiveEntry, payload);
+            }
+            return scatterStream;
+        };
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Write the contents this to the target {@link ZipArchiveOutputStream}.
+     * <p>
+     * It may be beneficial to write things like directories and manifest files to the targetStream
+     * before calling this method.
+     * </p>
+     *
+     * <p>
+     * Calling this method will shut down the {@link ExecutorService} used by this class. If any of the {@link
+     * Callable}s {@link #submitStreamAwareCallable submit}ted to this instance throws an exception, the archive can not be created and
+     * all partial information will be discarded.
+     * </p>
+     *
+     * @param targetStream
+     *            The {@link ZipArchiveOutputStream} to receive the contents of the scatter streams
+     * @throws IOException
+     *             If writing fails
+     * @throws InterruptedException
+     *             If we get interrupted
+     * @throws ExecutionException
+     *             If something happens in the parallel execution
+     */
+    public void writeTo(final ZipArchiveOutputStream targetStream) throws IOException,InterruptedException,ExecutionException{
+        try{
+            // Make sure we catch any exceptions from parallel phase
+            try{
+                for (final Future<?> future : futures){
+                    future.get();
+                }
+            }finally{
+                es.shutdown();
+            }
+
+            es.awaitTermination(1000 * 60L, TimeUnit.SECONDS); // == Infinity. We really *must* wait for this to complete
+
+            // It is important that all threads terminate before we go on, ensure happens-before relationship
+            compressionDoneAt = System.currentTimeMillis();
+
+            for (final ScatterZipOutputStream scatterStream : streams){
+                scatterStream.writeTo(targetStream);
+            }
+
+            scatterDoneAt = System.currentTimeMillis();
+        }finally{
+            closeAll();
+        }
+    }
+
+    /**
+     * Cancels the compression tasks that have not completed yet, waits for the running ones to stop and closes all scatter
+     * streams, deleting their temporary files.
+     *
+     * <p>
+     * Shuts down the {@link ExecutorService} used by this class. Safe to call after {@link #writeTo writeTo}, and safe to call more
+     * than once.
+     * </p>
+     *
+     * @throws IOException
+     *             never, declared by {@link Closeable}
+     * @since 4.5.5
+     */
+    @Override
+    public void close() throws IOException{
+        try{
+            for (final Future<?> future : futures){
+                future.cancel(true);
+            }
+            es.shutdownNow();
+            //workers must not create new scatter streams after closeAll
+            es.awaitTermination(1000 * 60L, TimeUnit.SECONDS);
+        }catch (final InterruptedException e){
+            Thread.currentThread().interrupt();
+        }finally{
+            closeAll();
+        }
+    }
+
+    /**
+     * Returns a message describing the overall statistics of the compression run
+     *
+     * @return A string
+     */
+    public ScatterStatistics getStatisticsMessage(){
+        return new ScatterStatistics(compressionDoneAt - startedAt, scatterDoneAt - compressionDoneAt);
+    }
+
+    //---------------------------------------------------------------
+
+    private ScatterZipOutputStream createDeferred() throws IOException{
+        final File tempFile = File.createTempFile("parallelscatter", "n" + storeNum.incrementAndGet());
+        return ScatterZipOutputStream.fileBased(tempFile, compressionLevel);
+    }
+
+    private void closeAll(){
+        for (final ScatterZipOutputStream scatterStream : streams){
+            try{
+                scatterStream.close();
+            }catch (final IOException ex){ //NOSONAR
+                // no way to properly log this
+            }
+        }
+    }
+}
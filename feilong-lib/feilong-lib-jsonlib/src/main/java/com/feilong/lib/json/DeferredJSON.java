@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.lib.json;
+
+/**
+ * 延迟转换的嵌套 bean/map/集合/数组.
+ * 
+ * <p>
+ * {@link JSONWriter} 流式输出的时候, 嵌套的值不会立即通过 {@link JSONObjectBuilder}/{@link JSONArrayBuilder} 转成完整的 {@link JSON} 树, 而是包装成该对象,
+ * 等到真正输出的时候再逐层展开.
+ * </p>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+final class DeferredJSON{
+
+    /** 原始对象. */
+    final Object  source;
+
+    /** true 表示按照 {@link JSONArray} 输出, false 表示按照 {@link JSONObject} 输出. */
+    final boolean array;
+
+    /**
+     * Instantiates a new deferred JSON.
+     *
+     * @param source
+     *            原始对象
+     * @param array
+     *            是否是 {@link JSONArray}
+     */
+    DeferredJSON(Object source, boolean array){
+        this.source = source;
+        this.array = array;
+    }
+}
@@ -99,6 +99,13 @@ public final class JSONObject implements JSON{
      */
     final Map<String, Object> properties;
 
+    /**
+     * 是否是 {@link JSONWriter} 使用的延迟模式, 嵌套的 bean/map/集合/数组 保存成 {@link DeferredJSON}.
+     * 
+     * @since 4.5.5
+     */
+    boolean                   deferred;
+
     //---------------------------------------------------------------
 
     /**
@@ -147,6 +154,8 @@ public final class JSONObject implements JSON{
         }
 
         //---------------------------------------------------------------
+        checkDeferredDuplicateKey(key);
+
         Object o = get(key);
         if (o instanceof JSONArray){
             ((JSONArray) o).addValue(value, jsonConfig);
@@ -182,7 +191,7 @@ public final class JSONObject implements JSON{
             return this;
         }
 
-        value = ProcessValueUtil.processJsonObjectValue(key, value, jsonConfig);
+        value = ProcessValueUtil.processJsonObjectValue(key, value, jsonConfig, deferred);
         if (JSONUtils.isString(value) && JSONUtils.mayBeJSON(String.valueOf(value))){
             this.properties.put(key, value);
             return this;
@@ -196,6 +205,20 @@ public final class JSONObject implements JSON{
         return this;
     }
 
+    /**
+     * 延迟模式下, 重复的 key 需要 accumulate 成 {@link JSONArray}, 不能延迟, 抛出 {@link JSONWriter.DuplicateKeyException} 由 {@link JSONWriter}
+     * 回退到完整构建.
+     *
+     * @param key
+     *            the key
+     * @since 4.5.5
+     */
+    void checkDeferredDuplicateKey(String key){
+        if (deferred){
+            throw JSONWriter.DuplicateKeyException.INSTANCE;
+        }
+    }
+
     //---------------------------------------------------------------
 
     /**
@@ -88,6 +88,58 @@ public class JSONObjectBuilder{
         return fromBean(object, jsonConfig);
     }
 
+    /**
+     * 是否可以使用 {@link #buildDeferred(Object, JsonConfig)}, 即 <code>object</code> 是 {@link Map} 或者 JavaBean.
+     * 
+     * <p>
+     * 判断顺序和 {@link #build(Object, JsonConfig)} 保持一致.
+     * </p>
+     *
+     * @param object
+     *            the object
+     * @return 如果是 {@link Map} 或者 JavaBean 返回true
+     * @since 4.5.5
+     */
+    static boolean isDeferrable(Object object){
+        if (object == null || JSONUtils.isNull(object) || object instanceof String || object instanceof JSONObject){
+            return false;
+        }
+        if (object instanceof Map){
+            return true;
+        }
+        return !(JSONUtils.isNumber(object) || JSONUtils.isBoolean(object) || JSONUtils.isString(object) || object instanceof DynaBean
+                        || object instanceof Enum || object instanceof Annotation || object.getClass().isAnnotation()
+                        || JSONUtils.isArray(object));
+    }
+
+    /**
+     * 给 {@link JSONWriter} 使用, 只处理当前这一层的属性, 嵌套的 bean/map/集合/数组 保存成 {@link DeferredJSON}.
+     * 
+     * <p>
+     * 调用前需要确认 {@link #isDeferrable(Object)}; 不做循环引用检测, 由调用方负责.
+     * </p>
+     *
+     * @param object
+     *            {@link Map} 或者 JavaBean
+     * @param jsonConfig
+     *            the json config
+     * @return the JSON object
+     * @throws Exception
+     *             the exception
+     * @since 4.5.5
+     */
+    static JSONObject buildDeferred(Object object,JsonConfig jsonConfig) throws Exception{
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.deferred = true;
+
+        if (object instanceof Map){
+            fillFromMap((Map<?, ?>) object, jsonObject, jsonConfig);
+        }else{
+            DefaultBeanProcesser.process(object, jsonObject, jsonConfig);
+        }
+        return jsonObject;
+    }
+
     //---------------------------------------------------------------
     /**
      * From dyna bean.
@@ -139,46 +191,59 @@ public class JSONObjectBuilder{
      * @return the JSON object
      */
     private static JSONObject fromMap(Map<?, ?> map,JsonConfig jsonConfig){
-        return build(map, jsonObject -> {
-            Collection<String> exclusions = jsonConfig.getMergedExcludes();
-            PropertyFilter jsonPropertyFilter = jsonConfig.getJsonPropertyFilter();
+        return build(map, jsonObject -> fillFromMap(map, jsonObject, jsonConfig));
+    }
 
-            for (Map.Entry<?, ?> entry : map.entrySet()){
-                Object k = entry.getKey();
-                if (k == null){
-                    throw new JSONException("JSON keys can't be null.");
-                }
-                //---------------------------------------------------------------
-                String key = String.valueOf(k);
-                if ("null".equals(key)){
-                    throw new NullPointerException("JSON keys must not be null nor the 'null' string.");
-                }
-                if (exclusions.contains(key)){
-                    continue;
-                }
-                //---------------------------------------------------------------
-                Object value = entry.getValue();
-                if (jsonPropertyFilter != null && jsonPropertyFilter.apply(map, key, value)){
-                    continue;
-                }
+    /**
+     * 将 <code>map</code> 的每个 entry 设置到 <code>jsonObject</code>.
+     *
+     * @param map
+     *            the map
+     * @param jsonObject
+     *            the json object
+     * @param jsonConfig
+     *            the json config
+     * @since 4.5.5
+     */
+    private static void fillFromMap(Map<?, ?> map,JSONObject jsonObject,JsonConfig jsonConfig){
+        Collection<String> exclusions = jsonConfig.getMergedExcludes();
+        PropertyFilter jsonPropertyFilter = jsonConfig.getJsonPropertyFilter();
 
-                boolean bypass = false;
-                //---------------------------------------------------------------
-                if (value != null){
-                    JsonValueProcessor jsonValueProcessor = jsonConfig.findJsonValueProcessor(value.getClass(), key);
-                    if (jsonValueProcessor != null){
-                        value = jsonValueProcessor.processObjectValue(key, value, jsonConfig);
-                        bypass = true;
-                        if (!JsonVerifier.isValidJsonValue(value)){
-                            throw new JSONException("Value is not a valid JSON value. " + value);
-                        }
+        for (Map.Entry<?, ?> entry : map.entrySet()){
+            Object k = entry.getKey();
+            if (k == null){
+                throw new JSONException("JSON keys can't be null.");
+            }
+            //---------------------------------------------------------------
+            String key = String.valueOf(k);
+            if ("null".equals(key)){
+                throw new NullPointerException("JSON keys must not be null nor the 'null' string.");
+            }
+            if (exclusions.contains(key)){
+                continue;
+            }
+            //---------------------------------------------------------------
+            Object value = entry.getValue();
+            if (jsonPropertyFilter != null && jsonPropertyFilter.apply(map, key, value)){
+                continue;
+            }
+
+            boolean bypass = false;
+            //---------------------------------------------------------------
+            if (value != null){
+                JsonValueProcessor jsonValueProcessor = jsonConfig.findJsonValueProcessor(value.getClass(), key);
+                if (jsonValueProcessor != null){
+                    value = jsonValueProcessor.processObjectValue(key, value, jsonConfig);
+                    bypass = true;
+                    if (!JsonVerifier.isValidJsonValue(value)){
+                        throw new JSONException("Value is not a valid JSON value. " + value);
                     }
-                    JSONObjectValueSetter.set(jsonObject, key, value, value.getClass(), jsonConfig, bypass);
-                }else{
-                    jsonObject.accumulate(key, JSONNull.getInstance(), new JsonConfig());
                 }
+                JSONObjectValueSetter.set(jsonObject, key, value, value.getClass(), jsonConfig, bypass);
+            }else{
+                jsonObject.accumulate(key, JSONNull.getInstance(), new JsonConfig());
             }
-        });
+        }
     }
 
     /**
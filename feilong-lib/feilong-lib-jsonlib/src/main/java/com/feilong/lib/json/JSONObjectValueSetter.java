@@ -45,6 +45,8 @@ public class JSONObjectValueSetter{
                 jsonObject.accumulate(key, value, jsonConfig);
             }
         }else{
+            jsonObject.checkDeferredDuplicateKey(key);
+
             if (String.class.isAssignableFrom(propertyType)){
                 Object o = jsonObject.get(key);
                 if (o instanceof JSONArray){
@@ -0,0 +1,493 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.lib.json;
+
+import static com.feilong.core.lang.ObjectUtil.defaultIfNull;
+import static com.feilong.core.util.SortUtil.sortMapByKeyAsc;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.feilong.lib.json.util.CycleDetectionStrategy;
+import com.feilong.lib.json.util.CycleSetUtil;
+import com.feilong.lib.json.util.JSONUtils;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * 流式输出 json 到 {@link Writer}.
+ * 
+ * <p>
+ * {@link JSONObjectBuilder}/{@link JSONArrayBuilder} 会先把整个对象转成完整的 {@link JSONObject}/{@link JSONArray} 树, 然后再 toString,
+ * 对于大的 bean/list, 内存和对象分配大约翻倍.<br>
+ * 该类使用相同的 {@link JsonConfig}(excludes,includes,JsonValueProcessor,PropertyNameProcessor,DefaultValueProcessor,PropertyFilter等)逐层转换,
+ * 每个 bean/map 只转换当前这一层的属性, 嵌套的 bean/map/集合/数组 在输出的时候再展开, 集合/数组的元素逐个转换逐个输出,
+ * 输出的内容和 <code>build(object, jsonConfig).toString(indentFactor, indent)</code> 完全一致.
+ * </p>
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>有缩进的时候, 和 {@link JSONObject#toString(int, int)} 一样, 同一层的属性需要按照 key 排序, 所以每层的属性会先收集再输出</li>
+ * <li>JSON 字符串, {@link JSON} 对象, DynaBean, 以及同一层出现重复 key(需要 accumulate 成数组)等情况, 该层退化成原来的完整构建</li>
+ * <li>转换过程中出现异常的时候, <code>writer</code> 里面可能已经写入了部分内容</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class JSONWriter{
+
+    /**
+     * 将 <code>object</code> 按照 {@link JSONObject} 输出到 <code>writer</code>.
+     * 
+     * <p>
+     * 等同于 <code>writer.write(JSONObjectBuilder.build(object, jsonConfig).toString(indentFactor, indent))</code>, 但是不会构建完整的 json 树.
+     * </p>
+     *
+     * @param object
+     *            the object
+     * @param jsonConfig
+     *            如果是null, 使用 new JsonConfig()
+     * @param indentFactor
+     *            the indent factor
+     * @param indent
+     *            the indent
+     * @param writer
+     *            the writer
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public static void writeJSONObject(Object object,JsonConfig jsonConfig,int indentFactor,int indent,Writer writer) throws IOException{
+        writeObject(object, defaultIfNull(jsonConfig, new JsonConfig()), indentFactor, indent, writer);
+    }
+
+    /**
+     * 将 <code>object</code> 按照 {@link JSONArray} 输出到 <code>writer</code>.
+     * 
+     * <p>
+     * 等同于 <code>writer.write(JSONArrayBuilder.build(object, jsonConfig).toString(indentFactor, indent))</code>, 但是不会构建完整的 json 树.
+     * </p>
+     *
+     * @param object
+     *            the object
+     * @param jsonConfig
+     *            如果是null, 使用 new JsonConfig()
+     * @param indentFactor
+     *            the indent factor
+     * @param indent
+     *            the indent
+     * @param writer
+     *            the writer
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public static void writeJSONArray(Object object,JsonConfig jsonConfig,int indentFactor,int indent,Writer writer) throws IOException{
+        writeArray(object, defaultIfNull(jsonConfig, new JsonConfig()), indentFactor, indent, writer);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Write object.
+     *
+     * @param object
+     *            the object
+     * @param jsonConfig
+     *            the json config
+     * @param indentFactor
+     *            the indent factor
+     * @param indent
+     *            the indent
+     * @param writer
+     *            the writer
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static void writeObject(Object object,JsonConfig jsonConfig,int indentFactor,int indent,Writer writer) throws IOException{
+        if (!JSONObjectBuilder.isDeferrable(object)){
+            writer.write(JSONObjectBuilder.build(object, jsonConfig).toString(indentFactor, indent));
+            return;
+        }
+        if (!CycleSetUtil.addInstance(object)){
+            writer.write(CycleDetectionStrategy.LENIENT.handleRepeatedReferenceAsObject(object).toString(indentFactor, indent));
+            return;
+        }
+
+        //---------------------------------------------------------------
+        JSONObject jsonObject;
+        try{
+            jsonObject = JSONObjectBuilder.buildDeferred(object, jsonConfig);
+        }catch (DuplicateKeyException e){
+            //重复的 key 需要 accumulate, 退化成完整构建
+            CycleSetUtil.removeInstance(object);
+            writer.write(JSONObjectBuilder.build(object, jsonConfig).toString(indentFactor, indent));
+            return;
+        }catch (Exception e){
+            CycleSetUtil.removeInstance(object);
+            throw new JSONException("", e);
+        }
+
+        //---------------------------------------------------------------
+        try{
+            writeProperties(jsonObject.properties, jsonConfig, indentFactor, indent, writer);
+        }catch (IOException e){
+            throw e;
+        }catch (Exception e){
+            throw new JSONException("", e);
+        }finally{
+            CycleSetUtil.removeInstance(object);
+        }
+    }
+
+    /**
+     * 和 {@link JSONObject#toString(int, int)} 以及 {@link JSONObject#toString()} 的格式保持一致.
+     *
+     * @param properties
+     *            the properties
+     * @param jsonConfig
+     *            the json config
+     * @param indentFactor
+     *            the indent factor
+     * @param indent
+     *            the indent
+     * @param writer
+     *            the writer
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static void writeProperties(Map<String, Object> properties,JsonConfig jsonConfig,int indentFactor,int indent,Writer writer)
+                    throws IOException{
+        if (properties.isEmpty()){
+            writer.write("{}");
+            return;
+        }
+        //---------------------------------------------------------------
+        if (indentFactor == 0){
+            writer.write('{');
+            boolean first = true;
+            for (Map.Entry<String, Object> entry : properties.entrySet()){
+                if (!first){
+                    writer.write(',');
+                }
+                first = false;
+                writer.write(ToStringUtil.quote(entry.getKey()));
+                writer.write(':');
+                writeValue(entry.getValue(), jsonConfig, 0, 0, writer);
+            }
+            writer.write('}');
+            return;
+        }
+        //---------------------------------------------------------------
+        if (properties.size() == 1){
+            Entry<String, Object> entry = properties.entrySet().iterator().next();
+            writer.write('{');
+            writer.write(ToStringUtil.quote(entry.getKey()));
+            writer.write(": ");
+            writeValue(entry.getValue(), jsonConfig, indentFactor, indent, writer);
+            writer.write('}');
+            return;
+        }
+
+        //---------------------------------------------------------------
+        int newindent = indent + indentFactor;
+
+        writeSpaces(indent, writer);
+        writer.write('{');
+        boolean first = true;
+        for (Map.Entry<String, Object> entry : sortMapByKeyAsc(properties).entrySet()){
+            writer.write(first ? "\n" : ",\n");
+            first = false;
+
+            writeSpaces(newindent, writer);
+            writer.write(ToStringUtil.quote(entry.getKey()));
+            writer.write(": ");
+            writeValue(entry.getValue(), jsonConfig, indentFactor, newindent, writer);
+        }
+        writer.write('\n');
+        writeSpaces(indent, writer);
+        writer.write('}');
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Write array.
+     *
+     * @param array
+     *            the array
+     * @param jsonConfig
+     *            the json config
+     * @param indentFactor
+     *            the indent factor
+     * @param indent
+     *            the indent
+     * @param writer
+     *            the writer
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static void writeArray(Object array,JsonConfig jsonConfig,int indentFactor,int indent,Writer writer) throws IOException{
+        boolean isCollection = array instanceof Collection;
+        if (!isCollection && (array == null || !array.getClass().isArray())){
+            writer.write(JSONArrayBuilder.build(array, jsonConfig).toString(indentFactor, indent));
+            return;
+        }
+        if (!CycleSetUtil.addInstance(array)){
+            writer.write(CycleDetectionStrategy.LENIENT.handleRepeatedReferenceAsArray(array).toString(indentFactor, indent));
+            return;
+        }
+
+        //---------------------------------------------------------------
+        try{
+            if (isCollection){
+                Collection<?> collection = (Collection<?>) array;
+                writeElements(collection.size(), collection.iterator(), null, jsonConfig, indentFactor, indent, writer);
+            }else{
+                writeElements(
+                                Array.getLength(array),
+                                new ArrayIterator(array),
+                                array.getClass().getComponentType(),
+                                jsonConfig,
+                                indentFactor,
+                                indent,
+                                writer);
+            }
+        }catch (IOException e){
+            throw e;
+        }catch (Exception e){
+            throw new JSONException("", e);
+        }finally{
+            CycleSetUtil.removeInstance(array);
+        }
+    }
+
+    /**
+     * 逐个转换逐个输出元素, 和 {@link JSONArray#toString(int, int)} 以及 {@link JSONArray#toString()} 的格式保持一致.
+     *
+     * @param length
+     *            元素个数
+     * @param iterator
+     *            the iterator
+     * @param componentType
+     *            如果是数组, 数组的元素类型; 如果是集合, 是null
+     * @param jsonConfig
+     *            the json config
+     * @param indentFactor
+     *            the indent factor
+     * @param indent
+     *            the indent
+     * @param writer
+     *            the writer
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static void writeElements(
+                    int length,
+                    Iterator<?> iterator,
+                    Class<?> componentType,
+                    JsonConfig jsonConfig,
+                    int indentFactor,
+                    int indent,
+                    Writer writer) throws IOException{
+        if (length == 0){
+            writer.write("[]");
+            return;
+        }
+        //---------------------------------------------------------------
+        if (indentFactor == 0){
+            writer.write('[');
+            for (int i = 0; i < length; ++i){
+                if (i > 0){
+                    writer.write(',');
+                }
+                writeValue(processElement(iterator.next(), componentType, jsonConfig), jsonConfig, 0, 0, writer);
+            }
+            writer.write(']');
+            return;
+        }
+        //---------------------------------------------------------------
+        if (length == 1){
+            writer.write('[');
+            writeValue(processElement(iterator.next(), componentType, jsonConfig), jsonConfig, indentFactor, indent, writer);
+            writer.write(']');
+            return;
+        }
+
+        //---------------------------------------------------------------
+        int newindent = indent + indentFactor;
+
+        writeSpaces(indent, writer);
+        writer.write("[\n");
+        for (int i = 0; i < length; ++i){
+            if (i > 0){
+                writer.write(",\n");
+            }
+            writeSpaces(newindent, writer);
+            writeValue(processElement(iterator.next(), componentType, jsonConfig), jsonConfig, indentFactor, newindent, writer);
+        }
+        writer.write('\n');
+        writeSpaces(indent, writer);
+        writer.write(']');
+    }
+
+    /**
+     * 和 {@link JSONArrayBuilder} 对每种数组元素的处理保持一致, 然后调用 {@link ProcessValueUtil#processArrayValue(Object, JsonConfig, boolean)}.
+     *
+     * @param element
+     *            the element
+     * @param componentType
+     *            如果是数组, 数组的元素类型; 如果是集合, 是null
+     * @param jsonConfig
+     *            the json config
+     * @return the object
+     */
+    private static Object processElement(Object element,Class<?> componentType,JsonConfig jsonConfig){
+        Object value = element;
+        if (componentType == Byte.TYPE || componentType == Short.TYPE || componentType == Long.TYPE){
+            value = JSONUtils.transformNumber((Number) element);
+        }else if (componentType == Float.TYPE || componentType == Double.TYPE){
+            JSONUtils.testValidity(element);
+        }
+        return ProcessValueUtil.processArrayValue(value, jsonConfig, true);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 和 ToStringUtil 的 valueToString 保持一致, {@link DeferredJSON} 在这里展开.
+     *
+     * @param value
+     *            the value
+     * @param jsonConfig
+     *            the json config
+     * @param indentFactor
+     *            the indent factor
+     * @param indent
+     *            the indent
+     * @param writer
+     *            the writer
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static void writeValue(Object value,JsonConfig jsonConfig,int indentFactor,int indent,Writer writer) throws IOException{
+        if (value instanceof DeferredJSON){
+            DeferredJSON deferredJSON = (DeferredJSON) value;
+            if (deferredJSON.array){
+                writeArray(deferredJSON.source, jsonConfig, indentFactor, indent, writer);
+            }else{
+                writeObject(deferredJSON.source, jsonConfig, indentFactor, indent, writer);
+            }
+            return;
+        }
+        //---------------------------------------------------------------
+        if (value == null || JSONUtils.isNull(value)){
+            writer.write("null");
+        }else if (value instanceof Number){
+            writer.write(JSONUtils.numberToString((Number) value));
+        }else if (value instanceof Boolean){
+            writer.write(value.toString());
+        }else if (value instanceof JSON){
+            //toString(0, indent) 和 toString() 一致
+            writer.write(((JSON) value).toString(indentFactor, indent));
+        }else{
+            writer.write(ToStringUtil.quote(value.toString()));
+        }
+    }
+
+    /**
+     * Write spaces.
+     *
+     * @param count
+     *            the count
+     * @param writer
+     *            the writer
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static void writeSpaces(int count,Writer writer) throws IOException{
+        for (int i = 0; i < count; ++i){
+            writer.write(' ');
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 数组(包括基本类型数组)的迭代器.
+     */
+    private static final class ArrayIterator implements Iterator<Object>{
+
+        /** The array. */
+        private final Object array;
+
+        /** The length. */
+        private final int    length;
+
+        /** The index. */
+        private int          index;
+
+        /**
+         * Instantiates a new array iterator.
+         *
+         * @param array
+         *            the array
+         */
+        private ArrayIterator(Object array){
+            this.array = array;
+            this.length = Array.getLength(array);
+        }
+
+        @Override
+        public boolean hasNext(){
+            return index < length;
+        }
+
+        @Override
+        public Object next(){
+            return Array.get(array, index++);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 延迟模式下同一层出现重复 key, 通知 {@link JSONWriter} 该层退化成完整构建.
+     */
+    static final class DuplicateKeyException extends RuntimeException{
+
+        /** The Constant serialVersionUID. */
+        private static final long                 serialVersionUID = 1L;
+
+        /** Static instance, 不需要堆栈. */
+        static final DuplicateKeyException INSTANCE         = new DuplicateKeyException();
+
+        /**
+         * Instantiates a new duplicate key exception.
+         */
+        private DuplicateKeyException(){
+            super(null, null, false, false);
+        }
+    }
+}
@@ -48,6 +48,22 @@ public class ProcessValueUtil{
      * @return the object
      */
     static Object processArrayValue(Object value,JsonConfig jsonConfig){
+        return processArrayValue(value, jsonConfig, false);
+    }
+
+    /**
+     * Process value.
+     *
+     * @param value
+     *            the value
+     * @param jsonConfig
+     *            the json config
+     * @param deferred
+     *            如果是true, 嵌套的 bean/map/集合/数组 不立即转换, 返回 {@link DeferredJSON}
+     * @return the object
+     * @since 4.5.5
+     */
+    static Object processArrayValue(Object value,JsonConfig jsonConfig,boolean deferred){
         if (value != null){
             //Finds a JsonValueProcessor registered to the target type. 
             //Returns null if none is registered.<br>
@@ -73,7 +89,7 @@ public class ProcessValueUtil{
         if (value instanceof Annotation || (value != null && value.getClass().isAnnotation())){
             throw new JSONException("Unsupported type");
         }
-        return process(value, jsonConfig);
+        return process(value, jsonConfig, deferred);
     }
     //---------------------------------------------------------------
 
@@ -89,6 +105,24 @@ public class ProcessValueUtil{
      * @return the object
      */
     static Object processJsonObjectValue(String key,Object value,JsonConfig jsonConfig){
+        return processJsonObjectValue(key, value, jsonConfig, false);
+    }
+
+    /**
+     * Process value.
+     *
+     * @param key
+     *            the key
+     * @param value
+     *            the value
+     * @param jsonConfig
+     *            the json config
+     * @param deferred
+     *            如果是true, 嵌套的 bean/map/集合/数组 不立即转换, 返回 {@link DeferredJSON}
+     * @return the object
+     * @since 4.5.5
+     */
+    static Object processJsonObjectValue(String key,Object value,JsonConfig jsonConfig,boolean deferred){
         if (value != null){
             JsonValueProcessor jsonValueProcessor = jsonConfig.findJsonValueProcessor(value.getClass(), key);
             if (jsonValueProcessor != null){
@@ -104,7 +138,7 @@ public class ProcessValueUtil{
         if (value != null && Enum.class.isAssignableFrom(value.getClass())){
             return ((Enum<?>) value).name();
         }
-        return process(value, jsonConfig);
+        return process(value, jsonConfig, deferred);
     }
 
     //---------------------------------------------------------------
@@ -116,9 +150,11 @@ public class ProcessValueUtil{
      *            the value
      * @param jsonConfig
      *            the json config
+     * @param deferred
+     *            如果是true, 嵌套的 bean/map/集合/数组 不立即转换, 返回 {@link DeferredJSON}
      * @return the object
      */
-    private static Object process(Object value,JsonConfig jsonConfig){
+    private static Object process(Object value,JsonConfig jsonConfig,boolean deferred){
         if (JSONNull.getInstance().equals(value)){
             return JSONNull.getInstance();
         }
@@ -131,7 +167,7 @@ public class ProcessValueUtil{
             return JSONSerializer.toJSON(value, jsonConfig);
         }
         if (JSONUtils.isArray(value)){
-            return JSONArrayBuilder.build(value, jsonConfig);
+            return deferred ? new DeferredJSON(value, true) : JSONArrayBuilder.build(value, jsonConfig);
         }
 
         //---------------------------------------------------------------
@@ -170,6 +206,6 @@ public class ProcessValueUtil{
         if (JSONUtils.isBoolean(value)){
             return value;
         }
-        return JSONObjectBuilder.build(value, jsonConfig);
+        return deferred ? new DeferredJSON(value, false) : JSONObjectBuilder.build(value, jsonConfig);
     }
 }
@@ -264,7 +264,7 @@ public class ToStringUtil{
      *            A String
      * @return A String correctly formatted for insertion in a JSON text.
      */
-    private static String quote(String string){
+    static String quote(String string){
         if (string == null || string.length() == 0){
             return "\"\"";
         }
@@ -20,6 +20,9 @@ import static com.feilong.core.lang.ObjectUtil.defaultIfNullOrEmpty;
 import org.apache.cxf.configuration.jsse.TLSClientParameters;
 import org.apache.cxf.endpoint.Client;
 import org.apache.cxf.transport.http.HTTPConduit;
+import org.apache.cxf.transports.http.configuration.HTTPClientPolicy;
+
+import com.feilong.net.http.ConnectionConfig;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -51,6 +54,35 @@ public final class ClientUtil{
         httpConduit.setTlsClientParameters(tslClientParameters);
     }
 
+    /**
+     * 封装 TLSClientParameters, 并且设置 <code>connectionConfig</code> 里面的超时时间以及代理.
+     *
+     * @param client
+     *            the client
+     * @param connectionConfig
+     *            连接参数, 如果是null, 那么只封装 TLSClientParameters, 超时时间等使用cxf 默认值
+     * @since 4.5.5
+     */
+    public static void wrap(Client client,ConnectionConfig connectionConfig){
+        wrap(client);
+        if (null == connectionConfig){
+            return;
+        }
+
+        //---------------------------------------------------------------
+        HTTPConduit httpConduit = (HTTPConduit) client.getConduit();
+
+        HTTPClientPolicy httpClientPolicy = defaultIfNullOrEmpty(httpConduit.getClient(), new HTTPClientPolicy());
+        httpClientPolicy.setConnectionTimeout(connectionConfig.getConnectTimeout());
+        httpClientPolicy.setReceiveTimeout(connectionConfig.getReadTimeout());
+
+        if (null != connectionConfig.getProxyAddress() && null != connectionConfig.getProxyPort()){
+            httpClientPolicy.setProxyServer(connectionConfig.getProxyAddress());
+            httpClientPolicy.setProxyServerPort(connectionConfig.getProxyPort());
+        }
+        httpConduit.setClient(httpClientPolicy);
+    }
+
     //---------------------------------------------------------------
 
     /**
@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.net.cxf;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.cxf.endpoint.Client;
+import org.apache.cxf.jaxws.endpoint.dynamic.JaxWsDynamicClientFactory;
+
+import com.feilong.core.Validate;
+import com.feilong.net.http.ConnectionConfig;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * 动态 {@link Client} 的缓存, key 是 <code>wsdlUrl</code> + {@link ConnectionConfig}.
+ * 
+ * <h3>为什么要缓存:</h3>
+ * 
+ * <blockquote>
+ * <p>
+ * {@link JaxWsDynamicClientFactory#createClient(String)} 每次都会下载 wsdl, 生成并编译 java 类, 再用新的 classloader 加载;<br>
+ * 每次调用都创建, 不但耗时(秒级), 而且生成的类会一直占用 metaspace.
+ * </p>
+ * </blockquote>
+ * 
+ * <h3>线程安全:</h3>
+ * 
+ * <blockquote>
+ * <p>
+ * 缓存的 client 开启了 {@link Client#setThreadLocalRequestContext(boolean)}, 每个线程有自己的 request context, 多线程共用同一个 client 调用
+ * {@link Client#invoke(String, Object...)} 是安全的.
+ * </p>
+ * </blockquote>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@lombok.extern.slf4j.Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class JaxWsDynamicClientCache{
+
+    /** key 是 wsdlUrl + ConnectionConfig. */
+    private static final Map<ClientKey, Client> CACHE = new ConcurrentHashMap<>();
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 <code>wsdlUrl</code> + <code>connectionConfig</code> 对应的 client, 如果没有, 那么创建并缓存.
+     * 
+     * <p>
+     * 同一个 key 并发获取时, 只会创建一次.
+     * </p>
+     *
+     * @param wsdlUrl
+     *            the wsdl url
+     * @param connectionConfig
+     *            连接参数, 如果是null, 使用cxf 默认的超时设置
+     * @return the client
+     */
+    static Client get(String wsdlUrl,ConnectionConfig connectionConfig){
+        return CACHE.computeIfAbsent(new ClientKey(wsdlUrl, connectionConfig), JaxWsDynamicClientCache::createClient);
+    }
+
+    /**
+     * 移除并销毁 <code>wsdlUrl</code> 对应的所有 client(不管是什么 {@link ConnectionConfig}).
+     *
+     * @param wsdlUrl
+     *            the wsdl url
+     * @return 移除的数量
+     */
+    static int evict(String wsdlUrl){
+        int count = 0;
+        for (Iterator<Entry<ClientKey, Client>> iterator = CACHE.entrySet().iterator(); iterator.hasNext();){
+            Entry<ClientKey, Client> entry = iterator.next();
+            if (entry.getKey().wsdlUrl.equals(wsdlUrl)){
+                iterator.remove();
+                destroy(entry.getValue());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 移除并销毁所有的 client.
+     *
+     * @return 移除的数量
+     */
+    static int clear(){
+        int count = 0;
+        for (Iterator<Client> iterator = CACHE.values().iterator(); iterator.hasNext();){
+            Client client = iterator.next();
+            iterator.remove();
+            destroy(client);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 缓存的 client 数量.
+     *
+     * @return the size
+     */
+    static int size(){
+        return CACHE.size();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 创建 client.
+     * 
+     * <p>
+     * cxf 创建完 client 之后, 会把当前线程的 context classloader 设置成生成类的 classloader 且不还原; 由于 client 会被缓存和多线程共用, 这里还原成调用前的
+     * classloader, 避免线程(尤其是线程池里的线程)一直持有生成类. cxf 的 DynamicClientImpl 在 invoke 的时候会自己切换 classloader.
+     * </p>
+     *
+     * @param clientKey
+     *            the client key
+     * @return the client
+     */
+    private static Client createClient(ClientKey clientKey){
+        Thread currentThread = Thread.currentThread();
+        ClassLoader contextClassLoader = currentThread.getContextClassLoader();
+
+        long beginTimeMillis = System.currentTimeMillis();
+        try{
+            Client client = JaxWsDynamicClientFactory.newInstance().createClient(clientKey.wsdlUrl);
+            client.setThreadLocalRequestContext(true);
+
+            //封装 TLSClientParameters 以及超时等
+            ClientUtil.wrap(client, clientKey.connectionConfig);
+
+            if (log.isInfoEnabled()){
+                log.info("create webservice client:[{}],use time:[{}]ms", clientKey.wsdlUrl, System.currentTimeMillis() - beginTimeMillis);
+            }
+            return client;
+        }finally{
+            currentThread.setContextClassLoader(contextClassLoader);
+        }
+    }
+
+    /**
+     * 销毁 client, 释放 conduit 等资源.
+     *
+     * @param client
+     *            the client
+     */
+    private static void destroy(Client client){
+        try{
+            client.destroy();
+        }catch (Exception e){
+            log.warn("destroy webservice client exception", e);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 缓存的 key.
+     */
+    private static final class ClientKey{
+
+        /** The wsdl url. */
+        private final String           wsdlUrl;
+
+        /** The connection config, 可能是null. */
+        private final ConnectionConfig connectionConfig;
+
+        /**
+         * Instantiates a new client key.
+         *
+         * @param wsdlUrl
+         *            the wsdl url
+         * @param connectionConfig
+         *            the connection config
+         */
+        private ClientKey(String wsdlUrl, ConnectionConfig connectionConfig){
+            Validate.notBlank(wsdlUrl, "wsdlUrl can't be blank!");
+            this.wsdlUrl = wsdlUrl;
+            this.connectionConfig = connectionConfig;
+        }
+
+        @Override
+        public boolean equals(Object obj){
+            if (this == obj){
+                return true;
+            }
+            if (!(obj instanceof ClientKey)){
+                return false;
+            }
+            ClientKey other = (ClientKey) obj;
+            return wsdlUrl.equals(other.wsdlUrl) && Objects.equals(connectionConfig, other.connectionConfig);
+        }
+
+        @Override
+        public int hashCode(){
+            return Objects.hash(wsdlUrl, connectionConfig);
+        }
+    }
+}
@@ -29,6 +29,7 @@ import com.feilong.core.Validate;
 import com.feilong.json.JsonUtil;
 import com.feilong.net.UncheckedHttpException;
 import com.feilong.net.UriProcessor;
+import com.feilong.net.http.ConnectionConfig;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -41,6 +42,15 @@ import lombok.NoArgsConstructor;
  * 规范是一组XML web services的JAVA API，JAX-WS允许开发者可以选择RPC-oriented或者message-oriented 来实现自己的web services。
  * </p>
  * 
+ * <h3>client 缓存:</h3>
+ * 
+ * <blockquote>
+ * <p>
+ * 创建动态 client 需要下载 wsdl 并编译生成类, 非常耗时, 所以 client 按照 <code>wsdlUrl</code> + {@link ConnectionConfig} 缓存复用(since 4.5.5);<br>
+ * 如果 wsdl 有变化, 可以使用 {@link #evict(String)} 移除; 应用关闭的时候, 可以使用 {@link #clear()} 销毁所有的 client.
+ * </p>
+ * </blockquote>
+ * 
  * <h3>
  * 对于 {@link <a href=
  * "https://www.mkyong.com/webservices/jax-ws/suncertpathbuilderexception-unable-to-find-valid-certification-path-to-requested-target/">SunCertPathBuilderException:
@@ -131,8 +141,37 @@ public class JaxWsDynamicClientUtil{
      * @throws UncheckedHttpException
      *             如果出现异常, 抛出UncheckedHttpException
      */
-    @SuppressWarnings("unchecked")
     public static <T> T call(String wsdlUrl,String operationName,Object...params){
+        return call(wsdlUrl, null, operationName, params);
+    }
+
+    /**
+     * 使用指定的连接参数调用webservice.
+     * 
+     * <p>
+     * client 按照 <code>wsdlUrl</code> + <code>connectionConfig</code> 缓存, 同样的参数只会创建一次 client.
+     * </p>
+     *
+     * @param <T>
+     *            the generic type
+     * @param wsdlUrl
+     *            the wsdl url,Example: http://ho.gymbomate.com/GymboreeHOServices/HOServices.asmx?wsdl
+     * @param connectionConfig
+     *            连接参数(使用其中的 connectTimeout,readTimeout,proxyAddress,proxyPort), 如果是null, 使用cxf 默认的设置
+     * @param operationName
+     *            the operation name,Example: GetMemPoints
+     * @param params
+     *            参数,Example: 15001841317
+     * @return 如果 <code>wsdlUrl</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>wsdlUrl</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     * 
+     *         The return values that matche the parts of the output message of the operation
+     * @throws UncheckedHttpException
+     *             如果出现异常, 抛出UncheckedHttpException
+     * @since 4.5.5
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T call(String wsdlUrl,ConnectionConfig connectionConfig,String operationName,Object...params){
         Validate.notBlank(wsdlUrl, "wsdlUrl can't be blank!");
 
         //since 3.0.10
@@ -144,8 +183,8 @@ public class JaxWsDynamicClientUtil{
         }
 
         //----------------------------------------------------------------------------
-        Client client = createClient(wsdlUrl);
         try{
+            Client client = JaxWsDynamicClientCache.get(wsdlUrl, connectionConfig);
             Object[] obj = client.invoke(operationName, params);
             return (T) obj[0];
         }catch (Exception e){
@@ -156,24 +195,32 @@ public class JaxWsDynamicClientUtil{
     //---------------------------------------------------------------
 
     /**
-     * 创建 client.
+     * 移除并销毁 <code>wsdlUrl</code> 对应的所有缓存的 client(不管是什么 {@link ConnectionConfig}).
+     * 
+     * <p>
+     * 比如 wsdl 发生了变化, 下次调用会重新创建 client.
+     * </p>
      *
      * @param wsdlUrl
      *            the wsdl url
-     * @return the client
-     * @since 1.14.0
+     * @return 移除的 client 数量<br>
+     *         如果 <code>wsdlUrl</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>wsdlUrl</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     * @since 4.5.5
      */
-    static Client createClient(String wsdlUrl){
-        // 创建动态客户端
-        DynamicClientFactory dynamicClientFactory = JaxWsDynamicClientFactory.newInstance();
-
-        // 创建客户端连接
-        Client client = dynamicClientFactory.createClient(wsdlUrl);
+    public static int evict(String wsdlUrl){
+        Validate.notBlank(wsdlUrl, "wsdlUrl can't be blank!");
+        return JaxWsDynamicClientCache.evict(UriProcessor.process(wsdlUrl, true));
+    }
 
-        //----------------------------------------------------------------------------
-        //封装 TLSClientParameters
-        ClientUtil.wrap(client);
-        return client;
+    /**
+     * 移除并销毁所有缓存的 client, 比如应用关闭的时候调用.
+     *
+     * @return 移除的 client 数量
+     * @since 4.5.5
+     */
+    public static int clear(){
+        return JaxWsDynamicClientCache.clear();
     }
 
     //---------------------------------------------------------------
@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.net.cxf;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.cxf.endpoint.Client;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.feilong.net.http.ConnectionConfig;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * {@link JaxWsDynamicClientUtil} client 缓存测试, wsdl 来自本地文件 <code>hello.wsdl</code>, 由 jdk 内置的 http server 提供.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@SuppressWarnings("restriction")
+public class JaxWsDynamicClientCacheTest{
+
+    private static final Pattern NAME_PATTERN = Pattern.compile("<name>(.*?)</name>");
+
+    private static HttpServer    httpServer;
+
+    private static String        wsdlUrl;
+
+    //---------------------------------------------------------------
+
+    @BeforeClass
+    public static void startServer() throws IOException{
+        httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        String address = "http://127.0.0.1:" + httpServer.getAddress().getPort() + "/hello";
+
+        httpServer.createContext("/hello", exchange -> {
+            if ("GET".equals(exchange.getRequestMethod())){
+                write(exchange, "text/xml", readWsdl().replace("${address}", address));
+                return;
+            }
+            Matcher matcher = NAME_PATTERN.matcher(new String(readAll(exchange.getRequestBody()), UTF_8));
+            String name = matcher.find() ? matcher.group(1) : "";
+            write(exchange, "text/xml;charset=UTF-8", toSoapResponse("hello " + name));
+        });
+        httpServer.setExecutor(Executors.newFixedThreadPool(8));
+        httpServer.start();
+
+        wsdlUrl = address + "?wsdl";
+    }
+
+    @AfterClass
+    public static void stopServer(){
+        httpServer.stop(0);
+    }
+
+    @After
+    public void clear(){
+        JaxWsDynamicClientUtil.clear();
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testCallReuseClient(){
+        assertEquals("hello feilong", JaxWsDynamicClientUtil.call(wsdlUrl, "sayHello", "feilong"));
+        Client client = JaxWsDynamicClientCache.get(wsdlUrl, null);
+
+        assertEquals("hello jinxin", JaxWsDynamicClientUtil.call(wsdlUrl, "sayHello", "jinxin"));
+        assertSame(client, JaxWsDynamicClientCache.get(wsdlUrl, null));
+        assertEquals(1, JaxWsDynamicClientCache.size());
+    }
+
+    @Test
+    public void testCallWithConnectionConfig(){
+        ConnectionConfig connectionConfig = new ConnectionConfig();
+        connectionConfig.setReadTimeout(5000);
+
+        assertEquals("hello feilong", JaxWsDynamicClientUtil.call(wsdlUrl, connectionConfig, "sayHello", "feilong"));
+        assertEquals("hello feilong", JaxWsDynamicClientUtil.call(wsdlUrl, "sayHello", "feilong"));
+
+        assertEquals(2, JaxWsDynamicClientCache.size());
+    }
+
+    @Test
+    public void testGetSameConfig(){
+        ConnectionConfig connectionConfig = new ConnectionConfig();
+        ConnectionConfig connectionConfig2 = new ConnectionConfig();
+
+        assertSame(JaxWsDynamicClientCache.get(wsdlUrl, connectionConfig), JaxWsDynamicClientCache.get(wsdlUrl, connectionConfig2));
+        assertEquals(1, JaxWsDynamicClientCache.size());
+    }
+
+    @Test
+    public void testGetContextClassLoaderRestored(){
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        JaxWsDynamicClientCache.get(wsdlUrl, null);
+        assertSame(contextClassLoader, Thread.currentThread().getContextClassLoader());
+    }
+
+    @Test
+    public void testEvict(){
+        Client client = JaxWsDynamicClientCache.get(wsdlUrl, null);
+        JaxWsDynamicClientCache.get(wsdlUrl, new ConnectionConfig());
+
+        assertEquals(2, JaxWsDynamicClientUtil.evict(wsdlUrl));
+        assertEquals(0, JaxWsDynamicClientCache.size());
+
+        assertNotSame(client, JaxWsDynamicClientCache.get(wsdlUrl, null));
+    }
+
+    @Test
+    public void testClear(){
+        JaxWsDynamicClientCache.get(wsdlUrl, null);
+        assertEquals(1, JaxWsDynamicClientUtil.clear());
+        assertEquals(0, JaxWsDynamicClientCache.size());
+    }
+
+    @Test
+    public void testConcurrentCall() throws Exception{
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try{
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; ++i){
+                String name = "feilong" + i;
+                futures.add(executorService.submit((Callable<String>) () -> JaxWsDynamicClientUtil.call(wsdlUrl, "sayHello", name)));
+            }
+            for (int i = 0; i < futures.size(); ++i){
+                assertEquals("hello feilong" + i, futures.get(i).get());
+            }
+        }finally{
+            executorService.shutdownNow();
+        }
+        assertEquals(1, JaxWsDynamicClientCache.size());
+    }
+
+    //---------------------------------------------------------------
+
+    @Test(expected = NullPointerException.class)
+    public void testEvictNull(){
+        JaxWsDynamicClientUtil.evict(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEvictBlank(){
+        JaxWsDynamicClientUtil.evict(" ");
+    }
+
+    //---------------------------------------------------------------
+
+    private static String readWsdl() throws IOException{
+        try (InputStream inputStream = JaxWsDynamicClientCacheTest.class.getResourceAsStream("/hello.wsdl")){
+            return new String(readAll(inputStream), UTF_8);
+        }
+    }
+
+    private static String toSoapResponse(String value){
+        return "<soap:Envelope xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\"><soap:Body>"
+                        + "<ns2:sayHelloResponse xmlns:ns2=\"http://cxf.net.feilong.com/\"><return>" + value + "</return></ns2:sayHelloResponse>"
+                        + "</soap:Body></soap:Envelope>";
+    }
+
+    private static byte[] readAll(InputStream inputStream) throws IOException{
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int length;
+        while ((length = inputStream.read(buffer)) != -1){
+            byteArrayOutputStream.write(buffer, 0, length);
+        }
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    private static void write(HttpExchange exchange,String contentType,String body) throws IOException{
+        byte[] bytes = body.getBytes(UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()){
+            outputStream.write(bytes);
+        }
+    }
+}
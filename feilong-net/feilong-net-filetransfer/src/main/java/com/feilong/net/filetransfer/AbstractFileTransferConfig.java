@@ -17,6 +17,7 @@ package com.feilong.net.filetransfer;
 
 import com.feilong.json.SensitiveWords;
 import com.feilong.net.UriProcessor;
+import com.feilong.net.filetransfer.pool.ConnectionPoolConfig;
 
 /**
  * 抽象的文件传输配置.
@@ -27,19 +28,33 @@ import com.feilong.net.UriProcessor;
 public abstract class AbstractFileTransferConfig{
 
     /** 地址. */
-    private String  hostName;
+    private String               hostName;
 
     /** 端口号. */
-    private Integer port;
+    private Integer              port;
 
     //---------------------------------------------------------------
 
     /** 用户名. */
-    private String  userName;
+    private String               userName;
 
     /** 密码. */
     @SensitiveWords
-    private String  password;
+    private String               password;
+
+    //---------------------------------------------------------------
+
+    /**
+     * 连接池配置.
+     * 
+     * <p>
+     * 默认是null, 表示不使用连接池, 每个操作都 连接/登录/断开;<br>
+     * 如果设置了, 那么相同连接参数的操作共用连接池里已经认证过的连接, 适合频繁操作很多小文件的场景.
+     * </p>
+     * 
+     * @since 4.5.5
+     */
+    private ConnectionPoolConfig connectionPoolConfig;
 
     //---------------------------------------------------------------
 
@@ -119,4 +134,27 @@ public abstract class AbstractFileTransferConfig{
     public void setPort(Integer port){
         this.port = port;
     }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 连接池配置.
+     *
+     * @return 如果是null, 表示不使用连接池
+     * @since 4.5.5
+     */
+    public ConnectionPoolConfig getConnectionPoolConfig(){
+        return connectionPoolConfig;
+    }
+
+    /**
+     * 设置 连接池配置.
+     *
+     * @param connectionPoolConfig
+     *            如果是null, 表示不使用连接池
+     * @since 4.5.5
+     */
+    public void setConnectionPoolConfig(ConnectionPoolConfig connectionPoolConfig){
+        this.connectionPoolConfig = connectionPoolConfig;
+    }
 }
@@ -15,7 +15,6 @@
  */
 package com.feilong.net.filetransfer.ftp;
 
-import static com.feilong.core.lang.ObjectUtil.defaultIfNull;
 import static com.feilong.core.util.MapUtil.newHashMap;
 import static com.feilong.io.entity.FileType.DIRECTORY;
 import static com.feilong.io.entity.FileType.FILE;
@@ -24,19 +23,22 @@ import java.io.BufferedOutputStream;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
-import com.feilong.core.Validate;
 import com.feilong.io.FileUtil;
 import com.feilong.io.entity.FileInfoEntity;
 import com.feilong.json.JsonUtil;
 import com.feilong.lib.lang3.StringUtils;
-import com.feilong.lib.net.ftp.FTP;
 import com.feilong.lib.net.ftp.FTPClient;
 import com.feilong.lib.net.ftp.FTPFile;
-import com.feilong.lib.net.ftp.FTPReply;
 import com.feilong.net.filetransfer.AbstractFileTransfer;
 import com.feilong.net.filetransfer.FileTransferException;
+import com.feilong.net.filetransfer.ftp.FtpPooledConnectionFactory.FtpConnection;
+import com.feilong.net.filetransfer.pool.ConnectionPool;
+import com.feilong.net.filetransfer.pool.ConnectionPoolConfig;
+import com.feilong.net.filetransfer.pool.KeyedConnectionPool;
 
 /**
  * ftp 相关的工具类.
@@ -69,6 +71,15 @@ import com.feilong.net.filetransfer.FileTransferException;
  * FTP(File Transfer Protocol, FTP)是TCP/IP网络上两台计算机传送文件的协议,FTP是在TCP/IP网络和INTERNET上最早使用的协议之一,它属于网络协议组的应用层.
  * </p>
  * 
+ * <h3>连接池:</h3>
+ * 
+ * <blockquote>
+ * <p>
+ * 设置 {@link FTPFileTransferConfig#setConnectionPoolConfig(ConnectionPoolConfig)} 之后, 相同连接参数的操作共用连接池里已经登录过的 {@link FTPClient},
+ * 此时不再使用 {@link #setFtpClient(FTPClient)} 注入的实例; 应用关闭的时候可以调用 {@link #closeConnectionPools()}.
+ * </p>
+ * </blockquote>
+ * 
  * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
  * @since 1.0.0
  */
@@ -82,6 +93,29 @@ public class FTPFileTransfer extends AbstractFileTransfer{
     /** The ftp client. */
     private FTPClient             ftpClient;
 
+    /**
+     * 从连接池借出的连接, 如果没有使用连接池, 那么是null.
+     * 
+     * @since 4.5.5
+     */
+    private FtpConnection         ftpConnection;
+
+    /**
+     * 借出 {@link #ftpConnection} 的连接池, 归还的时候必须还给这个连接池, 而不是按照 (可能已经变化的) 配置重新查找.
+     * 
+     * @since 4.5.5
+     */
+    private ConnectionPool<FtpConnection> connectionPool;
+
+    //---------------------------------------------------------------
+
+    /**
+     * 连接池, key 是连接参数.
+     * 
+     * @since 4.5.5
+     */
+    private static final KeyedConnectionPool<FtpConnection> CONNECTION_POOLS = new KeyedConnectionPool<>();
+
     //---------------------------------------------------------------
 
     /*
@@ -92,49 +126,19 @@ public class FTPFileTransfer extends AbstractFileTransfer{
     @Override
     protected boolean connect(){
         try{
-            // 连接
-            String hostName = ftpFileTransferConfig.getHostName();
-            Validate.notBlank(hostName, "hostName can't be blank!");
-
-            //---------------------------------------------------------------
-            ftpClient.connect(hostName, defaultIfNull(ftpFileTransferConfig.getPort(), 21));
-            log.debug(log("connect hostName:[{}]", hostName));
-
-            String userName = ftpFileTransferConfig.getUserName();
-            String password = ftpFileTransferConfig.getPassword();
-            boolean loginResult = ftpClient.login(userName, password);
-
-            String message = log(
-                            "login:[{}],params:[{}],port:[{}]~~~",
-                            loginResult,
-                            JsonUtil.toString(ftpFileTransferConfig),
-                            ftpClient.getDefaultPort());
-            log.debug(message);
-
-            //---------------------------------------------------------------
-            if (!loginResult){
-                throw new FileTransferException(message);
+            //since 4.5.5
+            if (null != ftpFileTransferConfig.getConnectionPoolConfig()){
+                connectionPool = getConnectionPool();
+                ftpConnection = connectionPool.borrow();
+                log.debug(log("borrow pooled ftp connection:[{}]", ftpFileTransferConfig.getHostName()));
+                return true;
             }
 
             //---------------------------------------------------------------
-            int replyCode = ftpClient.getReplyCode();
-            if (!FTPReply.isPositiveCompletion(replyCode)){
-                log.error(log("FTP 服务拒绝连接！ReplyCode is:{},will ftpClient.disconnect()", replyCode));
-                ftpClient.disconnect();
+            if (!FTPUtil.connect(ftpClient, ftpFileTransferConfig, logTraceContext)){
                 return false;
             }
 
-            //---------------------------------------------------------------
-            // 设置 本机被动模式 这个到不用在login之后执行, 因为它只改变FTPClient实例的内部属性.
-            ftpClient.enterLocalPassiveMode();
-
-            // FTPClient默认使用ASCII作为传输模式, 所有不能传输二进制文件
-            // 设置以二进制流的方式传输,图片保真,[要在login以后执行]. 因为这个方法要向服务器发送"TYPE I"命令
-            ftpClient.setFileType(FTP.BINARY_FILE_TYPE);
-
-            String systemName = ftpClient.getSystemType();
-            log.debug(log("ftpClient systemName:[{}]", systemName));
-
             //---------------------------------------------------------------
             // 没有异常则 确定成功
             log.info(log("connect:[{}]", true));
@@ -153,6 +157,15 @@ public class FTPFileTransfer extends AbstractFileTransfer{
      */
     @Override
     protected void disconnect(){
+        //since 4.5.5 归还到连接池
+        if (null != ftpConnection){
+            connectionPool.giveBack(ftpConnection);
+            connectionPool = null;
+            ftpConnection = null;
+            return;
+        }
+
+        //---------------------------------------------------------------
         if (ftpClient != null && ftpClient.isConnected()){
             try{
                 log.info(log("ftpClient logout:[{}]", ftpClient.logout()));
@@ -179,11 +192,11 @@ public class FTPFileTransfer extends AbstractFileTransfer{
     @Override
     protected void tryCd(String remoteDirectory) throws Exception{
         // 转移到FTP服务器目录
-        boolean flag = ftpClient.changeWorkingDirectory(remoteDirectory);
+        boolean flag = getActiveFtpClient().changeWorkingDirectory(remoteDirectory);
         if (flag){
             log.debug(log("cd [{}]", remoteDirectory));
         }else{
-            throw new FileTransferException(log(StringUtils.trim(ftpClient.getReplyString().trim())));
+            throw new FileTransferException(log(StringUtils.trim(getActiveFtpClient().getReplyString().trim())));
         }
     }
 
@@ -197,11 +210,11 @@ public class FTPFileTransfer extends AbstractFileTransfer{
     @Override
     protected boolean mkdir(String remoteDirectory){
         try{
-            boolean flag = ftpClient.makeDirectory(remoteDirectory);
+            boolean flag = getActiveFtpClient().makeDirectory(remoteDirectory);
             if (flag){
                 log.info(log("mkdir [{}] success~~", remoteDirectory));
             }else{
-                log.error(log("mkdir [{}] error,ReplyString :[{}]", remoteDirectory, ftpClient.getReplyString()));
+                log.error(log("mkdir [{}] error,ReplyString :[{}]", remoteDirectory, getActiveFtpClient().getReplyString()));
             }
             return flag;
         }catch (IOException e){
@@ -219,11 +232,11 @@ public class FTPFileTransfer extends AbstractFileTransfer{
     @Override
     protected boolean upload(FileInputStream fileInputStream,String toFileName){
         try{
-            boolean flag = ftpClient.storeFile(toFileName, fileInputStream);
+            boolean flag = getActiveFtpClient().storeFile(toFileName, fileInputStream);
             if (flag){
                 log.debug(log("put [{}] success~~", toFileName));
             }else{
-                log.error(log("store file error,ReplyString :{}", ftpClient.getReplyString()));
+                log.error(log("store file error,ReplyString :{}", getActiveFtpClient().getReplyString()));
             }
             return flag;
         }catch (IOException e){
@@ -242,7 +255,7 @@ public class FTPFileTransfer extends AbstractFileTransfer{
     protected Map<String, FileInfoEntity> getLsFileMap(String remotePath){
         try{
             Map<String, FileInfoEntity> map = newHashMap();
-            FTPFile[] ftpFiles = ftpClient.listFiles(remotePath);
+            FTPFile[] ftpFiles = getActiveFtpClient().listFiles(remotePath);
             for (FTPFile ftpFile : ftpFiles){
                 map.put(ftpFile.getName(), buildFileInfoEntity(ftpFile));
             }
@@ -286,12 +299,12 @@ public class FTPFileTransfer extends AbstractFileTransfer{
             cd("/");
 
             // if empty
-            boolean flag = ftpClient.removeDirectory(remotePath);
+            boolean flag = getActiveFtpClient().removeDirectory(remotePath);
 
             if (flag){
                 log.info(log("ftpClient removeDirectory,remotePath [{}]:[{}]", remotePath, flag));
             }else{
-                log.warn(log("ftpClient removeDirectory,remotePath [{}]:[{}] ReplyCode:{}", remotePath, flag, ftpClient.getReplyCode()));
+                log.warn(log("ftpClient removeDirectory,remotePath [{}]:[{}] ReplyCode:{}", remotePath, flag, getActiveFtpClient().getReplyCode()));
             }
             return flag;
         }catch (IOException e){
@@ -310,12 +323,12 @@ public class FTPFileTransfer extends AbstractFileTransfer{
     protected boolean rm(String remotePath){
         try{
             log.info(log("remotePath:[{}] is [not directory],deleteFile.....", remotePath));
-            boolean flag = ftpClient.deleteFile(remotePath);
+            boolean flag = getActiveFtpClient().deleteFile(remotePath);
 
             if (flag){
                 log.info(log("ftpClient deleteFile,remotePath[{}] : [{}]", remotePath, flag));
             }else{
-                log.warn(log("ftpClient deleteFile,remotePath[{}] : [{}] , ReplyCode:[{}]", remotePath, flag, ftpClient.getReplyCode()));
+                log.warn(log("ftpClient deleteFile,remotePath[{}] : [{}] , ReplyCode:[{}]", remotePath, flag, getActiveFtpClient().getReplyCode()));
             }
             return flag;
         }catch (Exception e){
@@ -349,7 +362,7 @@ public class FTPFileTransfer extends AbstractFileTransfer{
         try (FileOutputStream fileOutputStream = FileUtil.getFileOutputStream(filePath);
                         BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(fileOutputStream)){
 
-            boolean success = ftpClient.retrieveFile(remoteSingleFile, bufferedOutputStream);
+            boolean success = getActiveFtpClient().retrieveFile(remoteSingleFile, bufferedOutputStream);
             bufferedOutputStream.flush();
             return success;
         }catch (IOException e){
@@ -359,6 +372,58 @@ public class FTPFileTransfer extends AbstractFileTransfer{
 
     //---------------------------------------------------------------
 
+    /**
+     * 取到当前配置对应的连接池, 没有则创建.
+     *
+     * @return 连接池
+     * @since 4.5.5
+     */
+    private ConnectionPool<FtpConnection> getConnectionPool(){
+        ConnectionPoolConfig connectionPoolConfig = ftpFileTransferConfig.getConnectionPoolConfig();
+        List<Object> key = Arrays.<Object> asList(
+                        ftpFileTransferConfig.getHostName(),
+                        ftpFileTransferConfig.getPort(),
+                        ftpFileTransferConfig.getUserName(),
+                        ftpFileTransferConfig.getPassword(),
+                        connectionPoolConfig.getMaxPerHost(),
+                        connectionPoolConfig.getIdleTimeout(),
+                        connectionPoolConfig.getMaxWait());
+        return CONNECTION_POOLS.get(
+                        key,
+                        () -> new ConnectionPool<>(new FtpPooledConnectionFactory(ftpFileTransferConfig), connectionPoolConfig));
+    }
+
+    /**
+     * 关闭所有的 ftp 连接池 (断开所有空闲连接, 借出的连接归还时断开).
+     * 
+     * <p>
+     * 一般在应用关闭的时候调用.
+     * </p>
+     * 
+     * @since 4.5.5
+     */
+    public static void closeConnectionPools(){
+        CONNECTION_POOLS.close();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 当前操作使用的 {@link FTPClient}.
+     * 
+     * <p>
+     * 如果从连接池借出了连接, 那么返回池化连接里的 client, 否则返回 {@link #setFtpClient(FTPClient)} 注入的实例 (注入的实例不会被池化连接覆盖).
+     * </p>
+     *
+     * @return the active ftp client
+     * @since 4.5.5
+     */
+    private FTPClient getActiveFtpClient(){
+        return null != ftpConnection ? ftpConnection.ftpClient : ftpClient;
+    }
+
+    //---------------------------------------------------------------
+
     /**
      * Sets the ftp client.
      * 
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.net.filetransfer.ftp;
+
+import static com.feilong.core.Validator.isNotNullOrEmpty;
+import static com.feilong.core.lang.ObjectUtil.defaultIfNull;
+import static com.feilong.core.lang.StringUtil.formatPattern;
+
+import java.io.IOException;
+
+import com.feilong.core.Validate;
+import com.feilong.json.JsonUtil;
+import com.feilong.lib.net.ftp.FTP;
+import com.feilong.lib.net.ftp.FTPClient;
+import com.feilong.lib.net.ftp.FTPReply;
+import com.feilong.net.filetransfer.FileTransferException;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * FTP 工具类.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@lombok.extern.slf4j.Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class FTPUtil{
+
+    /**
+     * 使用 <code>ftpFileTransferConfig</code> 连接并登录 <code>ftpClient</code>.
+     *
+     * @param ftpClient
+     *            the ftp client
+     * @param ftpFileTransferConfig
+     *            ftp 文件传输的配置
+     * @param logTraceContext
+     *            日志上下文
+     * @return 如果服务器拒绝连接(replyCode 不是 positive completion),会断开连接并返回false<br>
+     *         如果 <code>ftpFileTransferConfig.hostName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>ftpFileTransferConfig.hostName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果登录失败,抛出 {@link FileTransferException}
+     * @throws IOException
+     *             the IO exception
+     */
+    static boolean connect(FTPClient ftpClient,FTPFileTransferConfig ftpFileTransferConfig,String logTraceContext) throws IOException{
+        // 连接
+        String hostName = ftpFileTransferConfig.getHostName();
+        Validate.notBlank(hostName, "hostName can't be blank!");
+
+        //---------------------------------------------------------------
+        ftpClient.connect(hostName, defaultIfNull(ftpFileTransferConfig.getPort(), 21));
+        log.debug(log(logTraceContext, "connect hostName:[{}]", hostName));
+
+        String userName = ftpFileTransferConfig.getUserName();
+        String password = ftpFileTransferConfig.getPassword();
+        boolean loginResult = ftpClient.login(userName, password);
+
+        String message = log(
+                        logTraceContext,
+                        "login:[{}],params:[{}],port:[{}]~~~",
+                        loginResult,
+                        JsonUtil.toString(ftpFileTransferConfig),
+                        ftpClient.getDefaultPort());
+        log.debug(message);
+
+        //---------------------------------------------------------------
+        if (!loginResult){
+            throw new FileTransferException(message);
+        }
+
+        //---------------------------------------------------------------
+        int replyCode = ftpClient.getReplyCode();
+        if (!FTPReply.isPositiveCompletion(replyCode)){
+            log.error(log(logTraceContext, "FTP 服务拒绝连接！ReplyCode is:{},will ftpClient.disconnect()", replyCode));
+            ftpClient.disconnect();
+            return false;
+        }
+
+        //---------------------------------------------------------------
+        // 设置 本机被动模式 这个到不用在login之后执行, 因为它只改变FTPClient实例的内部属性.
+        ftpClient.enterLocalPassiveMode();
+
+        // FTPClient默认使用ASCII作为传输模式, 所有不能传输二进制文件
+        // 设置以二进制流的方式传输,图片保真,[要在login以后执行]. 因为这个方法要向服务器发送"TYPE I"命令
+        ftpClient.setFileType(FTP.BINARY_FILE_TYPE);
+
+        String systemName = ftpClient.getSystemType();
+        log.debug(log(logTraceContext, "ftpClient systemName:[{}]", systemName));
+        return true;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 记录带特殊表示的日志,方便搜索日志.
+     */
+    private static String log(String logTraceContext,String messagePattern,Object...params){
+        StringBuilder sb = new StringBuilder();
+        //拼接 logTraceContext 日志
+        if (isNotNullOrEmpty(logTraceContext)){
+            sb.append("logTraceContext:[" + logTraceContext + "] ");
+        }
+
+        //拼接业务日志
+        if (isNotNullOrEmpty(messagePattern)){
+            sb.append(formatPattern(messagePattern, params));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.net.filetransfer.ftp;
+
+import java.io.IOException;
+
+import com.feilong.lib.net.ftp.FTPClient;
+import com.feilong.net.filetransfer.FileTransferException;
+import com.feilong.net.filetransfer.pool.PooledConnectionFactory;
+
+/**
+ * 创建/校验/重置/销毁 连接池里的 {@link FTPClient}.
+ * 
+ * <p>
+ * 每个池化连接都是独立的 {@link FTPClient} 实例, 创建的时候 连接+登录, 并记录登录之后的工作目录;<br>
+ * 归还的时候切换回该目录, 切换失败则认为连接已经不可用, 直接销毁.
+ * </p>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@lombok.extern.slf4j.Slf4j
+class FtpPooledConnectionFactory implements PooledConnectionFactory<FtpPooledConnectionFactory.FtpConnection>{
+
+    /** The ftp file transfer config. */
+    private final FTPFileTransferConfig ftpFileTransferConfig;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new ftp pooled connection factory.
+     *
+     * @param ftpFileTransferConfig
+     *            the ftp file transfer config
+     */
+    FtpPooledConnectionFactory(FTPFileTransferConfig ftpFileTransferConfig){
+        this.ftpFileTransferConfig = ftpFileTransferConfig;
+    }
+
+    //---------------------------------------------------------------
+
+    @Override
+    public FtpConnection create() throws Exception{
+        FTPClient ftpClient = new FTPClient();
+        try{
+            if (!FTPUtil.connect(ftpClient, ftpFileTransferConfig, "")){
+                throw new FileTransferException("can't connect ftp server:[{}]", ftpFileTransferConfig.getHostName());
+            }
+
+            //登录之后的目录, 归还的时候切换回这个目录
+            String home = ftpClient.printWorkingDirectory();
+            log.info("create pooled ftp connection:[{}:{}],home:[{}]", ftpFileTransferConfig.getHostName(), ftpClient.getRemotePort(), home);
+            return new FtpConnection(ftpClient, home);
+        }catch (Exception e){
+            disconnectQuietly(ftpClient);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean validate(FtpConnection ftpConnection){
+        return ftpConnection.ftpClient.isConnected();
+    }
+
+    @Override
+    public boolean reset(FtpConnection ftpConnection){
+        try{
+            return null != ftpConnection.home && ftpConnection.ftpClient.changeWorkingDirectory(ftpConnection.home);
+        }catch (IOException | RuntimeException e){
+            log.info("reset pooled ftp connection fail,will destroy it,cause:[{}]", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void destroy(FtpConnection ftpConnection){
+        FTPClient ftpClient = ftpConnection.ftpClient;
+        if (ftpClient.isConnected()){
+            try{
+                ftpClient.logout();
+            }catch (IOException e){
+                log.debug("ftpClient logout fail,cause:[{}]", e.getMessage());
+            }
+        }
+        disconnectQuietly(ftpClient);
+        log.info("destroy pooled ftp connection:[{}]", ftpFileTransferConfig.getHostName());
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 断开连接, 忽略异常.
+     *
+     * @param ftpClient
+     *            the ftp client
+     */
+    private static void disconnectQuietly(FTPClient ftpClient){
+        if (ftpClient.isConnected()){
+            try{
+                ftpClient.disconnect();
+            }catch (IOException e){
+                log.debug("ftpClient disconnect fail,cause:[{}]", e.getMessage());
+            }
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 连接池里的 ftp 连接.
+     */
+    static final class FtpConnection{
+
+        /** The ftp client. */
+        final FTPClient ftpClient;
+
+        /** 登录之后的目录. */
+        final String    home;
+
+        /**
+         * Instantiates a new ftp connection.
+         *
+         * @param ftpClient
+         *            the ftp client
+         * @param home
+         *            the home
+         */
+        FtpConnection(FTPClient ftpClient, String home){
+            this.ftpClient = ftpClient;
+            this.home = home;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.net.filetransfer.pool;
+
+import java.io.Closeable;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.feilong.core.Validate;
+import com.feilong.net.filetransfer.FileTransferException;
+
+/**
+ * 单个连接(相同的 host,port,用户名,密码等)的连接池.
+ * 
+ * <h3>说明:</h3>
+ * 
+ * <blockquote>
+ * <ol>
+ * <li>最多同时存在 {@link ConnectionPoolConfig#getMaxPerHost()} 个连接, 超过的借用等待, 最多等待 {@link ConnectionPoolConfig#getMaxWait()}.</li>
+ * <li>借出的时候, 空闲超过 {@link ConnectionPoolConfig#getIdleTimeout()} 或者 {@link PooledConnectionFactory#validate(Object)} 不通过的连接会被销毁.</li>
+ * <li>归还的时候, 调用 {@link PooledConnectionFactory#reset(Object)} 恢复连接状态, 失败的连接会被销毁.</li>
+ * <li>空闲连接后进先出, 优先使用最近用过的连接, 不常用的连接会自然超时.</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @param <T>
+ *            连接类型
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@lombok.extern.slf4j.Slf4j
+public class ConnectionPool<T> implements Closeable{
+
+    /** The pooled connection factory. */
+    private final PooledConnectionFactory<T> pooledConnectionFactory;
+
+    /** 空闲连接最大存活时间, 单位毫秒. */
+    private final long                       idleTimeout;
+
+    /** 最多等待的时间, 单位毫秒. */
+    private final long                       maxWait;
+
+    /** 控制同时借出的连接数量. */
+    private final Semaphore                  semaphore;
+
+    /** 空闲的连接. */
+    private final Deque<IdleConnection<T>>   idleConnections = new ConcurrentLinkedDeque<>();
+
+    /** 创建连接的次数. */
+    private final AtomicLong                 createdCount    = new AtomicLong();
+
+    /** 是否已经关闭. */
+    private volatile boolean                 closed;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new connection pool.
+     *
+     * @param pooledConnectionFactory
+     *            the pooled connection factory
+     * @param connectionPoolConfig
+     *            the connection pool config
+     * @throws NullPointerException
+     *             如果 <code>pooledConnectionFactory</code> 或者 <code>connectionPoolConfig</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>connectionPoolConfig</code> 的 maxPerHost,idleTimeout 不大于0, 或者 maxWait 小于0
+     */
+    public ConnectionPool(PooledConnectionFactory<T> pooledConnectionFactory, ConnectionPoolConfig connectionPoolConfig){
+        Validate.notNull(pooledConnectionFactory, "pooledConnectionFactory can't be null!");
+        Validate.notNull(connectionPoolConfig, "connectionPoolConfig can't be null!");
+        Validate.isTrue(connectionPoolConfig.getMaxPerHost() > 0, "maxPerHost:[%s] must > 0", connectionPoolConfig.getMaxPerHost());
+        Validate.isTrue(connectionPoolConfig.getIdleTimeout() > 0, "idleTimeout:[%s] must > 0", connectionPoolConfig.getIdleTimeout());
+        Validate.isTrue(connectionPoolConfig.getMaxWait() >= 0, "maxWait:[%s] must >= 0", connectionPoolConfig.getMaxWait());
+
+        this.pooledConnectionFactory = pooledConnectionFactory;
+        this.idleTimeout = connectionPoolConfig.getIdleTimeout();
+        this.maxWait = connectionPoolConfig.getMaxWait();
+        this.semaphore = new Semaphore(connectionPoolConfig.getMaxPerHost(), true);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 借出连接, 用完之后必须调用 {@link #giveBack(Object)} 或者 {@link #invalidate(Object)}.
+     *
+     * @return the connection
+     * @throws IllegalStateException
+     *             如果连接池已经关闭
+     * @throws FileTransferException
+     *             如果等待超时, 或者创建连接失败
+     */
+    public T borrow(){
+        Validate.validState(!closed, "connection pool is closed");
+        acquire();
+
+        //---------------------------------------------------------------
+        try{
+            long now = System.currentTimeMillis();
+            IdleConnection<T> idleConnection;
+            while (null != (idleConnection = idleConnections.pollFirst())){
+                T connection = idleConnection.connection;
+                if (now - idleConnection.lastUsedTime <= idleTimeout && pooledConnectionFactory.validate(connection)){
+                    return connection;
+                }
+                log.debug("connection idle more than:[{}]ms or invalid,destroy it", idleTimeout);
+                pooledConnectionFactory.destroy(connection);
+            }
+            return create();
+        }catch (RuntimeException e){
+            semaphore.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 归还连接.
+     * 
+     * <p>
+     * 如果 {@link PooledConnectionFactory#reset(Object)} 失败, 或者连接池已经关闭, 那么销毁连接.
+     * </p>
+     *
+     * @param connection
+     *            the connection
+     */
+    public void giveBack(T connection){
+        Validate.notNull(connection, "connection can't be null!");
+        try{
+            if (closed || !pooledConnectionFactory.reset(connection)){
+                pooledConnectionFactory.destroy(connection);
+                return;
+            }
+
+            IdleConnection<T> idleConnection = new IdleConnection<>(connection);
+            idleConnections.offerFirst(idleConnection);
+
+            //归还的同时连接池被关闭了
+            if (closed && idleConnections.remove(idleConnection)){
+                pooledConnectionFactory.destroy(connection);
+            }
+        }finally{
+            semaphore.release();
+        }
+    }
+
+    /**
+     * 销毁借出的连接, 比如使用过程中发现连接已经不可用.
+     *
+     * @param connection
+     *            the connection
+     */
+    public void invalidate(T connection){
+        Validate.notNull(connection, "connection can't be null!");
+        try{
+            pooledConnectionFactory.destroy(connection);
+        }finally{
+            semaphore.release();
+        }
+    }
+
+    /**
+     * 关闭连接池, 以及所有的空闲连接; 借出的连接, 归还的时候销毁.
+     */
+    @Override
+    public void close(){
+        closed = true;
+        IdleConnection<T> idleConnection;
+        while (null != (idleConnection = idleConnections.pollFirst())){
+            pooledConnectionFactory.destroy(idleConnection.connection);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 创建连接的次数(包括销毁之后的重新创建).
+     *
+     * @return the created count
+     */
+    public long getCreatedCount(){
+        return createdCount.get();
+    }
+
+    /**
+     * 当前空闲连接的数量.
+     *
+     * @return the idle count
+     */
+    public int getIdleCount(){
+        return idleConnections.size();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得许可, 最多等待 {@link #maxWait}.
+     */
+    private void acquire(){
+        try{
+            if (!semaphore.tryAcquire(maxWait, TimeUnit.MILLISECONDS)){
+                throw new FileTransferException("can't get connection in [{}]ms, all connections are in use", maxWait);
+            }
+        }catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new FileTransferException("interrupted when waiting for connection", e);
+        }
+    }
+
+    /**
+     * 创建连接.
+     *
+     * @return the t
+     */
+    private T create(){
+        try{
+            T connection = pooledConnectionFactory.create();
+            createdCount.incrementAndGet();
+            return connection;
+        }catch (FileTransferException e){
+            throw e;
+        }catch (Exception e){
+            throw new FileTransferException("create connection exception", e);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 空闲的连接以及最后使用时间.
+     *
+     * @param <T>
+     *            连接类型
+     */
+    private static final class IdleConnection<T>{
+
+        /** The connection. */
+        private final T    connection;
+
+        /** 最后使用时间. */
+        private final long lastUsedTime = System.currentTimeMillis();
+
+        /**
+         * Instantiates a new idle connection.
+         *
+         * @param connection
+         *            the connection
+         */
+        private IdleConnection(T connection){
+            this.connection = connection;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.net.filetransfer.pool;
+
+import com.feilong.core.TimeInterval;
+
+/**
+ * 连接池配置.
+ * 
+ * <p>
+ * 设置到 {@link com.feilong.net.filetransfer.AbstractFileTransferConfig#setConnectionPoolConfig(ConnectionPoolConfig)} 之后,
+ * {@link com.feilong.net.filetransfer.FileTransfer} 的每个操作不再 连接/登录/断开, 而是从连接池借出已经认证过的连接, 操作完归还.
+ * </p>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+public class ConnectionPoolConfig{
+
+    /**
+     * 每个连接(相同的 host,port,用户名,密码等)最多同时存在的连接数量.
+     * 
+     * <p>
+     * 超过的操作会等待其他操作归还连接, 最多等待 {@link #maxWait}.<br>
+     * 注意很多服务器会限制同一个账号的并发连接数, 不要设置太大.
+     * </p>
+     */
+    private int  maxPerHost  = 4;
+
+    /**
+     * 空闲连接最大存活时间, 单位毫秒.
+     * 
+     * <p>
+     * 超过这个时间没有使用的连接, 下次借出的时候会被关闭并重新连接, 避免使用已经被服务器断开的连接.
+     * </p>
+     */
+    private long idleTimeout = 60L * TimeInterval.MILLISECOND_PER_SECONDS;
+
+    /**
+     * 连接都被借出的时候, 最多等待的时间, 单位毫秒.
+     * 
+     * <p>
+     * 超过这个时间还拿不到连接, 抛出 {@link com.feilong.net.filetransfer.FileTransferException}.
+     * </p>
+     */
+    private long maxWait     = 30L * TimeInterval.MILLISECOND_PER_SECONDS;
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 每个连接(相同的 host,port,用户名,密码等)最多同时存在的连接数量.
+     *
+     * @return the maxPerHost
+     */
+    public int getMaxPerHost(){
+        return maxPerHost;
+    }
+
+    /**
+     * 设置 每个连接(相同的 host,port,用户名,密码等)最多同时存在的连接数量.
+     *
+     * @param maxPerHost
+     *            the maxPerHost to set
+     */
+    public void setMaxPerHost(int maxPerHost){
+        this.maxPerHost = maxPerHost;
+    }
+
+    /**
+     * 获得 空闲连接最大存活时间, 单位毫秒.
+     *
+     * @return the idleTimeout
+     */
+    public long getIdleTimeout(){
+        return idleTimeout;
+    }
+
+    /**
+     * 设置 空闲连接最大存活时间, 单位毫秒.
+     *
+     * @param idleTimeout
+     *            the idleTimeout to set
+     */
+    public void setIdleTimeout(long idleTimeout){
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * 获得 连接都被借出的时候, 最多等待的时间, 单位毫秒.
+     *
+     * @return the maxWait
+     */
+    public long getMaxWait(){
+        return maxWait;
+    }
+
+    /**
+     * 设置 连接都被借出的时候, 最多等待的时间, 单位毫秒.
+     *
+     * @param maxWait
+     *            the maxWait to set
+     */
+    public void setMaxWait(long maxWait){
+        this.maxWait = maxWait;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.net.filetransfer.pool;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.feilong.core.Validate;
+
+/**
+ * 按照 key(比如 host,port,用户名,密码等连接参数) 分开的连接池.
+ *
+ * @param <T>
+ *            连接类型
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+public class KeyedConnectionPool<T>{
+
+    /** key 是连接参数. */
+    private final Map<List<Object>, ConnectionPool<T>> connectionPoolMap = new ConcurrentHashMap<>();
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 <code>key</code> 对应的连接池, 如果没有, 使用 <code>connectionPoolSupplier</code> 创建.
+     *
+     * @param key
+     *            连接参数
+     * @param connectionPoolSupplier
+     *            the connection pool supplier
+     * @return the connection pool
+     */
+    public ConnectionPool<T> get(List<Object> key,Supplier<ConnectionPool<T>> connectionPoolSupplier){
+        Validate.notNull(key, "key can't be null!");
+        Validate.notNull(connectionPoolSupplier, "connectionPoolSupplier can't be null!");
+        return connectionPoolMap.computeIfAbsent(key, k -> connectionPoolSupplier.get());
+    }
+
+    /**
+     * 关闭并移除所有的连接池.
+     */
+    public void close(){
+        for (List<Object> key : connectionPoolMap.keySet()){
+            ConnectionPool<T> connectionPool = connectionPoolMap.remove(key);
+            if (null != connectionPool){
+                connectionPool.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.net.filetransfer.pool;
+
+/**
+ * 连接池里连接的创建,校验,重置以及销毁.
+ *
+ * @param <T>
+ *            连接类型, 比如 ftp 的 FTPClient, sftp 的 session + channel
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+public interface PooledConnectionFactory<T>{
+
+    /**
+     * 创建已经连接并且认证过的连接.
+     *
+     * @return the connection
+     * @throws Exception
+     *             连接或者登录失败
+     */
+    T create() throws Exception;
+
+    /**
+     * 借出之前校验连接是否可用.
+     * 
+     * <p>
+     * 每次借出都会调用, 建议只做本地的状态检查(比如 isConnected), 不要和服务器交互.
+     * </p>
+     *
+     * @param connection
+     *            the connection
+     * @return 如果可用返回true; 否则返回false, 连接会被销毁
+     */
+    boolean validate(T connection);
+
+    /**
+     * 归还之前把连接恢复成初始状态, 比如切换回登录时候的目录.
+     * 
+     * <p>
+     * 这一步需要和服务器交互一次, 同时也起到了校验连接的作用.
+     * </p>
+     *
+     * @param connection
+     *            the connection
+     * @return 如果重置成功返回true; 否则返回false, 连接会被销毁
+     */
+    boolean reset(T connection);
+
+    /**
+     * 断开连接, 需要自行处理异常.
+     *
+     * @param connection
+     *            the connection
+     */
+    void destroy(T connection);
+}
@@ -24,6 +24,7 @@ import static com.feilong.io.entity.FileType.FILE;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -33,6 +34,10 @@ import com.feilong.json.JsonUtil;
 import com.feilong.lib.lang3.StringUtils;
 import com.feilong.net.filetransfer.AbstractFileTransfer;
 import com.feilong.net.filetransfer.FileTransferException;
+import com.feilong.net.filetransfer.pool.ConnectionPool;
+import com.feilong.net.filetransfer.pool.ConnectionPoolConfig;
+import com.feilong.net.filetransfer.pool.KeyedConnectionPool;
+import com.feilong.net.filetransfer.sftp.SftpPooledConnectionFactory.SftpConnection;
 import com.jcraft.jsch.ChannelSftp;
 import com.jcraft.jsch.ChannelSftp.LsEntry;
 import com.jcraft.jsch.Session;
@@ -126,6 +131,16 @@ import com.jcraft.jsch.SftpException;
  * </pre>
  * 
  * </blockquote>
+ * 
+ * <h3>连接池:</h3>
+ * 
+ * <blockquote>
+ * <p>
+ * 默认每个操作都会 建立 ssh 连接,认证,打开 channel,断开; 同步大量小文件的时候, ssh 握手占了大部分时间.<br>
+ * 设置 {@link SFTPFileTransferConfig#setConnectionPoolConfig(ConnectionPoolConfig)} 之后, 相同连接参数的操作共用连接池里已经认证过的 session + channel,
+ * 应用关闭的时候可以调用 {@link #closeConnectionPools()}.
+ * </p>
+ * </blockquote>
  *
  * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
  * 
@@ -152,6 +167,29 @@ public class SFTPFileTransfer extends AbstractFileTransfer{
      */
     private Session                session;
 
+    /**
+     * 从连接池借出的连接, 如果没有使用连接池, 那么是null.
+     * 
+     * @since 4.5.5
+     */
+    private SftpConnection         sftpConnection;
+
+    /**
+     * 借出 {@link #sftpConnection} 的连接池, 归还的时候必须还给这个连接池, 而不是按照 (可能已经变化的) 配置重新查找.
+     * 
+     * @since 4.5.5
+     */
+    private ConnectionPool<SftpConnection> connectionPool;
+
+    //---------------------------------------------------------------
+
+    /**
+     * 连接池, key 是连接参数.
+     * 
+     * @since 4.5.5
+     */
+    private static final KeyedConnectionPool<SftpConnection> CONNECTION_POOLS = new KeyedConnectionPool<>();
+
     //---------------------------------------------------------------
 
     /**
@@ -167,6 +205,17 @@ public class SFTPFileTransfer extends AbstractFileTransfer{
             disconnect();
         }
         try{
+            //since 4.5.5
+            if (null != sftpFileTransferConfig.getConnectionPoolConfig()){
+                connectionPool = getConnectionPool();
+                sftpConnection = connectionPool.borrow();
+                session = sftpConnection.session;
+                channelSftp = sftpConnection.channelSftp;
+                log.debug(log("borrow pooled sftp connection:[{}]", SftpSessionUtil.buildSessionPrettyString(session)));
+                return true;
+            }
+
+            //---------------------------------------------------------------
             session = SFTPUtil.connect(sftpFileTransferConfig, logTraceContext);
 
             log.info(log("open [sftp] session channel..."));
@@ -191,6 +240,17 @@ public class SFTPFileTransfer extends AbstractFileTransfer{
      */
     @Override
     protected void disconnect(){
+        //since 4.5.5 归还到连接池
+        if (null != sftpConnection){
+            connectionPool.giveBack(sftpConnection);
+            connectionPool = null;
+            sftpConnection = null;
+            session = null;
+            channelSftp = null;
+            return;
+        }
+
+        //---------------------------------------------------------------
         if (channelSftp != null){
             channelSftp.exit();
 
@@ -399,6 +459,44 @@ public class SFTPFileTransfer extends AbstractFileTransfer{
 
     //---------------------------------------------------------------
 
+    /**
+     * 取到当前配置对应的连接池, 没有则创建.
+     *
+     * @return 连接池
+     * @since 4.5.5
+     */
+    private ConnectionPool<SftpConnection> getConnectionPool(){
+        ConnectionPoolConfig connectionPoolConfig = sftpFileTransferConfig.getConnectionPoolConfig();
+        List<Object> key = Arrays.<Object> asList(
+                        sftpFileTransferConfig.getHostName(),
+                        sftpFileTransferConfig.getPort(),
+                        sftpFileTransferConfig.getUserName(),
+                        sftpFileTransferConfig.getPassword(),
+                        sftpFileTransferConfig.getSshConfig(),
+                        sftpFileTransferConfig.getSessionTimeout(),
+                        connectionPoolConfig.getMaxPerHost(),
+                        connectionPoolConfig.getIdleTimeout(),
+                        connectionPoolConfig.getMaxWait());
+        return CONNECTION_POOLS.get(
+                        key,
+                        () -> new ConnectionPool<>(new SftpPooledConnectionFactory(sftpFileTransferConfig), connectionPoolConfig));
+    }
+
+    /**
+     * 关闭所有的 sftp 连接池 (断开所有空闲连接, 借出的连接归还时断开).
+     * 
+     * <p>
+     * 一般在应用关闭的时候调用.
+     * </p>
+     * 
+     * @since 4.5.5
+     */
+    public static void closeConnectionPools(){
+        CONNECTION_POOLS.close();
+    }
+
+    //---------------------------------------------------------------
+
     /**
      * 设置 sftp file transfer config.
      *
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.net.filetransfer.sftp;
+
+import com.feilong.net.filetransfer.pool.PooledConnectionFactory;
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.Session;
+import com.jcraft.jsch.SftpException;
+
+/**
+ * 创建连接池里的 sftp 连接(已经认证的 {@link Session} + 已经打开的 {@link ChannelSftp}).
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@lombok.extern.slf4j.Slf4j
+class SftpPooledConnectionFactory implements PooledConnectionFactory<SftpPooledConnectionFactory.SftpConnection>{
+
+    /** The sftp file transfer config. */
+    private final SFTPFileTransferConfig sftpFileTransferConfig;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new sftp pooled connection factory.
+     *
+     * @param sftpFileTransferConfig
+     *            the sftp file transfer config
+     */
+    SftpPooledConnectionFactory(SFTPFileTransferConfig sftpFileTransferConfig){
+        this.sftpFileTransferConfig = sftpFileTransferConfig;
+    }
+
+    //---------------------------------------------------------------
+
+    @Override
+    public SftpConnection create() throws Exception{
+        Session session = SFTPUtil.connect(sftpFileTransferConfig, "");
+        try{
+            ChannelSftp channelSftp = (ChannelSftp) session.openChannel("sftp");
+            channelSftp.connect();
+
+            //登录之后的目录, 归还的时候切换回这个目录
+            String home = channelSftp.pwd();
+            log.info("create pooled sftp connection:[{}],home:[{}]", SftpSessionUtil.buildSessionPrettyString(session), home);
+            return new SftpConnection(session, channelSftp, home);
+        }catch (Exception e){
+            session.disconnect();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean validate(SftpConnection sftpConnection){
+        return sftpConnection.session.isConnected() && sftpConnection.channelSftp.isConnected();
+    }
+
+    @Override
+    public boolean reset(SftpConnection sftpConnection){
+        try{
+            sftpConnection.channelSftp.cd(sftpConnection.home);
+            return true;
+        }catch (SftpException | RuntimeException e){
+            log.info("reset pooled sftp connection fail,will destroy it,cause:[{}]", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void destroy(SftpConnection sftpConnection){
+        sftpConnection.channelSftp.exit();
+        sftpConnection.session.disconnect();
+        log.info("destroy pooled sftp connection:[{}]", SftpSessionUtil.buildSessionPrettyString(sftpConnection.session));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 连接池里的 sftp 连接.
+     */
+    static final class SftpConnection{
+
+        /** The session. */
+        final Session     session;
+
+        /** The channel sftp. */
+        final ChannelSftp channelSftp;
+
+        /** 登录之后的目录. */
+        final String      home;
+
+        /**
+         * Instantiates a new sftp connection.
+         *
+         * @param session
+         *            the session
+         * @param channelSftp
+         *            the channel sftp
+         * @param home
+         *            the home
+         */
+        SftpConnection(Session session, ChannelSftp channelSftp, String home){
+            this.session = session;
+            this.channelSftp = channelSftp;
+            this.home = home;
+        }
+    }
+}
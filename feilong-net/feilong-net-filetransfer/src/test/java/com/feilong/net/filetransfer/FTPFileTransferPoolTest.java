@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.net.filetransfer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ftpserver.FtpServer;
+import org.apache.ftpserver.FtpServerFactory;
+import org.apache.ftpserver.ftplet.DefaultFtplet;
+import org.apache.ftpserver.ftplet.FtpException;
+import org.apache.ftpserver.ftplet.FtpSession;
+import org.apache.ftpserver.ftplet.Ftplet;
+import org.apache.ftpserver.ftplet.FtpletResult;
+import org.apache.ftpserver.listener.ListenerFactory;
+import org.apache.ftpserver.usermanager.impl.BaseUser;
+import org.apache.ftpserver.usermanager.impl.WritePermission;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.feilong.io.entity.FileInfoEntity;
+import com.feilong.lib.net.ftp.FTPClient;
+import com.feilong.net.filetransfer.ftp.FTPFileTransfer;
+import com.feilong.net.filetransfer.ftp.FTPFileTransferConfig;
+import com.feilong.net.filetransfer.pool.ConnectionPoolConfig;
+
+/**
+ * 使用内嵌的 ftp 服务器, 测试连接池.
+ */
+public class FTPFileTransferPoolTest{
+
+    private static FtpServer           ftpServer;
+
+    private static int                 port;
+
+    private static Path                rootDirectory;
+
+    private static final AtomicInteger CONNECT_COUNT = new AtomicInteger();
+
+    private Path                       localDirectory;
+
+    //---------------------------------------------------------------
+
+    @BeforeClass
+    public static void beforeClass() throws Exception{
+        rootDirectory = Files.createTempDirectory("ftp-root");
+
+        FtpServerFactory ftpServerFactory = new FtpServerFactory();
+        ListenerFactory listenerFactory = new ListenerFactory();
+        listenerFactory.setServerAddress("127.0.0.1");
+        listenerFactory.setPort(0);
+        ftpServerFactory.addListener("default", listenerFactory.createListener());
+
+        BaseUser user = new BaseUser();
+        user.setName("feilong");
+        user.setPassword("123456");
+        user.setHomeDirectory(rootDirectory.toString());
+        user.setAuthorities(Collections.singletonList(new WritePermission()));
+        ftpServerFactory.getUserManager().save(user);
+
+        Map<String, Ftplet> ftplets = new HashMap<>();
+        ftplets.put("count", new DefaultFtplet(){
+
+            @Override
+            public FtpletResult onConnect(FtpSession session) throws FtpException,IOException{
+                CONNECT_COUNT.incrementAndGet();
+                return super.onConnect(session);
+            }
+        });
+        ftpServerFactory.setFtplets(ftplets);
+
+        ftpServer = ftpServerFactory.createServer();
+        ftpServer.start();
+        port = ftpServerFactory.getListener("default").getPort();
+    }
+
+    @AfterClass
+    public static void afterClass(){
+        FTPFileTransfer.closeConnectionPools();
+        ftpServer.stop();
+    }
+
+    @Before
+    public void before() throws IOException{
+        FTPFileTransfer.closeConnectionPools();
+        CONNECT_COUNT.set(0);
+        localDirectory = Files.createTempDirectory("ftp-local");
+    }
+
+    @After
+    public void after(){
+        FTPFileTransfer.closeConnectionPools();
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testPooledReuseConnection() throws IOException{
+        FTPFileTransferConfig config = buildConfig(new ConnectionPoolConfig());
+
+        for (int i = 0; i < 10; ++i){
+            Path localFile = write("reuse" + i + ".txt", "feilong" + i);
+
+            FileTransfer fileTransfer = buildFileTransfer(config);
+            assertTrue(fileTransfer.upload("/reuse", localFile.toString()));
+
+            Map<String, FileInfoEntity> fileEntityMap = fileTransfer.getFileEntityMap("/reuse", "reuse" + i + ".txt");
+            assertEquals(Files.size(localFile), fileEntityMap.get("reuse" + i + ".txt").getSize().longValue());
+        }
+        assertEquals(1, CONNECT_COUNT.get());
+    }
+
+    @Test
+    public void testNotPooled() throws IOException{
+        FTPFileTransferConfig config = buildConfig(null);
+        for (int i = 0; i < 3; ++i){
+            Path localFile = write("notpooled" + i + ".txt", "feilong" + i);
+            assertTrue(buildFileTransfer(config).upload("/notpooled", localFile.toString()));
+        }
+        assertEquals(3, CONNECT_COUNT.get());
+    }
+
+    @Test
+    public void testConcurrentMaxPerHost() throws Exception{
+        ConnectionPoolConfig connectionPoolConfig = new ConnectionPoolConfig();
+        connectionPoolConfig.setMaxPerHost(2);
+        FTPFileTransferConfig config = buildConfig(connectionPoolConfig);
+
+        //并发 mkdir 同一个目录会冲突, 先创建好
+        Files.createDirectories(rootDirectory.resolve("concurrent"));
+
+        ExecutorService executorService = Executors.newFixedThreadPool(6);
+        try{
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < 24; ++i){
+                Path localFile = write("concurrent" + i + ".txt", "feilong" + i);
+                futures.add(executorService.submit(() -> buildFileTransfer(config).upload("/concurrent", localFile.toString())));
+            }
+            for (Future<Boolean> future : futures){
+                assertTrue(future.get(30, TimeUnit.SECONDS));
+            }
+        }finally{
+            executorService.shutdownNow();
+        }
+        assertTrue("connect count:" + CONNECT_COUNT.get(), CONNECT_COUNT.get() <= 2);
+        assertEquals(24, rootDirectory.resolve("concurrent").toFile().list().length);
+    }
+
+    @Test
+    public void testIdleTimeout() throws Exception{
+        ConnectionPoolConfig connectionPoolConfig = new ConnectionPoolConfig();
+        connectionPoolConfig.setIdleTimeout(50);
+        FTPFileTransferConfig config = buildConfig(connectionPoolConfig);
+
+        Path localFile = write("idle.txt", "feilong");
+        assertTrue(buildFileTransfer(config).upload("/idle", localFile.toString()));
+        Thread.sleep(150);
+        assertTrue(buildFileTransfer(config).upload("/idle", localFile.toString()));
+
+        assertEquals(2, CONNECT_COUNT.get());
+    }
+
+    //---------------------------------------------------------------
+
+    private Path write(String fileName,String content) throws IOException{
+        return Files.write(localDirectory.resolve(fileName), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static FileTransfer buildFileTransfer(FTPFileTransferConfig config){
+        FTPFileTransfer ftpFileTransfer = new FTPFileTransfer();
+        ftpFileTransfer.setFtpFileTransferConfig(config);
+        ftpFileTransfer.setFtpClient(new FTPClient());
+        return ftpFileTransfer;
+    }
+
+    private static FTPFileTransferConfig buildConfig(ConnectionPoolConfig connectionPoolConfig){
+        FTPFileTransferConfig config = new FTPFileTransferConfig();
+        config.setHostName("127.0.0.1");
+        config.setPort(port);
+        config.setUserName("feilong");
+        config.setPassword("123456");
+        config.setConnectionPoolConfig(connectionPoolConfig);
+        return config;
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.net.filetransfer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.sshd.common.file.virtualfs.VirtualFileSystemFactory;
+import org.apache.sshd.common.session.Session;
+import org.apache.sshd.common.session.SessionListener;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.apache.sshd.sftp.server.SftpSubsystemFactory;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.feilong.net.filetransfer.pool.ConnectionPoolConfig;
+import com.feilong.net.filetransfer.sftp.SFTPFileTransfer;
+import com.feilong.net.filetransfer.sftp.SFTPFileTransferConfig;
+
+/**
+ * 使用内嵌的 sftp 服务器, 测试连接池.
+ */
+public class SFTPFileTransferPoolTest{
+
+    private static SshServer           sshServer;
+
+    private static Path                rootDirectory;
+
+    private static final AtomicInteger SESSION_COUNT = new AtomicInteger();
+
+    private Path                       localDirectory;
+
+    //---------------------------------------------------------------
+
+    @BeforeClass
+    public static void beforeClass() throws IOException{
+        rootDirectory = Files.createTempDirectory("sftp-root");
+
+        sshServer = SshServer.setUpDefaultServer();
+        sshServer.setHost("127.0.0.1");
+        sshServer.setPort(0);
+
+        SimpleGeneratorHostKeyProvider hostKeyProvider = new SimpleGeneratorHostKeyProvider();
+        hostKeyProvider.setAlgorithm("RSA");
+        sshServer.setKeyPairProvider(hostKeyProvider);
+        sshServer.setPasswordAuthenticator((userName,password,session) -> "feilong".equals(userName) && "123456".equals(password));
+        sshServer.setSubsystemFactories(Collections.singletonList(new SftpSubsystemFactory()));
+        sshServer.setFileSystemFactory(new VirtualFileSystemFactory(rootDirectory));
+        sshServer.addSessionListener(new SessionListener(){
+
+            @Override
+            public void sessionCreated(Session session){
+                SESSION_COUNT.incrementAndGet();
+            }
+        });
+        sshServer.start();
+    }
+
+    @AfterClass
+    public static void afterClass() throws IOException{
+        SFTPFileTransfer.closeConnectionPools();
+        sshServer.stop(true);
+    }
+
+    @Before
+    public void before() throws IOException{
+        SFTPFileTransfer.closeConnectionPools();
+        SESSION_COUNT.set(0);
+        localDirectory = Files.createTempDirectory("sftp-local");
+    }
+
+    @After
+    public void after(){
+        SFTPFileTransfer.closeConnectionPools();
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testPooledReuseSession() throws IOException{
+        SFTPFileTransferConfig config = buildConfig(new ConnectionPoolConfig());
+
+        for (int i = 0; i < 10; ++i){
+            Path localFile = write("reuse" + i + ".txt", "feilong" + i);
+
+            FileTransfer fileTransfer = buildFileTransfer(config);
+            assertTrue(fileTransfer.upload("/reuse", localFile.toString()));
+
+            Path downloadDirectory = Files.createDirectories(localDirectory.resolve("download" + i));
+            fileTransfer.download(downloadDirectory.toString(), "/reuse/reuse" + i + ".txt");
+            assertArrayEquals(Files.readAllBytes(localFile), Files.readAllBytes(downloadDirectory.resolve("reuse" + i + ".txt")));
+        }
+        assertEquals(1, SESSION_COUNT.get());
+    }
+
+    @Test
+    public void testNotPooled() throws IOException{
+        SFTPFileTransferConfig config = buildConfig(null);
+        for (int i = 0; i < 3; ++i){
+            Path localFile = write("notpooled" + i + ".txt", "feilong" + i);
+            assertTrue(buildFileTransfer(config).upload("/notpooled", localFile.toString()));
+        }
+        assertEquals(3, SESSION_COUNT.get());
+    }
+
+    @Test
+    public void testConcurrentMaxPerHost() throws Exception{
+        ConnectionPoolConfig connectionPoolConfig = new ConnectionPoolConfig();
+        connectionPoolConfig.setMaxPerHost(2);
+        SFTPFileTransferConfig config = buildConfig(connectionPoolConfig);
+
+        //并发 mkdir 同一个目录会冲突, 先创建好
+        Files.createDirectories(rootDirectory.resolve("concurrent"));
+
+        ExecutorService executorService = Executors.newFixedThreadPool(6);
+        try{
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < 24; ++i){
+                Path localFile = write("concurrent" + i + ".txt", "feilong" + i);
+                futures.add(executorService.submit(() -> buildFileTransfer(config).upload("/concurrent", localFile.toString())));
+            }
+            for (Future<Boolean> future : futures){
+                assertTrue(future.get(30, TimeUnit.SECONDS));
+            }
+        }finally{
+            executorService.shutdownNow();
+        }
+        assertTrue("session count:" + SESSION_COUNT.get(), SESSION_COUNT.get() <= 2);
+        assertEquals(24, rootDirectory.resolve("concurrent").toFile().list().length);
+    }
+
+    @Test
+    public void testIdleTimeout() throws Exception{
+        ConnectionPoolConfig connectionPoolConfig = new ConnectionPoolConfig();
+        connectionPoolConfig.setIdleTimeout(50);
+        SFTPFileTransferConfig config = buildConfig(connectionPoolConfig);
+
+        Path localFile = write("idle.txt", "feilong");
+        assertTrue(buildFileTransfer(config).upload("/idle", localFile.toString()));
+        Thread.sleep(150);
+        assertTrue(buildFileTransfer(config).upload("/idle", localFile.toString()));
+
+        assertEquals(2, SESSION_COUNT.get());
+    }
+
+    //---------------------------------------------------------------
+
+    private Path write(String fileName,String content) throws IOException{
+        return Files.write(localDirectory.resolve(fileName), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static FileTransfer buildFileTransfer(SFTPFileTransferConfig config){
+        SFTPFileTransfer sftpFileTransfer = new SFTPFileTransfer();
+        sftpFileTransfer.setSftpFileTransferConfig(config);
+        return sftpFileTransfer;
+    }
+
+    private static SFTPFileTransferConfig buildConfig(ConnectionPoolConfig connectionPoolConfig){
+        SFTPFileTransferConfig config = new SFTPFileTransferConfig();
+        config.setHostName("127.0.0.1");
+        config.setPort(sshServer.getPort());
+        config.setUserName("feilong");
+        config.setPassword("123456");
+        config.setConnectionPoolConfig(connectionPoolConfig);
+        return config;
+    }
+}
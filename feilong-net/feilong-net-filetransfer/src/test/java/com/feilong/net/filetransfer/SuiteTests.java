@@ -19,9 +19,15 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
+import com.feilong.net.filetransfer.pool.ConnectionPoolTest;
+
 @RunWith(Suite.class)
 @SuiteClasses({ //
-                SFTPFileTransferCommonTest.class
+                SFTPFileTransferCommonTest.class,
+
+                ConnectionPoolTest.class,
+                SFTPFileTransferPoolTest.class,
+                FTPFileTransferPoolTest.class
         //                
 })
 public class SuiteTests{
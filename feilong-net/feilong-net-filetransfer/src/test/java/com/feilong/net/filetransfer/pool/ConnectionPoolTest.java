@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.net.filetransfer.pool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.feilong.net.filetransfer.FileTransferException;
+
+public class ConnectionPoolTest{
+
+    private final FakeFactory factory = new FakeFactory();
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testReuse(){
+        ConnectionPool<Object> pool = new ConnectionPool<>(factory, new ConnectionPoolConfig());
+        for (int i = 0; i < 10; ++i){
+            pool.giveBack(pool.borrow());
+        }
+        assertEquals(1, pool.getCreatedCount());
+        assertEquals(1, pool.getIdleCount());
+        assertEquals(10, factory.resetCount.get());
+    }
+
+    @Test
+    public void testMaxWait(){
+        ConnectionPool<Object> pool = new ConnectionPool<>(factory, buildConfig(1, 60_000, 50));
+        Object connection = pool.borrow();
+        try{
+            pool.borrow();
+        }catch (FileTransferException e){
+            //归还之后可以再借出
+            pool.giveBack(connection);
+            assertSame(connection, pool.borrow());
+            return;
+        }
+        throw new AssertionError("must throw FileTransferException");
+    }
+
+    @Test
+    public void testResetFailDestroy(){
+        ConnectionPool<Object> pool = new ConnectionPool<>(factory, new ConnectionPoolConfig());
+        factory.resetResult.set(false);
+        pool.giveBack(pool.borrow());
+
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(1, factory.destroyCount.get());
+    }
+
+    @Test
+    public void testValidateFailRecreate(){
+        ConnectionPool<Object> pool = new ConnectionPool<>(factory, new ConnectionPoolConfig());
+        Object connection = pool.borrow();
+        pool.giveBack(connection);
+
+        factory.validateResult.set(false);
+        assertNotSame(connection, pool.borrow());
+        assertEquals(2, pool.getCreatedCount());
+        assertEquals(1, factory.destroyCount.get());
+    }
+
+    @Test
+    public void testIdleTimeout() throws InterruptedException{
+        ConnectionPool<Object> pool = new ConnectionPool<>(factory, buildConfig(4, 20, 1000));
+        Object connection = pool.borrow();
+        pool.giveBack(connection);
+
+        Thread.sleep(60);
+        assertNotSame(connection, pool.borrow());
+        assertEquals(1, factory.destroyCount.get());
+    }
+
+    @Test
+    public void testCreateFailReleasePermit(){
+        ConnectionPool<Object> pool = new ConnectionPool<>(factory, buildConfig(1, 60_000, 0));
+        factory.createFail.set(true);
+        for (int i = 0; i < 3; ++i){
+            try{
+                pool.borrow();
+            }catch (FileTransferException e){
+                //ignore
+            }
+        }
+        factory.createFail.set(false);
+        pool.giveBack(pool.borrow());
+        assertEquals(1, pool.getCreatedCount());
+    }
+
+    @Test
+    public void testClose(){
+        ConnectionPool<Object> pool = new ConnectionPool<>(factory, new ConnectionPoolConfig());
+        Object idle = pool.borrow();
+        Object borrowed = pool.borrow();
+        pool.giveBack(idle);
+
+        pool.close();
+        assertEquals(1, factory.destroyCount.get());
+
+        //借出的连接归还时销毁
+        pool.giveBack(borrowed);
+        assertEquals(2, factory.destroyCount.get());
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testBorrowAfterClose(){
+        ConnectionPool<Object> pool = new ConnectionPool<>(factory, new ConnectionPoolConfig());
+        pool.close();
+        pool.borrow();
+    }
+
+    //---------------------------------------------------------------
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConnectionPoolMaxPerHostZero(){
+        new ConnectionPool<>(factory, buildConfig(0, 60_000, 0));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testConnectionPoolNullFactory(){
+        new ConnectionPool<>(null, new ConnectionPoolConfig());
+    }
+
+    //---------------------------------------------------------------
+
+    private static ConnectionPoolConfig buildConfig(int maxPerHost,long idleTimeout,long maxWait){
+        ConnectionPoolConfig connectionPoolConfig = new ConnectionPoolConfig();
+        connectionPoolConfig.setMaxPerHost(maxPerHost);
+        connectionPoolConfig.setIdleTimeout(idleTimeout);
+        connectionPoolConfig.setMaxWait(maxWait);
+        return connectionPoolConfig;
+    }
+
+    private static class FakeFactory implements PooledConnectionFactory<Object>{
+
+        private final AtomicBoolean createFail     = new AtomicBoolean();
+
+        private final AtomicBoolean validateResult = new AtomicBoolean(true);
+
+        private final AtomicBoolean resetResult    = new AtomicBoolean(true);
+
+        private final AtomicInteger resetCount     = new AtomicInteger();
+
+        private final AtomicInteger destroyCount   = new AtomicInteger();
+
+        @Override
+        public Object create() throws Exception{
+            if (createFail.get()){
+                throw new IOException("create fail");
+            }
+            return new Object();
+        }
+
+        @Override
+        public boolean validate(Object connection){
+            return validateResult.get();
+        }
+
+        @Override
+        public boolean reset(Object connection){
+            resetCount.incrementAndGet();
+            return resetResult.get();
+        }
+
+        @Override
+        public void destroy(Object connection){
+            destroyCount.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.net.http;
+
+import java.util.concurrent.Executor;
+
+/**
+ * 异步请求相关配置.
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>{@link #executor} 是发送请求的线程池, 默认使用 feilong 内置的有界线程池;</li>
+ * <li>{@link #timeout} 是整个请求 (包括排队,建立连接,读取响应) 的最长时间, 超时之后 future 以 {@link java.util.concurrent.TimeoutException} 结束,并且中断正在执行的请求;
+ * 和 {@link ConnectionConfig#getConnectTimeout()}, {@link ConnectionConfig#getReadTimeout()} 互不影响.</li>
+ * <li>{@link #INSTANCE} 是所有调用方共享的默认配置, 只读, 调用 setter 会抛出 {@link UnsupportedOperationException};
+ * 需要自定义的时候请使用 <code>new HttpAsyncConfig(...)</code>.</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @see HttpClientUtil#getHttpResponseAsync(HttpRequest, ConnectionConfig, HttpAsyncConfig)
+ * @since 4.5.5
+ */
+public final class HttpAsyncConfig{
+
+    /** 默认配置(内置线程池, 不限制超时), 所有调用方共享, 只读. */
+    public static final HttpAsyncConfig INSTANCE = new HttpAsyncConfig(null, 0, true);
+
+    //---------------------------------------------------------------
+
+    /**
+     * 发送请求的线程池.
+     * 
+     * <p>
+     * 如果是null, 使用内置的有界线程池 (最多 {@link com.feilong.net.http.builder.HttpRequestAsyncExecuter#DEFAULT_POOL_SIZE} 个守护线程, 队列满了之后 future 以
+     * {@link java.util.concurrent.RejectedExecutionException} 结束).
+     * </p>
+     */
+    private Executor                    executor;
+
+    /**
+     * 整个请求的超时时间,<span style="color:red">以毫秒为单位</span>.
+     * 
+     * <p>
+     * 0 或者负数表示不限制, 默认 0.
+     * </p>
+     */
+    private long                        timeout;
+
+    /** 是否只读, 只读的时候调用 setter 会抛出 {@link UnsupportedOperationException}. */
+    private final boolean               readOnly;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new http async config.
+     */
+    public HttpAsyncConfig(){
+        this(null, 0, false);
+    }
+
+    /**
+     * Instantiates a new http async config.
+     *
+     * @param timeout
+     *            整个请求的超时时间,以毫秒为单位
+     */
+    public HttpAsyncConfig(long timeout){
+        this(null, timeout, false);
+    }
+
+    /**
+     * Instantiates a new http async config.
+     *
+     * @param executor
+     *            发送请求的线程池
+     * @param timeout
+     *            整个请求的超时时间,以毫秒为单位
+     */
+    public HttpAsyncConfig(Executor executor, long timeout){
+        this(executor, timeout, false);
+    }
+
+    /**
+     * Instantiates a new http async config.
+     *
+     * @param executor
+     *            发送请求的线程池
+     * @param timeout
+     *            整个请求的超时时间,以毫秒为单位
+     * @param readOnly
+     *            是否只读
+     */
+    private HttpAsyncConfig(Executor executor, long timeout, boolean readOnly){
+        super();
+        this.executor = executor;
+        this.timeout = timeout;
+        this.readOnly = readOnly;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 发送请求的线程池.
+     *
+     * @return the executor
+     */
+    public Executor getExecutor(){
+        return executor;
+    }
+
+    /**
+     * 设置 发送请求的线程池.
+     *
+     * @param executor
+     *            the executor to set
+     * @throws UnsupportedOperationException
+     *             如果是只读的 {@link #INSTANCE}
+     */
+    public void setExecutor(Executor executor){
+        checkWritable();
+        this.executor = executor;
+    }
+
+    /**
+     * 获得 整个请求的超时时间,以毫秒为单位.
+     *
+     * @return the timeout
+     */
+    public long getTimeout(){
+        return timeout;
+    }
+
+    /**
+     * 设置 整个请求的超时时间,以毫秒为单位.
+     *
+     * @param timeout
+     *            the timeout to set
+     * @throws UnsupportedOperationException
+     *             如果是只读的 {@link #INSTANCE}
+     */
+    public void setTimeout(long timeout){
+        checkWritable();
+        this.timeout = timeout;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 只读的配置不允许修改.
+     *
+     * @throws UnsupportedOperationException
+     *             如果是只读的
+     */
+    private void checkWritable(){
+        if (readOnly){
+            throw new UnsupportedOperationException("HttpAsyncConfig.INSTANCE is shared and read only, please use new HttpAsyncConfig()");
+        }
+    }
+}
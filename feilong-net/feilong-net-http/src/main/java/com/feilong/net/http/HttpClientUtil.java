@@ -18,8 +18,10 @@ package com.feilong.net.http;
 import static com.feilong.core.bean.ConvertUtil.toMap;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.feilong.core.Validate;
+import com.feilong.net.http.builder.HttpRequestAsyncExecuter;
 import com.feilong.net.http.builder.HttpRequestExecuter;
 import com.feilong.net.http.callback.HttpFullInfoResultCallback;
 import com.feilong.net.http.callback.HttpResponseResultCallback;
@@ -1327,4 +1329,95 @@ public final class HttpClientUtil{
         return HttpRequestExecuter.execute(httpRequest, connectionConfig, ResponseBodyAsStringResultCallback.INSTANCE);
     }
 
+    //---------------------async------------------------------------------
+
+    /**
+     * 异步获得 {@link com.feilong.net.http.HttpResponse}.
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * CompletableFuture{@code <HttpResponse>} future1 = HttpClientUtil.getHttpResponseAsync(new HttpRequest(url1), null);
+     * CompletableFuture{@code <HttpResponse>} future2 = HttpClientUtil.getHttpResponseAsync(new HttpRequest(url2), null);
+     * 
+     * CompletableFuture.allOf(future1, future2).join();
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param httpRequest
+     *            the http request
+     * @param connectionConfig
+     *            the connection config
+     * @return 如果 <code>httpRequest</code> 是null,抛出 {@link NullPointerException}<br>
+     * @see #getHttpResponseAsync(HttpRequest, ConnectionConfig, HttpAsyncConfig)
+     * @since 4.5.5
+     */
+    public static CompletableFuture<com.feilong.net.http.HttpResponse> getHttpResponseAsync(
+                    HttpRequest httpRequest,
+                    ConnectionConfig connectionConfig){
+        return getHttpResponseAsync(httpRequest, connectionConfig, null);
+    }
+
+    /**
+     * 异步获得 {@link com.feilong.net.http.HttpResponse}.
+     * 
+     * <p>
+     * 请求在 {@link HttpAsyncConfig#getExecutor()} 中执行, 复用 {@link com.feilong.net.http.builder.HttpClientBuilder} 缓存的连接池;<br>
+     * 返回的 future 被取消或者超过 {@link HttpAsyncConfig#getTimeout()} 时, 会中断正在执行的请求.
+     * </p>
+     *
+     * @param httpRequest
+     *            the http request
+     * @param connectionConfig
+     *            the connection config, 如果是null,使用 {@link ConnectionConfig#INSTANCE}
+     * @param httpAsyncConfig
+     *            the http async config, 如果是null,使用 {@link HttpAsyncConfig#INSTANCE}
+     * @return 如果 <code>httpRequest</code> 是null,抛出 {@link NullPointerException}<br>
+     * @since 4.5.5
+     */
+    public static CompletableFuture<com.feilong.net.http.HttpResponse> getHttpResponseAsync(
+                    HttpRequest httpRequest,
+                    ConnectionConfig connectionConfig,
+                    HttpAsyncConfig httpAsyncConfig){
+        return HttpRequestAsyncExecuter.executeAsync(httpRequest, connectionConfig, HttpResponseResultCallback.INSTANCE, httpAsyncConfig);
+    }
+
+    /**
+     * 异步获得响应体.
+     *
+     * @param httpRequest
+     *            the http request
+     * @param connectionConfig
+     *            the connection config
+     * @return 如果 <code>httpRequest</code> 是null,抛出 {@link NullPointerException}<br>
+     * @see #getResponseBodyAsStringAsync(HttpRequest, ConnectionConfig, HttpAsyncConfig)
+     * @since 4.5.5
+     */
+    public static CompletableFuture<String> getResponseBodyAsStringAsync(HttpRequest httpRequest,ConnectionConfig connectionConfig){
+        return getResponseBodyAsStringAsync(httpRequest, connectionConfig, null);
+    }
+
+    /**
+     * 异步获得响应体.
+     *
+     * @param httpRequest
+     *            the http request
+     * @param connectionConfig
+     *            the connection config, 如果是null,使用 {@link ConnectionConfig#INSTANCE}
+     * @param httpAsyncConfig
+     *            the http async config, 如果是null,使用 {@link HttpAsyncConfig#INSTANCE}
+     * @return 如果 <code>httpRequest</code> 是null,抛出 {@link NullPointerException}<br>
+     * @since 4.5.5
+     */
+    public static CompletableFuture<String> getResponseBodyAsStringAsync(
+                    HttpRequest httpRequest,
+                    ConnectionConfig connectionConfig,
+                    HttpAsyncConfig httpAsyncConfig){
+        return HttpRequestAsyncExecuter
+                        .executeAsync(httpRequest, connectionConfig, ResponseBodyAsStringResultCallback.INSTANCE, httpAsyncConfig);
+    }
+
 }
@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.net.http.builder;
+
+import static com.feilong.core.lang.ObjectUtil.defaultIfNull;
+import static com.feilong.core.lang.StringUtil.formatPattern;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.feilong.core.Validate;
+import com.feilong.lib.org.apache.http.client.methods.HttpUriRequest;
+import com.feilong.net.http.ConnectionConfig;
+import com.feilong.net.http.HttpAsyncConfig;
+import com.feilong.net.http.HttpRequest;
+import com.feilong.net.http.callback.ResultCallback;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * 异步发送请求 <code>httpUriRequest</code>.
+ * 
+ * <p>
+ * 请求在 {@link HttpAsyncConfig#getExecutor()} 中使用 {@link HttpRequestExecuter} 同样的流程执行, 使用的也是 {@link HttpClientBuilder} 中缓存的连接池 httpClient,
+ * 调用方线程不再阻塞, 可以同时向多个后端发起请求.
+ * </p>
+ * 
+ * <h3>取消和超时:</h3>
+ * 
+ * <blockquote>
+ * <p>
+ * 返回的 future 被 {@link CompletableFuture#cancel(boolean)}, 或者超过 {@link HttpAsyncConfig#getTimeout()} 以 {@link TimeoutException} 结束时,
+ * 会调用 {@link HttpUriRequest#abort()} 中断正在执行的请求并释放连接;如果请求还在排队, 那么不会再发送.
+ * </p>
+ * </blockquote>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@lombok.extern.slf4j.Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class HttpRequestAsyncExecuter{
+
+    /** 内置线程池的最大线程数. */
+    public static final int DEFAULT_POOL_SIZE  = 64;
+
+    /** 内置线程池的队列长度. */
+    public static final int DEFAULT_QUEUE_SIZE = 1024;
+
+    //---------------------------------------------------------------
+
+    /**
+     * 异步执行.
+     *
+     * @param <T>
+     *            the generic type
+     * @param httpRequest
+     *            the http request
+     * @param connectionConfig
+     *            the connection config, 如果是null,使用 {@link ConnectionConfig#INSTANCE}
+     * @param resultCallback
+     *            the result callback
+     * @param httpAsyncConfig
+     *            the http async config, 如果是null,使用 {@link HttpAsyncConfig#INSTANCE}
+     * @return 如果 <code>httpRequest</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>resultCallback</code> 是null,抛出 {@link NullPointerException}<br>
+     */
+    public static <T> CompletableFuture<T> executeAsync(
+                    HttpRequest httpRequest,
+                    ConnectionConfig connectionConfig,
+                    ResultCallback<T> resultCallback,
+                    HttpAsyncConfig httpAsyncConfig){
+        Validate.notNull(httpRequest, "httpRequest can't be null!");
+        Validate.notNull(resultCallback, "resultCallback can't be null!");
+
+        //---------------------------------------------------------------
+        ConnectionConfig useConnectionConfig = defaultIfNull(connectionConfig, ConnectionConfig.INSTANCE);
+        HttpAsyncConfig useHttpAsyncConfig = defaultIfNull(httpAsyncConfig, HttpAsyncConfig.INSTANCE);
+        HttpUriRequest httpUriRequest = HttpUriRequestBuilder.build(httpRequest, useConnectionConfig);
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        //取消,超时 或者执行异常, 都中断请求释放连接
+        future.whenComplete((result,throwable) -> {
+            if (null != throwable){
+                httpUriRequest.abort();
+            }
+        });
+
+        //---------------------------------------------------------------
+        Executor executor = defaultIfNull(useHttpAsyncConfig.getExecutor(), DefaultExecutorHolder.EXECUTOR);
+        try{
+            executor.execute(() -> {
+                //排队期间已经取消或者超时
+                if (future.isDone()){
+                    return;
+                }
+                try{
+                    future.complete(HttpRequestExecuter.execute(httpRequest, httpUriRequest, useConnectionConfig, resultCallback));
+                }catch (RuntimeException | Error e){
+                    future.completeExceptionally(e);
+                }
+            });
+        }catch (RejectedExecutionException e){
+            future.completeExceptionally(e);
+        }
+
+        scheduleTimeout(future, useHttpAsyncConfig.getTimeout(), httpRequest);
+        return future;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 到时间还没有结束, 以 {@link TimeoutException} 结束 <code>future</code>.
+     *
+     * @param future
+     *            the future
+     * @param timeout
+     *            以毫秒为单位, 小于等于0 不处理
+     * @param httpRequest
+     *            the http request
+     */
+    private static void scheduleTimeout(CompletableFuture<?> future,long timeout,HttpRequest httpRequest){
+        if (timeout <= 0 || future.isDone()){
+            return;
+        }
+        ScheduledFuture<?> scheduledFuture = TimeoutSchedulerHolder.SCHEDULER.schedule(() -> {
+            String message = formatPattern("request:[{}] not complete in [{}] milliseconds", httpRequest.getUri(), timeout);
+            if (future.completeExceptionally(new TimeoutException(message)) && log.isInfoEnabled()){
+                log.info(message);
+            }
+        }, timeout, MILLISECONDS);
+
+        future.whenComplete((result,throwable) -> scheduledFuture.cancel(false));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 创建守护线程的 thread factory.
+     *
+     * @param threadNamePrefix
+     *            the thread name prefix
+     * @return the thread factory
+     */
+    private static ThreadFactory daemonThreadFactory(String threadNamePrefix){
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        return runnable -> {
+            Thread thread = new Thread(runnable, threadNamePrefix + "-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 内置线程池, 第一次使用的时候才创建.
+     */
+    private static final class DefaultExecutorHolder{
+
+        /** 有界线程池, 空闲 60 秒的线程会回收. */
+        private static final Executor EXECUTOR = buildDefaultExecutor();
+
+        private static Executor buildDefaultExecutor(){
+            ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(
+                            DEFAULT_POOL_SIZE,
+                            DEFAULT_POOL_SIZE,
+                            60L,
+                            SECONDS,
+                            new ArrayBlockingQueue<>(DEFAULT_QUEUE_SIZE),
+                            daemonThreadFactory("feilong-http-async"));
+            threadPoolExecutor.allowCoreThreadTimeOut(true);
+            return threadPoolExecutor;
+        }
+    }
+
+    /**
+     * 超时调度器, 第一次使用的时候才创建.
+     */
+    private static final class TimeoutSchedulerHolder{
+
+        /** 单个守护线程, 取消之后立即从队列中移除. */
+        private static final ScheduledThreadPoolExecutor SCHEDULER = buildScheduler();
+
+        private static ScheduledThreadPoolExecutor buildScheduler(){
+            ScheduledThreadPoolExecutor scheduledThreadPoolExecutor = new ScheduledThreadPoolExecutor(
+                            1,
+                            daemonThreadFactory("feilong-http-async-timeout"));
+            scheduledThreadPoolExecutor.setRemoveOnCancelPolicy(true);
+            return scheduledThreadPoolExecutor;
+        }
+    }
+}
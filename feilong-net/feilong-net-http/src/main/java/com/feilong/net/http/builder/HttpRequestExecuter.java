@@ -59,9 +59,33 @@ public final class HttpRequestExecuter{
         Validate.notNull(resultCallback, "resultCallback can't be null!");
 
         //---------------------------------------------------------------
-        Date beginDate = now();
         ConnectionConfig useConnectionConfig = defaultIfNull(connectionConfig, ConnectionConfig.INSTANCE);
         HttpUriRequest httpUriRequest = HttpUriRequestBuilder.build(httpRequest, useConnectionConfig);
+        return execute(httpRequest, httpUriRequest, useConnectionConfig, resultCallback);
+    }
+
+    /**
+     * 发送已经构造好的 <code>httpUriRequest</code>, 并回调 <code>resultCallback</code>.
+     *
+     * @param <T>
+     *            the generic type
+     * @param httpRequest
+     *            the http request
+     * @param httpUriRequest
+     *            the http uri request
+     * @param useConnectionConfig
+     *            the use connection config
+     * @param resultCallback
+     *            the result callback
+     * @return the t
+     * @since 4.5.5
+     */
+    static <T> T execute(
+                    HttpRequest httpRequest,
+                    HttpUriRequest httpUriRequest,
+                    ConnectionConfig useConnectionConfig,
+                    ResultCallback<T> resultCallback){
+        Date beginDate = now();
 
         HttpResponse httpResponse = null;
         try{
@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.net.http;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * {@link HttpClientUtil#getHttpResponseAsync(HttpRequest, ConnectionConfig, HttpAsyncConfig)} 测试, 基于本地 jdk 内置的 http server.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@SuppressWarnings("restriction")
+public class HttpClientUtilAsyncTest{
+
+    /** 每个慢请求的耗时. */
+    private static final long SLOW_MILLIS = 300;
+
+    private static HttpServer httpServer;
+
+    private static String     baseUrl;
+
+    //---------------------------------------------------------------
+
+    @BeforeClass
+    public static void startServer() throws IOException{
+        httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        httpServer.createContext("/hello", exchange -> write(exchange, "hello " + exchange.getRequestURI().getQuery()));
+        httpServer.createContext("/slow", exchange -> {
+            sleep(SLOW_MILLIS);
+            write(exchange, "slow");
+        });
+        httpServer.createContext("/hang", exchange -> {
+            sleep(5000);
+            write(exchange, "hang");
+        });
+        //服务端线程足够多, 避免测试受服务端排队影响
+        httpServer.setExecutor(Executors.newFixedThreadPool(32));
+        httpServer.start();
+
+        baseUrl = "http://127.0.0.1:" + httpServer.getAddress().getPort();
+    }
+
+    @AfterClass
+    public static void stopServer(){
+        httpServer.stop(0);
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testGetHttpResponseAsync() throws Exception{
+        HttpResponse httpResponse = HttpClientUtil.getHttpResponseAsync(new HttpRequest(baseUrl + "/hello?name=feilong"), null).get();
+        assertEquals(200, httpResponse.getStatusCode());
+        assertEquals("hello name=feilong", httpResponse.getResultString());
+
+        assertEquals(
+                        "hello name=jinxin",
+                        HttpClientUtil.getResponseBodyAsStringAsync(new HttpRequest(baseUrl + "/hello?name=jinxin"), null).get());
+    }
+
+    @Test
+    public void testFanOut() throws Exception{
+        int size = 16;
+        long begin = System.currentTimeMillis();
+
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < size; ++i){
+            futures.add(HttpClientUtil.getResponseBodyAsStringAsync(new HttpRequest(baseUrl + "/slow"), null));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+        for (CompletableFuture<String> future : futures){
+            assertEquals("slow", future.get());
+        }
+        //串行需要 size * SLOW_MILLIS
+        long useTime = System.currentTimeMillis() - begin;
+        assertTrue("useTime:" + useTime, useTime < size * SLOW_MILLIS / 2);
+    }
+
+    @Test
+    public void testTimeout() throws Exception{
+        long begin = System.currentTimeMillis();
+        CompletableFuture<HttpResponse> future = HttpClientUtil
+                        .getHttpResponseAsync(new HttpRequest(baseUrl + "/hang"), null, new HttpAsyncConfig(200));
+        try{
+            future.get();
+            fail();
+        }catch (ExecutionException e){
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        assertTrue(System.currentTimeMillis() - begin < 3000);
+    }
+
+    @Test
+    public void testCancelReleaseConnection() throws Exception{
+        //只有一个连接, 如果取消之后连接没有释放, 后面的请求会一直等待
+        ConnectionConfig connectionConfig = new ConnectionConfig();
+        connectionConfig.setMaxConnPerRoute(1);
+        connectionConfig.setMaxConnTotal(1);
+        connectionConfig.setReadTimeout(10000);
+
+        CompletableFuture<String> hangFuture = HttpClientUtil
+                        .getResponseBodyAsStringAsync(new HttpRequest(baseUrl + "/hang"), connectionConfig);
+        Thread.sleep(200);
+        assertTrue(hangFuture.cancel(true));
+        assertTrue(hangFuture.isCancelled());
+
+        String result = HttpClientUtil
+                        .getResponseBodyAsStringAsync(new HttpRequest(baseUrl + "/hello?name=after"), connectionConfig)
+                        .get(3, TimeUnit.SECONDS);
+        assertEquals("hello name=after", result);
+    }
+
+    @Test
+    public void testCustomExecutor() throws Exception{
+        AtomicInteger count = new AtomicInteger();
+        Executor executor = runnable -> {
+            count.incrementAndGet();
+            new Thread(runnable).start();
+        };
+        HttpAsyncConfig httpAsyncConfig = new HttpAsyncConfig(executor, 0);
+
+        assertEquals(
+                        "hello name=executor",
+                        HttpClientUtil.getResponseBodyAsStringAsync(new HttpRequest(baseUrl + "/hello?name=executor"), null, httpAsyncConfig)
+                                        .get());
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    public void testRejected() throws Exception{
+        Executor executor = runnable -> {
+            throw new RejectedExecutionException("full");
+        };
+        CompletableFuture<String> future = HttpClientUtil
+                        .getResponseBodyAsStringAsync(new HttpRequest(baseUrl + "/hello"), null, new HttpAsyncConfig(executor, 0));
+        try{
+            future.get();
+            fail();
+        }catch (ExecutionException e){
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testInstanceReadOnly(){
+        HttpAsyncConfig.INSTANCE.setTimeout(100);
+    }
+
+    @Test
+    public void testNewConfigWritable(){
+        HttpAsyncConfig httpAsyncConfig = new HttpAsyncConfig();
+        httpAsyncConfig.setTimeout(100);
+        assertEquals(100, httpAsyncConfig.getTimeout());
+        assertEquals(0, HttpAsyncConfig.INSTANCE.getTimeout());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNull(){
+        HttpClientUtil.getHttpResponseAsync(null, null);
+    }
+
+    //---------------------------------------------------------------
+
+    private static void write(HttpExchange exchange,String body) throws IOException{
+        byte[] bytes = body.getBytes(UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()){
+            outputStream.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis){
+        try{
+            Thread.sleep(millis);
+        }catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+    }
+}
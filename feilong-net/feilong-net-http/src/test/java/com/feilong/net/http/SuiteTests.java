@@ -30,6 +30,7 @@ import org.junit.runners.Suite.SuiteClasses;
                 PutWithParamsTest.class,
 
                 HttpClientUtilUriSpaceTest.class,
+                HttpClientUtilAsyncTest.class,
         //                
 })
 public class SuiteTests{
@@ -22,6 +22,7 @@ import com.feilong.json.JsonUtil;
 import com.feilong.net.mail.builder.MessageBuilder;
 import com.feilong.net.mail.entity.MailSendConnectionConfig;
 import com.feilong.net.mail.entity.MailSendRequest;
+import com.feilong.net.mail.transport.TransportPool;
 import com.feilong.net.mail.util.MessageSendUtil;
 
 /**
@@ -33,6 +34,7 @@ import com.feilong.net.mail.util.MessageSendUtil;
  * @see "org.springframework.mail.MailSender"
  * @see "org.springframework.mail.javamail.JavaMailSenderImpl"
  * @see javax.mail.Transport#send(javax.mail.Message)
+ * @see TransportPool
  * @since 1.1.1
  */
 @lombok.extern.slf4j.Slf4j
@@ -81,8 +83,10 @@ public final class DefaultMailSender implements MailSender{
         }
 
         //---------------------------------------------------------------
-        Message message = MessageBuilder.build(mailSendRequest, mailSendConnectionConfig);
-        MessageSendUtil.send(message);
+        //since 4.5.5 使用连接池的 session 构造 message, 并且复用连接池里已经连接的 transport
+        TransportPool transportPool = MessageSendUtil.getTransportPool(mailSendConnectionConfig);
+        Message message = MessageBuilder.build(mailSendRequest, transportPool.getSession());
+        MessageSendUtil.send(message, mailSendConnectionConfig);
     }
 
     //---------------------------------------------------------------
@@ -15,6 +15,11 @@
  */
 package com.feilong.net.mail;
 
+import static com.feilong.core.lang.StringUtil.formatPattern;
+
+import java.util.List;
+
+import com.feilong.core.Validate;
 import com.feilong.net.mail.entity.MailSendRequest;
 import com.feilong.net.mail.exception.MailException;
 
@@ -38,4 +43,47 @@ public interface MailSender{
      *             邮件发送时候的异常
      */
     void send(MailSendRequest mailSendRequest);
+
+    /**
+     * 批量发送邮件.
+     * 
+     * <p>
+     * 逐封调用 {@link #send(MailSendRequest)}, 某一封发送失败不影响后面的发送; 全部发送完之后, 如果有失败的, 抛出 {@link MailException},
+     * 第一个失败的异常作为 cause, 其余的作为 {@link Throwable#getSuppressed()}.<br>
+     * 默认的 {@link DefaultMailSender} 使用连接池发送, 整批邮件复用同一个 smtp 连接.
+     * </p>
+     *
+     * @param mailSendRequestList
+     *            the mail send request list
+     * @throws NullPointerException
+     *             如果 <code>mailSendRequestList</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>mailSendRequestList</code> 是empty
+     * @throws MailException
+     *             有邮件发送失败
+     * @since 4.5.5
+     */
+    default void send(List<MailSendRequest> mailSendRequestList){
+        Validate.notEmpty(mailSendRequestList, "mailSendRequestList can't be null/empty!");
+
+        RuntimeException firstException = null;
+        int failCount = 0;
+        for (MailSendRequest mailSendRequest : mailSendRequestList){
+            try{
+                send(mailSendRequest);
+            }catch (RuntimeException e){
+                failCount++;
+                if (null == firstException){
+                    firstException = e;
+                }else{
+                    firstException.addSuppressed(e);
+                }
+            }
+        }
+
+        //---------------------------------------------------------------
+        if (failCount > 0){
+            throw new MailException(formatPattern("send [{}] mails,[{}] failed", mailSendRequestList.size(), failCount), firstException);
+        }
+    }
 }
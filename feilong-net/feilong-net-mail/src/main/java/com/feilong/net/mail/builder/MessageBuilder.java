@@ -60,12 +60,26 @@ public class MessageBuilder{
      * @since 1.10.2
      */
     public static Message build(MailSendRequest mailSendRequest,MailSendConnectionConfig mailSendConnectionConfig){
-        // 根据session创建一个邮件消息
-
         // 根据邮件会话属性和密码验证器构造一个发送邮件的session
         Session session = SessionFactory.createSession(mailSendConnectionConfig);
+        return build(mailSendRequest, session);
+    }
 
-        //---------------------------------------------------------------
+    /**
+     * 使用指定的 <code>session</code> 构造Message.
+     * 
+     * <p>
+     * 比如使用 {@link com.feilong.net.mail.transport.TransportPool#getSession()}, 不需要每次都创建 session.
+     * </p>
+     *
+     * @param mailSendRequest
+     *            the mail sender config
+     * @param session
+     *            the session
+     * @return the message
+     * @since 4.5.5
+     */
+    public static Message build(MailSendRequest mailSendRequest,Session session){
         // 根据session创建一个邮件消息
         Message message = new MimeMessage(session);
         try{
@@ -49,6 +49,32 @@ public class MailSendConnectionConfig extends BaseConfig{
      * @since 1.13.2
      */
     private boolean isSmtpSSLEnable      = false;
+
+    //---------------------------------------------------------------
+
+    /**
+     * 连接池里最多同时存在的已连接 {@link javax.mail.Transport} 数量.
+     * 
+     * <p>
+     * 相同连接参数(host,port,用户名,密码,ssl等)的发送共用一个连接池, 多线程发送时, 最多会建立这么多个 smtp 连接, 超过的线程等待;<br>
+     * 注意很多邮件服务商会限制同一个账号的并发连接数, 不要设置太大.
+     * </p>
+     * 
+     * @since 4.5.5
+     */
+    private int     transportPoolMaxSize = 4;
+
+    /**
+     * 连接池里的 {@link javax.mail.Transport} 最大空闲时间, 单位毫秒.
+     * 
+     * <p>
+     * 超过这个时间没有使用的连接, 下次获取的时候会被关闭并重新连接, 避免使用已经被服务器断开的连接.
+     * </p>
+     * 
+     * @since 4.5.5
+     */
+    private long    transportIdleTimeout = 60_000L;
+
     //---------------------------------------------------------------
 
     /**
@@ -119,4 +145,48 @@ public class MailSendConnectionConfig extends BaseConfig{
         this.isSmtpStarttlsEnable = isSmtpStarttlsEnable;
     }
 
+    //---------------------------------------------------------------
+
+    /**
+     * 连接池里最多同时存在的已连接 {@link javax.mail.Transport} 数量.
+     *
+     * @return the transportPoolMaxSize
+     * @since 4.5.5
+     */
+    public int getTransportPoolMaxSize(){
+        return transportPoolMaxSize;
+    }
+
+    /**
+     * 连接池里最多同时存在的已连接 {@link javax.mail.Transport} 数量.
+     *
+     * @param transportPoolMaxSize
+     *            the transportPoolMaxSize to set
+     * @since 4.5.5
+     */
+    public void setTransportPoolMaxSize(int transportPoolMaxSize){
+        this.transportPoolMaxSize = transportPoolMaxSize;
+    }
+
+    /**
+     * 连接池里的 {@link javax.mail.Transport} 最大空闲时间, 单位毫秒.
+     *
+     * @return the transportIdleTimeout
+     * @since 4.5.5
+     */
+    public long getTransportIdleTimeout(){
+        return transportIdleTimeout;
+    }
+
+    /**
+     * 连接池里的 {@link javax.mail.Transport} 最大空闲时间, 单位毫秒.
+     *
+     * @param transportIdleTimeout
+     *            the transportIdleTimeout to set
+     * @since 4.5.5
+     */
+    public void setTransportIdleTimeout(long transportIdleTimeout){
+        this.transportIdleTimeout = transportIdleTimeout;
+    }
+
 }
\ No newline at end of file
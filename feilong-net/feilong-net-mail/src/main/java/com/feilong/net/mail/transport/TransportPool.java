@@ -0,0 +1,332 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.net.mail.transport;
+
+import java.io.Closeable;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.mail.Address;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+
+import com.feilong.core.Validate;
+import com.feilong.net.mail.builder.AuthenticatorBuilder;
+import com.feilong.net.mail.builder.SessionPropertiesBuilder;
+import com.feilong.net.mail.entity.MailSendConnectionConfig;
+import com.feilong.net.mail.exception.MailException;
+
+/**
+ * 已连接 {@link Transport} 的连接池.
+ * 
+ * <h3>为什么需要:</h3>
+ * 
+ * <blockquote>
+ * <p>
+ * {@link Transport#send(Message)} 每发送一封邮件, 都会 建立 smtp 连接,EHLO,认证(AUTH),发送,QUIT 关闭连接;<br>
+ * 批量发送成千上万封通知邮件的时候, 大部分时间花在建立连接和认证上.<br>
+ * 连接池复用已经认证过的连接, 每封邮件只需要 MAIL FROM/RCPT TO/DATA.
+ * </p>
+ * </blockquote>
+ * 
+ * <h3>说明:</h3>
+ * 
+ * <blockquote>
+ * <ol>
+ * <li>最多同时存在 {@link MailSendConnectionConfig#getTransportPoolMaxSize()} 个连接, 超过的线程等待归还.</li>
+ * <li>空闲超过 {@link MailSendConnectionConfig#getTransportIdleTimeout()} 的连接, 在下次获取的时候关闭并重新连接.</li>
+ * <li>发送失败的时候, 如果连接已经断开(比如服务器超时断开,或者达到单连接邮件数量限制), 那么重新连接并重试一次;<br>
+ * 如果连接没有断开(比如收件人地址错误), 那么直接抛出异常, 连接继续复用.</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @see com.feilong.net.mail.util.MessageSendUtil#send(Message, MailSendConnectionConfig)
+ * @since 4.5.5
+ */
+@lombok.extern.slf4j.Slf4j
+public class TransportPool implements Closeable{
+
+    /** 连接使用的 session, 每个连接池独立一个, 不使用 {@link Session#getDefaultInstance(java.util.Properties)}. */
+    private final Session                session;
+
+    /** 最大空闲时间,单位毫秒. */
+    private final long                   idleTimeout;
+
+    /** 控制同时借出的连接数量. */
+    private final Semaphore              semaphore;
+
+    /** 空闲的连接, 后进先出, 优先使用最近用过的连接. */
+    private final Deque<PooledTransport> idleTransports = new ConcurrentLinkedDeque<>();
+
+    /** 建立连接的次数. */
+    private final AtomicLong             connectCount   = new AtomicLong();
+
+    /** 是否已经关闭. */
+    private volatile boolean             closed;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new transport pool.
+     *
+     * @param mailSendConnectionConfig
+     *            the mail send connection config
+     * @throws NullPointerException
+     *             如果 <code>mailSendConnectionConfig</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>mailSendConnectionConfig.getTransportPoolMaxSize()</code> 或者
+     *             <code>mailSendConnectionConfig.getTransportIdleTimeout()</code> 不大于0
+     */
+    public TransportPool(MailSendConnectionConfig mailSendConnectionConfig){
+        Validate.notNull(mailSendConnectionConfig, "mailSendConnectionConfig can't be null!");
+        int maxSize = mailSendConnectionConfig.getTransportPoolMaxSize();
+        Validate.isTrue(maxSize > 0, "transportPoolMaxSize:[%s] must > 0", maxSize);
+        Validate.isTrue(
+                        mailSendConnectionConfig.getTransportIdleTimeout() > 0,
+                        "transportIdleTimeout:[%s] must > 0",
+                        mailSendConnectionConfig.getTransportIdleTimeout());
+
+        //---------------------------------------------------------------
+        this.session = Session.getInstance(
+                        SessionPropertiesBuilder.build(mailSendConnectionConfig),
+                        AuthenticatorBuilder.build(mailSendConnectionConfig));
+        this.session.setDebug(mailSendConnectionConfig.getIsDebug());
+
+        this.idleTimeout = mailSendConnectionConfig.getTransportIdleTimeout();
+        this.semaphore = new Semaphore(maxSize, true);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用连接池里的连接发送邮件.
+     *
+     * @param message
+     *            the message
+     * @throws MessagingException
+     *             连接或者发送失败
+     * @throws NullPointerException
+     *             如果 <code>message</code> 是null
+     * @throws IllegalStateException
+     *             如果连接池已经关闭
+     * @throws MailException
+     *             如果等待连接的时候线程被中断
+     */
+    public void send(Message message) throws MessagingException{
+        Validate.notNull(message, "message can't be null!");
+        Validate.validState(!closed, "transport pool is closed");
+
+        //---------------------------------------------------------------
+        //和 Transport.send(message) 一样, 先更新 message headers
+        message.saveChanges();
+        Address[] allRecipients = message.getAllRecipients();
+
+        acquire();
+        try{
+            PooledTransport pooledTransport = borrow();
+            try{
+                pooledTransport.transport.sendMessage(message, allRecipients);
+            }catch (MessagingException e){
+                if (pooledTransport.transport.isConnected()){
+                    //连接还可用, 比如收件人地址错误
+                    giveBack(pooledTransport);
+                    throw e;
+                }
+
+                //---------------------------------------------------------------
+                log.info("transport disconnected when send message,will reconnect and retry,cause:[{}]", e.getMessage());
+                close(pooledTransport);
+
+                pooledTransport = connect();
+                try{
+                    pooledTransport.transport.sendMessage(message, allRecipients);
+                }catch (MessagingException e1){
+                    e1.addSuppressed(e);
+                    giveBackOrClose(pooledTransport);
+                    throw e1;
+                }
+            }
+            giveBack(pooledTransport);
+        }finally{
+            semaphore.release();
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 关闭连接池, 以及所有的空闲连接; 正在使用的连接, 归还的时候关闭.
+     */
+    @Override
+    public void close(){
+        closed = true;
+        PooledTransport pooledTransport;
+        while (null != (pooledTransport = idleTransports.pollFirst())){
+            close(pooledTransport);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 连接池使用的 session, 可以用来构造 {@link Message}.
+     *
+     * @return the session
+     */
+    public Session getSession(){
+        return session;
+    }
+
+    /**
+     * 建立连接的次数(包括断开之后的重新连接).
+     *
+     * @return the connect count
+     */
+    public long getConnectCount(){
+        return connectCount.get();
+    }
+
+    /**
+     * 当前空闲连接的数量.
+     *
+     * @return the idle count
+     */
+    public int getIdleCount(){
+        return idleTransports.size();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得许可.
+     */
+    private void acquire(){
+        try{
+            semaphore.acquire();
+        }catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new MailException("interrupted when waiting for transport", e);
+        }
+    }
+
+    /**
+     * 获得空闲的连接, 如果没有那么新建连接.
+     *
+     * @return the pooled transport
+     * @throws MessagingException
+     *             连接失败
+     */
+    private PooledTransport borrow() throws MessagingException{
+        long now = System.currentTimeMillis();
+        PooledTransport pooledTransport;
+        while (null != (pooledTransport = idleTransports.pollFirst())){
+            if (now - pooledTransport.lastUsedTime <= idleTimeout){
+                return pooledTransport;
+            }
+            log.debug("transport idle more than:[{}]ms,close it", idleTimeout);
+            close(pooledTransport);
+        }
+        return connect();
+    }
+
+    /**
+     * 新建连接.
+     *
+     * @return the pooled transport
+     * @throws MessagingException
+     *             连接失败
+     */
+    private PooledTransport connect() throws MessagingException{
+        Transport transport = session.getTransport("smtp");
+        transport.connect();
+        connectCount.incrementAndGet();
+        return new PooledTransport(transport);
+    }
+
+    /**
+     * 归还连接.
+     *
+     * @param pooledTransport
+     *            the pooled transport
+     */
+    private void giveBack(PooledTransport pooledTransport){
+        pooledTransport.lastUsedTime = System.currentTimeMillis();
+        idleTransports.offerFirst(pooledTransport);
+
+        //归还的同时连接池被关闭了
+        if (closed && idleTransports.remove(pooledTransport)){
+            close(pooledTransport);
+        }
+    }
+
+    /**
+     * 如果连接可用那么归还, 否则关闭.
+     *
+     * @param pooledTransport
+     *            the pooled transport
+     */
+    private void giveBackOrClose(PooledTransport pooledTransport){
+        if (pooledTransport.transport.isConnected()){
+            giveBack(pooledTransport);
+        }else{
+            close(pooledTransport);
+        }
+    }
+
+    /**
+     * 关闭连接, 忽略异常.
+     *
+     * @param pooledTransport
+     *            the pooled transport
+     */
+    private static void close(PooledTransport pooledTransport){
+        try{
+            pooledTransport.transport.close();
+        }catch (MessagingException e){
+            log.debug("close transport exception", e);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 连接以及最后使用时间.
+     */
+    private static final class PooledTransport{
+
+        /** The transport. */
+        private final Transport transport;
+
+        /** 最后使用时间. */
+        private long            lastUsedTime;
+
+        /**
+         * Instantiates a new pooled transport.
+         *
+         * @param transport
+         *            the transport
+         */
+        private PooledTransport(Transport transport){
+            this.transport = transport;
+            this.lastUsedTime = System.currentTimeMillis();
+        }
+    }
+}
@@ -18,6 +18,11 @@ package com.feilong.net.mail.util;
 import static com.feilong.core.lang.StringUtil.EMPTY;
 import static com.feilong.core.lang.StringUtil.formatPattern;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import javax.activation.CommandMap;
 import javax.activation.MailcapCommandMap;
 import javax.mail.Address;
@@ -25,7 +30,10 @@ import javax.mail.Message;
 import javax.mail.MessagingException;
 import javax.mail.Transport;
 
+import com.feilong.core.Validate;
+import com.feilong.net.mail.entity.MailSendConnectionConfig;
 import com.feilong.net.mail.exception.MailException;
+import com.feilong.net.mail.transport.TransportPool;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -39,6 +47,18 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class MessageSendUtil{
 
+    /** 连接池, key 是连接参数(host,port,用户名,密码,ssl等), 相同连接参数的 {@link MailSendConnectionConfig} 共用一个连接池. */
+    private static final Map<List<Object>, TransportPool> TRANSPORT_POOL_MAP = new ConcurrentHashMap<>();
+
+    //---------------------------------------------------------------
+
+    static{
+        //since 4.5.5 只需要设置一次, 不需要每次发送都设置
+        setDefaultCommandMap();
+    }
+
+    //---------------------------------------------------------------
+
     /**
      * 发送.
      *
@@ -47,10 +67,6 @@ public class MessageSendUtil{
      * @since 1.10.2
      */
     public static void send(Message message){
-
-        setDefaultCommandMap();
-
-        //---------------------------------------------------------------
         try{
             // 发送邮件
             Transport.send(message);
@@ -59,6 +75,93 @@ public class MessageSendUtil{
         }
     }
 
+    /**
+     * 使用 <code>mailSendConnectionConfig</code> 对应的连接池发送.
+     * 
+     * <p>
+     * 和 {@link #send(Message)} 每次建立新的 smtp 连接不同, 相同连接参数的发送复用已经连接并认证过的 {@link Transport}, 适合大量发送.
+     * </p>
+     *
+     * @param message
+     *            the message
+     * @param mailSendConnectionConfig
+     *            the mail send connection config
+     * @throws NullPointerException
+     *             如果 <code>message</code> 或者 <code>mailSendConnectionConfig</code> 是null
+     * @throws MailException
+     *             发送失败
+     * @see TransportPool
+     * @since 4.5.5
+     */
+    public static void send(Message message,MailSendConnectionConfig mailSendConnectionConfig){
+        Validate.notNull(message, "message can't be null!");
+        Validate.notNull(mailSendConnectionConfig, "mailSendConnectionConfig can't be null!");
+
+        try{
+            getTransportPool(mailSendConnectionConfig).send(message);
+        }catch (MessagingException e){
+            throw new MailException(createLog(message), e);
+        }
+    }
+
+    /**
+     * 关闭所有的连接池, 比如应用关闭的时候调用.
+     * 
+     * <p>
+     * 关闭之后再调用 {@link #send(Message, MailSendConnectionConfig)}, 会创建新的连接池.
+     * </p>
+     *
+     * @since 4.5.5
+     */
+    public static void closeTransportPools(){
+        for (List<Object> key : TRANSPORT_POOL_MAP.keySet()){
+            TransportPool transportPool = TRANSPORT_POOL_MAP.remove(key);
+            if (null != transportPool){
+                transportPool.close();
+            }
+        }
+    }
+
+    /**
+     * 获得 <code>mailSendConnectionConfig</code> 对应的连接池, 如果还没有创建过, 那么创建.
+     *
+     * @param mailSendConnectionConfig
+     *            the mail send connection config
+     * @return the transport pool
+     * @throws NullPointerException
+     *             如果 <code>mailSendConnectionConfig</code> 是null
+     * @since 4.5.5
+     */
+    public static TransportPool getTransportPool(MailSendConnectionConfig mailSendConnectionConfig){
+        Validate.notNull(mailSendConnectionConfig, "mailSendConnectionConfig can't be null!");
+        return TRANSPORT_POOL_MAP
+                        .computeIfAbsent(toTransportPoolKey(mailSendConnectionConfig), key -> new TransportPool(mailSendConnectionConfig));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 连接池的 key.
+     *
+     * @param mailSendConnectionConfig
+     *            the mail send connection config
+     * @return the list
+     * @since 4.5.5
+     */
+    private static List<Object> toTransportPoolKey(MailSendConnectionConfig mailSendConnectionConfig){
+        return Arrays.asList(
+                        mailSendConnectionConfig.getServerHost(),
+                        mailSendConnectionConfig.getServerPort(),
+                        mailSendConnectionConfig.getUserName(),
+                        mailSendConnectionConfig.getPassword(),
+                        mailSendConnectionConfig.getIsValidate(),
+                        mailSendConnectionConfig.getIsDebug(),
+                        mailSendConnectionConfig.getIsSmtpSSLEnable(),
+                        mailSendConnectionConfig.getIsSmtpStarttlsEnable(),
+                        mailSendConnectionConfig.getTransportPoolMaxSize(),
+                        mailSendConnectionConfig.getTransportIdleTimeout());
+    }
+
     //---------------------------------------------------------------
 
     /**
@@ -20,6 +20,7 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 import com.feilong.net.mail.setter.RecipientsSetterTest;
+import com.feilong.net.mail.transport.TransportPoolTest;
 
 @RunWith(Suite.class)
 @SuiteClasses({ //
@@ -28,6 +29,8 @@ import com.feilong.net.mail.setter.RecipientsSetterTest;
                 AttachSenderSimpleTest.class,
 
                 HelloWorldTest.class,
+
+                TransportPoolTest.class,
         //                
 })
 public class SuiteTests{
@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.net.mail.transport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.feilong.net.mail.DefaultMailSender;
+import com.feilong.net.mail.MailSender;
+import com.feilong.net.mail.entity.MailSendConnectionConfig;
+import com.feilong.net.mail.entity.MailSendRequest;
+import com.feilong.net.mail.exception.MailException;
+import com.feilong.net.mail.util.MessageSendUtil;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+
+/**
+ * {@link TransportPool} 以及批量发送测试, 基于本地的 GreenMail smtp server.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+public class TransportPoolTest{
+
+    private static final String      FROM = "feilong@feilong.com";
+
+    private GreenMail                greenMail;
+
+    private MailSendConnectionConfig mailSendConnectionConfig;
+
+    private MailSender               mailSender;
+
+    //---------------------------------------------------------------
+
+    @Before
+    public void before() throws IOException{
+        int port;
+        try (ServerSocket serverSocket = new ServerSocket(0)){
+            port = serverSocket.getLocalPort();
+        }
+        greenMail = new GreenMail(new ServerSetup(port, "127.0.0.1", ServerSetup.PROTOCOL_SMTP));
+        greenMail.setUser(FROM, "feilong", "123456");
+        greenMail.start();
+
+        mailSendConnectionConfig = new MailSendConnectionConfig();
+        mailSendConnectionConfig.setServerHost("127.0.0.1");
+        mailSendConnectionConfig.setServerPort("" + port);
+        mailSendConnectionConfig.setUserName("feilong");
+        mailSendConnectionConfig.setPassword("123456");
+
+        mailSender = new DefaultMailSender(mailSendConnectionConfig);
+    }
+
+    @After
+    public void after(){
+        MessageSendUtil.closeTransportPools();
+        greenMail.stop();
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testSendBatchReuseConnection(){
+        mailSender.send(buildMailSendRequestList(20));
+
+        assertEquals(20, greenMail.getReceivedMessages().length);
+
+        TransportPool transportPool = MessageSendUtil.getTransportPool(mailSendConnectionConfig);
+        assertEquals(1, transportPool.getConnectCount());
+        assertEquals(1, transportPool.getIdleCount());
+    }
+
+    @Test
+    public void testSendConcurrentMaxSize() throws Exception{
+        mailSendConnectionConfig.setTransportPoolMaxSize(2);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try{
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; ++i){
+                futures.add(executorService.submit(() -> mailSender.send(buildMailSendRequestList(10))));
+            }
+            for (Future<?> future : futures){
+                future.get();
+            }
+        }finally{
+            executorService.shutdownNow();
+        }
+
+        assertEquals(40, greenMail.getReceivedMessages().length);
+        assertTrue(MessageSendUtil.getTransportPool(mailSendConnectionConfig).getConnectCount() <= 2);
+    }
+
+    @Test
+    public void testSendIdleTimeout() throws InterruptedException{
+        mailSendConnectionConfig.setTransportIdleTimeout(1);
+
+        mailSender.send(buildMailSendRequestList(1));
+        Thread.sleep(20);
+        mailSender.send(buildMailSendRequestList(1));
+
+        assertEquals(2, greenMail.getReceivedMessages().length);
+        assertEquals(2, MessageSendUtil.getTransportPool(mailSendConnectionConfig).getConnectCount());
+    }
+
+    @Test
+    public void testSendReconnectAfterServerRestart(){
+        mailSender.send(buildMailSendRequestList(1));
+
+        //服务器重启, 池里的连接已经断开
+        greenMail.reset();
+        greenMail.setUser(FROM, "feilong", "123456");
+
+        mailSender.send(buildMailSendRequestList(1));
+
+        assertEquals(1, greenMail.getReceivedMessages().length);
+        assertEquals(2, MessageSendUtil.getTransportPool(mailSendConnectionConfig).getConnectCount());
+    }
+
+    @Test
+    public void testSendBatchPartialFailure(){
+        List<MailSendRequest> mailSendRequestList = buildMailSendRequestList(3);
+        mailSendRequestList.get(1).setSubject(" ");
+        try{
+            mailSender.send(mailSendRequestList);
+            fail();
+        }catch (MailException e){
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+        assertEquals(2, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    public void testCloseTransportPools(){
+        mailSender.send(buildMailSendRequestList(1));
+        TransportPool transportPool = MessageSendUtil.getTransportPool(mailSendConnectionConfig);
+        MessageSendUtil.closeTransportPools();
+
+        assertEquals(0, transportPool.getIdleCount());
+        assertNotSame(transportPool, MessageSendUtil.getTransportPool(mailSendConnectionConfig));
+
+        mailSender.send(buildMailSendRequestList(1));
+        assertEquals(2, greenMail.getReceivedMessages().length);
+    }
+
+    //---------------------------------------------------------------
+
+    @Test(expected = IllegalStateException.class)
+    public void testSendClosed() throws Exception{
+        TransportPool transportPool = new TransportPool(mailSendConnectionConfig);
+        transportPool.close();
+        transportPool.send(new javax.mail.internet.MimeMessage((javax.mail.Session) null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTransportPoolMaxSizeZero(){
+        mailSendConnectionConfig.setTransportPoolMaxSize(0);
+        new TransportPool(mailSendConnectionConfig);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testSendBatchNull(){
+        mailSender.send((List<MailSendRequest>) null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSendBatchEmpty(){
+        mailSender.send(new ArrayList<MailSendRequest>());
+    }
+
+    //---------------------------------------------------------------
+
+    private static List<MailSendRequest> buildMailSendRequestList(int count){
+        List<MailSendRequest> list = new ArrayList<>();
+        for (int i = 0; i < count; ++i){
+            MailSendRequest mailSendRequest = new MailSendRequest();
+            mailSendRequest.setFromAddress(FROM);
+            mailSendRequest.setTos("user" + i + "@feilong.com");
+            mailSendRequest.setSubject("notification " + i);
+            mailSendRequest.setContent("hello " + i);
+            mailSendRequest.setIsDefaultCcSelf(false);
+            list.add(mailSendRequest);
+        }
+        return list;
+    }
+}
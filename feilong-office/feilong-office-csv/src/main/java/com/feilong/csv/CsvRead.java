@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.csv;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.function.Consumer;
+
+import com.feilong.csv.entity.BeanCsvConfig;
+import com.feilong.csv.entity.CsvConfig;
+
+/**
+ * csv 读取.
+ * 
+ * <p>
+ * 所有的方法都是流式的: 每解析出一条记录就回调一次 <code>consumer</code>, 不会把整个文件读到内存, 内存占用和行数无关, 适合导入几百万行的数据.<br>
+ * 解析规则见 {@link com.feilong.csv.handler.CsvTokenizer}, 可以正确读取 {@link CsvWrite} 输出的文件(包括包裹在双引号里面的分隔符,双引号以及换行).
+ * </p>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @see CsvWrite
+ * @since 4.5.5
+ */
+public interface CsvRead{
+
+    //------------------array---------------------------------------------
+
+    /**
+     * 读取 csv 文件, 每条记录(包括标题行)调用一次 <code>rowConsumer</code>.
+     * 
+     * <p>
+     * 如果 <code>fileName</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>fileName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     * 如果 <code>csvConfig</code> 是null,会使用默认的 <code>csvConfig</code><br>
+     * 如果 <code>rowConsumer</code> 是null,抛出 {@link NullPointerException}<br>
+     * </p>
+     *
+     * @param fileName
+     *            文件名称,全路径
+     * @param csvConfig
+     *            使用 {@link CsvConfig#getEncode()} 解码, {@link CsvConfig#getSeparator()} 分隔字段
+     * @param rowConsumer
+     *            每条记录的处理
+     * @return 记录条数
+     */
+    long read(String fileName,CsvConfig csvConfig,Consumer<String[]> rowConsumer);
+
+    /**
+     * 读取 <code>inputStream</code>, 每条记录(包括标题行)调用一次 <code>rowConsumer</code>.
+     * 
+     * <p>
+     * 使用 {@link CsvConfig#getEncode()} 解码, <b>不会关闭</b> <code>inputStream</code>, 由调用方负责.
+     * </p>
+     *
+     * @param inputStream
+     *            the input stream
+     * @param csvConfig
+     *            the csv config, 如果是null,会使用默认的 <code>csvConfig</code>
+     * @param rowConsumer
+     *            每条记录的处理
+     * @return 记录条数
+     * @see #read(Reader, CsvConfig, Consumer)
+     */
+    long read(InputStream inputStream,CsvConfig csvConfig,Consumer<String[]> rowConsumer);
+
+    /**
+     * 读取 <code>reader</code>, 每条记录(包括标题行)调用一次 <code>rowConsumer</code>.
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * csvRead.read(new StringReader("a,b\r\n\"1,1\",\"2\"\"2\""), null, row -{@code >} log.info(Arrays.toString(row)));
+     * </pre>
+     * 
+     * <b>输出:</b>
+     * 
+     * <pre class="code">
+     * [a, b]
+     * [1,1, 2"2]
+     * </pre>
+     * 
+     * </blockquote>
+     * 
+     * <p>
+     * <b>不会关闭</b> <code>reader</code>, 由调用方负责.<br>
+     * 如果 <code>reader</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>rowConsumer</code> 是null,抛出 {@link NullPointerException}<br>
+     * </p>
+     *
+     * @param reader
+     *            the reader
+     * @param csvConfig
+     *            the csv config, 如果是null,会使用默认的 <code>csvConfig</code>
+     * @param rowConsumer
+     *            每条记录的处理
+     * @return 记录条数
+     */
+    long read(Reader reader,CsvConfig csvConfig,Consumer<String[]> rowConsumer);
+
+    //------------------bean---------------------------------------------
+
+    /**
+     * 读取 csv 文件, 每条记录转成 bean 之后调用一次 <code>beanConsumer</code>.
+     * 
+     * <p>
+     * 如果 <code>fileName</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>fileName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     * </p>
+     *
+     * @param <T>
+     *            the generic type
+     * @param fileName
+     *            文件名称,全路径
+     * @param beanCsvConfig
+     *            the bean csv config
+     * @param beanConsumer
+     *            每个 bean 的处理
+     * @return bean 的个数(不包括标题行)
+     * @see #readBeans(Reader, BeanCsvConfig, Consumer)
+     */
+    <T> long readBeans(String fileName,BeanCsvConfig<T> beanCsvConfig,Consumer<T> beanConsumer);
+
+    /**
+     * 读取 <code>inputStream</code>, 每条记录转成 bean 之后调用一次 <code>beanConsumer</code>.
+     * 
+     * <p>
+     * 使用 {@link BeanCsvConfig#getEncode()} 解码, <b>不会关闭</b> <code>inputStream</code>, 由调用方负责.
+     * </p>
+     *
+     * @param <T>
+     *            the generic type
+     * @param inputStream
+     *            the input stream
+     * @param beanCsvConfig
+     *            the bean csv config
+     * @param beanConsumer
+     *            每个 bean 的处理
+     * @return bean 的个数(不包括标题行)
+     * @see #readBeans(Reader, BeanCsvConfig, Consumer)
+     */
+    <T> long readBeans(InputStream inputStream,BeanCsvConfig<T> beanCsvConfig,Consumer<T> beanConsumer);
+
+    /**
+     * 读取 <code>reader</code>, 每条记录转成 bean 之后调用一次 <code>beanConsumer</code>.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>如果 {@link BeanCsvConfig#getIsPrintHeaderLine()} 是true(默认), 第一条记录是标题行, 按照标题对应属性(标题可以是
+     * {@link com.feilong.csv.entity.CsvColumn#name()} 或者属性名), 对应不上的列忽略</li>
+     * <li>如果 {@link BeanCsvConfig#getIsPrintHeaderLine()} 是false, 按照 {@link CsvWrite} 输出的列顺序对应</li>
+     * <li>字符串会使用 {@link com.feilong.core.bean.ConvertUtil#convert(Object, Class)} 转成属性的类型, 空字符串不会设置</li>
+     * <li>bean 需要有 public 的无参构造函数</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * BeanCsvConfig{@code <User>} beanCsvConfig = new BeanCsvConfig{@code <>}(User.class);
+     * csvRead.readBeans(reader, beanCsvConfig, user -{@code >} userService.save(user));
+     * </pre>
+     * 
+     * </blockquote>
+     * 
+     * <p>
+     * <b>不会关闭</b> <code>reader</code>, 由调用方负责.<br>
+     * 如果 <code>reader</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>beanCsvConfig</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>beanCsvConfig.getBeanClass()</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>beanConsumer</code> 是null,抛出 {@link NullPointerException}<br>
+     * </p>
+     *
+     * @param <T>
+     *            the generic type
+     * @param reader
+     *            the reader
+     * @param beanCsvConfig
+     *            the bean csv config
+     * @param beanConsumer
+     *            每个 bean 的处理
+     * @return bean 的个数(不包括标题行)
+     */
+    <T> long readBeans(Reader reader,BeanCsvConfig<T> beanCsvConfig,Consumer<T> beanConsumer);
+}
@@ -15,6 +15,9 @@
  */
 package com.feilong.csv;
 
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Iterator;
 import java.util.List;
 
 import com.feilong.core.bean.ConvertUtil;
@@ -220,6 +223,78 @@ public interface CsvWrite{
      */
     <T> void write(String fileName,Iterable<T> iterable,BeanCsvConfig<T> beanCsvConfig);
 
+    //------------------stream---------------------------------------------
+
+    /**
+     * 将迭代器里面的对象逐行写到 <code>outputStream</code>.
+     * 
+     * <p>
+     * 和 {@link #write(String, Iterable, BeanCsvConfig)} 不同, 本方法不会先把所有数据转换成 {@code List<Object[]>} 再拼接成一个大字符串,
+     * 而是每次从 <code>iterator</code> 取一个对象, 转换成一行直接输出, 内存占用和行数无关, 适合导出几百万行的数据(比如配合分页查询/游标实现的 {@link Iterator}).
+     * </p>
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * BeanCsvConfig{@code <User>} beanCsvConfig = new BeanCsvConfig{@code <>}(User.class);
+     * beanCsvConfig.setIsPrintBom(true);//excel 打开不乱码
+     * 
+     * csvWrite.write(response.getOutputStream(), userIterator, beanCsvConfig);
+     * </pre>
+     * 
+     * </blockquote>
+     * 
+     * <p>
+     * 使用 {@link BeanCsvConfig#getEncode()} 编码, 写完之后会 flush, 但是<b>不会关闭</b> <code>outputStream</code>, 由调用方负责.<br>
+     * 如果 <code>outputStream</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>iterator</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>beanCsvConfig</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>beanCsvConfig.getBeanClass()</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>iterator</code> 没有元素, 只输出标题行<br>
+     * </p>
+     *
+     * @param <T>
+     *            the generic type
+     * @param outputStream
+     *            输出流
+     * @param iterator
+     *            the iterator, 如果是 {@link Iterable}, 传入 {@link Iterable#iterator()} 即可
+     * @param beanCsvConfig
+     *            the bean csv config
+     * @since 4.5.5
+     */
+    <T> void write(OutputStream outputStream,Iterator<T> iterator,BeanCsvConfig<T> beanCsvConfig);
+
+    /**
+     * 将迭代器里面的对象逐行写到 <code>writer</code>.
+     * 
+     * <p>
+     * 写完之后会 flush, 但是<b>不会关闭</b> <code>writer</code>, 由调用方负责;编码由 <code>writer</code> 决定,
+     * 如果 {@link BeanCsvConfig#getIsPrintBom()} 是true, 并且 {@link BeanCsvConfig#getEncode()} 是 unicode 编码, 会在开头输出 BOM(U+FEFF) 字符.
+     * </p>
+     * 
+     * <p>
+     * 如果 <code>writer</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>iterator</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>beanCsvConfig</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>beanCsvConfig.getBeanClass()</code> 是null,抛出 {@link NullPointerException}<br>
+     * </p>
+     *
+     * @param <T>
+     *            the generic type
+     * @param writer
+     *            the writer
+     * @param iterator
+     *            the iterator, 如果是 {@link Iterable}, 传入 {@link Iterable#iterator()} 即可
+     * @param beanCsvConfig
+     *            the bean csv config
+     * @see #write(OutputStream, Iterator, BeanCsvConfig)
+     * @since 4.5.5
+     */
+    <T> void write(Writer writer,Iterator<T> iterator,BeanCsvConfig<T> beanCsvConfig);
+
     //------------------array---------------------------------------------
 
     /**
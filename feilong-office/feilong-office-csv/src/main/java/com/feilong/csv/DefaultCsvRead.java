@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.csv;
+
+import static com.feilong.core.CharsetType.UTF8;
+import static com.feilong.core.date.DateUtil.formatElapsedTime;
+import static com.feilong.core.lang.ObjectUtil.defaultIfNull;
+import static com.feilong.core.lang.ObjectUtil.defaultIfNullOrEmpty;
+import static com.feilong.core.lang.StringUtil.formatPattern;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.function.Consumer;
+
+import com.feilong.core.Validate;
+import com.feilong.csv.entity.BeanCsvConfig;
+import com.feilong.csv.entity.CsvConfig;
+import com.feilong.csv.handler.BeanRowMapper;
+import com.feilong.csv.handler.CsvTokenizer;
+import com.feilong.io.FileUtil;
+
+/**
+ * 默认的 csv 读取.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @see CsvTokenizer
+ * @see BeanRowMapper
+ * @since 4.5.5
+ */
+@SuppressWarnings("squid:S1192") //String literals should not be duplicated
+@lombok.extern.slf4j.Slf4j
+public class DefaultCsvRead implements CsvRead{
+
+    /** The Constant DEFAULT_CSV_CONFIG. */
+    private static final CsvConfig DEFAULT_CSV_CONFIG = new CsvConfig();
+
+    //---------------------------------------------------------------
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see com.feilong.csv.CsvRead#read(java.lang.String, com.feilong.csv.entity.CsvConfig, java.util.function.Consumer)
+     */
+    @Override
+    public long read(String fileName,CsvConfig csvConfig,Consumer<String[]> rowConsumer){
+        Validate.notBlank(fileName, "fileName can't be null/empty!");
+
+        //---------------------------------------------------------------
+        long beginTimeMillis = System.currentTimeMillis();
+        try (InputStream inputStream = FileUtil.getFileInputStream(fileName)){
+            long count = read(inputStream, csvConfig, rowConsumer);
+            if (log.isInfoEnabled()){
+                log.info("read file:[{}],records:[{}],use time:[{}]", fileName, count, formatElapsedTime(beginTimeMillis));
+            }
+            return count;
+        }catch (IOException e){
+            throw new UncheckedIOException(formatPattern("fileName:[{}]", fileName), e);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see com.feilong.csv.CsvRead#read(java.io.InputStream, com.feilong.csv.entity.CsvConfig, java.util.function.Consumer)
+     */
+    @Override
+    public long read(InputStream inputStream,CsvConfig csvConfig,Consumer<String[]> rowConsumer){
+        Validate.notNull(inputStream, "inputStream can't be null!");
+
+        CsvConfig useCsvConfig = defaultIfNull(csvConfig, DEFAULT_CSV_CONFIG);
+        //不能关闭, inputStream 由调用方负责关闭
+        return read(newReader(inputStream, useCsvConfig.getEncode()), useCsvConfig, rowConsumer);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see com.feilong.csv.CsvRead#read(java.io.Reader, com.feilong.csv.entity.CsvConfig, java.util.function.Consumer)
+     */
+    @Override
+    public long read(Reader reader,CsvConfig csvConfig,Consumer<String[]> rowConsumer){
+        Validate.notNull(reader, "reader can't be null!");
+        Validate.notNull(rowConsumer, "rowConsumer can't be null!");
+
+        //---------------------------------------------------------------
+        CsvTokenizer csvTokenizer = new CsvTokenizer(reader, defaultIfNull(csvConfig, DEFAULT_CSV_CONFIG));
+        try{
+            String[] row;
+            while (null != (row = csvTokenizer.next())){
+                rowConsumer.accept(row);
+            }
+            return csvTokenizer.getRecordCount();
+        }catch (IOException e){
+            throw new UncheckedIOException(formatPattern("read record:[{}] exception", csvTokenizer.getRecordCount() + 1), e);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see com.feilong.csv.CsvRead#readBeans(java.lang.String, com.feilong.csv.entity.BeanCsvConfig, java.util.function.Consumer)
+     */
+    @Override
+    public <T> long readBeans(String fileName,BeanCsvConfig<T> beanCsvConfig,Consumer<T> beanConsumer){
+        Validate.notBlank(fileName, "fileName can't be null/empty!");
+
+        //---------------------------------------------------------------
+        long beginTimeMillis = System.currentTimeMillis();
+        try (InputStream inputStream = FileUtil.getFileInputStream(fileName)){
+            long count = readBeans(inputStream, beanCsvConfig, beanConsumer);
+            if (log.isInfoEnabled()){
+                log.info("read file:[{}],beans:[{}],use time:[{}]", fileName, count, formatElapsedTime(beginTimeMillis));
+            }
+            return count;
+        }catch (IOException e){
+            throw new UncheckedIOException(formatPattern("fileName:[{}]", fileName), e);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see com.feilong.csv.CsvRead#readBeans(java.io.InputStream, com.feilong.csv.entity.BeanCsvConfig, java.util.function.Consumer)
+     */
+    @Override
+    public <T> long readBeans(InputStream inputStream,BeanCsvConfig<T> beanCsvConfig,Consumer<T> beanConsumer){
+        Validate.notNull(inputStream, "inputStream can't be null!");
+        Validate.notNull(beanCsvConfig, "beanCsvConfig can't be null!");
+
+        //不能关闭, inputStream 由调用方负责关闭
+        return readBeans(newReader(inputStream, beanCsvConfig.getEncode()), beanCsvConfig, beanConsumer);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see com.feilong.csv.CsvRead#readBeans(java.io.Reader, com.feilong.csv.entity.BeanCsvConfig, java.util.function.Consumer)
+     */
+    @Override
+    public <T> long readBeans(Reader reader,BeanCsvConfig<T> beanCsvConfig,Consumer<T> beanConsumer){
+        Validate.notNull(reader, "reader can't be null!");
+        Validate.notNull(beanCsvConfig, "beanCsvConfig can't be null!");
+        Validate.notNull(beanCsvConfig.getBeanClass(), "beanCsvConfig.getBeanClass() can't be null!");
+        Validate.notNull(beanConsumer, "beanConsumer can't be null!");
+
+        //---------------------------------------------------------------
+        CsvTokenizer csvTokenizer = new CsvTokenizer(reader, beanCsvConfig);
+        try{
+            String[] header = beanCsvConfig.getIsPrintHeaderLine() ? csvTokenizer.next() : null;
+            if (beanCsvConfig.getIsPrintHeaderLine() && null == header){
+                return 0;
+            }
+
+            //---------------------------------------------------------------
+            BeanRowMapper<T> beanRowMapper = new BeanRowMapper<>(beanCsvConfig, header);
+
+            long count = 0;
+            String[] row;
+            while (null != (row = csvTokenizer.next())){
+                beanConsumer.accept(beanRowMapper.map(row, csvTokenizer.getRecordCount()));
+                count++;
+            }
+            return count;
+        }catch (IOException e){
+            throw new UncheckedIOException(formatPattern("read record:[{}] exception", csvTokenizer.getRecordCount() + 1), e);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * New reader.
+     *
+     * @param inputStream
+     *            the input stream
+     * @param encode
+     *            the encode, 如果是null或者empty, 使用 UTF-8
+     * @return the reader
+     */
+    private static Reader newReader(InputStream inputStream,String encode){
+        return new InputStreamReader(inputStream, Charset.forName(defaultIfNullOrEmpty(encode, UTF8)));
+    }
+}
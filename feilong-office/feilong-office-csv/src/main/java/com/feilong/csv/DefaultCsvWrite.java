@@ -15,12 +15,22 @@
  */
 package com.feilong.csv;
 
+import static com.feilong.core.CharsetType.UTF8;
 import static com.feilong.core.Validator.isNotNullOrEmpty;
 import static com.feilong.core.lang.ObjectUtil.defaultIfNull;
+import static com.feilong.core.lang.ObjectUtil.defaultIfNullOrEmpty;
+import static com.feilong.core.lang.StringUtil.formatPattern;
 import static com.feilong.core.util.CollectionsUtil.first;
 import static com.feilong.core.util.CollectionsUtil.getPropertyValueList;
 
-import java.util.ArrayList;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Iterator;
 import java.util.List;
 
 import com.feilong.core.Validate;
@@ -29,9 +39,9 @@ import com.feilong.csv.entity.BeanCsvConfig;
 import com.feilong.csv.entity.CsvColumnEntity;
 import com.feilong.csv.entity.CsvConfig;
 import com.feilong.csv.handler.CsvColumnEntityListBuilder;
-import com.feilong.csv.handler.CsvContentBuilder;
+import com.feilong.csv.handler.CsvContentWriter;
 import com.feilong.csv.handler.DataListBuilder;
-import com.feilong.io.IOWriteUtil;
+import com.feilong.io.FileUtil;
 
 /**
  * cvs工具类.
@@ -185,12 +195,56 @@ public class DefaultCsvWrite implements CsvWrite{
         BeanCsvConfig<T> useBeanCsvConfig = defaultIfNull(beanCsvConfig, buildBeanCsvConfig(iterable));
         Validate.notNull(useBeanCsvConfig.getBeanClass(), "beanCsvConfig.getBeanClass() can't be null!");
 
-        List<CsvColumnEntity> csvColumnEntityList = CsvColumnEntityListBuilder.build(useBeanCsvConfig);
+        //---------------------------------------------------------------
+        log.info("begin write file:[{}]", fileName);
+        try (Writer writer = newFileWriter(fileName, useBeanCsvConfig.getEncode())){
+            write(writer, iterable.iterator(), useBeanCsvConfig);
+        }catch (IOException e){
+            throw new UncheckedIOException(formatPattern("fileName:[{}]", fileName), e);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see com.feilong.csv.CsvWrite#write(java.io.OutputStream, java.util.Iterator, com.feilong.csv.entity.BeanCsvConfig)
+     */
+    @Override
+    public <T> void write(OutputStream outputStream,Iterator<T> iterator,BeanCsvConfig<T> beanCsvConfig){
+        Validate.notNull(outputStream, "outputStream can't be null!");
+        Validate.notNull(beanCsvConfig, "beanCsvConfig can't be null!");
+
+        //不能关闭, outputStream 由调用方负责关闭
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, toCharset(beanCsvConfig.getEncode())));
+        write(writer, iterator, beanCsvConfig);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see com.feilong.csv.CsvWrite#write(java.io.Writer, java.util.Iterator, com.feilong.csv.entity.BeanCsvConfig)
+     */
+    @Override
+    public <T> void write(Writer writer,Iterator<T> iterator,BeanCsvConfig<T> beanCsvConfig){
+        Validate.notNull(writer, "writer can't be null!");
+        Validate.notNull(iterator, "iterator can't be null!");
+        Validate.notNull(beanCsvConfig, "beanCsvConfig can't be null!");
+        Validate.notNull(beanCsvConfig.getBeanClass(), "beanCsvConfig.getBeanClass() can't be null!");
 
         //---------------------------------------------------------------
+        List<CsvColumnEntity> csvColumnEntityList = CsvColumnEntityListBuilder.build(beanCsvConfig);
         String[] columnTitles = ConvertUtil.toStrings(getPropertyValueList(csvColumnEntityList, "name"));
-        List<Object[]> dataList = DataListBuilder.build(iterable, csvColumnEntityList);
-        write(fileName, columnTitles, dataList, useBeanCsvConfig);
+        List<String> propertyNameList = getPropertyValueList(csvColumnEntityList, "propertyName");
+
+        //---------------------------------------------------------------
+        CsvContentWriter csvContentWriter = new CsvContentWriter(writer, beanCsvConfig);
+        csvContentWriter.writeHeaderLine(columnTitles);
+        while (iterator.hasNext()){
+            csvContentWriter.writeLine(DataListBuilder.toObjectArray(iterator.next(), propertyNameList));
+        }
+        flush(csvContentWriter);
     }
 
     //---------------------------------------------------------------
@@ -222,16 +276,63 @@ public class DefaultCsvWrite implements CsvWrite{
         //---------------------------------------------------------------
         CsvConfig useCsvConfig = defaultIfNull(csvConfig, DEFAULT_CSV_CONFIG);
 
-        List<Object[]> allLines = defaultIfNull(dataList, new ArrayList<Object[]>());
-        if (isNotNullOrEmpty(columnTitles) && useCsvConfig.getIsPrintHeaderLine()){
-            allLines.add(0, columnTitles);
-        }
-
         //---------------------------------------------------------------
         log.info("begin write file:[{}]", fileName);
+        try (Writer writer = newFileWriter(fileName, useCsvConfig.getEncode())){
+            CsvContentWriter csvContentWriter = new CsvContentWriter(writer, useCsvConfig);
+            csvContentWriter.writeHeaderLine(columnTitles);
+            if (null != dataList){
+                for (Object[] lineColumns : dataList){
+                    csvContentWriter.writeLine(lineColumns);
+                }
+            }
+        }catch (IOException e){
+            throw new UncheckedIOException(formatPattern("fileName:[{}]", fileName), e);
+        }
+    }
 
-        String content = CsvContentBuilder.build(allLines, useCsvConfig);
-        IOWriteUtil.writeStringToFile(fileName, content, useCsvConfig.getEncode());
+    //---------------------------------------------------------------
+
+    /**
+     * 创建指定编码的带缓冲的文件 writer, 如果父文件夹不存在会自动创建, 如果文件存在会覆盖.
+     *
+     * @param fileName
+     *            the file name
+     * @param encode
+     *            the encode
+     * @return the writer
+     * @since 4.5.5
+     */
+    private static Writer newFileWriter(String fileName,String encode){
+        FileUtil.createDirectoryByFilePath(fileName);
+        return new BufferedWriter(new OutputStreamWriter(FileUtil.getFileOutputStream(fileName), toCharset(encode)));
+    }
+
+    /**
+     * 转成 charset, 如果 <code>encode</code> 是null或者empty, 使用 UTF-8.
+     *
+     * @param encode
+     *            the encode
+     * @return the charset
+     * @since 4.5.5
+     */
+    private static Charset toCharset(String encode){
+        return Charset.forName(defaultIfNullOrEmpty(encode, UTF8));
+    }
+
+    /**
+     * Flush.
+     *
+     * @param csvContentWriter
+     *            the csv content writer
+     * @since 4.5.5
+     */
+    private static void flush(CsvContentWriter csvContentWriter){
+        try{
+            csvContentWriter.flush();
+        }catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
     }
 
     //---------------------------------------------------------------
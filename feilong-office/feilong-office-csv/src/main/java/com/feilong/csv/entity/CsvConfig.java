@@ -38,6 +38,19 @@ public class CsvConfig{
      */
     private boolean isPrintHeaderLine = true;
 
+    /**
+     * 是否在文件开头输出 BOM(byte order mark),默认是false.
+     * 
+     * <p>
+     * 使用 excel 直接打开 UTF-8 编码的 csv 文件时, 如果没有 BOM, 中文会乱码;<br>
+     * 只对 UTF-8/UTF-16BE/UTF-16LE 等 unicode 编码生效, 如果 {@link #encode} 是 GBK 等非 unicode 编码, 会忽略该参数;<br>
+     * 如果 {@link #encode} 是 UTF-16 这种编码器自己会输出 BOM 的编码, 也会忽略该参数, 不会重复输出 BOM.
+     * </p>
+     *
+     * @since 4.5.5
+     */
+    private boolean isPrintBom        = false;
+
     //---------------------------------------------------------------
 
     /**
@@ -127,4 +140,25 @@ public class CsvConfig{
         this.isPrintHeaderLine = isPrintHeaderLine;
     }
 
+    /**
+     * 获得 是否在文件开头输出 BOM(byte order mark),默认是false.
+     *
+     * @return the isPrintBom
+     * @since 4.5.5
+     */
+    public boolean getIsPrintBom(){
+        return isPrintBom;
+    }
+
+    /**
+     * 设置 是否在文件开头输出 BOM(byte order mark),默认是false.
+     *
+     * @param isPrintBom
+     *            the isPrintBom to set
+     * @since 4.5.5
+     */
+    public void setIsPrintBom(boolean isPrintBom){
+        this.isPrintBom = isPrintBom;
+    }
+
 }
\ No newline at end of file
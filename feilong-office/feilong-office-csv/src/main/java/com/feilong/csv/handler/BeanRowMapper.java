@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.csv.handler;
+
+import static com.feilong.core.Validator.isNullOrEmpty;
+import static com.feilong.core.lang.StringUtil.formatPattern;
+import static com.feilong.core.util.MapUtil.newHashMap;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Constructor;
+import java.util.List;
+import java.util.Map;
+
+import com.feilong.core.DefaultRuntimeException;
+import com.feilong.core.Validate;
+import com.feilong.core.bean.ConvertUtil;
+import com.feilong.core.bean.PropertyUtil;
+import com.feilong.csv.entity.BeanCsvConfig;
+import com.feilong.csv.entity.CsvColumnEntity;
+
+/**
+ * 将一条 csv 记录转成 bean.
+ * 
+ * <p>
+ * 列和属性的对应关系在构造的时候确定一次(每列对应的属性名以及属性类型), 之后每条记录只需要按下标转换类型并调用
+ * {@link PropertyUtil#setProperty(Object, String, Object)} (内部优先使用编译的 setter), 不再需要每条记录查找 PropertyDescriptor.
+ * </p>
+ * 
+ * <h3>列和属性的对应规则:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>有标题行时, 标题等于 {@link com.feilong.csv.entity.CsvColumn#name()} 或者属性名的列, 设置到对应的属性;其余的列忽略</li>
+ * <li>没有标题行时, 按照 {@link CsvColumnEntityListBuilder#build(BeanCsvConfig)} 的顺序(也就是 {@link com.feilong.csv.CsvWrite} 输出的顺序)对应</li>
+ * <li>空字符串不会设置, 属性保持 bean 的默认值</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @param <T>
+ *            the generic type
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+public class BeanRowMapper<T>{
+
+    /** bean 的无参构造函数. */
+    private final Constructor<T> constructor;
+
+    /** 每列对应的属性名, 如果是null 表示该列忽略. */
+    private final String[]       propertyNames;
+
+    /** 每列对应的属性类型. */
+    private final Class<?>[]     propertyTypes;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new bean row mapper.
+     *
+     * @param beanCsvConfig
+     *            the bean csv config
+     * @param header
+     *            标题行, 如果是null, 按照 {@link CsvColumnEntityListBuilder#build(BeanCsvConfig)} 的顺序对应
+     * @throws NullPointerException
+     *             如果 <code>beanCsvConfig</code> 或者 <code>beanCsvConfig.getBeanClass()</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>beanCsvConfig.getBeanClass()</code> 没有 public 的无参构造函数
+     */
+    public BeanRowMapper(BeanCsvConfig<T> beanCsvConfig, String[] header){
+        Validate.notNull(beanCsvConfig, "beanCsvConfig can't be null!");
+        Class<T> beanClass = beanCsvConfig.getBeanClass();
+        Validate.notNull(beanClass, "beanCsvConfig.getBeanClass() can't be null!");
+
+        this.constructor = getConstructor(beanClass);
+
+        //---------------------------------------------------------------
+        List<CsvColumnEntity> csvColumnEntityList = CsvColumnEntityListBuilder.build(beanCsvConfig);
+        Map<String, Class<?>> writablePropertyTypeMap = buildWritablePropertyTypeMap(beanClass);
+
+        int columnCount = null == header ? csvColumnEntityList.size() : header.length;
+        this.propertyNames = new String[columnCount];
+        this.propertyTypes = new Class<?>[columnCount];
+
+        Map<String, String> titleAndPropertyNameMap = buildTitleAndPropertyNameMap(csvColumnEntityList);
+        for (int i = 0; i < columnCount; ++i){
+            String propertyName = null == header ? csvColumnEntityList.get(i).getPropertyName()
+                            : titleAndPropertyNameMap.get(header[i].trim());
+            Class<?> propertyType = null == propertyName ? null : writablePropertyTypeMap.get(propertyName);
+            if (null != propertyType){
+                propertyNames[i] = propertyName;
+                propertyTypes[i] = propertyType;
+            }
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 将一条记录转成 bean.
+     *
+     * @param row
+     *            the row
+     * @param recordNumber
+     *            记录的序号(从1开始), 用于异常信息
+     * @return the t
+     * @throws DefaultRuntimeException
+     *             如果实例化 bean 或者转换/设置属性出现异常
+     */
+    public T map(String[] row,long recordNumber){
+        T bean = newInstance();
+        for (int i = 0, j = Math.min(row.length, propertyNames.length); i < j; ++i){
+            String propertyName = propertyNames[i];
+            String value = row[i];
+            if (null == propertyName || isNullOrEmpty(value)){
+                continue;
+            }
+
+            //---------------------------------------------------------------
+            Class<?> propertyType = propertyTypes[i];
+            try{
+                PropertyUtil.setProperty(bean, propertyName, String.class == propertyType ? value : ConvertUtil.convert(value, propertyType));
+            }catch (RuntimeException e){
+                String pattern = "record:[{}],column:[{}],value:[{}] set to [{}.{}] exception";
+                throw new DefaultRuntimeException(formatPattern(pattern, recordNumber, i, value, bean.getClass().getSimpleName(), propertyName), e);
+            }
+        }
+        return bean;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * New instance.
+     *
+     * @return the t
+     */
+    private T newInstance(){
+        try{
+            return constructor.newInstance();
+        }catch (Exception e){
+            throw new DefaultRuntimeException(formatPattern("newInstance:[{}] exception", constructor.getDeclaringClass()), e);
+        }
+    }
+
+    /**
+     * Gets the constructor.
+     *
+     * @param <T>
+     *            the generic type
+     * @param beanClass
+     *            the bean class
+     * @return the constructor
+     */
+    private static <T> Constructor<T> getConstructor(Class<T> beanClass){
+        try{
+            return beanClass.getConstructor();
+        }catch (NoSuchMethodException e){
+            throw new IllegalArgumentException(formatPattern("beanClass:[{}] must have public no-arg constructor", beanClass), e);
+        }
+    }
+
+    /**
+     * 标题和属性名的对应关系, 标题和属性名本身都可以作为 key.
+     *
+     * @param csvColumnEntityList
+     *            the csv column entity list
+     * @return the map
+     */
+    private static Map<String, String> buildTitleAndPropertyNameMap(List<CsvColumnEntity> csvColumnEntityList){
+        Map<String, String> map = newHashMap(csvColumnEntityList.size() * 2);
+        for (CsvColumnEntity csvColumnEntity : csvColumnEntityList){
+            map.put(csvColumnEntity.getPropertyName(), csvColumnEntity.getPropertyName());
+        }
+        //标题优先
+        for (CsvColumnEntity csvColumnEntity : csvColumnEntityList){
+            map.put(csvColumnEntity.getName(), csvColumnEntity.getPropertyName());
+        }
+        return map;
+    }
+
+    /**
+     * 可写属性的类型.
+     *
+     * @param beanClass
+     *            the bean class
+     * @return the map
+     */
+    private static Map<String, Class<?>> buildWritablePropertyTypeMap(Class<?> beanClass){
+        PropertyDescriptor[] propertyDescriptors = PropertyUtil.getPropertyDescriptors(beanClass);
+        Map<String, Class<?>> map = newHashMap(propertyDescriptors.length);
+        for (PropertyDescriptor propertyDescriptor : propertyDescriptors){
+            if (null != propertyDescriptor.getWriteMethod()){
+                map.put(propertyDescriptor.getName(), propertyDescriptor.getPropertyType());
+            }
+        }
+        return map;
+    }
+}
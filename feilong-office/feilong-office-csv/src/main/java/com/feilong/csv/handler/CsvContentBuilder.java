@@ -81,6 +81,10 @@ public class CsvContentBuilder{
     /**
      * Writes the next line to the file.
      * 
+     * <p>
+     * 只构造一行的内容, {@link CsvContentWriter} 逐行输出时也使用这个方法, 保证两者的转义规则一致.
+     * </p>
+     * 
      * @param lineColumns
      *            the line
      * @param csvConfig
@@ -88,8 +92,9 @@ public class CsvContentBuilder{
      * @return the write content line
      * @see com.feilong.core.bean.ConvertUtil#toString(Object)
      * @see com.feilong.lib.lang3.StringEscapeUtils#escapeCsv(String)
+     * @since 4.5.5 change to public
      */
-    private static final StringBuilder buildLine(Object[] lineColumns,CsvConfig csvConfig){
+    public static final StringBuilder buildLine(Object[] lineColumns,CsvConfig csvConfig){
         StringBuilder sb = new StringBuilder();
         for (int i = 0, lineLength = lineColumns.length; i < lineLength; ++i){
             // 分隔符,列为空也要表达其存在.
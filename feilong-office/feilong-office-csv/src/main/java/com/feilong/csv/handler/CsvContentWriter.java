@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.csv.handler;
+
+import static com.feilong.core.CharsetType.UTF8;
+import static com.feilong.core.lang.ObjectUtil.defaultIfNullOrEmpty;
+import static java.lang.System.lineSeparator;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+import com.feilong.core.Validate;
+import com.feilong.csv.entity.CsvConfig;
+
+/**
+ * 逐行把 csv 内容写到 {@link Writer}.
+ * 
+ * <p>
+ * 和 {@link CsvContentBuilder#build(java.util.List, CsvConfig)} 输出的内容完全一致(行与行之间使用 {@link System#lineSeparator()} 分隔, 最后一行后面没有换行),
+ * 但是不会把全部内容拼接到内存中, 内存占用只和单行的长度有关, 和行数无关.
+ * </p>
+ * 
+ * <p>
+ * 本类不会关闭 <code>writer</code>, 由调用方负责.
+ * </p>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+public class CsvContentWriter implements Flushable{
+
+    /** The Constant BOM. */
+    private static final char BOM         = '\uFEFF';
+
+    //---------------------------------------------------------------
+
+    /** The writer. */
+    private final Writer      writer;
+
+    /** The csv config. */
+    private final CsvConfig   csvConfig;
+
+    /** 是否需要输出 BOM. */
+    private boolean           isPrintBom;
+
+    /** 已经输出的行数. */
+    private long              lineCount;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new csv content writer.
+     *
+     * @param writer
+     *            the writer
+     * @param csvConfig
+     *            the csv config
+     * @throws NullPointerException
+     *             如果 <code>writer</code> 或者 <code>csvConfig</code> 是null
+     */
+    public CsvContentWriter(Writer writer, CsvConfig csvConfig){
+        Validate.notNull(writer, "writer can't be null!");
+        Validate.notNull(csvConfig, "csvConfig can't be null!");
+        this.writer = writer;
+        this.csvConfig = csvConfig;
+        this.isPrintBom = csvConfig.getIsPrintBom() && isNeedWriteBom(csvConfig.getEncode());
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 输出标题行, 如果 {@link CsvConfig#getIsPrintHeaderLine()} 是false 或者 <code>columnTitles</code> 是null或者empty, 什么都不做.
+     *
+     * @param columnTitles
+     *            the column titles
+     */
+    public void writeHeaderLine(String[] columnTitles){
+        if (null != columnTitles && columnTitles.length > 0 && csvConfig.getIsPrintHeaderLine()){
+            writeLine(columnTitles);
+        }
+    }
+
+    /**
+     * 输出一行.
+     *
+     * @param lineColumns
+     *            the line columns
+     * @throws UncheckedIOException
+     *             如果写入出现 IOException
+     */
+    public void writeLine(Object[] lineColumns){
+        try{
+            if (isPrintBom){
+                writer.write(BOM);
+                isPrintBom = false;
+            }
+            if (lineCount != 0){
+                writer.write(lineSeparator());
+            }
+            writer.append(CsvContentBuilder.buildLine(lineColumns, csvConfig));
+            lineCount++;
+        }catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Flush.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Override
+    public void flush() throws IOException{
+        writer.flush();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 已经输出的行数(包含标题行).
+     *
+     * @return the lineCount
+     */
+    public long getLineCount(){
+        return lineCount;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 是否需要手动输出 {@link #BOM}.
+     * 
+     * <ul>
+     * <li>BOM 只有 unicode 编码才有意义, GBK 等编码无法表示 {@link #BOM}, 会输出成 <code>?</code></li>
+     * <li>java 的 "UTF-16" 等编码器自己会在开头输出 BOM, 如果再手动输出一次, 会变成 FE FF FE FF, 读取的时候第一个标题会多一个 U+FEFF</li>
+     * </ul>
+     *
+     * @param encode
+     *            the encode, 如果是null或者empty, 视为 UTF-8
+     * @return 如果是 UTF-8, UTF-16BE, UTF-16LE 等自己不输出 BOM 的 unicode 编码, 返回true
+     */
+    private static boolean isNeedWriteBom(String encode){
+        Charset charset = Charset.forName(defaultIfNullOrEmpty(encode, UTF8));
+        if (!charset.name().toUpperCase().startsWith("UTF-")){
+            return false;
+        }
+        //编码器自己输出 BOM 的话, 每次 encode 都会在开头多出 BOM 的字节, 两个字符编码的长度就不是一个字符的两倍
+        return " ".getBytes(charset).length * 2 == "  ".getBytes(charset).length;
+    }
+}
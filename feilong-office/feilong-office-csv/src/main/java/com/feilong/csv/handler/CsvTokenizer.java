@@ -0,0 +1,250 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.csv.handler;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.feilong.core.Validate;
+import com.feilong.csv.entity.CsvConfig;
+
+/**
+ * 从 {@link Reader} 逐条解析 csv 记录.
+ * 
+ * <h3>解析规则(RFC 4180):</h3>
+ * <blockquote>
+ * <ol>
+ * <li>字段之间使用 {@link CsvConfig#getSeparator()} 分隔</li>
+ * <li>字段可以使用双引号包裹, 包裹的字段里面可以有分隔符以及换行, 两个连续的双引号表示一个双引号</li>
+ * <li>记录之间可以使用 <code>\r\n</code>, <code>\n</code> 或者 <code>\r</code> 分隔</li>
+ * <li>完全空白的行会被跳过</li>
+ * <li>文件开头的 BOM 会被跳过</li>
+ * <li>没有被包裹的字段中间出现的双引号, 当做普通字符;引号没有闭合时, 一直读到文件结尾</li>
+ * </ol>
+ * </blockquote>
+ * 
+ * <p>
+ * 内部使用固定大小的 char 缓冲区, 并复用字段的 {@link StringBuilder}, 内存占用只和单条记录的长度有关, 和记录条数无关.<br>
+ * 本类不是线程安全的, 也不会关闭 <code>reader</code>.
+ * </p>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+public class CsvTokenizer{
+
+    /** The Constant QUOTE_CHARACTER. */
+    private static final char         QUOTE_CHARACTER = '"';
+
+    /** The Constant BOM. */
+    private static final char         BOM             = '\uFEFF';
+
+    /** The Constant EOF. */
+    private static final int          EOF             = -1;
+
+    /** The Constant BUFFER_SIZE. */
+    private static final int          BUFFER_SIZE     = 8192;
+
+    //---------------------------------------------------------------
+
+    /** The reader. */
+    private final Reader              reader;
+
+    /** 字段分隔符. */
+    private final char                separator;
+
+    /** The buffer. */
+    private final char[]              buffer          = new char[BUFFER_SIZE];
+
+    /** buffer 中下一个要读取的位置. */
+    private int                       position;
+
+    /** buffer 中有效字符的长度. */
+    private int                       limit;
+
+    /** 当前字段. */
+    private final StringBuilder       field           = new StringBuilder();
+
+    /** 当前记录的字段. */
+    private final List<String>        fields          = new ArrayList<>();
+
+    /** 是否是第一次读取, 用来跳过 BOM. */
+    private boolean                   isFirstRead     = true;
+
+    /** 已经解析的记录条数. */
+    private long                      recordCount;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new csv tokenizer.
+     *
+     * @param reader
+     *            the reader
+     * @param csvConfig
+     *            the csv config
+     * @throws NullPointerException
+     *             如果 <code>reader</code> 或者 <code>csvConfig</code> 是null
+     */
+    public CsvTokenizer(Reader reader, CsvConfig csvConfig){
+        Validate.notNull(reader, "reader can't be null!");
+        Validate.notNull(csvConfig, "csvConfig can't be null!");
+        this.reader = reader;
+        this.separator = csvConfig.getSeparator();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 读取下一条记录.
+     *
+     * @return 如果已经没有记录了, 返回null
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public String[] next() throws IOException{
+        int c = read();
+        //跳过空白行
+        while (c == '\n' || c == '\r'){
+            c = read();
+        }
+        if (c == EOF){
+            return null;
+        }
+
+        //---------------------------------------------------------------
+        fields.clear();
+        field.setLength(0);
+
+        boolean inQuotes = false;
+        while (true){
+            if (inQuotes){
+                if (c == EOF){
+                    break;
+                }
+                if (c == QUOTE_CHARACTER){
+                    if (peek() == QUOTE_CHARACTER){
+                        position++;
+                        field.append(QUOTE_CHARACTER);
+                    }else{
+                        inQuotes = false;
+                    }
+                }else{
+                    field.append((char) c);
+                }
+            }else{
+                if (c == EOF || c == '\n'){
+                    break;
+                }
+                if (c == '\r'){
+                    if (peek() == '\n'){
+                        position++;
+                    }
+                    break;
+                }
+                if (c == separator){
+                    endField();
+                }else if (c == QUOTE_CHARACTER && field.length() == 0){
+                    inQuotes = true;
+                }else{
+                    field.append((char) c);
+                }
+            }
+            c = read();
+        }
+        endField();
+
+        recordCount++;
+        return fields.toArray(new String[fields.size()]);
+    }
+
+    /**
+     * 获得 已经解析的记录条数.
+     *
+     * @return the recordCount
+     */
+    public long getRecordCount(){
+        return recordCount;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * End field.
+     */
+    private void endField(){
+        fields.add(field.toString());
+        field.setLength(0);
+    }
+
+    /**
+     * 读取下一个字符.
+     *
+     * @return the int
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private int read() throws IOException{
+        if (position >= limit && !fill()){
+            return EOF;
+        }
+        char c = buffer[position++];
+        if (isFirstRead){
+            isFirstRead = false;
+            if (c == BOM){
+                return read();
+            }
+        }
+        return c;
+    }
+
+    /**
+     * 查看下一个字符, 但是不消费.
+     *
+     * @return the int
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private int peek() throws IOException{
+        if (position >= limit && !fill()){
+            return EOF;
+        }
+        return buffer[position];
+    }
+
+    /**
+     * Fill.
+     *
+     * @return 如果已经读到末尾返回false
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private boolean fill() throws IOException{
+        int length;
+        do{
+            length = reader.read(buffer, 0, buffer.length);
+        }while (length == 0);
+
+        if (length == EOF){
+            return false;
+        }
+        position = 0;
+        limit = length;
+        return true;
+    }
+}
@@ -68,7 +68,7 @@ public class DataListBuilder{
     }
 
     /**
-     * To object array.
+     * 将单个 bean 转成一行数据, 逐行输出时使用.
      *
      * @param <T>
      *            the generic type
@@ -77,8 +77,9 @@ public class DataListBuilder{
      * @param propertyNameList
      *            the property name list
      * @return the object[]
+     * @since 4.5.5 change to public
      */
-    private static <T> Object[] toObjectArray(T bean,List<String> propertyNameList){
+    public static <T> Object[] toObjectArray(T bean,List<String> propertyNameList){
         Map<String, Object> propertyValueMap = newLinkedHashMap();
         PropertyUtil.copyProperties(propertyValueMap, bean, ConvertUtil.toStrings(propertyNameList));
 
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.csv;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.feilong.csv.entity.BeanCsvConfig;
+
+/**
+ * {@link DefaultCsvRead} 每秒读取的行数(score 的单位是 rows/s), 以及按行 split(不支持引号) 的对比.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@Fork(0)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(DefaultCsvReadJMHTest.ROWS)
+@State(Scope.Benchmark)
+public class DefaultCsvReadJMHTest{
+
+    static final int                  ROWS          = 100_000;
+
+    private final CsvRead             csvRead       = new DefaultCsvRead();
+
+    private final BeanCsvConfig<User> beanCsvConfig = new BeanCsvConfig<>(User.class);
+
+    private String                    content;
+
+    public static void main(String[] args) throws RunnerException{
+        final Options opts = new OptionsBuilder().include(DefaultCsvReadJMHTest.class.getSimpleName())//
+                        .measurementIterations(5)//
+                        .warmupIterations(3)//
+
+                        .result("result.json")//
+                        .resultFormat(ResultFormatType.JSON)//
+                        .build();
+        new Runner(opts).run();
+    }
+
+    //---------------------------------------------------------------
+
+    @Setup
+    public void setup(){
+        Iterator<User> iterator = new Iterator<User>(){
+
+            private int i;
+
+            @Override
+            public boolean hasNext(){
+                return i < ROWS;
+            }
+
+            @Override
+            public User next(){
+                return new User("user" + i, "飞龙" + i, i++ % 100);
+            }
+        };
+        StringWriter writer = new StringWriter();
+        new DefaultCsvWrite().write(writer, iterator, beanCsvConfig);
+        content = writer.toString();
+    }
+
+    //---------------------------------------------------------------
+
+    @Benchmark
+    public long readRows(Blackhole blackhole){
+        return csvRead.read(new StringReader(content), beanCsvConfig, blackhole::consume);
+    }
+
+    @Benchmark
+    public long readBeans(Blackhole blackhole){
+        return csvRead.readBeans(new StringReader(content), beanCsvConfig, blackhole::consume);
+    }
+
+    @Benchmark
+    public long readLineAndSplit(Blackhole blackhole) throws IOException{
+        long count = 0;
+        try (BufferedReader reader = new BufferedReader(new StringReader(content))){
+            String line;
+            while (null != (line = reader.readLine())){
+                blackhole.consume(line.split(","));
+                count++;
+            }
+        }
+        return count;
+    }
+}
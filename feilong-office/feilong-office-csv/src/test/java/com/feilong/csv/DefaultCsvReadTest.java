@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.csv;
+
+import static com.feilong.core.CharsetType.GBK;
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.Test;
+
+import com.feilong.csv.entity.BeanCsvConfig;
+import com.feilong.csv.entity.CsvConfig;
+
+public class DefaultCsvReadTest{
+
+    private final CsvRead    csvRead  = new DefaultCsvRead();
+
+    private final CsvWrite   csvWrite = new DefaultCsvWrite();
+
+    private final List<User> list     = toList(
+                    new User("zhang\"san1", "张三1", 18),
+                    new User("zhangsan5", "张三,5", 28),
+                    new User("zhang'san4", "张三\r\n4", 38));
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testRead(){
+        List<String[]> rows = read("a,b,c\r\n\"1,1\",\"2\"\"2\",3\n\n,,\r\"x\ny\",\"\",z\"q", null);
+
+        assertEquals(4, rows.size());
+        assertArrayEquals(new String[] { "a", "b", "c" }, rows.get(0));
+        assertArrayEquals(new String[] { "1,1", "2\"2", "3" }, rows.get(1));
+        assertArrayEquals(new String[] { "", "", "" }, rows.get(2));
+        assertArrayEquals(new String[] { "x\ny", "", "z\"q" }, rows.get(3));
+    }
+
+    @Test
+    public void testReadBomAndSeparator(){
+        List<String[]> rows = read("\uFEFFa;b\r\n1;\"2;3\"\r\n", new CsvConfig(null, ';'));
+
+        assertEquals(2, rows.size());
+        assertArrayEquals(new String[] { "a", "b" }, rows.get(0));
+        assertArrayEquals(new String[] { "1", "2;3" }, rows.get(1));
+    }
+
+    @Test
+    public void testReadEmpty(){
+        assertEquals(0, read("", null).size());
+        assertEquals(0, read("\r\n\n", null).size());
+    }
+
+    @Test
+    public void testReadLongField(){
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20000; ++i){
+            sb.append("abc\"\"");
+        }
+        List<String[]> rows = read("\"" + sb + "\",1", null);
+        assertEquals(1, rows.size());
+        assertEquals(20000 * 4, rows.get(0)[0].length());
+        assertEquals("1", rows.get(0)[1]);
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testReadBeans(){
+        StringWriter writer = new StringWriter();
+        csvWrite.write(writer, list.iterator(), new BeanCsvConfig<>(User.class));
+
+        List<User> result = readBeans(writer.toString(), new BeanCsvConfig<>(User.class));
+        assertUsers(list, result);
+    }
+
+    @Test
+    public void testReadBeansNoHeader(){
+        BeanCsvConfig<User> beanCsvConfig = new BeanCsvConfig<>(User.class);
+        beanCsvConfig.setIsPrintHeaderLine(false);
+
+        StringWriter writer = new StringWriter();
+        csvWrite.write(writer, list.iterator(), beanCsvConfig);
+
+        assertUsers(list, readBeans(writer.toString(), beanCsvConfig));
+    }
+
+    @Test
+    public void testReadBeansHeaderByPropertyName(){
+        List<User> result = readBeans("age,unknown,username\r\n18,x,\r\n,y,feilong", new BeanCsvConfig<>(User.class));
+
+        assertEquals(2, result.size());
+        assertEquals(18, result.get(0).getAge());
+        assertEquals(null, result.get(0).getUsername());
+        assertEquals(0, result.get(1).getAge());
+        assertEquals("feilong", result.get(1).getUsername());
+    }
+
+    @Test
+    public void testReadBeansInputStream(){
+        BeanCsvConfig<User> beanCsvConfig = new BeanCsvConfig<>(User.class);
+        beanCsvConfig.setEncode(GBK);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        csvWrite.write(outputStream, list.iterator(), beanCsvConfig);
+
+        List<User> result = new ArrayList<>();
+        long count = csvRead.readBeans(new ByteArrayInputStream(outputStream.toByteArray()), beanCsvConfig, result::add);
+        assertEquals(3, count);
+        assertUsers(list, result);
+    }
+
+    @Test
+    public void testReadBeansFile() throws IOException{
+        File file = File.createTempFile("csv-read", ".csv");
+        try{
+            csvWrite.write(file.getAbsolutePath(), list, new BeanCsvConfig<>(User.class));
+
+            List<User> result = new ArrayList<>();
+            assertEquals(3, csvRead.readBeans(file.getAbsolutePath(), new BeanCsvConfig<>(User.class), result::add));
+            assertUsers(list, result);
+
+            assertEquals(4, csvRead.read(file.getAbsolutePath(), null, row -> {
+            }));
+        }finally{
+            file.delete();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadBeansNoDefaultConstructor(){
+        csvRead.readBeans(new StringReader("a"), new BeanCsvConfig<>(Integer.class), bean -> {
+        });
+    }
+
+    //---------------------------------------------------------------
+
+    @Test(expected = NullPointerException.class)
+    public void testReadNullReader(){
+        csvRead.read((StringReader) null, null, row -> {
+        });
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testReadNullConsumer(){
+        csvRead.read(new StringReader("a"), null, (Consumer<String[]>) null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testReadBeansNullBeanCsvConfig(){
+        csvRead.readBeans(new StringReader("a"), null, bean -> {
+        });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadBlankFileName(){
+        csvRead.read(" ", null, row -> {
+        });
+    }
+
+    //---------------------------------------------------------------
+
+    private List<String[]> read(String content,CsvConfig csvConfig){
+        List<String[]> rows = new ArrayList<>();
+        long count = csvRead.read(new StringReader(content), csvConfig, rows::add);
+        assertEquals(rows.size(), count);
+        return rows;
+    }
+
+    private List<User> readBeans(String content,BeanCsvConfig<User> beanCsvConfig){
+        List<User> result = new ArrayList<>();
+        csvRead.readBeans(new StringReader(content), beanCsvConfig, result::add);
+        return result;
+    }
+
+    private static void assertUsers(List<User> expected,List<User> actual){
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); ++i){
+            assertEquals(expected.get(i).getUsername(), actual.get(i).getUsername());
+            assertEquals(expected.get(i).getName(), actual.get(i).getName());
+            assertEquals(expected.get(i).getAge(), actual.get(i).getAge());
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.csv;
+
+import static com.feilong.core.CharsetType.GBK;
+import static com.feilong.core.CharsetType.UTF8;
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static java.lang.System.lineSeparator;
+import static java.util.Collections.emptyIterator;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UnsupportedEncodingException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.feilong.csv.entity.BeanCsvConfig;
+
+public class DefaultCsvWriteStreamTest{
+
+    private final CsvWrite   csvWrite = new DefaultCsvWrite();
+
+    private final List<User> list     = toList(
+                    new User("zhang\"san1", "张三1", 18),
+                    new User("zhangsan5", "张三,5", 28),
+                    new User("zhang'san4", "张三\n4", 38));
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testWriteOutputStream() throws UnsupportedEncodingException{
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        csvWrite.write(outputStream, list.iterator(), new BeanCsvConfig<>(User.class));
+
+        String expected = String.join(
+                        lineSeparator(),
+                        "\"usern ame\",\"a ge\",\"名字\"",
+                        "\"zhang\"\"san1\",\"18\",\"张三1\"",
+                        "\"zhangsan5\",\"28\",\"张三,5\"",
+                        "\"zhang'san4\",\"38\",\"张三\n4\"");
+        assertEquals(expected, outputStream.toString(UTF8));
+    }
+
+    @Test
+    public void testWriteWriterNoHeader(){
+        BeanCsvConfig<User> beanCsvConfig = new BeanCsvConfig<>(User.class);
+        beanCsvConfig.setIsPrintHeaderLine(false);
+        beanCsvConfig.setIncludePropertyNames("usern ame");
+
+        StringWriter writer = new StringWriter();
+        csvWrite.write(writer, list.iterator(), beanCsvConfig);
+        assertEquals(String.join(lineSeparator(), "\"zhang\"\"san1\"", "\"zhangsan5\"", "\"zhang'san4\""), writer.toString());
+    }
+
+    @Test
+    public void testWriteEmptyIterator(){
+        StringWriter writer = new StringWriter();
+        csvWrite.write(writer, emptyIterator(), new BeanCsvConfig<>(User.class));
+        assertEquals("\"usern ame\",\"a ge\",\"名字\"", writer.toString());
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testWriteBom() throws UnsupportedEncodingException{
+        BeanCsvConfig<User> beanCsvConfig = new BeanCsvConfig<>(User.class);
+        beanCsvConfig.setIsPrintBom(true);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        csvWrite.write(outputStream, list.iterator(), beanCsvConfig);
+
+        byte[] bytes = outputStream.toByteArray();
+        assertArrayEquals(new byte[] { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF }, Arrays.copyOf(bytes, 3));
+        assertEquals("\"usern ame\"", new String(bytes, 3, 11, UTF8));
+    }
+
+    @Test
+    public void testWriteBomUtf16() throws UnsupportedEncodingException{
+        BeanCsvConfig<User> beanCsvConfig = new BeanCsvConfig<>(User.class);
+        beanCsvConfig.setEncode("UTF-16");
+        beanCsvConfig.setIsPrintBom(true);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        csvWrite.write(outputStream, list.iterator(), beanCsvConfig);
+
+        //UTF-16 编码器自己会输出 BOM, 不能重复输出
+        byte[] bytes = outputStream.toByteArray();
+        assertArrayEquals(new byte[] { (byte) 0xFE, (byte) 0xFF, 0, '"' }, Arrays.copyOf(bytes, 4));
+        assertEquals(true, outputStream.toString("UTF-16").startsWith("\"usern ame\""));
+    }
+
+    @Test
+    public void testWriteBomUtf16LE() throws UnsupportedEncodingException{
+        BeanCsvConfig<User> beanCsvConfig = new BeanCsvConfig<>(User.class);
+        beanCsvConfig.setEncode("UTF-16LE");
+        beanCsvConfig.setIsPrintBom(true);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        csvWrite.write(outputStream, list.iterator(), beanCsvConfig);
+
+        byte[] bytes = outputStream.toByteArray();
+        assertArrayEquals(new byte[] { (byte) 0xFF, (byte) 0xFE, '"', 0 }, Arrays.copyOf(bytes, 4));
+    }
+
+    @Test
+    public void testWriteBomGbk() throws UnsupportedEncodingException{
+        BeanCsvConfig<User> beanCsvConfig = new BeanCsvConfig<>(User.class);
+        beanCsvConfig.setEncode(GBK);
+        beanCsvConfig.setIsPrintBom(true);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        csvWrite.write(outputStream, list.iterator(), beanCsvConfig);
+
+        //gbk 没有 bom
+        assertEquals(true, outputStream.toString(GBK).startsWith("\"usern ame\",\"a ge\",\"名字\""));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testWriteLazyIterator(){
+        final int size = 100000;
+        Iterator<User> iterator = new Iterator<User>(){
+
+            private int i;
+
+            @Override
+            public boolean hasNext(){
+                return i < size;
+            }
+
+            @Override
+            public User next(){
+                return new User("user" + i, "name" + i, i++);
+            }
+        };
+
+        StringWriter writer = new StringWriter();
+        csvWrite.write(writer, iterator, new BeanCsvConfig<>(User.class));
+        String[] lines = writer.toString().split(lineSeparator());
+        assertEquals(size + 1, lines.length);
+        assertEquals("\"user99999\",\"99999\",\"name99999\"", lines[size]);
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testWriteFileSameAsStream() throws IOException{
+        File file = File.createTempFile("csv-stream", ".csv");
+        try{
+            BeanCsvConfig<User> beanCsvConfig = new BeanCsvConfig<>(User.class);
+            csvWrite.write(file.getAbsolutePath(), list, beanCsvConfig);
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            csvWrite.write(outputStream, list.iterator(), beanCsvConfig);
+            assertArrayEquals(outputStream.toByteArray(), Files.readAllBytes(file.toPath()));
+        }finally{
+            file.delete();
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    @Test(expected = NullPointerException.class)
+    public void testWriteNullOutputStream(){
+        csvWrite.write((ByteArrayOutputStream) null, list.iterator(), new BeanCsvConfig<>(User.class));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testWriteNullIterator(){
+        csvWrite.write(new StringWriter(), (Iterator<User>) null, new BeanCsvConfig<>(User.class));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testWriteNullBeanCsvConfig(){
+        csvWrite.write(new StringWriter(), list.iterator(), null);
+    }
+}
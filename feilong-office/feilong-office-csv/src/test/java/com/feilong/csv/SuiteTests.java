@@ -23,7 +23,9 @@ import org.junit.runners.Suite.SuiteClasses;
 @SuiteClasses({ //
 
                 DefaultCsvWriteWriteDataTest.class,
-                DefaultCsvWriteWriteDataWithBeanCsvConfigTest.class
+                DefaultCsvWriteWriteDataWithBeanCsvConfigTest.class,
+                DefaultCsvWriteStreamTest.class,
+                DefaultCsvReadTest.class
         //
 })
 public class SuiteTests{
@@ -40,6 +40,15 @@ public class User implements Serializable{
 
     //---------------------------------------------------------------
 
+    /**
+     * The Constructor.
+     * 
+     * @since 4.5.5
+     */
+    public User(){
+        super();
+    }
+
     /**
      * The Constructor.
      *
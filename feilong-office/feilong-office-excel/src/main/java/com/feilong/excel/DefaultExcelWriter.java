@@ -24,9 +24,11 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 import com.feilong.core.DefaultRuntimeException;
 import com.feilong.excel.util.WorkbookUtil;
+import com.feilong.excel.writer.StreamingWorkbookWriter;
 import com.feilong.excel.writer.WorkbookWriter;
 import com.feilong.io.InputStreamUtil;
 
@@ -39,7 +41,26 @@ import com.feilong.io.InputStreamUtil;
 public class DefaultExcelWriter extends AbstractExcelConfig implements ExcelWriter{
 
     /** The buffered template. */
-    private byte[] bufferedTemplate;
+    private byte[]  bufferedTemplate;
+
+    /**
+     * 是否使用流式写出 (SXSSF), 默认false.
+     * 
+     * <p>
+     * 适合大数据量(比如几十万,上百万行)导出, 参见 {@link StreamingWorkbookWriter};<br>
+     * 只对 {@link #write(OutputStream, Map)} 系列方法生效, {@link #writePerSheet(OutputStream, List)} 系列仍然使用内存模式.
+     * </p>
+     * 
+     * @since 4.5.5
+     */
+    private boolean streaming;
+
+    /**
+     * 流式写出时内存中保留的行数, 默认 {@link SXSSFWorkbook#DEFAULT_WINDOW_SIZE}.
+     * 
+     * @since 4.5.5
+     */
+    private int     rowAccessWindowSize = SXSSFWorkbook.DEFAULT_WINDOW_SIZE;
 
     //---------------------------------------------------------------
 
@@ -108,6 +129,10 @@ public class DefaultExcelWriter extends AbstractExcelConfig implements ExcelWrit
      */
     private void write(InputStream inputStream,OutputStream outputStream,Map<String, Object> data){
         Workbook workbook = WorkbookUtil.create(inputStream);
+        if (streaming){
+            StreamingWorkbookWriter.write(workbook, outputStream, excelDefinition, data, rowAccessWindowSize);
+            return;
+        }
         WorkbookWriter.write(workbook, outputStream, excelDefinition, data);
     }
 
@@ -188,4 +213,48 @@ public class DefaultExcelWriter extends AbstractExcelConfig implements ExcelWrit
         }
     }
 
+    //---------------------------------------------------------------
+
+    /**
+     * 是否使用流式写出 (SXSSF).
+     *
+     * @return the streaming
+     * @since 4.5.5
+     */
+    public boolean isStreaming(){
+        return streaming;
+    }
+
+    /**
+     * 设置是否使用流式写出 (SXSSF).
+     *
+     * @param streaming
+     *            the streaming to set
+     * @since 4.5.5
+     */
+    public void setStreaming(boolean streaming){
+        this.streaming = streaming;
+    }
+
+    /**
+     * 流式写出时内存中保留的行数.
+     *
+     * @return the rowAccessWindowSize
+     * @since 4.5.5
+     */
+    public int getRowAccessWindowSize(){
+        return rowAccessWindowSize;
+    }
+
+    /**
+     * 设置流式写出时内存中保留的行数.
+     *
+     * @param rowAccessWindowSize
+     *            the rowAccessWindowSize to set
+     * @since 4.5.5
+     */
+    public void setRowAccessWindowSize(int rowAccessWindowSize){
+        this.rowAccessWindowSize = rowAccessWindowSize;
+    }
+
 }
@@ -122,6 +122,45 @@ public class ExcelWriteUtil{
 
                     Map<String, Object> beans,
                     String outputFileName){
+        return write(templateLocation, sheetDefinitionLocation, sheetNames, beans, outputFileName, false);
+    }
+
+    /**
+     * Write.
+     *
+     * @param templateLocation
+     *            excel模板location,
+     * 
+     *            <ol>
+     *            <li>支持fully qualified URLs(完全合格的url),比如 "file:/Users/feilong/workspace/excel/TradeData/TradeData-list-export.xlsx".</li>
+     *            <li>支持classpath pseudo-URLs(伪url), 比如 "classpath:excel/TradeData/TradeData-list-export.xlsx".</li>
+     *            <li>支持relative file paths(相对路径), 比如 "WEB-INF/TradeData-list-export.xlsx".</li>
+     *            </ol>
+     * @param sheetDefinitionLocation
+     *            xml sheet相关配置文件, 如 sheets/train-course.xml,基于class path路径
+     * @param sheetNames
+     *            the sheet names
+     * @param beans
+     *            the beans
+     * @param outputFileName
+     *            输出文件名字(全路径),<br>
+     *            如果是null,默认输出地址是 USER_HOME +/feilong/excel/{sheetNames}{nowTimestamp()}.{FilenameUtil.getExtension(templateLocation)}
+     * @param streaming
+     *            是否使用流式写出, 大数据量导出时使用, 参见 {@link DefaultExcelWriter#setStreaming(boolean)}
+     * @return 如果 <code>templateLocation</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>templateLocation</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>sheetDefinitionLocation</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>sheetDefinitionLocation</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     * @since 4.5.5
+     */
+    public static String write(
+                    String templateLocation,
+                    String sheetDefinitionLocation,
+                    String[] sheetNames,
+
+                    Map<String, Object> beans,
+                    String outputFileName,
+                    boolean streaming){
         long beginTimeMillis = System.currentTimeMillis();
 
         Validate.notBlank(templateLocation, "templateLocation can't be blank!");
@@ -141,7 +180,8 @@ public class ExcelWriteUtil{
         OutputStream outputStream = FileUtil.getFileOutputStream(useOutputFileName);
         Validate.notNull(outputStream, "outputStream can't be null!");
 
-        ExcelWriter excelWriter = buildExcelWriter(sheetDefinitions, sheetNames);
+        DefaultExcelWriter excelWriter = buildExcelWriter(sheetDefinitions, sheetNames);
+        excelWriter.setStreaming(streaming);
         excelWriter.write(templateLocation, outputStream, beans);
 
         //---------------------------------------------------------------
@@ -189,7 +229,7 @@ public class ExcelWriteUtil{
      *            the sheet names
      * @return the excel writer
      */
-    private static ExcelWriter buildExcelWriter(Map<String, ExcelSheet> sheetDefinitions,String[] sheetNames){
+    private static DefaultExcelWriter buildExcelWriter(Map<String, ExcelSheet> sheetDefinitions,String[] sheetNames){
         ExcelDefinition excelDefinition = ExcelDefinitionBuilder.build(sheetDefinitions, sheetNames);
         return new DefaultExcelWriter(excelDefinition);
     }
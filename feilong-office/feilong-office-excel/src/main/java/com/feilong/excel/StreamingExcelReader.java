@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.excel;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+
+import com.feilong.core.Validate;
+import com.feilong.excel.definition.ExcelSheet;
+import com.feilong.excel.reader.ExcelRowsHandler;
+import com.feilong.excel.reader.ReadStatus;
+import com.feilong.excel.reader.StreamingSheetReaderUtil;
+import com.feilong.lib.excel.ognl.OgnlStack;
+
+/**
+ * 流式的 xlsx 读取.
+ * 
+ * <p>
+ * 和 {@link DefaultExcelReader} 使用相同的 {@link ExcelDefinition} 配置, 区别在于:
+ * </p>
+ * 
+ * <ul>
+ * <li>基于 SAX 逐行解析, 不会构造整个 workbook, 读取几十万行的文件内存基本恒定;</li>
+ * <li>循环 block 的数据不会放到 <code>beans</code> 中, 而是每满 <code>batchSize</code> 条回调一次 {@link ExcelRowsHandler}, 由调用方入库或者处理;</li>
+ * <li>普通 block 的值在 sheet 读完之后设置到 <code>beans</code>;</li>
+ * <li>只支持 xlsx, 公式单元格读取的是文件中缓存的计算结果.</li>
+ * </ul>
+ * 
+ * <h3>示例:</h3>
+ * 
+ * <blockquote>
+ * 
+ * <pre class="code">
+ * StreamingExcelReader streamingExcelReader = new StreamingExcelReader(excelDefinition);
+ * ReadStatus readStatus = streamingExcelReader.readSheet(inputStream, 0, beans, 500, list -&gt; memberDao.batchInsert(list));
+ * </pre>
+ * 
+ * </blockquote>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @see StreamingSheetReaderUtil
+ * @since 4.5.5
+ */
+public class StreamingExcelReader extends AbstractExcelConfig{
+
+    /** The skip errors. */
+    private boolean skipErrors = true;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new streaming excel reader.
+     */
+    public StreamingExcelReader(){
+    }
+
+    /**
+     * Instantiates a new streaming excel reader.
+     *
+     * @param excelDefinition
+     *            the excel definition
+     */
+    public StreamingExcelReader(ExcelDefinition excelDefinition){
+        super();
+        this.excelDefinition = excelDefinition;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 流式读取 <code>inputStream</code> 中的某个 sheet.
+     * 
+     * <p>
+     * xlsx 是 zip 格式, 随机读取需要文件, 所以 <code>inputStream</code> 会先复制到临时文件, 读取完成后删除;<br>
+     * 如果已经有文件, 推荐直接使用 {@link #readSheet(File, int, Map, int, ExcelRowsHandler)}.
+     * </p>
+     *
+     * @param <T>
+     *            the generic type
+     * @param inputStream
+     *            the input stream
+     * @param sheetNo
+     *            第几个sheet,从0开始
+     * @param beans
+     *            普通 block 的数据会设置到这里
+     * @param batchSize
+     *            每批的数量
+     * @param excelRowsHandler
+     *            循环 block 数据的回调
+     * @return the read status
+     */
+    public <T> ReadStatus readSheet(
+                    InputStream inputStream,
+                    int sheetNo,
+                    Map<String, Object> beans,
+                    int batchSize,
+                    ExcelRowsHandler<T> excelRowsHandler){
+        Validate.notNull(inputStream, "inputStream can't be null!");
+
+        Path tempFile = null;
+        try{
+            tempFile = Files.createTempFile("feilong-excel-", ".xlsx");
+            Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            return readSheet(tempFile.toFile(), sheetNo, beans, batchSize, excelRowsHandler);
+        }catch (IOException e){
+            throw new UncheckedIOException(e);
+        }finally{
+            deleteQuietly(tempFile);
+        }
+    }
+
+    /**
+     * 流式读取 <code>file</code> 中的某个 sheet.
+     *
+     * @param <T>
+     *            the generic type
+     * @param file
+     *            xlsx 文件
+     * @param sheetNo
+     *            第几个sheet,从0开始
+     * @param beans
+     *            普通 block 的数据会设置到这里
+     * @param batchSize
+     *            每批的数量
+     * @param excelRowsHandler
+     *            循环 block 数据的回调
+     * @return the read status
+     */
+    public <T> ReadStatus readSheet(File file,int sheetNo,Map<String, Object> beans,int batchSize,ExcelRowsHandler<T> excelRowsHandler){
+        List<ExcelSheet> excelSheets = excelDefinition.getExcelSheets();
+        Validate.isTrue(excelSheets.size() > 0, "No sheet definition found");
+
+        ReadStatus readStatus = new ReadStatus();
+        readStatus.setStatus(ReadStatus.STATUS_SUCCESS);
+
+        //Only first ExcelSheet Definition will be used
+        StreamingSheetReaderUtil.readSheet(
+                        file,
+                        sheetNo,
+                        excelSheets.iterator().next(),
+                        new OgnlStack(beans),
+                        readStatus,
+                        skipErrors,
+                        batchSize,
+                        excelRowsHandler);
+        return readStatus;
+    }
+
+    //---------------------------------------------------------------
+
+    private static void deleteQuietly(Path path){
+        if (null == path){
+            return;
+        }
+        try{
+            Files.deleteIfExists(path);
+        }catch (IOException e){
+            path.toFile().deleteOnExit();
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Sets the skip errors.
+     *
+     * @param skipErrors
+     *            the new skip errors
+     */
+    public void setSkipErrors(boolean skipErrors){
+        this.skipErrors = skipErrors;
+    }
+}
@@ -121,18 +121,36 @@ class BlockReader{
 
     //---------------------------------------------------------------
     static Object readBlock(Workbook workbook,int sheetNo,ExcelBlock excelBlock,int startRow,ReadStatus readStatus) throws Exception{
-        Sheet sheet = workbook.getSheetAt(sheetNo);
-        FormulaEvaluator formulaEvaluator = workbook.getCreationHelper().createFormulaEvaluator();
+        return readBlock(sheetNo, excelBlock, startRow, readStatus, buildCellValueReader(workbook, sheetNo));
+    }
 
+    /**
+     * Read block.
+     *
+     * @param sheetNo
+     *            the sheet no
+     * @param excelBlock
+     *            the excel block
+     * @param startRow
+     *            这个 block 实际的开始行
+     * @param readStatus
+     *            the read status
+     * @param cellValueReader
+     *            cell 值的来源
+     * @return 如果 <code>excelBlock</code> 没有配置 loopClass, 返回 map; 否则返回 loopClass 的实例
+     * @throws Exception
+     *             the exception
+     * @since 4.5.5
+     */
+    static Object readBlock(int sheetNo,ExcelBlock excelBlock,int startRow,ReadStatus readStatus,CellValueReader cellValueReader)
+                    throws Exception{
         if (excelBlock.getLoopClass() == null){
             Map<String, Object> result = new HashMap<>();
 
             for (ExcelCell cellDefinition : excelBlock.getCells()){
                 int rowOffSet = cellDefinition.getRow() - excelBlock.getStartRow();
-                Row row = sheet.getRow(startRow + rowOffSet);
-                Cell cell = row == null ? null : row.getCell(cellDefinition.getCol());
                 try{
-                    Object value = CellValueGetter.get(cell, formulaEvaluator);
+                    Object value = cellValueReader.read(startRow + rowOffSet, cellDefinition.getCol());
                     value = CellValueConverter.convert(
                                     sheetNo,
                                     getCellRef(startRow + rowOffSet, cellDefinition.getCol()),
@@ -162,12 +180,9 @@ class BlockReader{
         OgnlStack ognlStack = new OgnlStack(result);
         for (ExcelCell excelCell : excelBlock.getCells()){
             int rowOffSet = excelCell.getRow() - excelBlock.getStartRow();
-            Row row = sheet.getRow(startRow + rowOffSet);
             int col = excelCell.getCol();
-
-            Cell cell = row == null ? null : row.getCell(col);
             try{
-                Object value = CellValueGetter.get(cell, formulaEvaluator);
+                Object value = cellValueReader.read(startRow + rowOffSet, col);
                 value = CellValueConverter.convert(
                                 sheetNo,
                                 CellReferenceUtil.getCellRef(startRow + rowOffSet, col),
@@ -203,16 +218,29 @@ class BlockReader{
      *            the read status
      */
     static void readSimpleBlock(Workbook workbook,int sheetNo,ExcelBlock excelBlock,OgnlStack ognlStack,ReadStatus readStatus){
-        //Simple Block will only care about cells in these Block
-        Sheet sheet = workbook.getSheetAt(sheetNo);
-        FormulaEvaluator formulaEvaluator = workbook.getCreationHelper().createFormulaEvaluator();
+        readSimpleBlock(sheetNo, excelBlock, ognlStack, readStatus, buildCellValueReader(workbook, sheetNo));
+    }
 
-        //---------------------------------------------------------------
+    /**
+     * Read simple block.
+     *
+     * @param sheetNo
+     *            the sheet no
+     * @param excelBlock
+     *            the block definition
+     * @param ognlStack
+     *            the stack
+     * @param readStatus
+     *            the read status
+     * @param cellValueReader
+     *            cell 值的来源
+     * @since 4.5.5
+     */
+    static void readSimpleBlock(int sheetNo,ExcelBlock excelBlock,OgnlStack ognlStack,ReadStatus readStatus,CellValueReader cellValueReader){
+        //Simple Block will only care about cells in these Block
         for (ExcelCell excelCell : excelBlock.getCells()){
-            Row row = sheet.getRow(excelCell.getRow());
-            Cell cell = row == null ? null : row.getCell(excelCell.getCol());
             try{
-                Object value = CellValueGetter.get(cell, formulaEvaluator);
+                Object value = cellValueReader.read(excelCell.getRow(), excelCell.getCol());
 
                 Class<?> propertyType = PropertyTypeDetector.detect(ognlStack.peek(), excelCell);
                 value = CellValueConverter
@@ -237,4 +265,16 @@ class BlockReader{
         }
     }
 
+    //---------------------------------------------------------------
+
+    private static CellValueReader buildCellValueReader(Workbook workbook,int sheetNo){
+        Sheet sheet = workbook.getSheetAt(sheetNo);
+        FormulaEvaluator formulaEvaluator = workbook.getCreationHelper().createFormulaEvaluator();
+        return (rowIndex,columnIndex) -> {
+            Row row = sheet.getRow(rowIndex);
+            Cell cell = row == null ? null : row.getCell(columnIndex);
+            return CellValueGetter.get(cell, formulaEvaluator);
+        };
+    }
+
 }
@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.excel.reader;
+
+/**
+ * 读取某个位置 cell 的值, 用来屏蔽 cell 值的来源 (usermodel 的 {@link org.apache.poi.ss.usermodel.Sheet} 或者流式解析的行缓存).
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@FunctionalInterface
+interface CellValueReader{
+
+    /**
+     * 读取 cell 的值.
+     *
+     * @param rowIndex
+     *            行,从0开始
+     * @param columnIndex
+     *            列,从0开始
+     * @return 如果 cell 不存在或者是空白,返回null; 否则返回 {@link Boolean}, {@link Double}, {@link java.util.Date} 或者 {@link String}
+     */
+    Object read(int rowIndex,int columnIndex);
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.excel.reader;
+
+import java.util.List;
+
+/**
+ * 流式读取 excel 时, 循环 block 读出来的数据的回调.
+ * 
+ * <p>
+ * 流式读取不会把所有数据放到内存中的集合里面, 而是每读满 batchSize 条就回调一次, 处理完这一批数据就可以被回收, 从而在常量内存中导入大文件.
+ * </p>
+ *
+ * @param <T>
+ *            循环 block 的 loopClass, 没有配置 loopClass 时是 {@link java.util.Map}
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@FunctionalInterface
+public interface ExcelRowsHandler<T> {
+
+    /**
+     * 处理一批数据.
+     *
+     * @param list
+     *            这一批数据, 最后一批可能不满 batchSize 条; 如果 batchSize 是1, 那么就是逐行回调
+     */
+    void handle(List<T> list);
+}
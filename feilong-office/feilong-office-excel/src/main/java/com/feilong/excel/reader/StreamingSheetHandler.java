@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.excel.reader;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * 解析 xlsx sheet xml (<code>xl/worksheets/sheetN.xml</code>) 的 SAX handler.
+ * 
+ * <p>
+ * 每解析完一行, 把这一行的 cell 值 (列号 -&gt; 值) 交给 {@link StreamingSheetReader#row(int, Map)};<br>
+ * 值的类型和 {@link CellValueGetter} 保持一致: {@link Boolean}, {@link Double}, {@link java.util.Date} (日期格式的数字) 或者 {@link String};
+ * 公式直接使用文件中缓存的计算结果, 不再重新计算.
+ * </p>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+class StreamingSheetHandler extends DefaultHandler{
+
+    /** The shared strings. */
+    private final SharedStrings         sharedStrings;
+
+    /** The styles table. */
+    private final StylesTable           stylesTable;
+
+    /** The streaming sheet reader. */
+    private final StreamingSheetReader<?> streamingSheetReader;
+
+    /** 样式索引是否是日期格式的缓存. */
+    private final Map<Integer, Boolean> dateStyleMap = new HashMap<>();
+
+    //---------------------------------------------------------------
+
+    /** 当前行. */
+    private int                         rowIndex     = -1;
+
+    /** 当前行的值. */
+    private Map<Integer, Object>        rowValues;
+
+    /** 当前列. */
+    private int                         columnIndex;
+
+    /** 当前 cell 的类型, t 属性. */
+    private String                      cellType;
+
+    /** 当前 cell 的样式, s 属性. */
+    private int                         styleIndex;
+
+    /** 当前 cell 的值. */
+    private final StringBuilder         value        = new StringBuilder();
+
+    /** 是否在收集值. */
+    private boolean                     isCollecting;
+
+    /** 是否在拼音 (rPh) 标签中, 拼音不是值的一部分. */
+    private boolean                     isInPhonetic;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new streaming sheet handler.
+     *
+     * @param sharedStrings
+     *            the shared strings
+     * @param stylesTable
+     *            the styles table
+     * @param streamingSheetReader
+     *            the streaming sheet reader
+     */
+    StreamingSheetHandler(SharedStrings sharedStrings, StylesTable stylesTable, StreamingSheetReader<?> streamingSheetReader){
+        this.sharedStrings = sharedStrings;
+        this.stylesTable = stylesTable;
+        this.streamingSheetReader = streamingSheetReader;
+    }
+
+    //---------------------------------------------------------------
+
+    @Override
+    public void startElement(String uri,String localName,String qName,Attributes attributes){
+        switch (localName) {
+            case "row":
+                String r = attributes.getValue("r");
+                rowIndex = null == r ? rowIndex + 1 : Integer.parseInt(r) - 1;
+                rowValues = new HashMap<>();
+                columnIndex = -1;
+                break;
+            case "c":
+                String ref = attributes.getValue("r");
+                columnIndex = null == ref ? columnIndex + 1 : new CellReference(ref).getCol();
+                cellType = attributes.getValue("t");
+                String s = attributes.getValue("s");
+                styleIndex = null == s ? 0 : Integer.parseInt(s);
+                value.setLength(0);
+                break;
+            case "v":
+                isCollecting = true;
+                break;
+            case "t":
+                isCollecting = "inlineStr".equals(cellType) && !isInPhonetic;
+                break;
+            case "rPh":
+                isInPhonetic = true;
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void endElement(String uri,String localName,String qName){
+        switch (localName) {
+            case "v":
+            case "t":
+                isCollecting = false;
+                break;
+            case "rPh":
+                isInPhonetic = false;
+                break;
+            case "c":
+                Object cellValue = toCellValue();
+                if (null != cellValue){
+                    rowValues.put(columnIndex, cellValue);
+                }
+                break;
+            case "row":
+                streamingSheetReader.row(rowIndex, rowValues);
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void characters(char[] ch,int start,int length){
+        if (isCollecting){
+            value.append(ch, start, length);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    private Object toCellValue(){
+        if ("inlineStr".equals(cellType)){
+            return value.toString();
+        }
+        if (value.length() == 0){
+            return null;
+        }
+
+        //---------------------------------------------------------------
+        String text = value.toString();
+        if (null == cellType || "n".equals(cellType)){
+            double number = Double.parseDouble(text);
+            return isDateStyle(styleIndex) && DateUtil.isValidExcelDate(number) ? DateUtil.getJavaDate(number) : number;
+        }
+        switch (cellType) {
+            case "s":
+                return sharedStrings.getItemAt(Integer.parseInt(text)).getString();
+            case "str":
+                return text;
+            case "b":
+                return "1".equals(text);
+            default:
+                //e 错误
+                return null;
+        }
+    }
+
+    private boolean isDateStyle(int index){
+        return dateStyleMap.computeIfAbsent(index, key -> {
+            if (null == stylesTable || key >= stylesTable.getNumCellStyles()){
+                return false;
+            }
+            XSSFCellStyle cellStyle = stylesTable.getStyleAt(key);
+            short dataFormat = cellStyle.getDataFormat();
+            String dataFormatString = cellStyle.getDataFormatString();
+            if (null == dataFormatString){
+                dataFormatString = BuiltinFormats.getBuiltinFormat(dataFormat);
+            }
+            return DateUtil.isADateFormat(dataFormat, dataFormatString);
+        });
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.excel.reader;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.feilong.excel.definition.ExcelBlock;
+import com.feilong.excel.definition.ExcelCell;
+import com.feilong.excel.definition.ExcelSheet;
+import com.feilong.excel.definition.LoopBreakCondition;
+import com.feilong.lib.excel.ognl.OgnlStack;
+
+/**
+ * 基于行事件的 sheet 读取, 逻辑同 {@link SheetReader}.
+ * 
+ * <h3>说明:</h3>
+ * 
+ * <blockquote>
+ * <ol>
+ * <li>同 {@link SheetReader}, 只读取第一个循环 block; 循环 block 的行只缓存当前 block 需要的几行, 每读出一个元素放到批次中, 满 batchSize 条回调
+ * {@link ExcelRowsHandler}, 不会放到 beans 里面.</li>
+ * <li>普通 block 只缓存定义中需要的 cell, 整个 sheet 读完之后, 按照定义顺序设置到 beans 中.</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @param <T>
+ *            the generic type
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@SuppressWarnings("squid:S1192") //String literals should not be duplicated
+@lombok.extern.slf4j.Slf4j
+class StreamingSheetReader<T> {
+
+    /** The Constant STATUS_SYSTEM_ERROR. */
+    private static final int                         STATUS_SYSTEM_ERROR          = 5;
+
+    /** The Constant STATUS_DATA_COLLECTION_ERROR. */
+    private static final int                         STATUS_DATA_COLLECTION_ERROR = 10;
+
+    //---------------------------------------------------------------
+
+    /** The sheet no. */
+    private final int                                sheetNo;
+
+    /** The excel sheet. */
+    private final ExcelSheet                         excelSheet;
+
+    /** The ognl stack. */
+    private final OgnlStack                          ognlStack;
+
+    /** The read status. */
+    private final ReadStatus                         readStatus;
+
+    /** The skip errors. */
+    private final boolean                            skipErrors;
+
+    /** The batch size. */
+    private final int                                batchSize;
+
+    /** The excel rows handler. */
+    private final ExcelRowsHandler<T>                excelRowsHandler;
+
+    //---------------------------------------------------------------
+
+    /** 第一个循环 block, 如果没有是null. */
+    private final ExcelBlock                         loopBlock;
+
+    /** 循环 block 的高度. */
+    private final int                                step;
+
+    /** 判断一个循环元素需要的行数, 包括 break 条件所在的行. */
+    private final int                                span;
+
+    /** 下一个循环元素的开始行. */
+    private int                                      nextStartRow;
+
+    /** 循环是否已经结束. */
+    private boolean                                  isLoopFinished;
+
+    /** 循环 block 缓存的行, key 是行号. */
+    private final NavigableMap<Integer, Map<Integer, Object>> loopRows          = new TreeMap<>();
+
+    /** 当前批次. */
+    private List<T>                                  batch;
+
+    //---------------------------------------------------------------
+
+    /** 普通 block 需要的 cell 位置, key 是行号, value 是列号. */
+    private final Map<Integer, Set<Integer>>         simpleCellPositions          = new HashMap<>();
+
+    /** 普通 block 需要的 cell 值. */
+    private final Map<Integer, Map<Integer, Object>> simpleCellValues             = new HashMap<>();
+
+    /** 最后一行. */
+    private int                                      lastRowNum                   = -1;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new streaming sheet reader.
+     *
+     * @param sheetNo
+     *            the sheet no
+     * @param excelSheet
+     *            the excel sheet
+     * @param ognlStack
+     *            the ognl stack
+     * @param readStatus
+     *            the read status
+     * @param skipErrors
+     *            the skip errors
+     * @param batchSize
+     *            the batch size
+     * @param excelRowsHandler
+     *            the excel rows handler
+     */
+    StreamingSheetReader(int sheetNo, ExcelSheet excelSheet, OgnlStack ognlStack, ReadStatus readStatus, boolean skipErrors, int batchSize,
+                    ExcelRowsHandler<T> excelRowsHandler){
+        this.sheetNo = sheetNo;
+        this.excelSheet = excelSheet;
+        this.ognlStack = ognlStack;
+        this.readStatus = readStatus;
+        this.skipErrors = skipErrors;
+        this.batchSize = batchSize;
+        this.excelRowsHandler = excelRowsHandler;
+        this.batch = new ArrayList<>(batchSize);
+
+        //---------------------------------------------------------------
+        ExcelBlock firstLoopBlock = null;
+        for (ExcelBlock excelBlock : excelSheet.getExcelBlocks()){
+            if (excelBlock.isLoop()){
+                //In Read Operation only the first loopBlock will be read
+                if (null == firstLoopBlock){
+                    firstLoopBlock = excelBlock;
+                }
+                continue;
+            }
+            for (ExcelCell excelCell : excelBlock.getCells()){
+                simpleCellPositions.computeIfAbsent(excelCell.getRow(), key -> new HashSet<>()).add(excelCell.getCol());
+            }
+        }
+        this.loopBlock = firstLoopBlock;
+        this.isLoopFinished = null == firstLoopBlock;
+        if (null == firstLoopBlock){
+            this.step = 0;
+            this.span = 0;
+            return;
+        }
+
+        //---------------------------------------------------------------
+        this.step = firstLoopBlock.getEndRow() - firstLoopBlock.getStartRow() + 1;
+        LoopBreakCondition loopBreakCondition = firstLoopBlock.getBreakCondition();
+        this.span = null == loopBreakCondition ? step : Math.max(step, loopBreakCondition.getRowOffset() + 1);
+        this.nextStartRow = firstLoopBlock.getStartRow();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 解析完一行.
+     *
+     * @param rowIndex
+     *            行号, 从小到大
+     * @param rowValues
+     *            这一行非空 cell 的值, key 是列号
+     */
+    void row(int rowIndex,Map<Integer, Object> rowValues){
+        lastRowNum = rowIndex;
+
+        Set<Integer> columns = simpleCellPositions.get(rowIndex);
+        if (null != columns){
+            Map<Integer, Object> values = new HashMap<>();
+            for (Integer column : columns){
+                values.put(column, rowValues.get(column));
+            }
+            simpleCellValues.put(rowIndex, values);
+        }
+
+        //---------------------------------------------------------------
+        //当前元素需要的行已经全部解析完毕 (中间的空行不会出现在 xml 中)
+        while (!isLoopFinished && rowIndex >= nextStartRow + span){
+            readLoopElement();
+        }
+        if (!isLoopFinished && rowIndex >= nextStartRow && !rowValues.isEmpty()){
+            loopRows.put(rowIndex, rowValues);
+        }
+    }
+
+    /**
+     * 整个 sheet 解析完毕, 读取剩下的循环元素以及普通 block.
+     */
+    void endSheet(){
+        //同 BlockReaderLoopBreaker, 开始行超过最后一行就结束
+        while (!isLoopFinished && nextStartRow <= lastRowNum){
+            readLoopElement();
+        }
+        if (!batch.isEmpty()){
+            excelRowsHandler.handle(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+
+        //---------------------------------------------------------------
+        CellValueReader cellValueReader = (rowIndex,columnIndex) -> {
+            Map<Integer, Object> values = simpleCellValues.get(rowIndex);
+            return null == values ? null : values.get(columnIndex);
+        };
+        for (ExcelBlock excelBlock : excelSheet.getExcelBlocks()){
+            int status = readStatus.getStatus();
+            if (!excelBlock.isLoop() && ((skipErrors && status == STATUS_DATA_COLLECTION_ERROR) || status == ReadStatus.STATUS_SUCCESS)){
+                BlockReader.readSimpleBlock(sheetNo, excelBlock, ognlStack, readStatus, cellValueReader);
+            }
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    private void readLoopElement(){
+        if (isBreak()){
+            isLoopFinished = true;
+            loopRows.clear();
+            return;
+        }
+
+        //---------------------------------------------------------------
+        try{
+            CellValueReader cellValueReader = (rowIndex,columnIndex) -> {
+                Map<Integer, Object> values = loopRows.get(rowIndex);
+                return null == values ? null : values.get(columnIndex);
+            };
+            @SuppressWarnings("unchecked")
+            T value = (T) BlockReader.readBlock(sheetNo, loopBlock, nextStartRow, readStatus, cellValueReader);
+            batch.add(value);
+        }catch (Exception e){
+            log.error("", e);
+            readStatus.setStatus(STATUS_SYSTEM_ERROR);
+            readStatus.setMessage(e.getMessage());
+            isLoopFinished = true;
+            loopRows.clear();
+            return;
+        }
+
+        //---------------------------------------------------------------
+        nextStartRow += step;
+        for (Iterator<Integer> iterator = loopRows.keySet().iterator(); iterator.hasNext();){
+            if (iterator.next() >= nextStartRow){
+                break;
+            }
+            iterator.remove();
+        }
+        if (batch.size() >= batchSize){
+            excelRowsHandler.handle(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    /**
+     * 逻辑同 {@link BlockReaderLoopBreaker#checkBreak(org.apache.poi.ss.usermodel.Sheet, int, int, LoopBreakCondition)}.
+     */
+    private boolean isBreak(){
+        LoopBreakCondition loopBreakCondition = loopBlock.getBreakCondition();
+        if (null == loopBreakCondition){
+            return false;
+        }
+        Map<Integer, Object> values = loopRows.get(nextStartRow + loopBreakCondition.getRowOffset());
+        if (null == values){
+            return false;
+        }
+        Object value = values.get(loopBlock.getStartCol() + loopBreakCondition.getColOffset());
+        return loopBreakCondition.getFlagString().equals(value);
+    }
+}
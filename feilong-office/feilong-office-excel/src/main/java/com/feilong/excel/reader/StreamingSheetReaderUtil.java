@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.excel.reader;
+
+import static com.feilong.core.date.DateUtil.formatElapsedTime;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.ooxml.util.SAXHelper;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import com.feilong.core.DefaultRuntimeException;
+import com.feilong.core.Validate;
+import com.feilong.excel.definition.ExcelSheet;
+import com.feilong.lib.excel.ognl.OgnlStack;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * 基于 XSSF event model (SAX) 的 sheet 读取.
+ * 
+ * <p>
+ * {@link SheetReader} 需要 {@link org.apache.poi.ss.usermodel.WorkbookFactory#create(InputStream)} 先构造整个 workbook 的 DOM, 50M 的文件就可能占用几个 G
+ * 的堆;<br>
+ * 本类直接以 SAX 的方式逐行解析 sheet xml, 使用相同的 {@link ExcelSheet}/block 定义把行映射成 bean, 内存中只保留当前循环元素需要的几行以及一个批次的数据.
+ * </p>
+ * 
+ * <p>
+ * 注意: 只支持 xlsx; 共享字符串表 (sharedStrings.xml) 仍然会整体加载到内存.
+ * </p>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @see <a href="https://poi.apache.org/components/spreadsheet/how-to.html#xssf_sax_api">XSSF and SAX (Event API)</a>
+ * @since 4.5.5
+ */
+@lombok.extern.slf4j.Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class StreamingSheetReaderUtil{
+
+    /**
+     * 流式读取 xlsx 文件中的某个 sheet.
+     *
+     * @param <T>
+     *            the generic type
+     * @param file
+     *            xlsx 文件, 以 {@link PackageAccess#READ} 方式打开, 不会整体解压到内存
+     * @param sheetNo
+     *            第几个sheet,从0开始
+     * @param excelSheet
+     *            the excel sheet
+     * @param ognlStack
+     *            普通 block 的值会设置到这里
+     * @param readStatus
+     *            the read status
+     * @param skipErrors
+     *            the skip errors
+     * @param batchSize
+     *            每批的数量, 1 表示逐行回调
+     * @param excelRowsHandler
+     *            循环 block 数据的回调
+     */
+    public static <T> void readSheet(
+                    File file,
+                    int sheetNo,
+                    ExcelSheet excelSheet,
+                    OgnlStack ognlStack,
+                    ReadStatus readStatus,
+                    boolean skipErrors,
+                    int batchSize,
+                    ExcelRowsHandler<T> excelRowsHandler){
+        Validate.notNull(file, "file can't be null!");
+        Validate.notNull(excelSheet, "excelSheet can't be null!");
+        Validate.isTrue(batchSize > 0, "batchSize:[%s] must > 0", batchSize);
+        Validate.notNull(excelRowsHandler, "excelRowsHandler can't be null!");
+
+        //---------------------------------------------------------------
+        long beginTimeMillis = System.currentTimeMillis();
+        try (OPCPackage opcPackage = OPCPackage.open(file, PackageAccess.READ)){
+            XSSFReader xssfReader = new XSSFReader(opcPackage);
+            StreamingSheetReader<T> streamingSheetReader = new StreamingSheetReader<>(
+                            sheetNo,
+                            excelSheet,
+                            ognlStack,
+                            readStatus,
+                            skipErrors,
+                            batchSize,
+                            excelRowsHandler);
+
+            XMLReader xmlReader = SAXHelper.newXMLReader();
+            xmlReader.setContentHandler(
+                            new StreamingSheetHandler(
+                                            new ReadOnlySharedStringsTable(opcPackage),
+                                            xssfReader.getStylesTable(),
+                                            streamingSheetReader));
+            try (InputStream sheetInputStream = getSheetInputStream(xssfReader, sheetNo)){
+                xmlReader.parse(new InputSource(sheetInputStream));
+            }
+            streamingSheetReader.endSheet();
+        }catch (IOException e){
+            throw new UncheckedIOException(e);
+        }catch (OpenXML4JException | SAXException | ParserConfigurationException e){
+            throw new DefaultRuntimeException(e);
+        }
+
+        //---------------------------------------------------------------
+        if (log.isDebugEnabled()){
+            log.debug("streaming read sheet:[{}] of file:[{}], use time: [{}]", sheetNo, file, formatElapsedTime(beginTimeMillis));
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    private static InputStream getSheetInputStream(XSSFReader xssfReader,int sheetNo) throws IOException,OpenXML4JException{
+        Iterator<InputStream> sheetsData = xssfReader.getSheetsData();
+        for (int i = 0; sheetsData.hasNext(); i++){
+            InputStream inputStream = sheetsData.next();
+            if (i == sheetNo){
+                return inputStream;
+            }
+            inputStream.close();
+        }
+        throw new IllegalArgumentException("sheetNo:[" + sheetNo + "] is more than number of sheets in file.");
+    }
+}
@@ -52,8 +52,10 @@ class ColumnWriter{
             int endCol = excelBlock.getEndCol();
             BlockCopyer.copy(sheet, startRow, startCol, endRow, endCol, rowOffset, colOffset, mergedRegions);
         }
+        writeContent(sheet, excelBlock, ognlStack, rowOffset, colOffset, styleMap);
+    }
 
-        //---------------------------------------------------------------
+    static void writeContent(Sheet sheet,ExcelBlock excelBlock,OgnlStack ognlStack,int rowOffset,int colOffset,Map<String, CellStyle> styleMap){
         if (isNotNullOrEmpty(styleMap)){
             for (ExcelCellConditionStyle style : excelBlock.getStyles()){
                 Object obj = ognlStack.getValue(style.getCondition());
@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.excel.writer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+
+/**
+ * 模板中某一行的快照.
+ * 
+ * <p>
+ * 流式写出时, 模板中第一个循环 block 以及之后的行会从模板 sheet 中移除, 之后再按数据量重复复制到新行中;<br>
+ * 由于行被移除之后, 底层的 xml 对象就不能再访问了, 所以在移除之前先把高度,样式,值这些需要的信息保存下来.
+ * </p>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @see StreamingSheetWriter
+ * @since 4.5.5
+ */
+final class RowTemplate{
+
+    /** 模板中的行号. */
+    private final int                rowNum;
+
+    /** 行高. */
+    private final short              height;
+
+    /** 行中的 cell. */
+    private final List<CellTemplate> cellTemplates = new ArrayList<>();
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new row template.
+     *
+     * @param row
+     *            the row
+     */
+    RowTemplate(Row row){
+        this.rowNum = row.getRowNum();
+        this.height = row.getHeight();
+        for (Cell cell : row){
+            cellTemplates.add(new CellTemplate(cell));
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 将整行复制到 <code>rowNum + rowOffset</code> 行.
+     *
+     * @param sheet
+     *            the sheet
+     * @param rowOffset
+     *            the row offset
+     */
+    void copy(Sheet sheet,int rowOffset){
+        copy(sheet, 0, Integer.MAX_VALUE, rowOffset, 0);
+    }
+
+    /**
+     * 将 <code>[startCol,endCol]</code> 之间的 cell 复制到 <code>rowNum + rowOffset</code> 行, 列偏移 <code>colOffset</code>.
+     * 
+     * <p>
+     * 逻辑同 {@link BlockCopyer#copy(Sheet, int, int, int, int, int, int, List)}, 只是数据来源是快照.
+     * </p>
+     *
+     * @param sheet
+     *            the sheet
+     * @param startCol
+     *            the start col
+     * @param endCol
+     *            the end col
+     * @param rowOffset
+     *            the row offset
+     * @param colOffset
+     *            the col offset
+     */
+    void copy(Sheet sheet,int startCol,int endCol,int rowOffset,int colOffset){
+        int newRowIndex = rowNum + rowOffset;
+        Row newRow = sheet.getRow(newRowIndex);
+        if (newRow == null){
+            newRow = sheet.createRow(newRowIndex);
+        }
+        if (height >= 0){
+            newRow.setHeight(height);
+        }
+
+        //---------------------------------------------------------------
+        for (CellTemplate cellTemplate : cellTemplates){
+            int col = cellTemplate.col;
+            if (col < startCol || col > endCol){
+                continue;
+            }
+            int newCellIndex = col + colOffset;
+            Cell newCell = newRow.getCell(newCellIndex);
+            if (newCell == null){
+                newCell = newRow.createCell(newCellIndex);
+            }
+            cellTemplate.copy(newCell, rowOffset, colOffset);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Gets the row num.
+     *
+     * @return the row num
+     */
+    int getRowNum(){
+        return rowNum;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 模板中某一个 cell 的快照.
+     */
+    private static final class CellTemplate{
+
+        /** 列. */
+        private final int       col;
+
+        /** 样式. */
+        private final CellStyle cellStyle;
+
+        /** 类型. */
+        private final CellType  cellType;
+
+        /** 值, 公式类型的话是公式字符串. */
+        private final Object    value;
+
+        //---------------------------------------------------------------
+
+        /**
+         * Instantiates a new cell template.
+         *
+         * @param cell
+         *            the cell
+         */
+        CellTemplate(Cell cell){
+            this.col = cell.getColumnIndex();
+            this.cellStyle = cell.getCellStyle();
+            this.cellType = cell.getCellType();
+            this.value = getValue(cell);
+        }
+
+        private static Object getValue(Cell cell){
+            switch (cell.getCellType()) {
+                case STRING:
+                    RichTextString richTextString = cell.getRichStringCellValue();
+                    //没有格式的话直接保存字符串, 不依赖底层 xml 对象
+                    return richTextString.numFormattingRuns() == 0 ? richTextString.getString() : richTextString;
+                case NUMERIC:
+                    return cell.getNumericCellValue();
+                case BOOLEAN:
+                    return cell.getBooleanCellValue();
+                case ERROR:
+                    return cell.getErrorCellValue();
+                case FORMULA:
+                    return cell.getCellFormula();
+                default:
+                    return null;
+            }
+        }
+
+        //---------------------------------------------------------------
+
+        /**
+         * 逻辑同 {@link CellCoper#copy(Cell, Cell, int, int)}.
+         *
+         * @param newCell
+         *            the new cell
+         * @param rowOffset
+         *            the row offset
+         * @param colOffset
+         *            the col offset
+         */
+        void copy(Cell newCell,int rowOffset,int colOffset){
+            newCell.setCellStyle(cellStyle);
+
+            switch (cellType) {
+                case STRING:
+                    if (value instanceof RichTextString){
+                        newCell.setCellValue((RichTextString) value);
+                    }else{
+                        newCell.setCellValue((String) value);
+                    }
+                    break;
+                case NUMERIC:
+                    newCell.setCellValue((Double) value);
+                    break;
+                case BLANK:
+                    newCell.setBlank();
+                    break;
+                case BOOLEAN:
+                    newCell.setCellValue((Boolean) value);
+                    break;
+                case ERROR:
+                    newCell.setCellErrorValue((Byte) value);
+                    break;
+                case FORMULA:
+                    newCell.setCellFormula(FormulaEvaluatorUtil.offsetFormula((String) value, rowOffset, colOffset));
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+}
@@ -70,7 +70,7 @@ class RowWriter{
         }
     }
 
-    private static void writeCells(Sheet sheet,ExcelBlock excelBlock,int rowOffset,Map<String, CellStyle> styleMap,OgnlStack ognlStack){
+    static void writeCells(Sheet sheet,ExcelBlock excelBlock,int rowOffset,Map<String, CellStyle> styleMap,OgnlStack ognlStack){
         long beginTimeMillis = System.currentTimeMillis();
 
         int rowIndex = 0;
@@ -117,7 +117,7 @@ class RowWriter{
         return dataName;
     }
 
-    private static void setStyle(Sheet sheet,ExcelBlock excelBlock,int rowOffset,Map<String, CellStyle> styleMap,OgnlStack ognlStack){
+    static void setStyle(Sheet sheet,ExcelBlock excelBlock,int rowOffset,Map<String, CellStyle> styleMap,OgnlStack ognlStack){
         for (ExcelCellConditionStyle style : excelBlock.getStyles()){
             Object obj = ognlStack.getValue(style.getCondition());
             if (obj == null || !(obj instanceof Boolean)){
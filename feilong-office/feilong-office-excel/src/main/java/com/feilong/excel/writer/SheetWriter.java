@@ -52,18 +52,20 @@ class SheetWriter{
         OgnlStack ognlStack = new OgnlStack(ognlData);
         setSheetName(sheet, excelSheet, ognlStack);
         //---------------------------------------------------------------
-        List<ExcelBlock> sortedExcelBlocks = excelSheet.getSortedExcelBlocks();
-        Map<ExcelBlock, List<CellRangeAddress>> mergedRegionsMap = buildMergedRegions(sheet, sortedExcelBlocks);
-        //---------------------------------------------------------------
-        for (ExcelBlock excelBlock : sortedExcelBlocks){
-            write(sheet, excelSheet, excelBlock, styleMap, mergedRegionsMap, ognlStack);
-        }
+        write(sheet, excelSheet, excelSheet.getSortedExcelBlocks(), styleMap, ognlStack);
         //---------------------------------------------------------------
         if (log.isDebugEnabled()){
             log.debug("writeSheet:[{}], use time: [{}]", excelSheet.getName(), formatElapsedTime(beginTimeMillis));
         }
     }
 
+    static void write(Sheet sheet,ExcelSheet excelSheet,List<ExcelBlock> sortedExcelBlocks,Map<String, CellStyle> styleMap,OgnlStack ognlStack){
+        Map<ExcelBlock, List<CellRangeAddress>> mergedRegionsMap = buildMergedRegions(sheet, sortedExcelBlocks);
+        for (ExcelBlock excelBlock : sortedExcelBlocks){
+            write(sheet, excelSheet, excelBlock, styleMap, mergedRegionsMap, ognlStack);
+        }
+    }
+
     private static void write(
                     Sheet sheet,
                     ExcelSheet excelSheet,
@@ -133,7 +135,7 @@ class SheetWriter{
         return mergedRegions;
     }
 
-    private static void setSheetName(Sheet sheet,ExcelSheet excelSheet,OgnlStack ognlStack){
+    static void setSheetName(Sheet sheet,ExcelSheet excelSheet,OgnlStack ognlStack){
         String sheetName = getSheetName(excelSheet, ognlStack);
         if (sheetName != null){
             Workbook workbook = sheet.getWorkbook();
@@ -0,0 +1,375 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.excel.writer;
+
+import static com.feilong.core.Validator.isNotNullOrEmpty;
+import static com.feilong.core.date.DateUtil.formatElapsedTime;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import com.feilong.excel.definition.ExcelBlock;
+import com.feilong.excel.definition.ExcelSheet;
+import com.feilong.lib.excel.ognl.OgnlStack;
+
+/**
+ * 单个 sheet 的流式写出.
+ * 
+ * <h3>流程:</h3>
+ * 
+ * <blockquote>
+ * <ol>
+ * <li>{@link #prepare(Sheet, ExcelSheet, Map, Object)}: 在模板 sheet 上, 位于第一个行循环 block 上方的 block 按照原有逻辑直接写入;<br>
+ * 第一个行循环 block 开始的所有行和合并单元格保存成快照 ({@link RowTemplate}) 之后从模板 sheet 中移除.</li>
+ * <li>{@link #write(Sheet)}: 在 SXSSF sheet 上按照行号从小到大输出, 静态行直接复制, 行循环 block 每个元素复制一次模板行再填值,
+ * 其他 block 在偏移之后的位置填值;超出窗口的行会被刷到临时文件, 不再占用内存.</li>
+ * </ol>
+ * </blockquote>
+ * 
+ * <h3>和内存模式的区别:</h3>
+ * 
+ * <blockquote>
+ * <ol>
+ * <li>行循环 block 之后的行整体向下偏移, 这些行里面的公式引用也整体偏移(内存模式使用 shiftRows, 只会调整指向被移动行的引用).</li>
+ * <li>同一个元素所占的行必须在窗口 (rowAccessWindowSize) 之内.</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @see StreamingWorkbookWriter
+ * @since 4.5.5
+ */
+@SuppressWarnings("squid:S1192") //String literals should not be duplicated
+@lombok.extern.slf4j.Slf4j
+final class StreamingSheetWriter{
+
+    /** The excel sheet. */
+    private final ExcelSheet                         excelSheet;
+
+    /** 需要流式输出的 block, 按照开始行从小到大排序. */
+    private final List<ExcelBlock>                   excelBlocks;
+
+    /** The style map. */
+    private final Map<String, CellStyle>             styleMap;
+
+    /** The ognl stack. */
+    private final OgnlStack                          ognlStack;
+
+    /** 第一个行循环 block 的开始行. */
+    private final int                                firstLoopRow;
+
+    /** 模板的最后一行. */
+    private final int                                lastTemplateRow;
+
+    /** 模板行快照, key 是模板中的行号. */
+    private final NavigableMap<Integer, RowTemplate> rowTemplateMap = new TreeMap<>();
+
+    /** 从模板 sheet 中移除的合并单元格. */
+    private final List<CellRangeAddress>             mergedRegions  = new ArrayList<>();
+
+    //---------------------------------------------------------------
+
+    private StreamingSheetWriter(
+                    Sheet sheet,
+                    ExcelSheet excelSheet,
+                    List<ExcelBlock> excelBlocks,
+                    Map<String, CellStyle> styleMap,
+                    OgnlStack ognlStack,
+                    int firstLoopRow){
+        this.excelSheet = excelSheet;
+        this.excelBlocks = excelBlocks;
+        this.styleMap = styleMap;
+        this.ognlStack = ognlStack;
+        this.firstLoopRow = firstLoopRow;
+        this.lastTemplateRow = sheet.getLastRowNum();
+
+        //---------------------------------------------------------------
+        for (int i = sheet.getNumMergedRegions() - 1; i >= 0; i--){
+            CellRangeAddress cellRangeAddress = sheet.getMergedRegion(i);
+            if (cellRangeAddress.getFirstRow() >= firstLoopRow){
+                mergedRegions.add(cellRangeAddress);
+                sheet.removeMergedRegion(i);
+            }
+        }
+        for (int i = lastTemplateRow; i >= firstLoopRow; i--){
+            Row row = sheet.getRow(i);
+            if (row != null){
+                rowTemplateMap.put(i, new RowTemplate(row));
+                sheet.removeRow(row);
+            }
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 在模板 sheet 上写入第一个行循环 block 上方的 block, 并且为剩下的部分做快照.
+     *
+     * @param sheet
+     *            模板 sheet
+     * @param excelSheet
+     *            the excel sheet
+     * @param styleMap
+     *            the style map
+     * @param ognlData
+     *            the ognl data
+     * @return 如果这个 sheet 没有行循环 block, 所有内容都已经写入模板 sheet, 返回null
+     */
+    static StreamingSheetWriter prepare(Sheet sheet,ExcelSheet excelSheet,Map<String, CellStyle> styleMap,Object ognlData){
+        OgnlStack ognlStack = new OgnlStack(ognlData);
+        SheetWriter.setSheetName(sheet, excelSheet, ognlStack);
+
+        //---------------------------------------------------------------
+        //sortedExcelBlocks 是按照开始行从大到小排序的
+        List<ExcelBlock> sortedExcelBlocks = excelSheet.getSortedExcelBlocks();
+        int firstLoopRow = Integer.MAX_VALUE;
+        for (ExcelBlock excelBlock : sortedExcelBlocks){
+            if (isRowLoop(excelBlock)){
+                firstLoopRow = Math.min(firstLoopRow, excelBlock.getStartRow());
+            }
+        }
+
+        List<ExcelBlock> inPlaceExcelBlocks = new ArrayList<>();
+        List<ExcelBlock> streamingExcelBlocks = new ArrayList<>();
+        for (ExcelBlock excelBlock : sortedExcelBlocks){
+            if (excelBlock.getStartRow() < firstLoopRow){
+                inPlaceExcelBlocks.add(excelBlock);
+            }else{
+                streamingExcelBlocks.add(excelBlock);
+            }
+        }
+        SheetWriter.write(sheet, excelSheet, inPlaceExcelBlocks, styleMap, ognlStack);
+
+        //---------------------------------------------------------------
+        if (streamingExcelBlocks.isEmpty()){
+            return null;
+        }
+        Collections.reverse(streamingExcelBlocks);
+        return new StreamingSheetWriter(sheet, excelSheet, streamingExcelBlocks, styleMap, ognlStack, firstLoopRow);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 将快照部分按行号从小到大输出到 SXSSF sheet.
+     *
+     * @param sheet
+     *            SXSSF sheet, 对应 {@link #prepare(Sheet, ExcelSheet, Map, Object)} 时的模板 sheet
+     */
+    void write(Sheet sheet){
+        long beginTimeMillis = System.currentTimeMillis();
+
+        //模板行到输出行的偏移量
+        int rowOffset = 0;
+        //下一个需要复制的模板行
+        int nextRow = firstLoopRow;
+        for (ExcelBlock excelBlock : excelBlocks){
+            if (isRowLoop(excelBlock)){
+                copyRows(sheet, nextRow, excelBlock.getStartRow() - 1, rowOffset);
+                rowOffset = writeRowLoop(sheet, excelBlock, rowOffset);
+                nextRow = excelBlock.getEndRow() + 1;
+            }else{
+                copyRows(sheet, nextRow, excelBlock.getEndRow(), rowOffset);
+                nextRow = Math.max(nextRow, excelBlock.getEndRow() + 1);
+                writeBlock(sheet, excelBlock, rowOffset);
+            }
+        }
+        copyRows(sheet, nextRow, lastTemplateRow, rowOffset);
+
+        //---------------------------------------------------------------
+        if (log.isDebugEnabled()){
+            log.debug("streaming writeSheet:[{}], use time: [{}]", excelSheet.getName(), formatElapsedTime(beginTimeMillis));
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 行循环, 每个元素复制一次模板行, 然后填值.
+     *
+     * @return 下面模板行新的偏移量
+     */
+    private int writeRowLoop(Sheet sheet,ExcelBlock excelBlock,int rowOffset){
+        int height = excelBlock.getEndRow() - excelBlock.getStartRow() + 1;
+
+        Object value = ognlStack.getValue(excelBlock.getDataName());
+        if (value == null){
+            return rowOffset - height;
+        }
+
+        //---------------------------------------------------------------
+        Collection<?> listValue = DataToCollectionUtil.convert(value);
+        List<CellRangeAddress> blockMergedRegions = filter(mergedRegions, excelBlock);
+
+        int step = 0;
+        Object preObj = null;
+        for (Object obj : listValue){
+            ognlStack.push(obj);
+            ognlStack.addContext("preLine", preObj);
+            ognlStack.addContext("lineNum", step);
+
+            int itemRowOffset = rowOffset + step * height;
+            copyBlock(sheet, excelBlock, itemRowOffset, 0, blockMergedRegions);
+            if (isNotNullOrEmpty(styleMap)){
+                RowWriter.setStyle(sheet, excelBlock, itemRowOffset, styleMap, ognlStack);
+            }
+            RowWriter.writeCells(sheet, excelBlock, itemRowOffset, styleMap, ognlStack);
+
+            ExcelBlock childBlock = excelBlock.getChildBlock();
+            if (childBlock != null){
+                writeColumnLoop(sheet, childBlock, itemRowOffset, blockMergedRegions, "preColumn", "columnNum", 0);
+            }
+            step++;
+            preObj = ognlStack.pop();
+        }
+        ognlStack.removeContext("preLine");
+        ognlStack.removeContext("lineNum");
+        return rowOffset + (step - 1) * height;
+    }
+
+    /**
+     * 非行循环 block, 在偏移之后的位置填值.
+     */
+    private void writeBlock(Sheet sheet,ExcelBlock excelBlock,int rowOffset){
+        if (excelBlock.isLoop()){
+            writeColumnLoop(sheet, excelBlock, rowOffset, filter(mergedRegions, excelBlock), "preLine", "lineNum", -1);
+            return;
+        }
+        ColumnWriter.writeContent(sheet, excelBlock, ognlStack, rowOffset, 0, styleMap);
+    }
+
+    /**
+     * 列循环, 逻辑同 {@link BlockLoopVerticalWriter} 以及 {@link RowWriter} 中的子 block;第一个元素直接使用已经复制好的模板区域.
+     */
+    private void writeColumnLoop(
+                    Sheet sheet,
+                    ExcelBlock excelBlock,
+                    int rowOffset,
+                    List<CellRangeAddress> parentMergedRegions,
+                    String preKey,
+                    String numKey,
+                    int numBase){
+        Object value = ognlStack.getValue(excelBlock.getDataName());
+        if (value == null){
+            return;
+        }
+
+        //---------------------------------------------------------------
+        Collection<?> listValue = DataToCollectionUtil.convert(value);
+        List<CellRangeAddress> blockMergedRegions = filter(parentMergedRegions, excelBlock);
+        int width = excelBlock.getEndCol() - excelBlock.getStartCol() + 1;
+
+        int step = 0;
+        Object preObj = null;
+        for (Object obj : listValue){
+            ognlStack.push(obj);
+            ognlStack.addContext(preKey, preObj);
+            ognlStack.addContext(numKey, step + numBase);
+
+            int colOffset = step * width;
+            if (colOffset > 0){
+                copyBlock(sheet, excelBlock, rowOffset, colOffset, blockMergedRegions);
+            }
+            ColumnWriter.writeContent(sheet, excelBlock, ognlStack, rowOffset, colOffset, styleMap);
+            step++;
+            preObj = ognlStack.pop();
+        }
+        ognlStack.removeContext(preKey);
+        ognlStack.removeContext(numKey);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 复制 block 区域的模板, 逻辑同 {@link BlockCopyer}.
+     */
+    private void copyBlock(Sheet sheet,ExcelBlock excelBlock,int rowOffset,int colOffset,List<CellRangeAddress> blockMergedRegions){
+        int startCol = excelBlock.getStartCol();
+        int endCol = excelBlock.getEndCol();
+        for (RowTemplate rowTemplate : rowTemplateMap.subMap(excelBlock.getStartRow(), true, excelBlock.getEndRow(), true).values()){
+            rowTemplate.copy(sheet, startCol, endCol, rowOffset, colOffset);
+        }
+
+        //---------------------------------------------------------------
+        if (colOffset > 0){
+            for (int col = startCol; col <= endCol; col++){
+                sheet.setColumnWidth(col + colOffset, sheet.getColumnWidth(col));
+            }
+        }
+        addMergedRegions(sheet, blockMergedRegions, rowOffset, colOffset);
+    }
+
+    /**
+     * 复制 <code>[fromRow,toRow]</code> 之间的静态模板行, 以及完全位于其中的合并单元格.
+     */
+    private void copyRows(Sheet sheet,int fromRow,int toRow,int rowOffset){
+        if (fromRow > toRow){
+            return;
+        }
+        for (RowTemplate rowTemplate : rowTemplateMap.subMap(fromRow, true, toRow, true).values()){
+            rowTemplate.copy(sheet, rowOffset);
+        }
+
+        //---------------------------------------------------------------
+        List<CellRangeAddress> rowsMergedRegions = new ArrayList<>();
+        for (CellRangeAddress cellRangeAddress : mergedRegions){
+            if (cellRangeAddress.getFirstRow() >= fromRow && cellRangeAddress.getLastRow() <= toRow){
+                rowsMergedRegions.add(cellRangeAddress);
+            }
+        }
+        addMergedRegions(sheet, rowsMergedRegions, rowOffset, 0);
+    }
+
+    //---------------------------------------------------------------
+
+    private static void addMergedRegions(Sheet sheet,List<CellRangeAddress> cellRangeAddressList,int rowOffset,int colOffset){
+        for (CellRangeAddress cellRangeAddress : cellRangeAddressList){
+            //模板中的合并单元格互不重叠, 整体偏移之后仍然不会重叠, 无需逐个校验 (大数据量时校验是 O(n^2))
+            sheet.addMergedRegionUnsafe(
+                            new CellRangeAddress(
+                                            cellRangeAddress.getFirstRow() + rowOffset,
+                                            cellRangeAddress.getLastRow() + rowOffset,
+                                            cellRangeAddress.getFirstColumn() + colOffset,
+                                            cellRangeAddress.getLastColumn() + colOffset));
+        }
+    }
+
+    private static List<CellRangeAddress> filter(List<CellRangeAddress> cellRangeAddressList,ExcelBlock excelBlock){
+        List<CellRangeAddress> result = new ArrayList<>();
+        for (CellRangeAddress cellRangeAddress : cellRangeAddressList){
+            if (cellRangeAddress.getFirstRow() >= excelBlock.getStartRow() && cellRangeAddress.getFirstColumn() >= excelBlock.getStartCol()
+                            && cellRangeAddress.getLastRow() <= excelBlock.getEndRow()
+                            && cellRangeAddress.getLastColumn() <= excelBlock.getEndCol()){
+                result.add(cellRangeAddress);
+            }
+        }
+        return result;
+    }
+
+    private static boolean isRowLoop(ExcelBlock excelBlock){
+        return excelBlock.isLoop() && ExcelBlock.LOOP_DIRECTION_HORIZONAL.equalsIgnoreCase(excelBlock.getDirection());
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.excel.writer;
+
+import static com.feilong.core.date.DateUtil.formatElapsedTime;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import com.feilong.excel.ExcelDefinition;
+import com.feilong.excel.definition.ExcelSheet;
+import com.feilong.excel.util.WorkbookUtil;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * 基于 POI SXSSF 滑动窗口的流式写出.
+ * 
+ * <h3>说明:</h3>
+ * 
+ * <blockquote>
+ * <p>
+ * {@link WorkbookWriter} 在内存中填充整个 workbook, 每个循环元素还会 shiftRows 一次, 导出 20w 行以上时内存和耗时都会失控;<br>
+ * 本类沿用同样的 {@link ExcelDefinition}/block 模型以及模板样式, 但是在 {@link SXSSFWorkbook} 上按行输出,
+ * 内存中最多只保留 <code>rowAccessWindowSize</code> 行, 其余的行边生成边刷到临时文件.
+ * </p>
+ * </blockquote>
+ * 
+ * <h3>限制:</h3>
+ * 
+ * <blockquote>
+ * <ol>
+ * <li>只支持 xlsx 模板, 如果是 xls 模板, 自动使用 {@link WorkbookWriter} 内存模式.</li>
+ * <li>行已经刷到临时文件, 无法在写出前计算公式, 所以会设置 <code>forceFormulaRecalculation</code>, 由 excel 打开文件时计算.</li>
+ * <li>其他见 {@link StreamingSheetWriter}.</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @see <a href="https://poi.apache.org/components/spreadsheet/how-to.html#sxssf">SXSSF (Streaming Usermodel API)</a>
+ * @since 4.5.5
+ */
+@lombok.extern.slf4j.Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class StreamingWorkbookWriter{
+
+    /**
+     * 流式写出.
+     *
+     * @param workbook
+     *            模板 workbook
+     * @param outputStream
+     *            the output stream
+     * @param excelDefinition
+     *            the excel definition
+     * @param beans
+     *            the beans
+     * @param rowAccessWindowSize
+     *            内存中保留的行数, 同一个循环元素所占的行必须在窗口之内, 参见 {@link SXSSFWorkbook#SXSSFWorkbook(XSSFWorkbook, int)}
+     */
+    public static void write(
+                    Workbook workbook,
+                    OutputStream outputStream,
+                    ExcelDefinition excelDefinition,
+                    Map<String, Object> beans,
+                    int rowAccessWindowSize){
+        if (!(workbook instanceof XSSFWorkbook)){
+            log.warn("streaming write only support xlsx template,workbook:[{}],will use in-memory write", workbook.getClass().getSimpleName());
+            WorkbookWriter.write(workbook, outputStream, excelDefinition, beans);
+            return;
+        }
+
+        //---------------------------------------------------------------
+        long beginTimeMillis = System.currentTimeMillis();
+
+        List<ExcelSheet> excelSheets = excelDefinition.getExcelSheets();
+        int excelSheetsSize = excelSheets.size();
+        WorkbookWriter.validate(excelSheetsSize, workbook.getNumberOfSheets());
+
+        Map<String, CellStyle> styleMap = StyleMapBuilder.build(workbook, excelDefinition, excelSheets);
+        List<StreamingSheetWriter> streamingSheetWriters = new ArrayList<>(excelSheetsSize);
+        for (int i = 0; i < excelSheetsSize; i++){
+            streamingSheetWriters.add(StreamingSheetWriter.prepare(workbook.getSheetAt(i), excelSheets.get(i), styleMap, beans));
+        }
+
+        //---------------------------------------------------------------
+        SXSSFWorkbook sxssfWorkbook = new SXSSFWorkbook((XSSFWorkbook) workbook, rowAccessWindowSize, true);
+        try{
+            for (int i = 0; i < excelSheetsSize; i++){
+                StreamingSheetWriter streamingSheetWriter = streamingSheetWriters.get(i);
+                if (null != streamingSheetWriter){
+                    streamingSheetWriter.write(sxssfWorkbook.getSheetAt(i));
+                }
+            }
+            workbook.setForceFormulaRecalculation(true);
+            sxssfWorkbook.setActiveSheet(0);
+            WorkbookUtil.write(sxssfWorkbook, outputStream);
+        }finally{
+            //删除临时文件
+            sxssfWorkbook.dispose();
+        }
+
+        //---------------------------------------------------------------
+        if (log.isDebugEnabled()){
+            log.debug("streaming write workbook use time: [{}]", formatElapsedTime(beginTimeMillis));
+        }
+    }
+}
@@ -104,7 +104,7 @@ public class WorkbookWriter{
      * @param numberOfSheets
      *            the number of sheets
      */
-    private static void validate(int excelSheetsSize,int numberOfSheets){
+    static void validate(int excelSheetsSize,int numberOfSheets){
         Validate.isTrue(
                         excelSheetsSize > 0 && numberOfSheets >= excelSheetsSize,
                         "No sheet definition found or Sheet Number in definition > number in excel template.");
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.excel;
+
+import static com.feilong.core.bean.ConvertUtil.toBigDecimal;
+import static com.feilong.core.bean.ConvertUtil.toMap;
+import static com.feilong.lib.springframework.util.ResourceUtils.CLASSPATH_URL_PREFIX;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.junit.Test;
+
+import com.feilong.excel.销售数据.AuditMember;
+import com.feilong.excel.销售数据.SalesData;
+import com.feilong.test.AbstractTest;
+
+/**
+ * 流式写出 {@link DefaultExcelWriter#setStreaming(boolean)} 测试, 结果需要和内存模式一致.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+public class DefaultExcelWriterStreamingTest extends AbstractTest{
+
+    private static final String TEMPLATE                  = CLASSPATH_URL_PREFIX + "销售数据/export-template-sales.xlsx";
+
+    private static final String SHEET_DEFINITION          = CLASSPATH_URL_PREFIX + "销售数据/sheets-definition.xml";
+
+    private static final String AUDIT_TEMPLATE            = CLASSPATH_URL_PREFIX + "销售数据/audit/export-template-sales-vlookup.xlsx";
+
+    private static final String AUDIT_SHEET_DEFINITION    = CLASSPATH_URL_PREFIX + "销售数据/audit/sheets-definition.xml";
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testSameAsInMemory() throws IOException{
+        Map<String, Object> data = toMap("salesDataList", buildList(500));
+
+        //窗口很小, 确保大部分行已经刷到临时文件
+        try (Workbook expected = read(write(TEMPLATE, SHEET_DEFINITION, data, false));
+                        Workbook actual = read(write(TEMPLATE, SHEET_DEFINITION, data, true))){
+            assertSameContent(expected, actual);
+            assertEquals(2 + 500, actual.getSheetAt(0).getLastRowNum());
+        }
+    }
+
+    @Test
+    public void testEmptyList() throws IOException{
+        Map<String, Object> data = toMap("salesDataList", emptyList());
+        try (Workbook expected = read(write(TEMPLATE, SHEET_DEFINITION, data, false));
+                        Workbook actual = read(write(TEMPLATE, SHEET_DEFINITION, data, true))){
+            assertSameContent(expected, actual);
+        }
+    }
+
+    @Test
+    public void testNullData() throws IOException{
+        Map<String, Object> data = emptyMap();
+        try (Workbook expected = read(write(TEMPLATE, SHEET_DEFINITION, data, false));
+                        Workbook actual = read(write(TEMPLATE, SHEET_DEFINITION, data, true))){
+            assertSameContent(expected, actual);
+        }
+    }
+
+    @Test
+    public void testFormula() throws IOException{
+        Map<String, Object> data = toMap("salesDataList", buildList(300));
+
+        try (Workbook workbook = read(write(AUDIT_TEMPLATE, AUDIT_SHEET_DEFINITION, data, true))){
+            Sheet sheet = workbook.getSheetAt(0);
+            for (int i = 0; i < 300; ++i){
+                Row row = sheet.getRow(3 + i);
+                int excelRowNum = 4 + i;
+                assertEquals("C" + excelRowNum + "*0.2", row.getCell(3).getCellFormula());
+                assertEquals("C" + excelRowNum + "-E" + excelRowNum, row.getCell(5).getCellFormula());
+                assertEquals(i % 2 == 0 ? "关羽" : "张飞", row.getCell(7).getStringCellValue());
+            }
+            assertTrue(workbook.getForceFormulaRecalculation());
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    private static void assertSameContent(Workbook expected,Workbook actual){
+        assertEquals(expected.getNumberOfSheets(), actual.getNumberOfSheets());
+        for (int i = 0; i < expected.getNumberOfSheets(); ++i){
+            Sheet expectedSheet = expected.getSheetAt(i);
+            Sheet actualSheet = actual.getSheetAt(i);
+            assertEquals(expectedSheet.getSheetName(), actualSheet.getSheetName());
+            assertEquals(expectedSheet.getLastRowNum(), actualSheet.getLastRowNum());
+            assertEquals(expectedSheet.getNumMergedRegions(), actualSheet.getNumMergedRegions());
+
+            for (int rowNum = 0; rowNum <= expectedSheet.getLastRowNum(); ++rowNum){
+                Row expectedRow = expectedSheet.getRow(rowNum);
+                Row actualRow = actualSheet.getRow(rowNum);
+                assertEquals(toStringList(expectedRow), toStringList(actualRow));
+                if (null != expectedRow){
+                    assertEquals(expectedRow.getHeight(), actualRow.getHeight());
+                }
+            }
+        }
+    }
+
+    private static List<String> toStringList(Row row){
+        List<String> list = new ArrayList<>();
+        if (null != row){
+            for (Cell cell : row){
+                String value = cell.getCellType() == CellType.FORMULA ? cell.getCellFormula() : cell.toString();
+                list.add(cell.getColumnIndex() + ":" + value + ":" + cell.getCellStyle().getIndex());
+            }
+        }
+        return list;
+    }
+
+    //---------------------------------------------------------------
+
+    private static byte[] write(String template,String sheetDefinition,Map<String, Object> data,boolean streaming){
+        ExcelDefinition excelDefinition = ExcelDefinitionBuilder.build(ExcelSheetMapBuilder.build(sheetDefinition), (String[]) null);
+
+        DefaultExcelWriter excelWriter = new DefaultExcelWriter(excelDefinition);
+        excelWriter.setStreaming(streaming);
+        excelWriter.setRowAccessWindowSize(10);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        excelWriter.write(template, outputStream, data);
+        return outputStream.toByteArray();
+    }
+
+    private static Workbook read(byte[] bytes) throws IOException{
+        return WorkbookFactory.create(new ByteArrayInputStream(bytes));
+    }
+
+    private static List<SalesData> buildList(int size){
+        List<SalesData> list = new ArrayList<>(size);
+        for (int i = 1; i <= size; ++i){
+            AuditMember auditMember = new AuditMember(i % 2 == 0 ? "张飞" : "关羽");
+            list.add(new SalesData(2020, i, toBigDecimal(i * 533033.88), auditMember));
+        }
+        return list;
+    }
+}
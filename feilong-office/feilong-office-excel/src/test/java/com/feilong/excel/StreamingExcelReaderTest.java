@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.excel;
+
+import static com.feilong.lib.springframework.util.ResourceUtils.CLASSPATH_URL_PREFIX;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import com.feilong.excel.consultant.ConsultantCommand;
+import com.feilong.excel.reader.ReadStatus;
+import com.feilong.excel.销售数据.SalesData;
+import com.feilong.io.InputStreamUtil;
+import com.feilong.json.JsonUtil;
+import com.feilong.test.AbstractTest;
+
+/**
+ * {@link StreamingExcelReader} 测试, 结果需要和 {@link DefaultExcelReader} 一致.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+public class StreamingExcelReaderTest extends AbstractTest{
+
+    private static final String CONSULTANT_EXCEL      = CLASSPATH_URL_PREFIX + "consultant/read20200428214903.xlsx";
+
+    private static final String CONSULTANT_DEFINITION = CLASSPATH_URL_PREFIX + "consultant/sheets-definition.xml";
+
+    private static final String STREAMING_DEFINITION  = CLASSPATH_URL_PREFIX + "streaming/sheets-definition.xml";
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testSameAsDefaultReader(){
+        Map<String, Object> expected = readDefault(CONSULTANT_DEFINITION, InputStreamUtil.getInputStream(CONSULTANT_EXCEL));
+        assertEquals(300, ((List<?>) expected.get("consultantList")).size());
+
+        for (int batchSize : new int[] { 1, 7, 300, 1000 }){
+            List<ConsultantCommand> list = new ArrayList<>();
+            List<Integer> batchSizes = new ArrayList<>();
+            Map<String, Object> beans = new LinkedHashMap<>();
+
+            ReadStatus readStatus = build(CONSULTANT_DEFINITION).readSheet(
+                            InputStreamUtil.getInputStream(CONSULTANT_EXCEL),
+                            0,
+                            beans,
+                            batchSize,
+                            (List<ConsultantCommand> batch) -> {
+                                batchSizes.add(batch.size());
+                                list.addAll(batch);
+                            });
+
+            assertEquals(ReadStatus.STATUS_SUCCESS, readStatus.getStatus());
+            assertEquals(JsonUtil.toString(expected.get("consultantList")), JsonUtil.toString(list));
+            assertEquals((300 + batchSize - 1) / batchSize, batchSizes.size());
+            assertEquals(Math.min(batchSize, 300), batchSizes.get(0).intValue());
+        }
+    }
+
+    @Test
+    public void testSimpleBlockAndBreakCondition() throws IOException{
+        byte[] bytes = buildWorkbook(50);
+
+        Map<String, Object> expected = readDefault(STREAMING_DEFINITION, new ByteArrayInputStream(bytes));
+
+        List<SalesData> list = new ArrayList<>();
+        Map<String, Object> beans = new LinkedHashMap<>();
+        ReadStatus readStatus = build(STREAMING_DEFINITION)
+                        .readSheet(new ByteArrayInputStream(bytes), 0, beans, 10, (List<SalesData> batch) -> list.addAll(batch));
+
+        assertEquals(ReadStatus.STATUS_SUCCESS, readStatus.getStatus());
+        assertEquals(50, list.size());
+        assertEquals(expected.get("title"), beans.get("title"));
+        assertEquals(JsonUtil.toString(expected.get("salesDataList")), JsonUtil.toString(list));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSheetNoNotExist(){
+        build(CONSULTANT_DEFINITION).readSheet(InputStreamUtil.getInputStream(CONSULTANT_EXCEL), 5, new LinkedHashMap<>(), 10, list -> {
+        });
+    }
+
+    //---------------------------------------------------------------
+
+    private static StreamingExcelReader build(String sheetDefinition){
+        return new StreamingExcelReader(ExcelDefinitionBuilder.build(ExcelSheetMapBuilder.build(sheetDefinition), (String[]) null));
+    }
+
+    private static Map<String, Object> readDefault(String sheetDefinition,InputStream inputStream){
+        DefaultExcelReader excelReader = new DefaultExcelReader(
+                        ExcelDefinitionBuilder.build(ExcelSheetMapBuilder.build(sheetDefinition), (String[]) null));
+        Map<String, Object> beans = new LinkedHashMap<>();
+        assertEquals(ReadStatus.STATUS_SUCCESS, excelReader.readSheet(inputStream, 0, beans).getStatus());
+        return beans;
+    }
+
+    /**
+     * 标题行, 表头, <code>size</code> 行数据, 合计行, 合计之后的其他内容.
+     */
+    private static byte[] buildWorkbook(int size) throws IOException{
+        try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream outputStream = new ByteArrayOutputStream()){
+            Sheet sheet = workbook.createSheet();
+            Row titleRow = sheet.createRow(0);
+            titleRow.createCell(0).setCellValue("标题");
+            titleRow.createCell(1).setCellValue("销售数据导入");
+
+            Row headerRow = sheet.createRow(1);
+            headerRow.createCell(0).setCellValue("年");
+            headerRow.createCell(1).setCellValue("月");
+            headerRow.createCell(2).setCellValue("金额");
+
+            for (int i = 0; i < size; ++i){
+                Row row = sheet.createRow(2 + i);
+                row.createCell(0).setCellValue(2020);
+                row.createCell(1).setCellValue(i % 12 + 1);
+                row.createCell(2).setCellValue(i * 1.5);
+            }
+
+            Row totalRow = sheet.createRow(2 + size);
+            totalRow.createCell(0).setCellValue("合计");
+            totalRow.createCell(2).setCellFormula("SUM(C3:C" + (2 + size) + ")");
+
+            sheet.createRow(4 + size).createCell(0).setCellValue("制表人");
+
+            workbook.write(outputStream);
+            return outputStream.toByteArray();
+        }
+    }
+}
@@ -28,6 +28,8 @@ import com.feilong.excel.销售数据.Write审计Test;
 @SuiteClasses({ //
                 ExcelSheetMapBuilderTest.class,
                 ExcelWriteUtilTest.class,
+                DefaultExcelWriterStreamingTest.class,
+                StreamingExcelReaderTest.class,
 
                 IntegerConvertorTest.class,
                 CellReferenceUtilTest.class,
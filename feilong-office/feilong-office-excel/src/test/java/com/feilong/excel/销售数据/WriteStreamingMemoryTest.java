@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.excel.销售数据;
+
+import static com.feilong.core.bean.ConvertUtil.toBigDecimal;
+import static com.feilong.core.bean.ConvertUtil.toMap;
+import static com.feilong.core.date.DateUtil.formatElapsedTime;
+import static com.feilong.lib.springframework.util.ResourceUtils.CLASSPATH_URL_PREFIX;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.AbstractList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.feilong.excel.ExcelWriteUtil;
+import com.feilong.io.FileUtil;
+import com.feilong.test.AbstractTest;
+
+/**
+ * 流式写出的内存基准, 不放在 SuiteTests 中, 需要手动执行.
+ * 
+ * <p>
+ * 数据使用按需生成的 list, 不占用内存, 这样采样到的堆内存基本都是 workbook 占用的;<br>
+ * 内存模式 20w 行存活对象已经有 600M 左右, 流式模式 100w 行只有几十 M, 而且和窗口大小相关, 和行数无关.
+ * </p>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@lombok.extern.slf4j.Slf4j
+public class WriteStreamingMemoryTest extends AbstractTest{
+
+    private static final String TEMPLATE         = CLASSPATH_URL_PREFIX + "销售数据/export-template-sales.xlsx";
+
+    private static final String SHEET_DEFINITION = CLASSPATH_URL_PREFIX + "销售数据/sheets-definition.xml";
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testStreaming1000000() throws Exception{
+        long peak = write(1_000_000, true);
+        assertTrue(peak < 128L * 1024 * 1024);
+    }
+
+    @Test
+    public void testInMemory200000() throws Exception{
+        write(200_000, false);
+    }
+
+    //---------------------------------------------------------------
+
+    private static long write(final int size,boolean streaming) throws Exception{
+        File file = File.createTempFile("feilong-excel-streaming", ".xlsx");
+        file.deleteOnExit();
+
+        System.gc();
+        AtomicLong peak = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread sampler = new Thread(() -> {
+            while (running.get()){
+                peak.accumulateAndGet(liveHeap(), Math::max);
+                try{
+                    Thread.sleep(20);
+                }catch (InterruptedException e){
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        });
+        sampler.start();
+
+        long beginTimeMillis = System.currentTimeMillis();
+        try{
+            ExcelWriteUtil.write(TEMPLATE, SHEET_DEFINITION, null, toMap("salesDataList", lazyList(size)), file.getAbsolutePath(), streaming);
+        }finally{
+            running.set(false);
+            sampler.join();
+        }
+
+        log.info(
+                        "streaming:[{}],rows:[{}],use time:[{}],peak live heap:[{}MB],file size:[{}]",
+                        streaming,
+                        size,
+                        formatElapsedTime(beginTimeMillis),
+                        peak.get() / 1024 / 1024,
+                        FileUtil.formatSize(file.length()));
+        return peak.get();
+    }
+
+    /**
+     * 每个堆内存池最近一次 gc 之后的占用之和, 也就是存活对象占用的堆, 不受未回收垃圾的干扰.
+     */
+    private static long liveHeap(){
+        long used = 0;
+        for (MemoryPoolMXBean memoryPoolMXBean : ManagementFactory.getMemoryPoolMXBeans()){
+            MemoryUsage collectionUsage = memoryPoolMXBean.getCollectionUsage();
+            if (memoryPoolMXBean.getType() == MemoryType.HEAP && null != collectionUsage){
+                used += collectionUsage.getUsed();
+            }
+        }
+        return used;
+    }
+
+    private static AbstractList<SalesData> lazyList(final int size){
+        return new AbstractList<SalesData>(){
+
+            @Override
+            public SalesData get(int index){
+                return new SalesData(2020, index % 12 + 1, toBigDecimal(index * 533.88));
+            }
+
+            @Override
+            public int size(){
+                return size;
+            }
+        };
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.zip;
+
+import static com.feilong.core.CharsetType.UTF8;
+import static com.feilong.core.Validator.isNullOrEmpty;
+import static com.feilong.core.lang.StringUtil.formatPattern;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+
+import com.feilong.core.DefaultRuntimeException;
+import com.feilong.core.Validate;
+import com.feilong.io.FileUtil;
+import com.feilong.lib.compress.archivers.zip.ParallelScatterZipCreator;
+import com.feilong.lib.compress.archivers.zip.ZipArchiveEntry;
+import com.feilong.lib.compress.archivers.zip.ZipArchiveOutputStream;
+
+/**
+ * 多线程并行压缩.
+ * 
+ * <p>
+ * {@link CompressZipHandler} 在单个线程里面依次 deflate 每个文件, 压缩大目录(比如报表目录)时只能用到一个 cpu 核.<br>
+ * 本类基于 scatter/gather 模式: 每个工作线程把分到的文件 deflate 到自己的临时文件(scatter), 全部完成后再把已经压缩好的字节原样拷贝合并成一个标准的 zip 文件(gather),
+ * 合并阶段不会重复压缩.
+ * </p>
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>生成的 zip 文件和 {@link CompressZipHandler} 的 entry 名字结构一致, 但是 entry 顺序按照工作线程分组, 不保证和目录遍历顺序一致</li>
+ * <li>空目录 entry 在合并之前直接写入</li>
+ * <li>每个线程会在临时目录产生一个临时文件, 压缩结束(无论成功与否)都会被删除</li>
+ * </ol>
+ * </blockquote>
+ * 
+ * <h3>示例:</h3>
+ * 
+ * <blockquote>
+ * 
+ * <pre class="code">
+ * ZipHandler zipHandler = new ParallelCompressZipHandler(8, Deflater.DEFAULT_COMPRESSION);
+ * zipHandler.zip("/home/feilong/reports", "/home/feilong/reports.zip");
+ * </pre>
+ * 
+ * </blockquote>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @see com.feilong.lib.compress.archivers.zip.ParallelScatterZipCreator
+ * @since 4.5.5
+ */
+@lombok.extern.slf4j.Slf4j
+public class ParallelCompressZipHandler extends AbstractZipHandler{
+
+    /** 压缩线程数, 默认是 {@link Runtime#availableProcessors()}. */
+    private final int threadCount;
+
+    /** 压缩级别, -1({@link Deflater#DEFAULT_COMPRESSION}) 或者 0~9, 默认和 {@link CompressZipHandler} 一样是 {@link Deflater#BEST_COMPRESSION}. */
+    private final int compressionLevel;
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用 {@link Runtime#availableProcessors()} 个线程, {@link Deflater#BEST_COMPRESSION} 压缩级别.
+     */
+    public ParallelCompressZipHandler(){
+        this(Runtime.getRuntime().availableProcessors(), Deflater.BEST_COMPRESSION);
+    }
+
+    /**
+     * Instantiates a new parallel compress zip handler.
+     *
+     * @param threadCount
+     *            压缩线程数
+     * @param compressionLevel
+     *            压缩级别, -1({@link Deflater#DEFAULT_COMPRESSION}) 或者 0~9
+     * @throws IllegalArgumentException
+     *             如果 <code>threadCount</code> {@code <=0}, 或者 <code>compressionLevel</code> 不合法
+     */
+    public ParallelCompressZipHandler(int threadCount, int compressionLevel){
+        Validate.isTrue(threadCount > 0, "threadCount:[%s] must >0", threadCount);
+        Validate.isTrue(
+                        compressionLevel == Deflater.DEFAULT_COMPRESSION
+                                        || (compressionLevel >= Deflater.NO_COMPRESSION && compressionLevel <= Deflater.BEST_COMPRESSION),
+                        "compressionLevel:[%s] must be -1 or between 0~9",
+                        compressionLevel);
+        this.threadCount = threadCount;
+        this.compressionLevel = compressionLevel;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Handle.
+     *
+     * @param tobeZipFilePath
+     *            the tobe zip file path
+     * @param outputZipPath
+     *            the output zip path
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Override
+    protected void handle(String tobeZipFilePath,String outputZipPath) throws IOException{
+        ParallelScatterZipCreator parallelScatterZipCreator = new ParallelScatterZipCreator(
+                        Executors.newFixedThreadPool(threadCount),
+                        compressionLevel);
+
+        try (ZipArchiveOutputStream zipArchiveOutputStream = new ZipArchiveOutputStream(
+                        new BufferedOutputStream(FileUtil.getFileOutputStream(outputZipPath)))){
+            zipArchiveOutputStream.setEncoding(UTF8);
+
+            //空目录直接写入, 文件提交给工作线程压缩
+            scatter(parallelScatterZipCreator, zipArchiveOutputStream, new File(tobeZipFilePath), "");
+
+            //---------------------------------------------------------------
+            parallelScatterZipCreator.writeTo(zipArchiveOutputStream);
+        }catch (ExecutionException e){
+            throw new DefaultRuntimeException(formatPattern("zip:[{}] execute exception", tobeZipFilePath), e.getCause());
+        }catch (InterruptedException e){
+            // clean up state...
+            Thread.currentThread().interrupt();
+            throw new DefaultRuntimeException(formatPattern("zip:[{}] interrupted", tobeZipFilePath), e);
+        }finally{
+            //遍历目录出现异常时 writeTo 不会被调用, 这里取消还没有完成的任务, 关闭线程池, 并删除工作线程已经产生的临时文件
+            parallelScatterZipCreator.close();
+        }
+
+        //---------------------------------------------------------------
+        if (log.isDebugEnabled()){
+            log.debug("zip:[{}] threadCount:[{}],[{}]", tobeZipFilePath, threadCount, parallelScatterZipCreator.getStatisticsMessage());
+        }
+    }
+
+    /**
+     * 递归遍历目录, 文件提交到 {@link ParallelScatterZipCreator} 并行压缩.
+     *
+     * @param parallelScatterZipCreator
+     *            the parallel scatter zip creator
+     * @param zipArchiveOutputStream
+     *            the zip archive output stream
+     * @param willFile
+     *            the will file
+     * @param dirName
+     *            这个主要是用来记录压缩文件的一个目录层次结构的
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static void scatter(
+                    ParallelScatterZipCreator parallelScatterZipCreator,
+                    ZipArchiveOutputStream zipArchiveOutputStream,
+                    File willFile,
+                    String dirName) throws IOException{
+        String fileName = willFile.getName();
+        if (willFile.isFile()){
+            ZipArchiveEntry zipArchiveEntry = new ZipArchiveEntry(dirName + fileName);
+            zipArchiveEntry.setMethod(ZipArchiveEntry.DEFLATED);
+            zipArchiveEntry.setTime(willFile.lastModified());
+
+            String absolutePath = willFile.getAbsolutePath();
+            parallelScatterZipCreator.addArchiveEntry(zipArchiveEntry, () -> FileUtil.getFileInputStream(absolutePath));
+            return;
+        }
+
+        //---------------------------------------------------------------
+        File[] files = willFile.listFiles();
+        if (isNullOrEmpty(files)){
+            //只是放入了空目录的名字  
+            zipArchiveOutputStream.putArchiveEntry(new ZipArchiveEntry(dirName + fileName + File.separator));
+            zipArchiveOutputStream.closeArchiveEntry();
+            return;
+        }
+
+        //---------------------------------------------------------------
+        for (File file : files){
+            scatter(parallelScatterZipCreator, zipArchiveOutputStream, file, dirName + fileName + File.separator);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.zip;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.feilong.io.FileUtil;
+
+/**
+ * 压缩生成的大目录(默认 2GB, 200 个子目录 x 每个 10 个文件), {@link CompressZipHandler} 单线程和 {@link ParallelCompressZipHandler} 多线程的对比.
+ * 
+ * <p>
+ * 文件内容是带有随机数字的文本行, 压缩率和日志/报表类文件接近.
+ * </p>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@Fork(0)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ParallelCompressZipHandlerJMHTest{
+
+    /** 生成的目录总大小, 单位 MB. */
+    @Param({ "2048" })
+    private int  totalSizeMb;
+
+    private File dir;
+
+    private File tobeZip;
+
+    private File outputZip;
+
+    public static void main(String[] args) throws RunnerException{
+        final Options opts = new OptionsBuilder().include(ParallelCompressZipHandlerJMHTest.class.getSimpleName())//
+                        .measurementIterations(3)//
+                        .warmupIterations(1)//
+
+                        .result("result.json")//
+                        .resultFormat(ResultFormatType.JSON)//
+                        .build();
+        new Runner(opts).run();
+    }
+
+    //---------------------------------------------------------------
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException{
+        dir = Files.createTempDirectory("zip-jmh").toFile();
+        tobeZip = new File(dir, "reports");
+        outputZip = new File(dir, "reports.zip");
+
+        int fileCount = 2000;
+        long fileSize = totalSizeMb * 1024L * 1024L / fileCount;
+        Random random = new Random(1);
+        for (int i = 0; i < fileCount; ++i){
+            File file = new File(tobeZip, "dir" + (i % 200) + "/file" + i + ".txt");
+            file.getParentFile().mkdirs();
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(file.toPath()))){
+                for (long written = 0; written < fileSize;){
+                    byte[] line = ("order," + i + "," + random.nextInt(100000) + "," + random.nextDouble() + ",PAID\n").getBytes();
+                    outputStream.write(line);
+                    written += line.length;
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        FileUtil.deleteFileOrDirectory(dir);
+    }
+
+    //---------------------------------------------------------------
+
+    @Benchmark
+    public long serial(){
+        new CompressZipHandler().zip(tobeZip.getAbsolutePath(), outputZip.getAbsolutePath());
+        return outputZip.length();
+    }
+
+    @Benchmark
+    public long parallel(){
+        new ParallelCompressZipHandler().zip(tobeZip.getAbsolutePath(), outputZip.getAbsolutePath());
+        return outputZip.length();
+    }
+
+    @Benchmark
+    public long parallelDefaultCompression(){
+        new ParallelCompressZipHandler(Runtime.getRuntime().availableProcessors(), Deflater.DEFAULT_COMPRESSION)
+                        .zip(tobeZip.getAbsolutePath(), outputZip.getAbsolutePath());
+        return outputZip.length();
+    }
+}
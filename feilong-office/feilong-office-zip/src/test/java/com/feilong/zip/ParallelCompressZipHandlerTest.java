@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.zip;
+
+import static java.util.Collections.list;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.junit.Test;
+
+import com.feilong.io.FileUtil;
+import com.feilong.lib.compress.archivers.zip.ParallelScatterZipCreator;
+import com.feilong.lib.compress.archivers.zip.ZipArchiveEntry;
+import com.feilong.lib.io.IOUtils;
+
+public class ParallelCompressZipHandlerTest{
+
+    private final ZipHandler zipHandler = new ParallelCompressZipHandler(4, Deflater.BEST_COMPRESSION);
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void test() throws IOException{
+        Path dir = Files.createTempDirectory("parallel-zip");
+        File tobeZip = new File(dir.toFile(), "reports");
+        for (int i = 0; i < 50; ++i){
+            write(new File(tobeZip, "day" + (i % 5) + "/report" + i + ".txt"), i);
+        }
+        new File(tobeZip, "empty").mkdirs();
+
+        File parallelZip = new File(dir.toFile(), "parallel.zip");
+        File serialZip = new File(dir.toFile(), "serial.zip");
+        zipHandler.zip(tobeZip.getAbsolutePath(), parallelZip.getAbsolutePath());
+        new CompressZipHandler().zip(tobeZip.getAbsolutePath(), serialZip.getAbsolutePath());
+
+        //---------------------------------------------------------------
+        try (ZipFile zipFile = new ZipFile(parallelZip)){
+            assertEquals(entryNames(serialZip), entryNames(parallelZip));
+            assertEquals(51, zipFile.size());
+            assertTrue(zipFile.getEntry("reports/empty/").isDirectory());
+
+            for (int i = 0; i < 50; ++i){
+                ZipEntry zipEntry = zipFile.getEntry("reports/day" + (i % 5) + "/report" + i + ".txt");
+                assertEquals(ZipEntry.DEFLATED, zipEntry.getMethod());
+                assertArrayEquals(content(i), read(zipFile, zipEntry));
+            }
+        }finally{
+            FileUtil.deleteFileOrDirectory(dir.toFile());
+        }
+    }
+
+    @Test
+    public void testFile() throws IOException{
+        Path dir = Files.createTempDirectory("parallel-zip");
+        File tobeZip = new File(dir.toFile(), "a.txt");
+        write(tobeZip, 1);
+
+        File zip = new File(dir.toFile(), "a.zip");
+        new ParallelCompressZipHandler().zip(tobeZip.getAbsolutePath(), zip.getAbsolutePath());
+        try (ZipFile zipFile = new ZipFile(zip)){
+            assertEquals(1, zipFile.size());
+            assertArrayEquals(content(1), read(zipFile, zipFile.getEntry("a.txt")));
+        }finally{
+            FileUtil.deleteFileOrDirectory(dir.toFile());
+        }
+    }
+
+    /**
+     * 没有调用 writeTo(比如遍历目录出现异常), close 也要删除工作线程已经产生的临时文件.
+     */
+    @Test
+    public void testCloseWithoutWriteTo() throws IOException{
+        Path dir = Files.createTempDirectory("parallel-zip");
+        File tobeZip = new File(dir.toFile(), "a.txt");
+        write(tobeZip, 10);
+
+        Set<String> before = scatterTempFileNames();
+        try{
+            ParallelScatterZipCreator parallelScatterZipCreator = new ParallelScatterZipCreator(
+                            Executors.newFixedThreadPool(4),
+                            Deflater.BEST_COMPRESSION);
+            for (int i = 0; i < 20; ++i){
+                ZipArchiveEntry zipArchiveEntry = new ZipArchiveEntry("a" + i + ".txt");
+                zipArchiveEntry.setMethod(ZipArchiveEntry.DEFLATED);
+                parallelScatterZipCreator.addArchiveEntry(zipArchiveEntry, () -> FileUtil.getFileInputStream(tobeZip.getAbsolutePath()));
+            }
+            parallelScatterZipCreator.close();
+
+            assertEquals(before, scatterTempFileNames());
+        }finally{
+            FileUtil.deleteFileOrDirectory(dir.toFile());
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThreadCount(){
+        new ParallelCompressZipHandler(0, Deflater.BEST_COMPRESSION);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompressionLevel(){
+        new ParallelCompressZipHandler(2, 10);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNull(){
+        zipHandler.zip(null, "a.zip");
+    }
+
+    //---------------------------------------------------------------
+
+    private static Set<String> entryNames(File zip) throws IOException{
+        try (ZipFile zipFile = new ZipFile(zip)){
+            Set<String> names = new TreeSet<>();
+            for (ZipEntry zipEntry : list(zipFile.entries())){
+                names.add(zipEntry.getName());
+            }
+            return names;
+        }
+    }
+
+    private static Set<String> scatterTempFileNames(){
+        Set<String> names = new TreeSet<>();
+        for (String name : new File(System.getProperty("java.io.tmpdir")).list()){
+            if (name.startsWith("parallelscatter")){
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    private static byte[] read(ZipFile zipFile,ZipEntry zipEntry) throws IOException{
+        try (InputStream inputStream = zipFile.getInputStream(zipEntry)){
+            return IOUtils.toByteArray(inputStream);
+        }
+    }
+
+    private static void write(File file,int i) throws IOException{
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content(i));
+    }
+
+    private static byte[] content(int i){
+        StringBuilder sb = new StringBuilder();
+        for (int j = 0; j < 1000 * (i + 1); ++j){
+            sb.append("report ").append(i).append(" line ").append(j).append('\n');
+        }
+        return sb.toString().getBytes();
+    }
+}
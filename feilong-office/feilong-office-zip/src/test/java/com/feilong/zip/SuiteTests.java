@@ -23,6 +23,7 @@ import org.junit.runners.Suite.SuiteClasses;
 @SuiteClasses({ //
 
                 CompressUnzipHandlerTest.class,
+                ParallelCompressZipHandlerTest.class,
         //                
 })
 public class SuiteTests{
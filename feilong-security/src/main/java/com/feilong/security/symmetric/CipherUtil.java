@@ -135,16 +135,53 @@ public class CipherUtil{
      * @see Cipher#doFinal(byte[])
      */
     private static byte[] opBytes(byte[] bytes,int opmode,String transformation,Key key){
+        // 结束时,此方法将此 Cipher 对象重置为上一次调用 init 初始化得到的状态.
+        // 即该对象被重置,并可用于加密或解密(具体取决于调用 init 时指定的操作模式)更多的数据.
+        return doFinal(newCipher(opmode, transformation, key), bytes, opmode, transformation);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 创建并初始化 {@link Cipher}.
+     *
+     * @param opmode
+     *            模式,{@link Cipher#ENCRYPT_MODE} or {@link Cipher#DECRYPT_MODE}
+     * @param transformation
+     *            the transformation
+     * @param key
+     *            the key
+     * @return 初始化完成的 {@link Cipher}
+     * @since 4.5.5
+     */
+    static Cipher newCipher(int opmode,String transformation,Key key){
         try{
             Cipher cipher = Cipher.getInstance(transformation);
-
-            // 结束时,此方法将此 Cipher 对象重置为上一次调用 init 初始化得到的状态.
-            // 即该对象被重置,并可用于加密或解密(具体取决于调用 init 时指定的操作模式)更多的数据.
             cipher.init(opmode, key);
+            return cipher;
+        }catch (NoSuchAlgorithmException | NoSuchPaddingException | InvalidKeyException e){
+            throw new EncryptionException(formatPattern("opmode:[{}],transformation:[{}]", opmode, transformation), e);
+        }
+    }
 
+    /**
+     * 使用已经初始化的 <code>cipher</code> 处理 <code>bytes</code>, 完成之后 <code>cipher</code> 重置为 init 之后的状态,可以继续使用.
+     *
+     * @param cipher
+     *            已经初始化的 cipher
+     * @param bytes
+     *            the bytes
+     * @param opmode
+     *            模式,仅用于异常信息
+     * @param transformation
+     *            仅用于异常信息
+     * @return the new buffer with the result
+     * @since 4.5.5
+     */
+    static byte[] doFinal(Cipher cipher,byte[] bytes,int opmode,String transformation){
+        try{
             return cipher.doFinal(bytes);
-        }catch (NoSuchAlgorithmException | NoSuchPaddingException | BadPaddingException | IllegalBlockSizeException
-                        | InvalidKeyException e){
+        }catch (BadPaddingException | IllegalBlockSizeException e){
             throw new EncryptionException(formatPattern("opmode:[{}],transformation:[{}]", opmode, transformation), e);
         }
     }
@@ -253,6 +253,23 @@ public class SymmetricEncryption{
         this.cipherPadding = cipherPadding;
     }
 
+    //---------------------------------------------------------------
+
+    /**
+     * 基于当前的配置生成 {@link SymmetricEncryptor}.
+     * 
+     * <p>
+     * 本类每次加密/解密都会重新生成 key 和 {@link javax.crypto.Cipher}, 如果是高频调用 (比如 token 加解密), 推荐生成一次 {@link SymmetricEncryptor} 之后复用,
+     * 加密结果相同.
+     * </p>
+     *
+     * @return the symmetric encryptor
+     * @since 4.5.5
+     */
+    public SymmetricEncryptor toEncryptor(){
+        return new SymmetricEncryptor(symmetricType, keyString, keyBuilder, cipherMode, cipherPadding);
+    }
+
     //---------------------------------------------------------------
     /**
      * 将加密之后的字节码,使用 Base64封装返回.
@@ -0,0 +1,338 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.security.symmetric;
+
+import static com.feilong.core.CharsetType.UTF8;
+import static com.feilong.core.lang.ObjectUtil.defaultIfNull;
+import static com.feilong.security.symmetric.LogBuilder.errorMessage;
+
+import java.security.InvalidKeyException;
+import java.security.Key;
+
+import javax.crypto.Cipher;
+
+import com.feilong.core.CharsetType;
+import com.feilong.core.Validate;
+import com.feilong.core.lang.StringUtil;
+import com.feilong.lib.codec.binary.Base64;
+import com.feilong.security.ByteUtil;
+import com.feilong.security.EncryptionException;
+import com.feilong.security.symmetric.builder.DefaultKeyBuilder;
+import com.feilong.security.symmetric.builder.KeyBuilder;
+import com.feilong.security.symmetric.builder.TransformationBuilder;
+
+/**
+ * 不可变, 线程安全的对称加密器.
+ * 
+ * <p>
+ * {@link SymmetricEncryption} 每次加密/解密都会重新拼接 transformation, 调用 {@link KeyBuilder#build(String, String)} 生成 key (比如
+ * {@link com.feilong.security.symmetric.builder.KeyGeneratorKeyBuilder} 每次 new {@link java.security.SecureRandom} 和
+ * {@link javax.crypto.KeyGenerator}), 再 {@link Cipher#getInstance(String)};<br>
+ * 对于 token 这种短文本, 这些准备工作比 AES 本身的计算还要耗时.
+ * </p>
+ * 
+ * <p>
+ * 本类在构造的时候生成一次 transformation 和 key, 每个线程持有自己的已经初始化的 {@link Cipher} (加密,解密各一个),
+ * {@link Cipher#doFinal(byte[])} 之后 cipher 会重置为 init 之后的状态, 直接复用.<br>
+ * 对于需要 IV 的模式 (比如 CBC), 每次调用仍然会重新 init (但是不会重新 {@link Cipher#getInstance(String)}), 以保持和 {@link SymmetricEncryption} 相同的行为.
+ * </p>
+ * 
+ * <h3>示例:</h3>
+ * 
+ * <blockquote>
+ * 
+ * <pre class="code">
+ * private static final SymmetricEncryptor TOKEN_ENCRYPTOR = new SymmetricEncryptor(SymmetricType.AES, keyString);
+ * 
+ * String token = TOKEN_ENCRYPTOR.encryptBase64(original);
+ * </pre>
+ * 
+ * 加密结果和 <code>new SymmetricEncryption(SymmetricType.AES, keyString).encryptBase64(original)</code> 相同.
+ * 
+ * </blockquote>
+ * 
+ * <p>
+ * 注意: 每个实例为每个使用它的线程保留 2 个 {@link Cipher}, 请作为长期存在的单例使用, 不要每次调用都 new.
+ * </p>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @see SymmetricEncryption#toEncryptor()
+ * @since 4.5.5
+ */
+@SuppressWarnings("squid:S1192") //String literals should not be duplicated
+public final class SymmetricEncryptor{
+
+    /** 算法. */
+    private final String              algorithm;
+
+    /** 密钥字符串, 只用于日志和异常信息 (会打码). */
+    private final String              keyString;
+
+    /** The transformation. */
+    private final String              transformation;
+
+    /** 只生成一次的 key. */
+    private final Key                 key;
+
+    /** 是否每次都需要重新 init (需要 IV 的模式). */
+    private final boolean             reinitEveryTime;
+
+    /** 每个线程的加密 cipher. */
+    private final ThreadLocal<Cipher> encryptCipherHolder;
+
+    /** 每个线程的解密 cipher. */
+    private final ThreadLocal<Cipher> decryptCipherHolder;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new symmetric encryptor.
+     *
+     * @param symmetricType
+     *            the symmetric type
+     * @param keyString
+     *            the key string
+     */
+    public SymmetricEncryptor(SymmetricType symmetricType, String keyString){
+        this(symmetricType, keyString, null, null, null);
+    }
+
+    /**
+     * Instantiates a new symmetric encryptor.
+     *
+     * @param symmetricType
+     *            the symmetric type
+     * @param keyString
+     *            the key string
+     * @param keyBuilder
+     *            如果是null, 使用 {@link DefaultKeyBuilder#INSTANCE}
+     */
+    public SymmetricEncryptor(SymmetricType symmetricType, String keyString, KeyBuilder keyBuilder){
+        this(symmetricType, keyString, keyBuilder, null, null);
+    }
+
+    /**
+     * Instantiates a new symmetric encryptor.
+     *
+     * @param symmetricType
+     *            the symmetric type
+     * @param keyString
+     *            the key string
+     * @param keyBuilder
+     *            如果是null, 使用 {@link DefaultKeyBuilder#INSTANCE}
+     * @param cipherMode
+     *            the cipher mode
+     * @param cipherPadding
+     *            the cipher padding
+     * @throws NullPointerException
+     *             如果 <code>symmetricType</code> 是null,或者 <code>keyString</code> 是null
+     * @throws EncryptionException
+     *             如果 transformation 不支持或者 key 不合法
+     */
+    public SymmetricEncryptor(SymmetricType symmetricType, String keyString, KeyBuilder keyBuilder, CipherMode cipherMode,
+                    CipherPadding cipherPadding){
+        Validate.notNull(symmetricType, "symmetricType can't be null!");
+        Validate.notNull(keyString, "keyString can't be null!");
+
+        this.algorithm = symmetricType.getAlgorithm();
+        this.keyString = keyString;
+        this.transformation = TransformationBuilder.build(algorithm, cipherMode, cipherPadding);
+        this.key = defaultIfNull(keyBuilder, DefaultKeyBuilder.INSTANCE).build(algorithm, keyString);
+
+        //构造的时候就校验 transformation 和 key, 有问题尽早抛出
+        Cipher encryptCipher = CipherUtil.newCipher(Cipher.ENCRYPT_MODE, transformation, key);
+        this.reinitEveryTime = null != encryptCipher.getIV();
+
+        this.encryptCipherHolder = ThreadLocal.withInitial(() -> CipherUtil.newCipher(Cipher.ENCRYPT_MODE, transformation, key));
+        this.decryptCipherHolder = ThreadLocal.withInitial(() -> CipherUtil.newCipher(Cipher.DECRYPT_MODE, transformation, key));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 加密之后转成base64.
+     *
+     * @param original
+     *            原文
+     * @return 加密之后的base64字符串
+     * @see #encryptBase64(String, String)
+     */
+    public String encryptBase64(String original){
+        return encryptBase64(original, UTF8);
+    }
+
+    /**
+     * 加密之后转成base64.
+     *
+     * @param original
+     *            原文
+     * @param charsetName
+     *            原文的编码, see {@link CharsetType}
+     * @return 加密之后的base64字符串
+     */
+    public String encryptBase64(String original,String charsetName){
+        Validate.notBlank(charsetName, "charsetName can't be blank!");
+
+        //---------------------------------------------------------------
+        try{
+            String value = Base64.encodeBase64String(toEncryptBytes(original, charsetName));
+
+            LogBuilder.logEncrypt("encrypBase64", original, value, algorithm, keyString);
+            return value;
+        }catch (Exception e){
+            throw new EncryptionException(errorMessage("original", original, algorithm, keyString, charsetName), e);
+        }
+    }
+
+    /**
+     * 解密base64字符串.
+     *
+     * @param base64String
+     *            加密之后的base64字符串
+     * @return 原文
+     * @see #decryptBase64(String, String)
+     */
+    public String decryptBase64(String base64String){
+        return decryptBase64(base64String, UTF8);
+    }
+
+    /**
+     * 解密base64字符串.
+     *
+     * @param base64String
+     *            加密之后的base64字符串
+     * @param charsetName
+     *            原文的编码, see {@link CharsetType}
+     * @return 原文
+     */
+    public String decryptBase64(String base64String,String charsetName){
+        Validate.notBlank(charsetName, "charsetName can't be blank!");
+
+        //---------------------------------------------------------------
+        try{
+            String original = toDecryptString(Base64.decodeBase64(base64String), charsetName);
+
+            LogBuilder.logDecrypt("base64String", base64String, original, algorithm, keyString);
+            return original;
+        }catch (Exception e){
+            throw new EncryptionException(errorMessage("base64String", base64String, algorithm, keyString, charsetName), e);
+        }
+    }
+
+    /**
+     * 加密之后转成大写的16进制字符串.
+     *
+     * @param original
+     *            原文
+     * @return 加密之后的16进制字符串
+     * @see #encryptHex(String, String)
+     */
+    public String encryptHex(String original){
+        return encryptHex(original, UTF8);
+    }
+
+    /**
+     * 加密之后转成大写的16进制字符串.
+     *
+     * @param original
+     *            原文
+     * @param charsetName
+     *            原文的编码, see {@link CharsetType}
+     * @return 加密之后的16进制字符串
+     */
+    public String encryptHex(String original,String charsetName){
+        Validate.notBlank(charsetName, "charsetName can't be blank!");
+
+        //---------------------------------------------------------------
+        try{
+            String value = ByteUtil.bytesToHexStringUpperCase(toEncryptBytes(original, charsetName));
+
+            LogBuilder.logEncrypt("hexStringUpperCase", original, value, algorithm, keyString);
+            return value;
+        }catch (Exception e){
+            throw new EncryptionException(errorMessage("original", original, algorithm, keyString, charsetName), e);
+        }
+    }
+
+    /**
+     * 解密16进制字符串.
+     *
+     * @param hexString
+     *            加密之后的16进制字符串
+     * @return 原文
+     * @see #decryptHex(String, String)
+     */
+    public String decryptHex(String hexString){
+        return decryptHex(hexString, UTF8);
+    }
+
+    /**
+     * 解密16进制字符串.
+     *
+     * @param hexString
+     *            加密之后的16进制字符串
+     * @param charsetName
+     *            原文的编码, see {@link CharsetType}
+     * @return 原文
+     */
+    public String decryptHex(String hexString,String charsetName){
+        Validate.notBlank(charsetName, "charsetName can't be blank!");
+
+        //---------------------------------------------------------------
+        try{
+            byte[] bs = ByteUtil.hexBytesToBytes(StringUtil.getBytes(hexString, charsetName));
+            String original = toDecryptString(bs, charsetName);
+
+            LogBuilder.logDecrypt("hexString", hexString, original, algorithm, keyString);
+            return original;
+        }catch (Exception e){
+            throw new EncryptionException(errorMessage("hexString", hexString, algorithm, keyString, charsetName), e);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    private byte[] toEncryptBytes(String original,String charsetName){
+        return op(encryptCipherHolder, Cipher.ENCRYPT_MODE, StringUtil.getBytes(original, charsetName));
+    }
+
+    private String toDecryptString(byte[] bs,String charsetName){
+        return StringUtil.newString(op(decryptCipherHolder, Cipher.DECRYPT_MODE, bs), charsetName);
+    }
+
+    /**
+     * 使用当前线程的 cipher 处理.
+     * 
+     * <p>
+     * 如果出现异常, 当前线程的 cipher 状态不确定, 直接丢弃, 下次使用重新创建.
+     * </p>
+     */
+    private byte[] op(ThreadLocal<Cipher> cipherHolder,int opmode,byte[] bytes){
+        Cipher cipher = cipherHolder.get();
+        try{
+            if (reinitEveryTime){
+                cipher.init(opmode, key);
+            }
+            return CipherUtil.doFinal(cipher, bytes, opmode, transformation);
+        }catch (InvalidKeyException e){
+            cipherHolder.remove();
+            throw new EncryptionException(e);
+        }catch (RuntimeException e){
+            cipherHolder.remove();
+            throw e;
+        }
+    }
+}
@@ -36,6 +36,7 @@ import com.feilong.security.oneway.sha512.Sha512EncodeFileTest;
 import com.feilong.security.oneway.sm3.Sm3EncodeFileTest;
 import com.feilong.security.oneway.sm3.Sm3UtilTest;
 import com.feilong.security.symmetric.AesUtilTest;
+import com.feilong.security.symmetric.SymmetricEncryptorTest;
 
 @RunWith(Suite.class)
 @SuiteClasses({ //
@@ -67,6 +68,7 @@ import com.feilong.security.symmetric.AesUtilTest;
                 //---------------------------------------------------------------
 
                 AesUtilTest.class,
+                SymmetricEncryptorTest.class,
 //                
 })
 public class SuiteTests{
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.security.symmetric;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.feilong.security.symmetric.builder.KeyGeneratorKeyBuilder;
+
+/**
+ * token 这种短文本加密的吞吐量, {@link SymmetricEncryption} (每次生成 key 和 cipher) 和 {@link SymmetricEncryptor} (key 只生成一次, 每个线程复用 cipher) 的对比.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@Fork(0)
+@Threads(4)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class SymmetricEncryptorJMHTest{
+
+    private static final String       KEY_STRING                      = "qHK2yTd3ZB==ECTM";
+
+    private final String              token                           = "memberId=123456&timestamp=1602984000000";
+
+    private final SymmetricEncryption symmetricEncryption             = new SymmetricEncryption(SymmetricType.AES, KEY_STRING);
+
+    private final SymmetricEncryptor  symmetricEncryptor              = symmetricEncryption.toEncryptor();
+
+    private final SymmetricEncryption keyGeneratorSymmetricEncryption = new AesUtil(KEY_STRING, KeyGeneratorKeyBuilder.INSTANCE);
+
+    private final SymmetricEncryptor  keyGeneratorSymmetricEncryptor  = keyGeneratorSymmetricEncryption.toEncryptor();
+
+    private final String              encrypted                       = symmetricEncryptor.encryptBase64(token);
+
+    public static void main(String[] args) throws RunnerException{
+        final Options opts = new OptionsBuilder().include(SymmetricEncryptorJMHTest.class.getSimpleName())//
+                        .measurementIterations(5)//
+                        .warmupIterations(3)//
+
+                        .result("result.json")//
+                        .resultFormat(ResultFormatType.JSON)//
+                        .build();
+        new Runner(opts).run();
+    }
+
+    //---------------------------------------------------------------
+
+    @Benchmark
+    public String symmetricEncryptionEncrypt(){
+        return symmetricEncryption.encryptBase64(token);
+    }
+
+    @Benchmark
+    public String symmetricEncryptorEncrypt(){
+        return symmetricEncryptor.encryptBase64(token);
+    }
+
+    @Benchmark
+    public String symmetricEncryptionDecrypt(){
+        return symmetricEncryption.decryptBase64(encrypted);
+    }
+
+    @Benchmark
+    public String symmetricEncryptorDecrypt(){
+        return symmetricEncryptor.decryptBase64(encrypted);
+    }
+
+    //---------------------------------------------------------------
+
+    @Benchmark
+    public String keyGeneratorSymmetricEncryptionEncrypt(){
+        return keyGeneratorSymmetricEncryption.encryptBase64(token);
+    }
+
+    @Benchmark
+    public String keyGeneratorSymmetricEncryptorEncrypt(){
+        return keyGeneratorSymmetricEncryptor.encryptBase64(token);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.security.symmetric;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.feilong.security.AbstractSecurityTest;
+import com.feilong.security.EncryptionException;
+import com.feilong.security.symmetric.builder.KeyGeneratorKeyBuilder;
+
+/**
+ * {@link SymmetricEncryptor} 测试, 结果需要和 {@link SymmetricEncryption} 一致.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+public class SymmetricEncryptorTest extends AbstractSecurityTest{
+
+    private static final String AES_KEY = "qHK2yTd3ZB==ECTM";
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testSameAsSymmetricEncryption(){
+        assertSame(new SymmetricEncryption(SymmetricType.AES, AES_KEY));
+        assertSame(new AesUtil(KEY, KeyGeneratorKeyBuilder.INSTANCE));
+        assertSame(new SymmetricEncryption(SymmetricType.Blowfish, KEY));
+        assertSame(new SymmetricEncryption(SymmetricType.AES, AES_KEY, CipherMode.ECB, CipherPadding.PKCS5Padding));
+    }
+
+    @Test
+    public void testKnownValue(){
+        SymmetricEncryptor symmetricEncryptor = new SymmetricEncryptor(SymmetricType.AES, AES_KEY);
+        assertEquals("tAgqYO5A48in5mwTtzXkwg==", symmetricEncryptor.encryptBase64("feilong"));
+        assertEquals("feilong", symmetricEncryptor.decryptBase64("tAgqYO5A48in5mwTtzXkwg=="));
+    }
+
+    @Test
+    public void testReuseAfterException(){
+        SymmetricEncryptor symmetricEncryptor = new SymmetricEncryptor(SymmetricType.AES, AES_KEY);
+        try{
+            symmetricEncryptor.decryptBase64("feilong");
+            fail();
+        }catch (EncryptionException e){
+            //expected
+        }
+        assertEquals("feilong", symmetricEncryptor.decryptBase64("tAgqYO5A48in5mwTtzXkwg=="));
+    }
+
+    @Test
+    public void testReinitEveryTime(){
+        //CBC 模式每次 init 都会生成随机的 IV, 行为和 SymmetricEncryption 一致
+        SymmetricEncryptor symmetricEncryptor = new SymmetricEncryptor(
+                        SymmetricType.AES,
+                        AES_KEY,
+                        null,
+                        CipherMode.CBC,
+                        CipherPadding.PKCS5Padding);
+        assertNotEquals(symmetricEncryptor.encryptBase64(testString), symmetricEncryptor.encryptBase64(testString));
+    }
+
+    @Test(expected = EncryptionException.class)
+    public void testInvalidKey(){
+        new SymmetricEncryptor(SymmetricType.AES, KEY);
+    }
+
+    @Test
+    public void testConcurrent() throws Exception{
+        SymmetricEncryptor symmetricEncryptor = new SymmetricEncryptor(SymmetricType.AES, AES_KEY);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try{
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 1000; ++i){
+                String original = testString + i;
+                futures.add(executorService.submit(() -> symmetricEncryptor.decryptHex(symmetricEncryptor.encryptHex(original))));
+            }
+            for (int i = 0; i < 1000; ++i){
+                assertEquals(testString + i, futures.get(i).get());
+            }
+        }finally{
+            executorService.shutdown();
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    private static void assertSame(SymmetricEncryption symmetricEncryption){
+        SymmetricEncryptor symmetricEncryptor = symmetricEncryption.toEncryptor();
+
+        String base64 = symmetricEncryption.encryptBase64(testString);
+        assertEquals(base64, symmetricEncryptor.encryptBase64(testString));
+        assertEquals(testString, symmetricEncryptor.decryptBase64(base64));
+
+        String hex = symmetricEncryption.encryptHex(testString);
+        assertEquals(hex, symmetricEncryptor.encryptHex(testString));
+        assertEquals(testString, symmetricEncryptor.decryptHex(hex));
+    }
+}
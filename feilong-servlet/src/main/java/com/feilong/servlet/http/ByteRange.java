@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.servlet.http;
+
+import static com.feilong.core.Validator.isNullOrEmpty;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import com.feilong.lib.lang3.StringUtils;
+
+/**
+ * http <code>Range</code> 请求头里面的一个字节区间 (闭区间,包含 {@link #getStart()} 和 {@link #getEnd()}).
+ * 
+ * <h3>格式:</h3>
+ * 
+ * <blockquote>
+ * 
+ * <pre>
+ * Range: bytes=0-499          前 500 个字节
+ * Range: bytes=500-           从第 500 个字节到结尾
+ * Range: bytes=-500           最后 500 个字节
+ * Range: bytes=0-0,-1         第一个和最后一个字节 (多个区间, 响应 multipart/byteranges)
+ * </pre>
+ * 
+ * </blockquote>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @see <a href="https://www.rfc-editor.org/rfc/rfc7233">RFC 7233</a>
+ * @since 4.5.5
+ */
+final class ByteRange{
+
+    /** 字节区间单位. */
+    private static final String BYTES_UNIT_PREFIX = "bytes=";
+
+    /**
+     * 合并之后最多允许的区间个数, 超过则忽略 <code>Range</code> 请求头, 返回整个文件.
+     * 
+     * <p>
+     * 防止 <code>bytes=0-,0-,0-,...</code> 这种请求让服务器在一个 multipart/byteranges 响应里面把整个文件重复输出很多次 (CVE-2011-3192).
+     * </p>
+     */
+    static final int            MAX_RANGE_COUNT   = 16;
+
+    //---------------------------------------------------------------
+
+    /** 开始位置. */
+    private final long          start;
+
+    /** 结束位置(包含). */
+    private final long          end;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new byte range.
+     *
+     * @param start
+     *            开始位置
+     * @param end
+     *            结束位置(包含)
+     */
+    ByteRange(long start, long end){
+        this.start = start;
+        this.end = end;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 解析 <code>Range</code> 请求头.
+     *
+     * @param rangeHeader
+     *            <code>Range</code> 请求头的值
+     * @param contentLength
+     *            实体的总长度
+     * @return 如果 <code>rangeHeader</code> 是null或者empty,或者格式不正确(按照协议需要忽略这个请求头),返回null<br>
+     *         如果所有的区间都不能满足(比如开始位置超过了 <code>contentLength</code>),返回 empty list, 需要响应 416<br>
+     *         否则返回可以满足的区间, 结束位置超过 <code>contentLength</code> 的会截断到最后一个字节;
+     *         区间按照开始位置排序, 重叠或者相邻的区间会合并成一个<br>
+     *         如果合并之后区间个数超过 {@link #MAX_RANGE_COUNT},返回null, 下载整个文件
+     */
+    static List<ByteRange> parse(String rangeHeader,long contentLength){
+        if (isNullOrEmpty(rangeHeader) || !rangeHeader.startsWith(BYTES_UNIT_PREFIX)){
+            return null;
+        }
+
+        //---------------------------------------------------------------
+        String[] rangeSpecs = StringUtils.split(rangeHeader.substring(BYTES_UNIT_PREFIX.length()), ',');
+        if (isNullOrEmpty(rangeSpecs)){
+            return null;
+        }
+
+        List<ByteRange> byteRanges = new ArrayList<>();
+        for (String rangeSpec : rangeSpecs){
+            rangeSpec = rangeSpec.trim();
+            int index = rangeSpec.indexOf('-');
+            if (index < 0){
+                return null;
+            }
+
+            try{
+                String startPart = rangeSpec.substring(0, index).trim();
+                String endPart = rangeSpec.substring(index + 1).trim();
+
+                //suffix-byte-range-spec, 最后 N 个字节
+                if (startPart.isEmpty()){
+                    long suffixLength = Long.parseLong(endPart);
+                    if (suffixLength < 0){
+                        return null;
+                    }
+                    if (suffixLength > 0 && contentLength > 0){
+                        byteRanges.add(new ByteRange(Math.max(0, contentLength - suffixLength), contentLength - 1));
+                    }
+                    continue;
+                }
+
+                //---------------------------------------------------------------
+                long start = Long.parseLong(startPart);
+                long end = endPart.isEmpty() ? Long.MAX_VALUE : Long.parseLong(endPart);
+                if (start < 0 || end < start){
+                    return null;
+                }
+                if (start < contentLength){
+                    byteRanges.add(new ByteRange(start, Math.min(end, contentLength - 1)));
+                }
+            }catch (NumberFormatException e){
+                return null;
+            }
+        }
+        if (byteRanges.isEmpty()){
+            return Collections.<ByteRange> emptyList();
+        }
+
+        //---------------------------------------------------------------
+        List<ByteRange> mergedByteRanges = merge(byteRanges);
+        return mergedByteRanges.size() > MAX_RANGE_COUNT ? null : mergedByteRanges;
+    }
+
+    /**
+     * 按照开始位置排序, 并且合并重叠或者相邻的区间.
+     *
+     * @param byteRanges
+     *            the byte ranges, 不能是empty
+     * @return the list
+     */
+    private static List<ByteRange> merge(List<ByteRange> byteRanges){
+        if (byteRanges.size() == 1){
+            return byteRanges;
+        }
+        byteRanges.sort(Comparator.comparingLong(ByteRange::getStart));
+
+        List<ByteRange> mergedByteRanges = new ArrayList<>();
+        ByteRange current = byteRanges.get(0);
+        for (int i = 1; i < byteRanges.size(); ++i){
+            ByteRange next = byteRanges.get(i);
+            //end 最大是 contentLength - 1, +1 不会溢出
+            if (next.start <= current.end + 1){
+                current = new ByteRange(current.start, Math.max(current.end, next.end));
+            }else{
+                mergedByteRanges.add(current);
+                current = next;
+            }
+        }
+        mergedByteRanges.add(current);
+        return mergedByteRanges;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 区间的字节数.
+     *
+     * @return the length
+     */
+    long getLength(){
+        return end - start + 1;
+    }
+
+    /**
+     * 生成 <code>Content-Range</code> 响应头的值, 比如 <code>bytes 0-499/1234</code>.
+     *
+     * @param contentLength
+     *            实体的总长度
+     * @return the string
+     */
+    String toContentRange(long contentLength){
+        return "bytes " + start + "-" + end + "/" + contentLength;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 开始位置.
+     *
+     * @return the start
+     */
+    long getStart(){
+        return start;
+    }
+
+    /**
+     * 获得 结束位置(包含).
+     *
+     * @return the end
+     */
+    long getEnd(){
+        return end;
+    }
+}
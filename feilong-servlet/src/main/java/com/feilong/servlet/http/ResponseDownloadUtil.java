@@ -17,17 +17,29 @@ package com.feilong.servlet.http;
 
 import static com.feilong.core.CharsetType.UTF8;
 import static com.feilong.core.Validator.isNotNullOrEmpty;
+import static com.feilong.core.Validator.isNullOrEmpty;
 import static com.feilong.core.date.DateUtil.formatElapsedTime;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
 
+import java.io.EOFException;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import com.feilong.core.Validate;
 import com.feilong.core.net.URIUtil;
 import com.feilong.io.FileUtil;
 import com.feilong.io.IOWriteUtil;
@@ -49,6 +61,15 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class ResponseDownloadUtil{
 
+    /**
+     * 多个区间(multipart/byteranges)响应的分隔符.
+     * 
+     * @since 4.5.5
+     */
+    private static final String MULTIPART_BOUNDARY = "FEILONG_MIME_BOUNDARY";
+
+    //---------------------------------------------------------------
+
     /**
      * 下载文件.
      *
@@ -67,25 +88,111 @@ public final class ResponseDownloadUtil{
 
     /**
      * 下载文件.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>响应会带上 <code>ETag</code>,<code>Last-Modified</code>,<code>Accept-Ranges: bytes</code>.</li>
+     * <li>GET/HEAD 请求的 <code>If-None-Match</code>(优先) 或者 <code>If-Modified-Since</code> 校验通过(文件没有变化), 返回 304, 不再发送文件内容.</li>
+     * <li>GET 请求带 <code>Range</code>(以及可选的 <code>If-Range</code>), 支持断点续传: 单个区间返回 206 + <code>Content-Range</code>,多个区间返回 206 +
+     * <code>multipart/byteranges</code>,区间都不能满足返回 416.</li>
+     * <li>文件内容使用 {@link FileChannel#transferTo(long, long, WritableByteChannel)} 写出, 如果容器的 {@link javax.servlet.ServletOutputStream} 本身是
+     * {@link WritableByteChannel} 直接使用, 可以走零拷贝; 否则包装成 channel, 也不再需要额外的 heap buffer.</li>
+     * </ol>
+     * </blockquote>
      *
      * @param file
      *            the file
      * @param request
-     *            用来获取request相关信息 ,仅用来记录log
+     *            用来获取 Range/缓存校验 相关的请求头, 以及记录log
      * @param response
      *            the response
+     * @throws NullPointerException
+     *             如果 <code>file</code> 是null
+     * @throws UncheckedIOException
+     *             如果 <code>file</code> 不存在或者不是文件
      * @see com.feilong.io.FilenameUtil#getFileName(String)
-     * @see com.feilong.io.FileUtil#getFileInputStream(File)
-     * @see #download(String, InputStream, Number, HttpServletRequest, HttpServletResponse)
+     * @see <a href="https://www.rfc-editor.org/rfc/rfc7232">RFC 7232 Conditional Requests</a>
+     * @see <a href="https://www.rfc-editor.org/rfc/rfc7233">RFC 7233 Range Requests</a>
      * @since 1.4.1
      */
     public static void download(File file,HttpServletRequest request,HttpServletResponse response){
+        Validate.notNull(file, "file can't be null!");
+        if (!file.isFile()){
+            throw new UncheckedIOException(new FileNotFoundException("file:[" + file.getAbsolutePath() + "] not exist or is not a file"));
+        }
+
+        //---------------------------------------------------------------
         String saveFileName = file.getName();
-        // 以流的形式下载文件.
-        InputStream inputStream = FileUtil.getFileInputStream(file);
-        long contentLength = FileUtil.getFileSize(file);
+        long contentLength = file.length();
+        long lastModified = file.lastModified();
+        String eTag = buildETag(contentLength, lastModified);
+
+        //---------------------------------------------------------------
+        //since 4.5.5 文件没有变化, 返回 304
+        if (isNotModified(request, eTag, lastModified)){
+            response.reset();
+            setValidatorHeader(eTag, lastModified, response);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            log.debug("saveFileName:[{}] not modified,eTag:[{}],response 304", saveFileName, eTag);
+            return;
+        }
 
-        download(saveFileName, inputStream, contentLength, request, response);
+        //---------------------------------------------------------------
+        List<ByteRange> byteRanges = resolveByteRanges(request, eTag, lastModified, contentLength);
+
+        //不是 Range 请求(或者 If-Range 不匹配), 下载整个文件
+        if (null == byteRanges){
+            setDownloadResponseHeader(saveFileName, contentLength, null, null, response);
+            setValidatorHeader(eTag, lastModified, response);
+            downLoadFileData(saveFileName, file, Collections.singletonList(new ByteRange(0, contentLength - 1)), null, request, response);
+            return;
+        }
+
+        //所有的区间都不能满足, 返回 416
+        if (byteRanges.isEmpty()){
+            response.reset();
+            setValidatorHeader(eTag, lastModified, response);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + contentLength);
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            log.debug("saveFileName:[{}] range:[{}] not satisfiable,response 416", saveFileName, request.getHeader(HttpHeaders.RANGE));
+            return;
+        }
+
+        //---------------------------------------------------------------
+        String contentType = resolverContentType(saveFileName, null);
+
+        //单个区间
+        if (byteRanges.size() == 1){
+            ByteRange byteRange = byteRanges.get(0);
+            setDownloadResponseHeader(saveFileName, byteRange.getLength(), contentType, null, response);
+            setValidatorHeader(eTag, lastModified, response);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, byteRange.toContentRange(contentLength));
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            downLoadFileData(saveFileName, file, byteRanges, null, request, response);
+            return;
+        }
+
+        //---------------------------------------------------------------
+        //多个区间, multipart/byteranges, 每个区间前面是分隔符以及该区间的 Content-Type,Content-Range
+        List<byte[]> partHeaders = new ArrayList<>(byteRanges.size() + 1);
+        long multipartLength = 0;
+        for (ByteRange byteRange : byteRanges){
+            String partHeader = "\r\n--" + MULTIPART_BOUNDARY + "\r\n" //
+                            + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n" //
+                            + HttpHeaders.CONTENT_RANGE + ": " + byteRange.toContentRange(contentLength) + "\r\n\r\n";
+            byte[] partHeaderBytes = partHeader.getBytes(ISO_8859_1);
+            partHeaders.add(partHeaderBytes);
+            multipartLength += partHeaderBytes.length + byteRange.getLength();
+        }
+        byte[] endBoundaryBytes = ("\r\n--" + MULTIPART_BOUNDARY + "--\r\n").getBytes(ISO_8859_1);
+        partHeaders.add(endBoundaryBytes);
+        multipartLength += endBoundaryBytes.length;
+
+        setDownloadResponseHeader(saveFileName, multipartLength, "multipart/byteranges; boundary=" + MULTIPART_BOUNDARY, null, response);
+        setValidatorHeader(eTag, lastModified, response);
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        downLoadFileData(saveFileName, file, byteRanges, partHeaders, request, response);
     }
 
     /**
@@ -195,23 +302,280 @@ public final class ResponseDownloadUtil{
                 log.info(pattern, saveFileName, length, formatElapsedTime(beginTimeMillis));
             }
         }catch (IOException e){
-            /*
-             * 在写数据的时候, 对于 ClientAbortException 之类的异常, 是因为客户端取消了下载,而服务器端继续向浏览器写入数据时, 抛出这个异常,这个是正常的.
-             * 尤其是对于迅雷这种吸血的客户端软件, 明明已经有一个线程在读取
-             * 如果短时间内没有读取完毕,迅雷会再启第二个、第三个...线程来读取相同的字节段,
-             * 直到有一个线程读取完毕,迅雷会 KILL掉其他正在下载同一字节段的线程, 强行中止字节读出,造成服务器抛 ClientAbortException.
-             */
-            //ClientAbortException:  java.net.SocketException: Connection reset by peer: socket write error
-            final String exceptionName = e.getClass().getName();
-
-            if (StringUtils.contains(exceptionName, "ClientAbortException")
-                            || StringUtils.contains(e.getMessage(), "ClientAbortException")){
-                String pattern = "[ClientAbortException],maybe user use Thunder soft or abort client soft download,exceptionName:[{}],exception message:[{}] ,request User-Agent:[{}]";
-                log.warn(pattern, exceptionName, e.getMessage(), RequestUtil.getHeaderUserAgent(request));
-            }else{
-                log.error("[download exception],exception name: " + exceptionName, e);
-                throw new UncheckedIOException(e);
+            resolveDownloadException(e, request);
+        }
+    }
+
+    /**
+     * 使用 {@link FileChannel#transferTo(long, long, WritableByteChannel)} 写出文件的 <code>byteRanges</code>.
+     *
+     * @param saveFileName
+     *            the save file name
+     * @param file
+     *            the file
+     * @param byteRanges
+     *            需要写出的区间
+     * @param partHeaders
+     *            如果是null,表示不是 multipart;否则第 i 个元素是第 i 个区间前面需要写出的分隔头,最后一个元素是结束分隔符
+     * @param request
+     *            the request
+     * @param response
+     *            the response
+     * @since 4.5.5
+     */
+    private static void downLoadFileData(
+                    String saveFileName,
+                    File file,
+                    List<ByteRange> byteRanges,
+                    List<byte[]> partHeaders,
+                    HttpServletRequest request,
+                    HttpServletResponse response){
+        long beginTimeMillis = System.currentTimeMillis();
+        log.info("begin download~~,saveFileName:[{}],contentLength:[{}]", saveFileName, FileUtil.formatSize(file.length()));
+
+        try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)){
+            OutputStream outputStream = response.getOutputStream();
+            WritableByteChannel writableByteChannel = toWritableByteChannel(outputStream);
+
+            for (int i = 0; i < byteRanges.size(); ++i){
+                if (null != partHeaders){
+                    outputStream.write(partHeaders.get(i));
+                }
+                ByteRange byteRange = byteRanges.get(i);
+                transferTo(fileChannel, byteRange.getStart(), byteRange.getLength(), writableByteChannel);
+            }
+            if (null != partHeaders){
+                outputStream.write(partHeaders.get(byteRanges.size()));
+            }
+
+            if (log.isInfoEnabled()){
+                String pattern = "end download,saveFileName:[{}],ranges:[{}],time use:[{}]";
+                log.info(pattern, saveFileName, byteRanges.size(), formatElapsedTime(beginTimeMillis));
+            }
+        }catch (IOException e){
+            resolveDownloadException(e, request);
+        }
+    }
+
+    /**
+     * 将 <code>fileChannel</code> 从 <code>position</code> 开始的 <code>count</code> 个字节写到 <code>target</code>.
+     * 
+     * <p>
+     * {@link FileChannel#transferTo(long, long, WritableByteChannel)} 一次不一定传完, 需要循环.
+     * </p>
+     *
+     * @param fileChannel
+     *            the file channel
+     * @param position
+     *            开始位置
+     * @param count
+     *            字节数
+     * @param target
+     *            the target
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @since 4.5.5
+     */
+    private static void transferTo(FileChannel fileChannel,long position,long count,WritableByteChannel target) throws IOException{
+        long current = position;
+        long remaining = count;
+        while (remaining > 0){
+            long transferred = fileChannel.transferTo(current, remaining, target);
+            //文件在下载过程中被截短了
+            if (transferred <= 0){
+                throw new EOFException("file truncated, position:[" + current + "],remaining:[" + remaining + "]");
             }
+            current += transferred;
+            remaining -= transferred;
+        }
+    }
+
+    /**
+     * 转成 {@link WritableByteChannel}.
+     * 
+     * <p>
+     * servlet 规范没有暴露 channel, 如果容器的 {@link javax.servlet.ServletOutputStream} 实现了 {@link WritableByteChannel},直接使用;<br>
+     * 否则使用 {@link Channels#newChannel(OutputStream)} 包装.
+     * </p>
+     *
+     * @param outputStream
+     *            the output stream
+     * @return the writable byte channel
+     * @since 4.5.5
+     */
+    private static WritableByteChannel toWritableByteChannel(OutputStream outputStream){
+        return outputStream instanceof WritableByteChannel ? (WritableByteChannel) outputStream : Channels.newChannel(outputStream);
+    }
+
+    /**
+     * 处理下载过程中的 IOException, 客户端中断下载的只记录日志, 其他的抛出 {@link UncheckedIOException}.
+     *
+     * @param e
+     *            the e
+     * @param request
+     *            the request
+     * @since 4.5.5
+     */
+    private static void resolveDownloadException(IOException e,HttpServletRequest request){
+        /*
+         * 在写数据的时候, 对于 ClientAbortException 之类的异常, 是因为客户端取消了下载,而服务器端继续向浏览器写入数据时, 抛出这个异常,这个是正常的.
+         * 尤其是对于迅雷这种吸血的客户端软件, 明明已经有一个线程在读取
+         * 如果短时间内没有读取完毕,迅雷会再启第二个、第三个...线程来读取相同的字节段,
+         * 直到有一个线程读取完毕,迅雷会 KILL掉其他正在下载同一字节段的线程, 强行中止字节读出,造成服务器抛 ClientAbortException.
+         */
+        //ClientAbortException:  java.net.SocketException: Connection reset by peer: socket write error
+        final String exceptionName = e.getClass().getName();
+
+        if (StringUtils.contains(exceptionName, "ClientAbortException")
+                        || StringUtils.contains(e.getMessage(), "ClientAbortException")){
+            String pattern = "[ClientAbortException],maybe user use Thunder soft or abort client soft download,exceptionName:[{}],exception message:[{}] ,request User-Agent:[{}]";
+            log.warn(pattern, exceptionName, e.getMessage(), RequestUtil.getHeaderUserAgent(request));
+        }else{
+            log.error("[download exception],exception name: " + exceptionName, e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 生成 ETag, 格式是 <code>"lastModified的16进制-文件大小的16进制"</code> (同 nginx).
+     *
+     * @param contentLength
+     *            the content length
+     * @param lastModified
+     *            the last modified
+     * @return the string
+     * @since 4.5.5
+     */
+    private static String buildETag(long contentLength,long lastModified){
+        return "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(contentLength) + "\"";
+    }
+
+    /**
+     * 设置 <code>ETag</code>,<code>Last-Modified</code>,<code>Accept-Ranges</code> 响应头.
+     *
+     * @param eTag
+     *            the e tag
+     * @param lastModified
+     *            the last modified
+     * @param response
+     *            the response
+     * @since 4.5.5
+     */
+    private static void setValidatorHeader(String eTag,long lastModified,HttpServletResponse response){
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+    }
+
+    /**
+     * 判断文件是否没有变化(可以返回 304).
+     * 
+     * <p>
+     * 只处理 GET/HEAD 请求; 有 <code>If-None-Match</code> 的时候忽略 <code>If-Modified-Since</code>.
+     * </p>
+     *
+     * @param request
+     *            the request
+     * @param eTag
+     *            the e tag
+     * @param lastModified
+     *            the last modified
+     * @return true, if is not modified
+     * @since 4.5.5
+     */
+    private static boolean isNotModified(HttpServletRequest request,String eTag,long lastModified){
+        String method = request.getMethod();
+        if (!"GET".equalsIgnoreCase(method) && !"HEAD".equalsIgnoreCase(method)){
+            return false;
+        }
+
+        //---------------------------------------------------------------
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (null != ifNoneMatch){
+            return isETagMatch(ifNoneMatch, eTag);
+        }
+        long ifModifiedSince = getDateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        //http 日期精确到秒
+        return ifModifiedSince != -1 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * 解析需要下载的区间.
+     *
+     * @param request
+     *            the request
+     * @param eTag
+     *            the e tag
+     * @param lastModified
+     *            the last modified
+     * @param contentLength
+     *            the content length
+     * @return 如果不是 GET 请求,或者没有 Range 请求头,或者 If-Range 不匹配(文件已经变化),或者 Range 格式不对,返回null, 表示下载整个文件<br>
+     *         如果区间都不能满足, 返回 empty list
+     * @since 4.5.5
+     */
+    private static List<ByteRange> resolveByteRanges(HttpServletRequest request,String eTag,long lastModified,long contentLength){
+        if (!"GET".equalsIgnoreCase(request.getMethod())){
+            return null;
+        }
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (isNullOrEmpty(range)){
+            return null;
+        }
+
+        //---------------------------------------------------------------
+        //If-Range 可以是 ETag 或者 日期, 不匹配则返回整个文件
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (isNotNullOrEmpty(ifRange)){
+            ifRange = ifRange.trim();
+            boolean isETag = ifRange.startsWith("\"") || ifRange.startsWith("W/");
+            boolean isMatch = isETag ? eTag.equals(ifRange)
+                            : lastModified / 1000 == getDateHeader(request, HttpHeaders.IF_RANGE) / 1000;
+            if (!isMatch){
+                return null;
+            }
+        }
+        return ByteRange.parse(range, contentLength);
+    }
+
+    /**
+     * <code>If-None-Match</code> 请求头里面是否有匹配 <code>eTag</code> 的(弱比较, 忽略 <code>W/</code> 前缀).
+     *
+     * @param ifNoneMatch
+     *            the if none match
+     * @param eTag
+     *            the e tag
+     * @return true, if is e tag match
+     * @since 4.5.5
+     */
+    private static boolean isETagMatch(String ifNoneMatch,String eTag){
+        for (String candidate : StringUtils.split(ifNoneMatch, ',')){
+            String value = candidate.trim();
+            if ("*".equals(value) || eTag.equals(StringUtils.removeStart(value, "W/"))){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获得日期请求头, 格式不对的当作没有传.
+     *
+     * @param request
+     *            the request
+     * @param name
+     *            the name
+     * @return 如果没有该请求头或者格式不对, 返回 -1
+     * @since 4.5.5
+     */
+    private static long getDateHeader(HttpServletRequest request,String name){
+        try{
+            return request.getDateHeader(name);
+        }catch (IllegalArgumentException e){
+            log.debug("header:[{}] value:[{}] is not date,ignore", name, request.getHeader(name));
+            return -1;
         }
     }
 
@@ -251,8 +615,9 @@ public final class ResponseDownloadUtil{
         //浏览器接收到文件后,会进入插件系统进行查找,查找出哪种插件可以识别读取接收到的文件.如果浏览器不清楚调用哪种插件系统,它可能会告诉用户缺少某插件,
         response.setContentType(resolverContentType(saveFileName, contentType));
 
+        //since 4.5.5 使用 long, 超过 2G 的文件 int 会溢出
         if (isNotNullOrEmpty(contentLength)){
-            response.setContentLength(contentLength.intValue());
+            response.setContentLengthLong(contentLength.longValue());
         }
 
         //************************about buffer***********************************************************
@@ -20,6 +20,7 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 import com.feilong.servlet.http.CookieUtilTest;
+import com.feilong.servlet.http.ResponseDownloadUtilTest;
 import com.feilong.servlet.http.requestutil.GetClientIPTest;
 import com.feilong.servlet.http.requestutil.IsStaticResourceParameterizedTest;
 import com.feilong.servlet.http.requestutil.RequstUtilSuiteTests;
@@ -29,6 +30,7 @@ import com.feilong.servlet.http.requestutil.RequstUtilSuiteTests;
                 ServletContextUtilTest.class,
 
                 CookieUtilTest.class,
+                ResponseDownloadUtilTest.class,
                 IsStaticResourceParameterizedTest.class,
                 GetClientIPTest.class,
                 RequstUtilSuiteTests.class
@@ -0,0 +1,283 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.servlet.http;
+
+import static com.feilong.core.bean.ConvertUtil.toMap;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Map;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+
+/**
+ * 使用内嵌的 jetty 测试 {@link ResponseDownloadUtil#download(File, HttpServletRequest, HttpServletResponse)}.
+ */
+public class ResponseDownloadUtilTest{
+
+    /** 3G, 超过 int 范围. */
+    private static final long   LARGE_FILE_LENGTH = 3L * 1024 * 1024 * 1024;
+
+    private static Server       server;
+
+    private static String       baseUrl;
+
+    private static File         file;
+
+    private static File         largeFile;
+
+    private static byte[]       content;
+
+    //---------------------------------------------------------------
+
+    @BeforeClass
+    public static void beforeClass() throws Exception{
+        content = new byte[100];
+        for (int i = 0; i < content.length; ++i){
+            content[i] = (byte) ('a' + i % 26);
+        }
+        file = File.createTempFile("download", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), content);
+
+        //稀疏文件, 不占用磁盘空间
+        largeFile = File.createTempFile("download-large", ".bin");
+        largeFile.deleteOnExit();
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(largeFile, "rw")){
+            randomAccessFile.setLength(LARGE_FILE_LENGTH);
+        }
+
+        //---------------------------------------------------------------
+        server = new Server(0);
+        ServletContextHandler servletContextHandler = new ServletContextHandler();
+        servletContextHandler.addServlet(new ServletHolder(new HttpServlet(){
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void doGet(HttpServletRequest request,HttpServletResponse response){
+                ResponseDownloadUtil.download("/large".equals(request.getPathInfo()) ? largeFile : file, request, response);
+            }
+        }), "/download/*");
+        server.setHandler(servletContextHandler);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + ((ServerConnector) server.getConnectors()[0]).getLocalPort() + "/download/";
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception{
+        server.stop();
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testFull() throws IOException{
+        HttpURLConnection connection = open("file", null);
+        assertEquals(200, connection.getResponseCode());
+        assertEquals("bytes", connection.getHeaderField(HttpHeaders.ACCEPT_RANGES));
+        assertEquals(100, connection.getContentLengthLong());
+        assertTrue(connection.getHeaderField(HttpHeaders.CONTENT_DISPOSITION).startsWith("attachment"));
+        assertArrayEquals(content, read(connection));
+    }
+
+    @Test
+    public void testSingleRange() throws IOException{
+        HttpURLConnection connection = open("file", toMap(HttpHeaders.RANGE, "bytes=10-19"));
+        assertEquals(206, connection.getResponseCode());
+        assertEquals("bytes 10-19/100", connection.getHeaderField(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(content, 10, 20), read(connection));
+    }
+
+    @Test
+    public void testSuffixRange() throws IOException{
+        HttpURLConnection connection = open("file", toMap(HttpHeaders.RANGE, "bytes=-5"));
+        assertEquals(206, connection.getResponseCode());
+        assertEquals("bytes 95-99/100", connection.getHeaderField(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(content, 95, 100), read(connection));
+    }
+
+    @Test
+    public void testOpenEndRangeBeyondLength() throws IOException{
+        HttpURLConnection connection = open("file", toMap(HttpHeaders.RANGE, "bytes=90-1000"));
+        assertEquals(206, connection.getResponseCode());
+        assertEquals("bytes 90-99/100", connection.getHeaderField(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(content, 90, 100), read(connection));
+    }
+
+    @Test
+    public void testMultiRange() throws IOException{
+        HttpURLConnection connection = open("file", toMap(HttpHeaders.RANGE, "bytes=0-4,10-14"));
+        assertEquals(206, connection.getResponseCode());
+        assertEquals("multipart/byteranges; boundary=FEILONG_MIME_BOUNDARY", connection.getContentType());
+
+        byte[] body = read(connection);
+        assertEquals(connection.getContentLengthLong(), body.length);
+
+        String expected = "\r\n--FEILONG_MIME_BOUNDARY\r\n" //
+                        + "Content-Type: text/plain\r\n" //
+                        + "Content-Range: bytes 0-4/100\r\n\r\n" //
+                        + "abcde" //
+                        + "\r\n--FEILONG_MIME_BOUNDARY\r\n" //
+                        + "Content-Type: text/plain\r\n" //
+                        + "Content-Range: bytes 10-14/100\r\n\r\n" //
+                        + "klmno" //
+                        + "\r\n--FEILONG_MIME_BOUNDARY--\r\n";
+        assertEquals(expected, new String(body, ISO_8859_1));
+    }
+
+    @Test
+    public void testOverlappingRangesMerged() throws IOException{
+        //重叠和相邻的区间合并成一个, 不会把相同的字节重复输出
+        HttpURLConnection connection = open("file", toMap(HttpHeaders.RANGE, "bytes=10-19,0-,0-,15-30,5-9"));
+        assertEquals(206, connection.getResponseCode());
+        assertEquals("bytes 0-99/100", connection.getHeaderField(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(content, read(connection));
+
+        connection = open("file", toMap(HttpHeaders.RANGE, "bytes=10-14,0-4,5-9,12-20"));
+        assertEquals(206, connection.getResponseCode());
+        assertEquals("bytes 0-20/100", connection.getHeaderField(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(content, 0, 21), read(connection));
+    }
+
+    @Test
+    public void testTooManyRanges() throws IOException{
+        StringBuilder range = new StringBuilder("bytes=");
+        for (int i = 0; i <= ByteRange.MAX_RANGE_COUNT; ++i){
+            range.append(i == 0 ? "" : ",").append(i * 3).append('-').append(i * 3);
+        }
+
+        //合并之后的区间个数超过上限, 返回整个文件
+        HttpURLConnection connection = open("file", toMap(HttpHeaders.RANGE, range.toString()));
+        assertEquals(200, connection.getResponseCode());
+        assertArrayEquals(content, read(connection));
+    }
+
+    @Test
+    public void testRangeNotSatisfiable() throws IOException{
+        HttpURLConnection connection = open("file", toMap(HttpHeaders.RANGE, "bytes=100-"));
+        assertEquals(416, connection.getResponseCode());
+        assertEquals("bytes */100", connection.getHeaderField(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    public void testInvalidRangeIgnored() throws IOException{
+        HttpURLConnection connection = open("file", toMap(HttpHeaders.RANGE, "bytes=abc"));
+        assertEquals(200, connection.getResponseCode());
+        assertArrayEquals(content, read(connection));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testIfNoneMatch() throws IOException{
+        String eTag = open("file", null).getHeaderField(HttpHeaders.ETAG);
+
+        assertEquals(304, open("file", toMap(HttpHeaders.IF_NONE_MATCH, eTag)).getResponseCode());
+        assertEquals(304, open("file", toMap(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + eTag)).getResponseCode());
+        assertEquals(200, open("file", toMap(HttpHeaders.IF_NONE_MATCH, "\"other\"")).getResponseCode());
+    }
+
+    @Test
+    public void testIfModifiedSince() throws IOException{
+        String lastModified = open("file", null).getHeaderField(HttpHeaders.LAST_MODIFIED);
+
+        assertEquals(304, open("file", toMap(HttpHeaders.IF_MODIFIED_SINCE, lastModified)).getResponseCode());
+        assertEquals(
+                        200,
+                        open("file", toMap(HttpHeaders.IF_MODIFIED_SINCE, "Thu, 01 Jan 1970 00:00:00 GMT")).getResponseCode());
+    }
+
+    @Test
+    public void testIfRange() throws IOException{
+        String eTag = open("file", null).getHeaderField(HttpHeaders.ETAG);
+
+        Map<String, String> headers = toMap(HttpHeaders.RANGE, "bytes=0-9");
+        headers.put(HttpHeaders.IF_RANGE, eTag);
+        assertEquals(206, open("file", headers).getResponseCode());
+
+        //文件已经变化, 返回整个文件
+        headers.put(HttpHeaders.IF_RANGE, "\"changed\"");
+        HttpURLConnection connection = open("file", headers);
+        assertEquals(200, connection.getResponseCode());
+        assertArrayEquals(content, read(connection));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testLargeFileRange() throws IOException{
+        long start = LARGE_FILE_LENGTH - 10;
+        HttpURLConnection connection = open("large", toMap(HttpHeaders.RANGE, "bytes=" + start + "-"));
+        assertEquals(206, connection.getResponseCode());
+        assertEquals("bytes " + start + "-" + (LARGE_FILE_LENGTH - 1) + "/" + LARGE_FILE_LENGTH, connection.getHeaderField(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(new byte[10], read(connection));
+    }
+
+    @Test
+    public void testLargeFileContentLength() throws IOException{
+        HttpURLConnection connection = open("large", toMap(HttpHeaders.IF_NONE_MATCH, "\"other\""));
+        assertEquals(200, connection.getResponseCode());
+        assertEquals(LARGE_FILE_LENGTH, connection.getContentLengthLong());
+        connection.disconnect();
+    }
+
+    //---------------------------------------------------------------
+
+    private static HttpURLConnection open(String path,Map<String, String> headers) throws IOException{
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        if (null != headers){
+            for (Map.Entry<String, String> entry : headers.entrySet()){
+                connection.setRequestProperty(entry.getKey(), entry.getValue());
+            }
+        }
+        return connection;
+    }
+
+    private static byte[] read(HttpURLConnection connection) throws IOException{
+        try (InputStream inputStream = connection.getInputStream()){
+            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int n;
+            while ((n = inputStream.read(buffer)) != -1){
+                byteArrayOutputStream.write(buffer, 0, n);
+            }
+            return byteArrayOutputStream.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,407 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.taglib;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.feilong.core.Validate;
+
+/**
+ * 有容量上限和过期时间的标签缓存, 分段 LRU(Segmented LRU) 淘汰.
+ * 
+ * <h3>说明:</h3>
+ * 
+ * <blockquote>
+ * <ol>
+ * <li>每个分片分成 试用区(probation) 和 保护区(protected, 占 80%): 新写入的放在试用区, 试用区里面再次命中的晋升到保护区,
+ * 保护区满了之后最久没有访问的降级回试用区; 淘汰总是先从试用区最老的开始.<br>
+ * 只访问一次的 key(比如分页标签里面大量不同的 query string) 不会把反复访问的热点挤出缓存.</li>
+ * <li>写入超过 <code>expireAfterWriteMillis</code> 的, 在读取的时候当作没有命中并移除.</li>
+ * <li>按照 key 的 hash 分成多个分片, 每个分片单独加锁, 减少并发竞争.</li>
+ * <li>可以通过 {@link #getHitCount()},{@link #getMissCount()},{@link #getEvictionCount()} 观察缓存效果.</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @param <K>
+ *            the key type
+ * @param <V>
+ *            the value type
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @see "com.github.benmanes.caffeine.cache.Cache"
+ * @since 4.5.5
+ */
+public final class SegmentedLruCache<K, V>{
+
+    /** 最大的分片数量. */
+    private static final int      MAX_SEGMENT_COUNT    = 16;
+
+    /** 每个分片最少的容量, 容量太小的时候减少分片数量. */
+    private static final int      MIN_SEGMENT_CAPACITY = 16;
+
+    /** 保护区占分片容量的比例. */
+    private static final double   PROTECTED_PERCENT    = 0.8;
+
+    //---------------------------------------------------------------
+
+    /** The segments. */
+    private final Segment<K, V>[] segments;
+
+    /** 命中次数. */
+    private final LongAdder       hitCount             = new LongAdder();
+
+    /** 没有命中的次数(包括过期). */
+    private final LongAdder       missCount            = new LongAdder();
+
+    /** 因为容量或者过期 被移除的次数. */
+    private final LongAdder       evictionCount        = new LongAdder();
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new segmented lru cache.
+     *
+     * @param maximumSize
+     *            最多缓存的数量
+     * @param expireAfterWriteMillis
+     *            写入之后的过期时间, 单位毫秒
+     * @throws IllegalArgumentException
+     *             如果 <code>maximumSize</code> 或者 <code>expireAfterWriteMillis</code> 不大于0
+     */
+    @SuppressWarnings("unchecked")
+    public SegmentedLruCache(int maximumSize, long expireAfterWriteMillis){
+        Validate.isTrue(maximumSize > 0, "maximumSize:[%s] must > 0", maximumSize);
+        Validate.isTrue(expireAfterWriteMillis > 0, "expireAfterWriteMillis:[%s] must > 0", expireAfterWriteMillis);
+
+        //分片数量是 2 的幂
+        int segmentCount = 1;
+        while (segmentCount < MAX_SEGMENT_COUNT && maximumSize / (segmentCount * 2) >= MIN_SEGMENT_CAPACITY){
+            segmentCount <<= 1;
+        }
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; ++i){
+            //余数分给前面的分片, 总容量等于 maximumSize
+            int capacity = maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0);
+            segments[i] = new Segment<>(capacity, expireAfterWriteMillis, evictionCount);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 <code>key</code> 对应的值.
+     *
+     * @param key
+     *            the key
+     * @return 如果没有缓存或者已经过期, 返回null
+     */
+    public V get(K key){
+        V value = segmentFor(key).get(key, System.currentTimeMillis());
+        if (null == value){
+            missCount.increment();
+        }else{
+            hitCount.increment();
+        }
+        return value;
+    }
+
+    /**
+     * 设置缓存.
+     *
+     * @param key
+     *            the key
+     * @param value
+     *            the value
+     * @throws NullPointerException
+     *             如果 <code>key</code> 或者 <code>value</code> 是null
+     */
+    public void put(K key,V value){
+        Validate.notNull(key, "key can't be null!");
+        Validate.notNull(value, "value can't be null!");
+        segmentFor(key).put(key, value, System.currentTimeMillis());
+    }
+
+    /**
+     * 清空缓存(统计数据保留).
+     */
+    public void clear(){
+        for (Segment<K, V> segment : segments){
+            segment.clear();
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 当前缓存的数量(可能包含已经过期还没有移除的).
+     *
+     * @return the size
+     */
+    public int size(){
+        int size = 0;
+        for (Segment<K, V> segment : segments){
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * 获得 命中次数.
+     *
+     * @return the hit count
+     */
+    public long getHitCount(){
+        return hitCount.sum();
+    }
+
+    /**
+     * 获得 没有命中的次数(包括过期).
+     *
+     * @return the miss count
+     */
+    public long getMissCount(){
+        return missCount.sum();
+    }
+
+    /**
+     * 获得 因为容量或者过期 被移除的次数.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount(){
+        return evictionCount.sum();
+    }
+
+    /**
+     * 命中率.
+     *
+     * @return 如果还没有访问过, 返回 0
+     */
+    public double getHitRate(){
+        long hit = getHitCount();
+        long total = hit + getMissCount();
+        return 0 == total ? 0 : (double) hit / total;
+    }
+
+    @Override
+    public String toString(){
+        return "SegmentedLruCache[size=" + size() + ",hitCount=" + getHitCount() + ",missCount=" + getMissCount() + ",evictionCount="
+                        + getEvictionCount() + "]";
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 根据 hash 取到分片.
+     *
+     * @param key
+     *            the key
+     * @return the segment
+     */
+    private Segment<K, V> segmentFor(Object key){
+        int h = key.hashCode();
+        //把高位扰动到低位, 同 HashMap
+        h ^= h >>> 16;
+        return segments[h & (segments.length - 1)];
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 缓存的值, 以及写入时间.
+     *
+     * @param <V>
+     *            the value type
+     */
+    private static final class Entry<V>{
+
+        /** The value. */
+        private final V    value;
+
+        /** The write time. */
+        private final long writeTime;
+
+        /**
+         * Instantiates a new entry.
+         *
+         * @param value
+         *            the value
+         * @param writeTime
+         *            the write time
+         */
+        private Entry(V value, long writeTime){
+            this.value = value;
+            this.writeTime = writeTime;
+        }
+    }
+
+    /**
+     * 一个分片, 所有的方法都要持有分片的锁.
+     *
+     * @param <K>
+     *            the key type
+     * @param <V>
+     *            the value type
+     */
+    private static final class Segment<K, V> {
+
+        /** 分片容量. */
+        private final int              capacity;
+
+        /** 保护区容量. */
+        private final int              protectedCapacity;
+
+        /** 写入之后的过期时间, 单位毫秒. */
+        private final long             expireAfterWriteMillis;
+
+        /** 所属缓存的移除次数. */
+        private final LongAdder        evictionCount;
+
+        /** 试用区, 按照插入顺序, 第一个是最老的. */
+        private final Map<K, Entry<V>> probation    = new LinkedHashMap<>();
+
+        /** 保护区, 按照访问顺序, 第一个是最久没有访问的. */
+        private final Map<K, Entry<V>> protectedMap = new LinkedHashMap<>(16, 0.75f, true);
+
+        /**
+         * Instantiates a new segment.
+         *
+         * @param capacity
+         *            the capacity
+         * @param expireAfterWriteMillis
+         *            the expire after write millis
+         * @param evictionCount
+         *            the eviction count
+         */
+        private Segment(int capacity, long expireAfterWriteMillis, LongAdder evictionCount){
+            this.capacity = capacity;
+            this.protectedCapacity = (int) (capacity * PROTECTED_PERCENT);
+            this.expireAfterWriteMillis = expireAfterWriteMillis;
+            this.evictionCount = evictionCount;
+        }
+
+        /**
+         * Gets the.
+         *
+         * @param key
+         *            the key
+         * @param now
+         *            the now
+         * @return the v
+         */
+        private synchronized V get(K key,long now){
+            Entry<V> entry = protectedMap.get(key);
+            if (null != entry){
+                if (isExpired(entry, now)){
+                    protectedMap.remove(key);
+                    evictionCount.increment();
+                    return null;
+                }
+                return entry.value;
+            }
+
+            //---------------------------------------------------------------
+            entry = probation.remove(key);
+            if (null == entry){
+                return null;
+            }
+            if (isExpired(entry, now)){
+                evictionCount.increment();
+                return null;
+            }
+
+            //再次命中, 晋升到保护区
+            protectedMap.put(key, entry);
+            if (protectedMap.size() > protectedCapacity){
+                demoteEldestProtected();
+            }
+            return entry.value;
+        }
+
+        /**
+         * Put.
+         *
+         * @param key
+         *            the key
+         * @param value
+         *            the value
+         * @param now
+         *            the now
+         */
+        private synchronized void put(K key,V value,long now){
+            Entry<V> entry = new Entry<>(value, now);
+            if (protectedMap.containsKey(key)){
+                protectedMap.put(key, entry);
+                return;
+            }
+            if (null != probation.put(key, entry)){
+                return;
+            }
+
+            //---------------------------------------------------------------
+            //超过容量, 先淘汰试用区最老的
+            if (probation.size() + protectedMap.size() > capacity){
+                Map<K, Entry<V>> victimMap = probation.isEmpty() ? protectedMap : probation;
+                Iterator<K> iterator = victimMap.keySet().iterator();
+                iterator.next();
+                iterator.remove();
+                evictionCount.increment();
+            }
+        }
+
+        /**
+         * 保护区最久没有访问的降级到试用区(作为试用区最新的).
+         */
+        private void demoteEldestProtected(){
+            Iterator<Map.Entry<K, Entry<V>>> iterator = protectedMap.entrySet().iterator();
+            Map.Entry<K, Entry<V>> eldest = iterator.next();
+            iterator.remove();
+            probation.put(eldest.getKey(), eldest.getValue());
+        }
+
+        /**
+         * Clear.
+         */
+        private synchronized void clear(){
+            probation.clear();
+            protectedMap.clear();
+        }
+
+        /**
+         * Size.
+         *
+         * @return the int
+         */
+        private synchronized int size(){
+            return probation.size() + protectedMap.size();
+        }
+
+        /**
+         * Checks if is expired.
+         *
+         * @param entry
+         *            the entry
+         * @param now
+         *            the now
+         * @return true, if is expired
+         */
+        private boolean isExpired(Entry<V> entry,long now){
+            return now - entry.writeTime > expireAfterWriteMillis;
+        }
+    }
+}
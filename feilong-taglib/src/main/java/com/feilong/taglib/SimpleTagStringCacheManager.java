@@ -17,9 +17,6 @@ package com.feilong.taglib;
 
 import static com.feilong.core.Validator.isNotNullOrEmpty;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
@@ -39,16 +36,36 @@ public final class SimpleTagStringCacheManager{
     /**
      * 设置缓存是否开启.
      */
-    private static final boolean             CACHE_ENABLE = true;
+    private static final boolean                           CACHE_ENABLE              = true;
 
     /**
-     * 将结果缓存到map.
+     * 最多缓存的数量.
+     * 
+     * @since 4.5.5
+     */
+    private static final int                               MAXIMUM_SIZE              = 10_000;
+
+    /**
+     * 写入之后的过期时间, 1 小时.
+     * 
+     * @since 4.5.5
+     */
+    private static final long                              EXPIRE_AFTER_WRITE_MILLIS = 60 * 60 * 1000L;
+
+    /**
+     * 将结果缓存.
      * <p>
      * key是相关字符串,value是解析完的字符串<br>
      * 该cache里面value不会存放null/empty
      * </p>
+     * 
+     * <p>
+     * since 4.5.5 从没有上限的 ConcurrentHashMap 改成有容量上限和过期时间的 {@link SegmentedLruCache}, 避免 key 很分散的时候(比如分页) 无限增长
+     * </p>
      */
-    private static final Map<String, Object> CACHE        = new ConcurrentHashMap<>();
+    private static final SegmentedLruCache<String, Object> CACHE                     = new SegmentedLruCache<>(
+                    MAXIMUM_SIZE,
+                    EXPIRE_AFTER_WRITE_MILLIS);
 
     //-------------------------------------------------------------------------------------------
 
@@ -66,14 +83,13 @@ public final class SimpleTagStringCacheManager{
         }
 
         //-----------------------------------------------------------------------------
-        int size = CACHE.size();
-
-        if (CACHE.containsKey(key)){
-            log.debug("cacheSize:[{}],key:[{}],hit cache,get from cache", size, key);
-            return CACHE.get(key);
+        Object value = CACHE.get(key);
+        if (null != value){
+            log.debug("key:[{}],hit cache,get from cache,[{}]", key, CACHE);
+            return value;
         }
 
-        log.debug("cacheSize:[{}],not contains [{}],will do parse", size, key);
+        log.debug("not contains [{}],will do parse,[{}]", key, CACHE);
         return null;
     }
 
@@ -92,4 +108,16 @@ public final class SimpleTagStringCacheManager{
             CACHE.put(cacheParam, content);
         }
     }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得缓存, 可以用来查看 命中次数/没有命中次数/淘汰次数 等统计数据.
+     *
+     * @return the cache
+     * @since 4.5.5
+     */
+    public static SegmentedLruCache<String, Object> getCache(){
+        return CACHE;
+    }
 }
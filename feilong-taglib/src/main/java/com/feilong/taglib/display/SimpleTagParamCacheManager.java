@@ -17,9 +17,7 @@ package com.feilong.taglib.display;
 
 import static com.feilong.core.Validator.isNotNullOrEmpty;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
+import com.feilong.taglib.SegmentedLruCache;
 import com.feilong.taglib.SimpleTagStringCacheManager;
 
 import lombok.AccessLevel;
@@ -43,16 +41,36 @@ public final class SimpleTagParamCacheManager{
     /**
      * 设置缓存是否开启.
      */
-    private static final boolean                 CACHE_ENABLE = true;
+    private static final boolean                               CACHE_ENABLE              = true;
+
+    /**
+     * 最多缓存的数量.
+     * 
+     * @since 4.5.5
+     */
+    private static final int                                   MAXIMUM_SIZE              = 10_000;
 
     /**
-     * 将结果缓存到map.
+     * 写入之后的过期时间, 1 小时.
+     * 
+     * @since 4.5.5
+     */
+    private static final long                                  EXPIRE_AFTER_WRITE_MILLIS = 60 * 60 * 1000L;
+
+    /**
+     * 将结果缓存.
      * <p>
      * key是入参对象,value是解析完的字符串<br>
      * 该cache里面value不会存放null/empty
      * </p>
+     * 
+     * <p>
+     * since 4.5.5 从没有上限的 ConcurrentHashMap 改成有容量上限和过期时间的 {@link SegmentedLruCache}, 避免分页等参数很分散的时候无限增长
+     * </p>
      */
-    private static final Map<CacheParam, Object> CACHE        = new ConcurrentHashMap<>();
+    private static final SegmentedLruCache<CacheParam, Object> CACHE                     = new SegmentedLruCache<>(
+                    MAXIMUM_SIZE,
+                    EXPIRE_AFTER_WRITE_MILLIS);
 
     //-----------------------------------------------------------------------------------------------
 
@@ -105,15 +123,15 @@ public final class SimpleTagParamCacheManager{
         //-----------------------------------------------------------------------------
 
         int hashCode = cacheParam.hashCode();
-        int size = CACHE.size();
         String name = cacheParam.getClass().getSimpleName();
 
-        if (CACHE.containsKey(cacheParam)){
-            log.debug("cacheSize:[{}],[{}](hashcode:[{}]),hit cache,get from cache", size, name, hashCode);
-            return (V) CACHE.get(cacheParam);
+        Object value = CACHE.get(cacheParam);
+        if (null != value){
+            log.debug("[{}](hashcode:[{}]),hit cache,get from cache,[{}]", name, hashCode, CACHE);
+            return (V) value;
         }
 
-        log.debug("cacheSize:[{}],cache not contains [{}](hashcode:[{}]),will do parse", size, name, hashCode);
+        log.debug("cache not contains [{}](hashcode:[{}]),will do parse,[{}]", name, hashCode, CACHE);
         return null;
     }
 
@@ -134,4 +152,16 @@ public final class SimpleTagParamCacheManager{
             CACHE.put(cacheParam, content);
         }
     }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得缓存, 可以用来查看 命中次数/没有命中次数/淘汰次数 等统计数据.
+     *
+     * @return the cache
+     * @since 4.5.5
+     */
+    public static SegmentedLruCache<CacheParam, Object> getCache(){
+        return CACHE;
+    }
 }
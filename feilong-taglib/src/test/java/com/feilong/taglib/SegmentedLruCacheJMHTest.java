@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.taglib;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Zipfian 分布(s=0.99, 10 万个不同的 key, 同分页标签里面大量不同的 query string) 下, 容量 1000 的缓存的命中率.
+ * 
+ * <p>
+ * 结果里面 hits/misses 两个辅助指标相除就是命中率, 对比的是同样容量的普通 LRU.
+ * </p>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@Fork(0)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(SegmentedLruCacheJMHTest.SAMPLES)
+@State(Scope.Benchmark)
+public class SegmentedLruCacheJMHTest{
+
+    static final int           SAMPLES      = 100_000;
+
+    private static final int   KEY_COUNT    = 100_000;
+
+    private static final int   MAXIMUM_SIZE = 1_000;
+
+    private static final int[] KEYS         = zipf(KEY_COUNT, 0.99, SAMPLES, 20240101L);
+
+    public static void main(String[] args) throws RunnerException{
+        final Options opts = new OptionsBuilder().include(SegmentedLruCacheJMHTest.class.getSimpleName())//
+                        .measurementIterations(5)//
+                        .warmupIterations(3)//
+
+                        .result("result.json")//
+                        .resultFormat(ResultFormatType.JSON)//
+                        .build();
+        new Runner(opts).run();
+    }
+
+    //---------------------------------------------------------------
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HitCounter{
+
+        public long hits;
+
+        public long misses;
+
+        @Setup(Level.Iteration)
+        public void reset(){
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    private final SegmentedLruCache<Integer, String> segmentedLruCache = new SegmentedLruCache<>(MAXIMUM_SIZE, 60 * 60 * 1000L);
+
+    private final Map<Integer, String>               lruCache          = Collections.synchronizedMap(new LinkedHashMap<Integer, String>(16, 0.75f, true){
+
+                                                                           private static final long serialVersionUID = 1L;
+
+                                                                           @Override
+                                                                           protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest){
+                                                                               return size() > MAXIMUM_SIZE;
+                                                                           }
+                                                                       });
+
+    //---------------------------------------------------------------
+
+    @Benchmark
+    public void segmentedLru(HitCounter hitCounter){
+        for (int key : KEYS){
+            if (null == segmentedLruCache.get(key)){
+                hitCounter.misses++;
+                segmentedLruCache.put(key, "content" + key);
+            }else{
+                hitCounter.hits++;
+            }
+        }
+    }
+
+    @Benchmark
+    public void lru(HitCounter hitCounter){
+        for (int key : KEYS){
+            if (null == lruCache.get(key)){
+                hitCounter.misses++;
+                lruCache.put(key, "content" + key);
+            }else{
+                hitCounter.hits++;
+            }
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 生成 Zipfian 分布的样本, 排名第 k 的 key 出现的概率正比于 1/k^s.
+     */
+    private static int[] zipf(int keyCount,double s,int samples,long seed){
+        double[] cdf = new double[keyCount];
+        double sum = 0;
+        for (int k = 1; k <= keyCount; ++k){
+            sum += 1 / Math.pow(k, s);
+            cdf[k - 1] = sum;
+        }
+
+        Random random = new Random(seed);
+        int[] keys = new int[samples];
+        for (int i = 0; i < samples; ++i){
+            int index = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+            keys[i] = index >= 0 ? index : -index - 1;
+        }
+        return keys;
+    }
+}
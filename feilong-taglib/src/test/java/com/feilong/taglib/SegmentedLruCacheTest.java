@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.taglib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class SegmentedLruCacheTest{
+
+    @Test
+    public void testGetPut(){
+        SegmentedLruCache<String, String> cache = new SegmentedLruCache<>(10, 60_000);
+        assertNull(cache.get("a"));
+        cache.put("a", "1");
+        assertEquals("1", cache.get("a"));
+
+        cache.put("a", "2");
+        assertEquals("2", cache.get("a"));
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testMaximumSize(){
+        SegmentedLruCache<Integer, Integer> cache = new SegmentedLruCache<>(100, 60_000);
+        for (int i = 0; i < 10_000; ++i){
+            cache.put(i, i);
+        }
+        assertEquals(100, cache.size());
+        assertEquals(9_900, cache.getEvictionCount());
+    }
+
+    /**
+     * 只访问过一次的 key 先被淘汰, 再次访问过的(保护区) 留下.
+     */
+    @Test
+    public void testScanResistant(){
+        SegmentedLruCache<Integer, Integer> cache = new SegmentedLruCache<>(10, 60_000);
+        for (int i = 0; i < 5; ++i){
+            cache.put(i, i);
+            cache.get(i);
+        }
+
+        //大量只访问一次的 key
+        for (int i = 100; i < 1_000; ++i){
+            cache.put(i, i);
+        }
+        for (int i = 0; i < 5; ++i){
+            assertEquals(Integer.valueOf(i), cache.get(i));
+        }
+        assertEquals(10, cache.size());
+    }
+
+    @Test
+    public void testExpire() throws InterruptedException{
+        SegmentedLruCache<String, String> cache = new SegmentedLruCache<>(10, 20);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("b");
+
+        Thread.sleep(60);
+        assertNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testClear(){
+        SegmentedLruCache<Integer, Integer> cache = new SegmentedLruCache<>(1_000, 60_000);
+        for (int i = 0; i < 500; ++i){
+            cache.put(i, i);
+        }
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNull(cache.get(1));
+    }
+
+    @Test
+    public void testHitRate(){
+        SegmentedLruCache<String, String> cache = new SegmentedLruCache<>(10, 60_000);
+        assertEquals(0, cache.getHitRate(), 0);
+
+        cache.put("a", "1");
+        cache.get("a");
+        cache.get("b");
+        assertEquals(0.5, cache.getHitRate(), 0);
+        assertTrue(cache.toString().contains("hitCount=1"));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaximumSizeZero(){
+        new SegmentedLruCache<>(0, 60_000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testExpireZero(){
+        new SegmentedLruCache<>(10, 0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testPutNullValue(){
+        new SegmentedLruCache<String, String>(10, 60_000).put("a", null);
+    }
+}
@@ -29,6 +29,7 @@ import com.feilong.taglib.display.sensitive.SensitiveUtilSuiteTests;
                 ConcatSuiteTests.class,
 
                 TagUtilsFindAttributeValueTest.class,
+                SegmentedLruCacheTest.class,
 
                 TagUtilsGetScopeTest.class,
                 TagUtilsGetScopeParameterizedTest.class,
@@ -15,7 +15,7 @@
  */
 package com.feilong.xml;
 
-import com.feilong.xml.xstream.XStreamBuilder;
+import com.feilong.xml.xstream.XStreamCache;
 import com.feilong.xml.xstream.XStreamConfig;
 import com.thoughtworks.xstream.XStream;
 
@@ -25,6 +25,10 @@ import lombok.NoArgsConstructor;
 /**
  * xstream 工具类
  * 
+ * <p>
+ * 相同配置的 {@link XStream} 通过 {@link XStreamCache} 复用, 不会每次调用都重新构造.
+ * </p>
+ * 
  * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
  * @since 3.0.3
  */
@@ -32,13 +36,13 @@ import lombok.NoArgsConstructor;
 class XStreamUtil{
 
     static String toXML(Object bean,XStreamConfig xStreamConfig){
-        XStream xstream = XStreamBuilder.build(xStreamConfig);
+        XStream xstream = XStreamCache.get(xStreamConfig);
         return xstream.toXML(bean);
     }
 
     @SuppressWarnings("unchecked")
     static <T> T toBean(String xml,XStreamConfig xStreamConfig){
-        XStream xstream = XStreamBuilder.build(xStreamConfig);
+        XStream xstream = XStreamCache.get(xStreamConfig);
         return (T) xstream.fromXML(xml);
     }
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.xml.xstream;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.thoughtworks.xstream.XStream;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * 配置完成的 {@link XStream} 缓存.
+ * 
+ * <p>
+ * {@link XStreamBuilder#build(XStreamConfig)} 需要创建 reflection provider, 注册几十个默认 converter, 构造 mapper 链, 这个成本远大于一次普通报文的序列化/反序列化;<br>
+ * 而 {@link XStream} 在配置完成之后, {@link XStream#toXML(Object)} 和 {@link XStream#fromXML(String)} 是线程安全的
+ * (自动探测注解时对 mapper 的修改, xstream 内部做了同步), 所以相同配置可以共享同一个实例.
+ * </p>
+ * 
+ * <p>
+ * 缓存的 key 是 {@link XStreamConfigKey}, 即 {@link XStreamConfig} 的不可变快照, 放入缓存之后再修改 {@link XStreamConfig} 不会影响已经缓存的实例.<br>
+ * 缓存最多 {@link #MAX_SIZE} 个, 超过之后淘汰最久没有使用的实例(LRU), 防止调用方每次 new 转换器之类的用法导致内存无限增长,
+ * 同时这些只用一次的实例会逐渐被淘汰, 不会一直占着缓存导致后面可以复用的配置永远无法缓存.
+ * </p>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class XStreamCache{
+
+    /** 最多缓存的 {@link XStream} 数量. */
+    static final int                                    MAX_SIZE = 256;
+
+    /** 按照访问顺序排序的缓存, 所有访问需要在 {@link #CACHE} 上同步. */
+    private static final Map<XStreamConfigKey, XStream> CACHE    = new LruMap(MAX_SIZE);
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 <code>xStreamConfig</code> 对应的配置完成的 {@link XStream}, 相同配置返回同一个实例.
+     *
+     * @param xStreamConfig
+     *            the x stream config, 可以是null
+     * @return the x stream
+     */
+    public static XStream get(XStreamConfig xStreamConfig){
+        XStreamConfigKey key = XStreamConfigKey.of(xStreamConfig);
+        synchronized (CACHE){
+            XStream xstream = CACHE.get(key);
+            if (null != xstream){
+                return xstream;
+            }
+        }
+
+        //---------------------------------------------------------------
+        //构造比较耗时, 不在锁里面构造; 并发的时候可能重复构造, 以先放入缓存的为准
+        XStream xstream = XStreamBuilder.build(xStreamConfig);
+        synchronized (CACHE){
+            XStream exist = CACHE.putIfAbsent(key, xstream);
+            if (null != exist){
+                return exist;
+            }
+        }
+        return xstream;
+    }
+
+    /**
+     * 当前缓存的数量.
+     *
+     * @return the int
+     */
+    static int size(){
+        synchronized (CACHE){
+            return CACHE.size();
+        }
+    }
+
+    /**
+     * 清空缓存.
+     */
+    public static void clear(){
+        synchronized (CACHE){
+            CACHE.clear();
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 按照访问顺序排序, 超过 <code>maxSize</code> 淘汰最久没有使用的元素.
+     * 
+     * <p>
+     * 线程不安全, 需要调用方同步.
+     * </p>
+     *
+     * @since 4.5.5
+     */
+    private static final class LruMap extends LinkedHashMap<XStreamConfigKey, XStream>{
+
+        /** The Constant serialVersionUID. */
+        private static final long serialVersionUID = 1L;
+
+        /** The max size. */
+        private final int         maxSize;
+
+        /**
+         * Instantiates a new lru map.
+         *
+         * @param maxSize
+         *            the max size
+         */
+        private LruMap(int maxSize){
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<XStreamConfigKey, XStream> eldest){
+            return size() > maxSize;
+        }
+    }
+}
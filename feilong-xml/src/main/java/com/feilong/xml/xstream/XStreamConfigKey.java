@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.xml.xstream;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.thoughtworks.xstream.converters.Converter;
+
+/**
+ * {@link XStreamConfig} 在某一时刻的不可变快照, 作为 {@link XStreamCache} 的 key.
+ * 
+ * <p>
+ * {@link XStreamConfig} 是可变的, 直接作为 key 在放入缓存之后被修改会导致取到错误的 {@link com.thoughtworks.xstream.XStream};<br>
+ * 所以这里复制所有参与构造的属性, 包括 prettyPrint, 注解类, 转换器, 别名, 隐式集合以及默认实现.
+ * </p>
+ * 
+ * <p>
+ * 转换器使用转换器自身的 equals 比较 (通常是同一个实例), 所以推荐使用单例的转换器, 比如 {@link com.feilong.xml.xstream.converters.SimpleMapConverter#INSTANCE}.
+ * </p>
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+final class XStreamConfigKey{
+
+    /** null config 对应的 key. */
+    static final XStreamConfigKey         NULL_CONFIG_KEY = new XStreamConfigKey(null);
+
+    //---------------------------------------------------------------
+
+    /** 是否格式化输出, null config 对应 null. */
+    private final Boolean                 isPrettyPrint;
+
+    /** 注解类. */
+    private final List<Class<?>>          processAnnotationsTypes;
+
+    /** 转换器. */
+    private final List<Converter>         converterList;
+
+    /** 别名. */
+    private final Map<String, Class<?>>   aliasMap;
+
+    /** 隐式集合. */
+    private final Map<String, Class<?>>   implicitCollectionMap;
+
+    /** 默认实现. */
+    private final Map<Class<?>, Class<?>> defaultImplementationMap;
+
+    /** 预先计算的 hashCode. */
+    private final int                     hashCode;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new x stream config key.
+     *
+     * @param xStreamConfig
+     *            the x stream config
+     */
+    private XStreamConfigKey(XStreamConfig xStreamConfig){
+        if (null == xStreamConfig){
+            this.isPrettyPrint = null;
+            this.processAnnotationsTypes = emptyList();
+            this.converterList = emptyList();
+            this.aliasMap = emptyMap();
+            this.implicitCollectionMap = emptyMap();
+            this.defaultImplementationMap = emptyMap();
+        }else{
+            this.isPrettyPrint = xStreamConfig.getIsPrettyPrint();
+            this.processAnnotationsTypes = copy(xStreamConfig.getProcessAnnotationsTypes());
+            this.converterList = copy(xStreamConfig.getConverterList());
+            this.aliasMap = copy(xStreamConfig.getAliasMap());
+            this.implicitCollectionMap = copy(xStreamConfig.getImplicitCollectionMap());
+            this.defaultImplementationMap = copy(xStreamConfig.getDefaultImplementationMap());
+        }
+        this.hashCode = Objects.hash(
+                        isPrettyPrint,
+                        processAnnotationsTypes,
+                        converterList,
+                        aliasMap,
+                        implicitCollectionMap,
+                        defaultImplementationMap);
+    }
+
+    /**
+     * 生成 <code>xStreamConfig</code> 的快照.
+     *
+     * @param xStreamConfig
+     *            the x stream config
+     * @return 如果 <code>xStreamConfig</code> 是null,返回 {@link #NULL_CONFIG_KEY}
+     */
+    static XStreamConfigKey of(XStreamConfig xStreamConfig){
+        return null == xStreamConfig ? NULL_CONFIG_KEY : new XStreamConfigKey(xStreamConfig);
+    }
+
+    //---------------------------------------------------------------
+
+    private static List<Class<?>> copy(Class<?>[] array){
+        return null == array ? emptyList() : unmodifiableList(new ArrayList<>(Arrays.asList(array)));
+    }
+
+    private static <T> List<T> copy(List<T> list){
+        return null == list ? emptyList() : unmodifiableList(new ArrayList<>(list));
+    }
+
+    private static <K, V> Map<K, V> copy(Map<K, V> map){
+        return null == map ? emptyMap() : unmodifiableMap(new LinkedHashMap<>(map));
+    }
+
+    //---------------------------------------------------------------
+
+    @Override
+    public boolean equals(Object obj){
+        if (this == obj){
+            return true;
+        }
+        if (!(obj instanceof XStreamConfigKey)){
+            return false;
+        }
+        XStreamConfigKey other = (XStreamConfigKey) obj;
+        return hashCode == other.hashCode //
+                        && Objects.equals(isPrettyPrint, other.isPrettyPrint)
+                        && processAnnotationsTypes.equals(other.processAnnotationsTypes)
+                        && converterList.equals(other.converterList)
+                        && aliasMap.equals(other.aliasMap)
+                        && implicitCollectionMap.equals(other.implicitCollectionMap)
+                        && defaultImplementationMap.equals(other.defaultImplementationMap);
+    }
+
+    @Override
+    public int hashCode(){
+        return hashCode;
+    }
+}
@@ -30,6 +30,7 @@ import com.feilong.xml.xstream.ToXmlMapIsPrintTest;
 import com.feilong.xml.xstream.ToXmlTest;
 import com.feilong.xml.xstream.ToXmlWithConfigMapTest;
 import com.feilong.xml.xstream.ToXmlWithConfigTest;
+import com.feilong.xml.xstream.XStreamCacheTest;
 
 @RunWith(Suite.class)
 @SuiteClasses({
@@ -42,6 +43,7 @@ import com.feilong.xml.xstream.ToXmlWithConfigTest;
                 ToXmlTest.class,
                 ToXmlWithConfigMapTest.class,
                 ToXmlWithConfigTest.class,
+                XStreamCacheTest.class,
 
                 GetNodeNameAndStringValueMapTest.class,
                 GetNodeAttributeValueAndStringValueMapTest.class,
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.xml.xstream;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.feilong.store.member.User;
+import com.feilong.xml.XmlUtil;
+
+/**
+ * 小对象反复转换时, {@link XStreamCache} 复用的 xstream 和每次 {@link XStreamBuilder#build(XStreamConfig)} 的对比.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+@Fork(0)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class XStreamCacheJMHTest{
+
+    private final User   user = new User(1L, "feilong");
+
+    private final String xml  = "<user><name>feilong</name><id>1</id></user>";
+
+    public static void main(String[] args) throws RunnerException{
+        final Options opts = new OptionsBuilder().include(XStreamCacheJMHTest.class.getSimpleName())//
+                        .measurementIterations(5)//
+                        .warmupIterations(3)//
+
+                        .result("result.json")//
+                        .resultFormat(ResultFormatType.JSON)//
+                        .build();
+        new Runner(opts).run();
+    }
+
+    //---------------------------------------------------------------
+
+    @Benchmark
+    public String toXMLCached(){
+        return XmlUtil.toXML(user, new XStreamConfig("user", User.class));
+    }
+
+    @Benchmark
+    public String toXMLBuildEveryTime(){
+        return XStreamBuilder.build(new XStreamConfig("user", User.class)).toXML(user);
+    }
+
+    //---------------------------------------------------------------
+
+    @Benchmark
+    public User toBeanCached(){
+        return XmlUtil.toBean(xml, new XStreamConfig("user", User.class));
+    }
+
+    @Benchmark
+    public Object toBeanBuildEveryTime(){
+        return XStreamBuilder.build(new XStreamConfig("user", User.class)).fromXML(xml);
+    }
+}
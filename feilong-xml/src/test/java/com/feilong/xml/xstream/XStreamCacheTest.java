@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.xml.xstream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.feilong.store.member.User;
+import com.feilong.test.AbstractTest;
+import com.feilong.xml.XmlUtil;
+import com.feilong.xml.xstream.converters.SimpleMapConverter;
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.converters.Converter;
+
+/**
+ * {@link XStreamCache} 测试.
+ *
+ * @author <a href="https://github.com/ifeilong/feilong">feilong</a>
+ * @since 4.5.5
+ */
+public class XStreamCacheTest extends AbstractTest{
+
+    @Test
+    public void testSameConfigSameInstance(){
+        assertSame(XStreamCache.get(buildUserConfig()), XStreamCache.get(buildUserConfig()));
+        assertSame(
+                        XStreamCache.get(XStreamConfigBuilder.buildSimpleMapXStreamConfig("root")),
+                        XStreamCache.get(XStreamConfigBuilder.buildSimpleMapXStreamConfig("root")));
+        assertSame(XStreamCache.get(null), XStreamCache.get(null));
+    }
+
+    @Test
+    public void testDifferentConfig(){
+        XStreamConfig prettyPrintConfig = buildUserConfig();
+        XStreamConfig compactConfig = buildUserConfig();
+        compactConfig.setIsPrettyPrint(false);
+
+        assertNotSame(XStreamCache.get(prettyPrintConfig), XStreamCache.get(compactConfig));
+        assertNotSame(XStreamCache.get(prettyPrintConfig), XStreamCache.get(null));
+    }
+
+    @Test
+    public void testModifyConfigAfterCached(){
+        XStreamConfig xStreamConfig = buildUserConfig();
+        XStream xstream = XStreamCache.get(xStreamConfig);
+        assertTrue(XmlUtil.toXML(new User(1L), xStreamConfig).startsWith("<user>"));
+
+        //修改之后的配置需要生效, 不能再用缓存中旧的实例
+        xStreamConfig.getAliasMap().remove("user");
+        xStreamConfig.getAliasMap().put("member", User.class);
+        assertNotSame(xstream, XStreamCache.get(xStreamConfig));
+        assertTrue(XmlUtil.toXML(new User(1L), xStreamConfig).startsWith("<member>"));
+
+        //之前的快照不受影响
+        assertSame(xstream, XStreamCache.get(buildUserConfig()));
+        assertTrue(XmlUtil.toXML(new User(1L), buildUserConfig()).startsWith("<user>"));
+    }
+
+    @Test
+    public void testConverterInstance(){
+        XStreamConfig xStreamConfig = XStreamConfigBuilder.buildSimpleMapXStreamConfig("root");
+        XStreamConfig newConverterConfig = XStreamConfigBuilder.buildSimpleMapXStreamConfig("root");
+        List<Converter> converterList = new ArrayList<>();
+        converterList.add(new SimpleMapConverter());
+        newConverterConfig.setConverterList(converterList);
+
+        assertNotSame(XStreamCache.get(xStreamConfig), XStreamCache.get(newConverterConfig));
+    }
+
+    @Test
+    public void testEvictWhenFull(){
+        XStreamCache.clear();
+        XStream reusable = XStreamCache.get(buildUserConfig());
+
+        //每次都 new 转换器的配置, 超过 MAX_SIZE 之后淘汰最久没有使用的
+        for (int i = 0; i < XStreamCache.MAX_SIZE + 10; ++i){
+            XStreamConfig xStreamConfig = XStreamConfigBuilder.buildSimpleMapXStreamConfig("root");
+            List<Converter> converterList = new ArrayList<>();
+            converterList.add(new SimpleMapConverter());
+            xStreamConfig.setConverterList(converterList);
+            XStreamCache.get(xStreamConfig);
+        }
+        assertEquals(XStreamCache.MAX_SIZE, XStreamCache.size());
+
+        //后面来的可复用配置依然可以被缓存
+        XStream afterFull = XStreamCache.get(buildUserConfig());
+        assertNotSame(reusable, afterFull);
+        assertSame(afterFull, XStreamCache.get(buildUserConfig()));
+        assertEquals(XStreamCache.MAX_SIZE, XStreamCache.size());
+    }
+
+    @Test
+    public void testConcurrent() throws Exception{
+        XStreamConfig xStreamConfig = buildUserConfig();
+        String expected = XmlUtil.toXML(new User(1L), xStreamConfig);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try{
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; ++i){
+                futures.add(executorService.submit(() -> {
+                    User user = XmlUtil.toBean(XmlUtil.toXML(new User(1L), buildUserConfig()), buildUserConfig());
+                    return XmlUtil.toXML(user, buildUserConfig());
+                }));
+            }
+            for (Future<String> future : futures){
+                assertEquals(expected, future.get());
+            }
+        }finally{
+            executorService.shutdown();
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    private static XStreamConfig buildUserConfig(){
+        return new XStreamConfig("user", User.class);
+    }
+}